@@ -16,6 +16,7 @@ public class DocumentProcessingMessage implements Serializable {
     private String fileType;
     private String uploadedBy;
     private long timestamp;
+    private String contentHash;
 
     // Constructors
     public DocumentProcessingMessage() {
@@ -30,6 +31,12 @@ public class DocumentProcessingMessage implements Serializable {
         this.timestamp = timestamp;
     }
 
+    public DocumentProcessingMessage(String documentId, String filePath, String fileType,
+                                    String uploadedBy, long timestamp, String contentHash) {
+        this(documentId, filePath, fileType, uploadedBy, timestamp);
+        this.contentHash = contentHash;
+    }
+
     // Getters
     public String getDocumentId() {
         return documentId;
@@ -51,6 +58,13 @@ public class DocumentProcessingMessage implements Serializable {
         return timestamp;
     }
 
+    /**
+     * SHA-256 do arquivo calculado no upload (chave do cache de OCR), ou null
+     */
+    public String getContentHash() {
+        return contentHash;
+    }
+
     // Setters (for JSON deserialization)
     public void setDocumentId(String documentId) {
         this.documentId = documentId;
@@ -72,6 +86,10 @@ public class DocumentProcessingMessage implements Serializable {
         this.timestamp = timestamp;
     }
 
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
     @Override
     public String toString() {
         return "DocumentProcessingMessage{" +
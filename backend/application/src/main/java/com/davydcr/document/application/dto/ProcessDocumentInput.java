@@ -10,11 +10,20 @@ public class ProcessDocumentInput {
     private final String documentId;
     private final String filePath;
     private final String fileType;
+    private final String contentHash;
 
     public ProcessDocumentInput(String documentId, String filePath, String fileType) {
+        this(documentId, filePath, fileType, null);
+    }
+
+    /**
+     * @param contentHash SHA-256 (hex) do arquivo calculado no upload, ou null se desconhecido
+     */
+    public ProcessDocumentInput(String documentId, String filePath, String fileType, String contentHash) {
         this.documentId = Objects.requireNonNull(documentId, "documentId cannot be null");
         this.filePath = Objects.requireNonNull(filePath, "filePath cannot be null");
         this.fileType = Objects.requireNonNull(fileType, "fileType cannot be null");
+        this.contentHash = contentHash;
     }
 
     public String getDocumentId() {
@@ -29,12 +38,17 @@ public class ProcessDocumentInput {
         return fileType;
     }
 
+    public String getContentHash() {
+        return contentHash;
+    }
+
     @Override
     public String toString() {
         return "ProcessDocumentInput{" +
                 "documentId='" + documentId + '\'' +
                 ", filePath='" + filePath + '\'' +
                 ", fileType='" + fileType + '\'' +
+                ", contentHash='" + contentHash + '\'' +
                 '}';
     }
 }
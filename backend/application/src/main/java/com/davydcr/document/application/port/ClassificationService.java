@@ -4,6 +4,8 @@ import com.davydcr.document.domain.model.ClassificationLabel;
 import com.davydcr.document.domain.model.DocumentClassification;
 import com.davydcr.document.domain.model.ExtractedContent;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Port para serviço de classificação de documentos.
  * Utiliza LLMs locais (ex: Ollama com llama3, mistral).
@@ -14,7 +16,37 @@ public interface ClassificationService {
 
     DocumentClassification classify(String text);
 
+    /**
+     * Classifica sem prender a thread chamadora enquanto o modelo gera a resposta.
+     * Implementações locais (sem I/O) completam o future na própria chamada.
+     */
+    default CompletableFuture<DocumentClassification> classifyAsync(ExtractedContent content) {
+        try {
+            return CompletableFuture.completedFuture(classify(content));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
     String getModelName();
 
+    /**
+     * Versão do prompt e do pós-processamento da resposta. Deve mudar sempre que a
+     * mesma entrada puder gerar outra classificação (ex: cache de resultados).
+     */
+    default String getPromptVersion() {
+        return "1";
+    }
+
+    /**
+     * Indica se vale guardar os resultados em cache. Implementações locais e
+     * baratas (ex: regras recarregadas em tempo de execução) retornam false:
+     * a consulta ao cache custaria mais que classificar de novo e serviria
+     * resultados de uma configuração já substituída.
+     */
+    default boolean isCacheable() {
+        return true;
+    }
+
     boolean isAvailable();
 }
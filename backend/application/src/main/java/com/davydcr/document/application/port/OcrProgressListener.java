@@ -0,0 +1,15 @@
+package com.davydcr.document.application.port;
+
+import com.davydcr.document.domain.model.PageContent;
+
+/**
+ * Callback de progresso da extração, chamado a cada página concluída.
+ * Pode ser chamado de threads diferentes (OCR paralelo de páginas), fora de ordem.
+ */
+@FunctionalInterface
+public interface OcrProgressListener {
+
+    OcrProgressListener NONE = (page, completedPages, totalPages) -> { };
+
+    void onPageCompleted(PageContent page, int completedPages, int totalPages);
+}
@@ -3,6 +3,7 @@ package com.davydcr.document.application.port;
 import com.davydcr.document.domain.model.ExtractedContent;
 
 import java.io.InputStream;
+import java.nio.file.Path;
 
 /**
  * Port para serviço de OCR.
@@ -12,5 +13,21 @@ public interface OcrService {
 
     ExtractedContent extractContent(InputStream documentStream, String fileType);
 
+    /**
+     * Extrai o conteúdo de um arquivo já persistido, lendo-o diretamente
+     * do disco (sem cópia temporária).
+     *
+     * @param contentHash SHA-256 (hex) do arquivo, se já calculado no upload; null caso contrário
+     */
+    default ExtractedContent extractContent(Path documentPath, String fileType, String contentHash) {
+        return extractContent(documentPath, fileType, contentHash, OcrProgressListener.NONE);
+    }
+
+    /**
+     * Como {@link #extractContent(Path, String, String)}, notificando cada página concluída
+     */
+    ExtractedContent extractContent(Path documentPath, String fileType, String contentHash,
+                                    OcrProgressListener progressListener);
+
     boolean supportsFileType(String fileType);
 }
@@ -0,0 +1,20 @@
+package com.davydcr.document.application.port;
+
+/**
+ * Port para publicação do progresso de processamento de um documento
+ * (ex: WebSocket). Implementações não devem lançar exceções.
+ */
+@FunctionalInterface
+public interface ProcessingProgressPublisher {
+
+    String PHASE_OCR = "OCR";
+    String PHASE_CLASSIFICATION = "CLASSIFICATION";
+    String PHASE_COMPLETED = "COMPLETED";
+
+    /**
+     * @param phase fase atual (PHASE_*)
+     * @param completed unidades concluídas na fase (ex: páginas com OCR)
+     * @param total total de unidades da fase
+     */
+    void publishProgress(String documentId, String phase, int completed, int total);
+}
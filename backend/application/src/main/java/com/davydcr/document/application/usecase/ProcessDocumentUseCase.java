@@ -4,20 +4,27 @@ import com.davydcr.document.application.dto.ProcessDocumentInput;
 import com.davydcr.document.application.dto.ProcessDocumentOutput;
 import com.davydcr.document.application.port.ClassificationService;
 import com.davydcr.document.application.port.DocumentRepository;
+import com.davydcr.document.application.port.OcrProgressListener;
 import com.davydcr.document.application.port.OcrService;
+import com.davydcr.document.application.port.ProcessingProgressPublisher;
 import com.davydcr.document.domain.exception.DomainException;
 import com.davydcr.document.domain.model.Document;
 import com.davydcr.document.domain.model.DocumentClassification;
 import com.davydcr.document.domain.model.DocumentId;
+import com.davydcr.document.domain.model.DocumentStatus;
 import com.davydcr.document.domain.model.ExtractedContent;
 import com.davydcr.document.domain.model.ProcessingResult;
 import com.davydcr.document.domain.model.ProcessingStatus;
 import com.davydcr.document.domain.model.DocumentType;
 
-import java.io.FileInputStream;
-import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 /**
  * Use case para processar um documento.
@@ -28,13 +35,22 @@ public class ProcessDocumentUseCase {
     private final DocumentRepository documentRepository;
     private final OcrService ocrService;
     private final ClassificationService classificationService;
+    private final ProcessingProgressPublisher progressPublisher;
 
     public ProcessDocumentUseCase(DocumentRepository documentRepository,
                                    OcrService ocrService,
                                    ClassificationService classificationService) {
+        this(documentRepository, ocrService, classificationService, (documentId, phase, completed, total) -> { });
+    }
+
+    public ProcessDocumentUseCase(DocumentRepository documentRepository,
+                                   OcrService ocrService,
+                                   ClassificationService classificationService,
+                                   ProcessingProgressPublisher progressPublisher) {
         this.documentRepository = Objects.requireNonNull(documentRepository, "documentRepository cannot be null");
         this.ocrService = Objects.requireNonNull(ocrService, "ocrService cannot be null");
         this.classificationService = Objects.requireNonNull(classificationService, "classificationService cannot be null");
+        this.progressPublisher = Objects.requireNonNull(progressPublisher, "progressPublisher cannot be null");
     }
 
     /**
@@ -50,18 +66,7 @@ public class ProcessDocumentUseCase {
         Objects.requireNonNull(originalFileName, "originalFileName cannot be null");
 
         try {
-            // Criar ID do documento
-            DocumentId docId = new DocumentId(java.util.UUID.fromString(input.getDocumentId()));
-            
-            // Criar novo documento
-            Document document = new Document(
-                    docId,
-                    originalFileName,
-                    DocumentType.valueOf(input.getFileType())
-            );
-
-            // Salvar documento inicial
-            documentRepository.save(document);
+            Document document = createDocument(input, originalFileName);
 
             // Prosseguir com processamento
             return processDocument(input, document);
@@ -73,6 +78,72 @@ public class ProcessDocumentUseCase {
         }
     }
 
+    /**
+     * Como {@link #executeWithDocumentCreation}, sem esperar a classificação:
+     * o OCR roda na thread chamadora e, enquanto o modelo gera a resposta,
+     * nenhuma thread fica parada. A persistência do resultado roda em
+     * continuationExecutor quando a classificação termina.
+     */
+    public CompletableFuture<ProcessDocumentOutput> executeWithDocumentCreationAsync(ProcessDocumentInput input,
+                                                                                     String originalFileName,
+                                                                                     Executor continuationExecutor) {
+        Objects.requireNonNull(input, "input cannot be null");
+        Objects.requireNonNull(originalFileName, "originalFileName cannot be null");
+        Objects.requireNonNull(continuationExecutor, "continuationExecutor cannot be null");
+
+        Document document;
+        try {
+            document = createDocument(input, originalFileName);
+        } catch (DomainException e) {
+            return CompletableFuture.failedFuture(e);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(
+                    new DomainException("Error creating and processing document: " + e.getMessage()) {});
+        }
+
+        ExtractedContent extractedContent;
+        CompletableFuture<DocumentClassification> classificationFuture;
+        try {
+            extractedContent = extractContent(input, document);
+            classificationFuture = classificationService.classifyAsync(extractedContent);
+        } catch (DomainException e) {
+            return CompletableFuture.failedFuture(failProcessing(document, e));
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(failProcessing(document, "Error processing document: " + e.getMessage()));
+        }
+
+        return classificationFuture.handleAsync((classification, error) -> {
+            try {
+                if (error != null) {
+                    throw failClassification(document, error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error);
+                }
+                return completeProcessing(input, document, extractedContent, checkClassification(document, classification));
+            } catch (DomainException e) {
+                throw failProcessing(document, e);
+            } catch (RuntimeException e) {
+                throw failProcessing(document, "Error processing document: " + e.getMessage());
+            }
+        }, continuationExecutor);
+    }
+
+    /**
+     * Cria e persiste o documento (RECEIVED) sem processá-lo. O processamento
+     * fica para {@link #execute}, chamado depois por um worker da fila.
+     */
+    public Document registerDocument(ProcessDocumentInput input, String originalFileName) {
+        Objects.requireNonNull(input, "input cannot be null");
+        Objects.requireNonNull(originalFileName, "originalFileName cannot be null");
+
+        try {
+            return createDocument(input, originalFileName);
+        } catch (DomainException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DomainException("Error creating document: " + e.getMessage()) {};
+        }
+    }
+
     /**
      * Executa o processamento completo do documento:
      * 1. Extração de conteúdo (OCR)
@@ -97,79 +168,187 @@ public class ProcessDocumentUseCase {
         }
     }
 
-    private ProcessDocumentOutput processDocument(ProcessDocumentInput input, Document document) {
+    /**
+     * Etapa de extração do pipeline em filas: OCR do documento já registrado.
+     * Em caso de falha o documento é marcado como FAILED.
+     */
+    public ExtractedContent extract(ProcessDocumentInput input) {
+        Objects.requireNonNull(input, "input cannot be null");
+        Document document = findDocument(input);
+
+        try {
+            return extractContent(input, document);
+        } catch (DomainException e) {
+            throw failProcessing(document, e);
+        } catch (Exception e) {
+            throw failProcessing(document, "Error processing document: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Etapa de classificação do pipeline em filas: classifica o conteúdo
+     * extraído pela etapa anterior e persiste o resultado.
+     */
+    public ProcessDocumentOutput classifyExtracted(ProcessDocumentInput input, ExtractedContent extractedContent) {
+        Objects.requireNonNull(input, "input cannot be null");
+        Objects.requireNonNull(extractedContent, "extractedContent cannot be null");
+        Document document = findDocument(input);
+
         try {
-            // Transição de estado
-            document.requestProcessing();
+            // A etapa de extração já colocou o documento em PROCESSING; só transiciona
+            // se ele foi carregado ainda como RECEIVED
+            if (document.getStatus() == DocumentStatus.RECEIVED) {
+                document.requestProcessing();
+            }
+            DocumentClassification classification;
+            try {
+                classification = classificationService.classify(extractedContent);
+            } catch (Exception classifyError) {
+                throw failClassification(document, classifyError);
+            }
+            return completeProcessing(input, document, extractedContent, checkClassification(document, classification));
+        } catch (DomainException e) {
+            throw failProcessing(document, e);
+        } catch (Exception e) {
+            throw failProcessing(document, "Error processing document: " + e.getMessage());
+        }
+    }
+
+    private Document findDocument(ProcessDocumentInput input) {
+        DocumentId docId = new DocumentId(java.util.UUID.fromString(input.getDocumentId()));
+        return documentRepository.findById(docId)
+                .orElseThrow(() -> new DomainException("Document not found: " + docId) {});
+    }
+
+    private Document createDocument(ProcessDocumentInput input, String originalFileName) {
+        // Criar ID do documento
+        DocumentId docId = new DocumentId(java.util.UUID.fromString(input.getDocumentId()));
+
+        // Criar novo documento
+        Document document = new Document(
+                docId,
+                originalFileName,
+                DocumentType.valueOf(input.getFileType())
+        );
+
+        // Salvar documento inicial
+        documentRepository.save(document);
+        return document;
+    }
 
-            // Extrair conteúdo via OCR
-            ExtractedContent extractedContent = performOcr(input.getFilePath(), input.getFileType());
+    private ProcessDocumentOutput processDocument(ProcessDocumentInput input, Document document) {
+        try {
+            ExtractedContent extractedContent = extractContent(input, document);
 
             // Classificar documento
             DocumentClassification classification;
             try {
                 classification = classificationService.classify(extractedContent);
-                if (classification == null) {
-                    throw new DomainException("Classification service returned null") {};
-                }
             } catch (Exception classifyError) {
-                String errorMsg = "Error classifying document: " + classifyError.getMessage();
-                document.failProcessing(errorMsg);
-                documentRepository.save(document);
-                throw new DomainException(errorMsg) {};
+                throw failClassification(document, classifyError);
             }
 
-            // Criar resultado de processamento
-            ProcessingResult result = new ProcessingResult(
-                    ProcessingStatus.SUCCESS,
-                    Map.of(
-                            "extracted_pages", extractedContent.getPageCount(),
-                            "ocr_engine", extractedContent.getOcrEngine(),
-                            "text_length", extractedContent.getFullText().length()
-                    ),
-                    classificationService.getModelName(),
-                    extractedContent,
-                    classification
-            );
-
-            // Finalizar processamento no domínio
-            document.completeProcessing(result);
-
-            // Persistir documento atualizado
-            documentRepository.save(document);
-
-            // Retornar output
-            return new ProcessDocumentOutput(
-                    input.getDocumentId(),
-                    document.getStatus().name(),
-                    extractedContent.getFullText().substring(0, Math.min(100, extractedContent.getFullText().length())) + "...",
-                    classification.getLabel().getValue(),
-                    classification.getConfidence().getPercentage()
-            );
+            return completeProcessing(input, document, extractedContent, checkClassification(document, classification));
 
         } catch (DomainException e) {
             // Transição de estado para FAILED mantendo documento em RECEIVED
-            document.failProcessing(e.getMessage());
-            documentRepository.save(document);
-            throw e;
+            throw failProcessing(document, e);
         } catch (Exception e) {
             // Transição de estado para FAILED
-            String errorMsg = "Error processing document: " + e.getMessage();
-            document.failProcessing(errorMsg);
+            throw failProcessing(document, "Error processing document: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Transição para processamento e OCR (progresso publicado a cada página concluída)
+     */
+    private ExtractedContent extractContent(ProcessDocumentInput input, Document document) {
+        // Transição de estado
+        document.requestProcessing();
+
+        String documentId = input.getDocumentId();
+        ExtractedContent extractedContent = performOcr(input.getFilePath(), input.getFileType(), input.getContentHash(),
+                (page, completedPages, totalPages) -> progressPublisher.publishProgress(
+                        documentId, ProcessingProgressPublisher.PHASE_OCR, completedPages, totalPages));
+
+        progressPublisher.publishProgress(documentId, ProcessingProgressPublisher.PHASE_CLASSIFICATION, 0, 1);
+        return extractedContent;
+    }
+
+    private DocumentClassification checkClassification(Document document, DocumentClassification classification) {
+        if (classification == null) {
+            throw failClassification(document, new DomainException("Classification service returned null") {});
+        }
+        return classification;
+    }
+
+    private ProcessDocumentOutput completeProcessing(ProcessDocumentInput input, Document document,
+                                                     ExtractedContent extractedContent,
+                                                     DocumentClassification classification) {
+        // Criar resultado de processamento
+        ProcessingResult result = new ProcessingResult(
+                ProcessingStatus.SUCCESS,
+                Map.of(
+                        "extracted_pages", extractedContent.getPageCount(),
+                        "ocr_engine", extractedContent.getOcrEngine(),
+                        "text_length", extractedContent.getFullText().length()
+                ),
+                classificationService.getModelName(),
+                extractedContent,
+                classification
+        );
+
+        // Finalizar processamento no domínio
+        document.completeProcessing(result);
+
+        // Persistir documento atualizado
+        documentRepository.save(document);
+        progressPublisher.publishProgress(input.getDocumentId(), ProcessingProgressPublisher.PHASE_COMPLETED, 1, 1);
+
+        // Retornar output
+        return new ProcessDocumentOutput(
+                input.getDocumentId(),
+                document.getStatus().name(),
+                extractedContent.getFullText().substring(0, Math.min(100, extractedContent.getFullText().length())) + "...",
+                classification.getLabel().getValue(),
+                classification.getConfidence().getPercentage()
+        );
+    }
+
+    private DomainException failClassification(Document document, Throwable classifyError) {
+        String errorMsg = "Error classifying document: " + classifyError.getMessage();
+        document.failProcessing(errorMsg);
+        documentRepository.save(document);
+        return new DomainException(errorMsg) {};
+    }
+
+    private DomainException failProcessing(Document document, DomainException error) {
+        // Falha de classificação já marcou o documento como FAILED
+        if (document.getStatus() != DocumentStatus.FAILED) {
+            document.failProcessing(error.getMessage());
             documentRepository.save(document);
-            throw new DomainException(errorMsg) {};
         }
+        return error;
     }
 
-    private ExtractedContent performOcr(String filePath, String fileType) {
+    private DomainException failProcessing(Document document, String errorMsg) {
+        document.failProcessing(errorMsg);
+        documentRepository.save(document);
+        return new DomainException(errorMsg) {};
+    }
+
+    private ExtractedContent performOcr(String filePath, String fileType, String contentHash,
+                                        OcrProgressListener progressListener) {
         if (!ocrService.supportsFileType(fileType)) {
             throw new DomainException("File type not supported for OCR: " + fileType) {};
         }
 
-        try (FileInputStream fis = new FileInputStream(filePath)) {
-            return ocrService.extractContent(fis, fileType);
-        } catch (IOException e) {
-            throw new DomainException("Error reading file: " + e.getMessage()) {};
+        // O arquivo já está no storage: o OCR lê direto do caminho, sem copiar o stream
+        Path path = Paths.get(filePath);
+        if (!Files.isRegularFile(path) || !Files.isReadable(path)) {
+            throw new DomainException("Error reading file: " + filePath + " (not found or not readable)") {};
         }
+
+        return ocrService.extractContent(path, fileType, contentHash, progressListener);
     }
 }
@@ -4,7 +4,10 @@ import com.davydcr.document.application.dto.ProcessDocumentInput;
 import com.davydcr.document.application.dto.ProcessDocumentOutput;
 import com.davydcr.document.application.port.ClassificationService;
 import com.davydcr.document.application.port.DocumentRepository;
+import com.davydcr.document.application.port.OcrProgressListener;
 import com.davydcr.document.application.port.OcrService;
+import com.davydcr.document.application.port.ProcessingProgressPublisher;
+import com.davydcr.document.domain.event.ProcessDocumentEvent;
 import com.davydcr.document.domain.exception.DomainException;
 import com.davydcr.document.domain.model.Confidence;
 import com.davydcr.document.domain.model.ClassificationLabel;
@@ -14,15 +17,20 @@ import com.davydcr.document.domain.model.DocumentId;
 import com.davydcr.document.domain.model.DocumentStatus;
 import com.davydcr.document.domain.model.DocumentType;
 import com.davydcr.document.domain.model.ExtractedContent;
+import com.davydcr.document.domain.model.PageContent;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -40,11 +48,14 @@ class ProcessDocumentUseCaseTest {
     @Mock
     private ClassificationService classificationService;
 
+    @Mock
+    private ProcessingProgressPublisher progressPublisher;
+
     private ProcessDocumentUseCase useCase;
 
     @BeforeEach
     void setUp() {
-        useCase = new ProcessDocumentUseCase(documentRepository, ocrService, classificationService);
+        useCase = new ProcessDocumentUseCase(documentRepository, ocrService, classificationService, progressPublisher);
     }
 
     @Test
@@ -66,6 +77,123 @@ class ProcessDocumentUseCaseTest {
         verify(documentRepository, times(1)).findById(docId);
     }
 
+    @Test
+    void should_readStoredFileByPath_when_fileExists(@TempDir Path tempDir) throws Exception {
+        // Arrange
+        Path storedFile = Files.writeString(tempDir.resolve("invoice.pdf"), "%PDF-1.4");
+        DocumentId docId = DocumentId.newId();
+        Document document = new Document(docId, "invoice.pdf", DocumentType.PDF);
+        ProcessDocumentInput input = new ProcessDocumentInput(docId.value().toString(), storedFile.toString(), "pdf", "abc123");
+        ExtractedContent content = new ExtractedContent("Nota fiscal 123", 1, "PDFBox (native)");
+
+        when(documentRepository.findById(docId)).thenReturn(Optional.of(document));
+        when(ocrService.supportsFileType("pdf")).thenReturn(true);
+        when(ocrService.extractContent(eq(storedFile), eq("pdf"), eq("abc123"), any(OcrProgressListener.class)))
+                .thenAnswer(invocation -> {
+                    OcrProgressListener listener = invocation.getArgument(3);
+                    listener.onPageCompleted(new PageContent(1, "Nota fiscal 123", "PDFBox (native)"), 1, 1);
+                    return content;
+                });
+        when(classificationService.classify(content)).thenReturn(
+                new DocumentClassification(ClassificationLabel.of("INVOICE"), Confidence.of(90), "mock"));
+        when(classificationService.getModelName()).thenReturn("mock");
+
+        // Act
+        ProcessDocumentOutput output = useCase.execute(input);
+
+        // Assert - o OCR recebe o caminho do storage e o hash do upload, sem stream intermediário
+        assertThat(output.getClassification()).isEqualTo("INVOICE");
+        verify(ocrService).extractContent(eq(storedFile), eq("pdf"), eq("abc123"), any(OcrProgressListener.class));
+        verify(ocrService, never()).extractContent(any(InputStream.class), anyString());
+
+        // Progresso publicado por página e nas fases seguintes
+        String id = docId.value().toString();
+        verify(progressPublisher).publishProgress(id, ProcessingProgressPublisher.PHASE_OCR, 1, 1);
+        verify(progressPublisher).publishProgress(id, ProcessingProgressPublisher.PHASE_CLASSIFICATION, 0, 1);
+        verify(progressPublisher).publishProgress(id, ProcessingProgressPublisher.PHASE_COMPLETED, 1, 1);
+    }
+
+    @Test
+    void should_releaseCallerBeforeClassificationCompletes_when_executedAsync(@TempDir Path tempDir) throws Exception {
+        // Arrange
+        Path storedFile = Files.writeString(tempDir.resolve("invoice.pdf"), "%PDF-1.4");
+        String id = DocumentId.newId().value().toString();
+        ProcessDocumentInput input = new ProcessDocumentInput(id, storedFile.toString(), "PDF", "abc123");
+        ExtractedContent content = new ExtractedContent("Nota fiscal 123", 1, "PDFBox (native)");
+        CompletableFuture<DocumentClassification> pendingClassification = new CompletableFuture<>();
+
+        when(ocrService.supportsFileType("PDF")).thenReturn(true);
+        when(ocrService.extractContent(eq(storedFile), eq("PDF"), eq("abc123"), any(OcrProgressListener.class)))
+                .thenReturn(content);
+        when(classificationService.classifyAsync(content)).thenReturn(pendingClassification);
+        when(classificationService.getModelName()).thenReturn("mock");
+
+        // Act - retorna com o LLM ainda gerando
+        CompletableFuture<ProcessDocumentOutput> future =
+                useCase.executeWithDocumentCreationAsync(input, "invoice.pdf", Runnable::run);
+
+        // Assert
+        assertThat(future).isNotDone();
+        verify(classificationService, never()).classify(any(ExtractedContent.class));
+
+        pendingClassification.complete(
+                new DocumentClassification(ClassificationLabel.of("INVOICE"), Confidence.of(90), "mock"));
+
+        assertThat(future).isCompleted();
+        assertThat(future.get().getClassification()).isEqualTo("INVOICE");
+        verify(progressPublisher).publishProgress(id, ProcessingProgressPublisher.PHASE_COMPLETED, 1, 1);
+    }
+
+    @Test
+    void should_failDocument_when_asyncClassificationFails(@TempDir Path tempDir) throws Exception {
+        // Arrange
+        Path storedFile = Files.writeString(tempDir.resolve("invoice.pdf"), "%PDF-1.4");
+        String id = DocumentId.newId().value().toString();
+        ProcessDocumentInput input = new ProcessDocumentInput(id, storedFile.toString(), "PDF");
+        ExtractedContent content = new ExtractedContent("Nota fiscal 123", 1, "PDFBox (native)");
+
+        when(ocrService.supportsFileType("PDF")).thenReturn(true);
+        when(ocrService.extractContent(eq(storedFile), eq("PDF"), isNull(), any(OcrProgressListener.class)))
+                .thenReturn(content);
+        when(classificationService.classifyAsync(content))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("LLM queue full")));
+
+        // Act
+        CompletableFuture<ProcessDocumentOutput> future =
+                useCase.executeWithDocumentCreationAsync(input, "invoice.pdf", Runnable::run);
+
+        // Assert
+        assertThat(future).isCompletedExceptionally();
+        assertThatThrownBy(future::join)
+                .hasCauseInstanceOf(DomainException.class)
+                .hasMessageContaining("Error classifying document: LLM queue full");
+        verify(documentRepository, times(2)).save(argThat(document -> document.getStatus() == DocumentStatus.FAILED));
+    }
+
+    @Test
+    void should_completeWithoutRequestingAgain_when_extractStageLeftDocumentProcessing() {
+        // Arrange - documento salvo como PROCESSING pela etapa de extração
+        DocumentId docId = DocumentId.newId();
+        Document document = new Document(docId, "invoice.pdf", DocumentType.PDF);
+        document.requestProcessing();
+        document.clearDomainEvents();
+        ProcessDocumentInput input = new ProcessDocumentInput(docId.value().toString(), "/data/uploads/invoice.pdf", "PDF");
+        ExtractedContent content = new ExtractedContent("Nota fiscal 123", 1, "PDFBox (native)");
+
+        when(documentRepository.findById(docId)).thenReturn(Optional.of(document));
+        when(classificationService.classify(content)).thenReturn(
+                new DocumentClassification(ClassificationLabel.of("INVOICE"), Confidence.of(90), "mock"));
+        when(classificationService.getModelName()).thenReturn("mock");
+
+        // Act
+        ProcessDocumentOutput output = useCase.classifyExtracted(input, content);
+
+        // Assert - conclui direto, sem nova solicitação de processamento
+        assertThat(output.getStatus()).isEqualTo(DocumentStatus.COMPLETED.name());
+        assertThat(document.getDomainEvents()).noneMatch(event -> event instanceof ProcessDocumentEvent);
+        verify(documentRepository).save(document);
+    }
+
     @Test
     void should_throwException_when_documentNotFound() {
         // Arrange
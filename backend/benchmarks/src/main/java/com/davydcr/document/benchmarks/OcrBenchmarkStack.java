@@ -0,0 +1,90 @@
+package com.davydcr.document.benchmarks;
+
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import com.davydcr.document.infrastructure.service.OcrImagePreprocessor;
+import com.davydcr.document.infrastructure.service.OcrMemoryBudget;
+import com.davydcr.document.infrastructure.service.OcrPageCheckpointStore;
+import com.davydcr.document.infrastructure.service.OcrResultCache;
+import com.davydcr.document.infrastructure.service.OcrServiceImpl;
+import com.davydcr.document.infrastructure.service.OcrTextRecognizer;
+import com.davydcr.document.infrastructure.service.PdfDocumentLoader;
+import com.davydcr.document.infrastructure.service.PdfPageOcrExecutor;
+import com.davydcr.document.infrastructure.service.PdfTextLayerAnalyzer;
+import com.davydcr.document.infrastructure.service.ProgressivePageOcr;
+import com.davydcr.document.infrastructure.service.TesseractEnginePool;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Monta o {@link OcrServiceImpl} sem Spring, com os mesmos defaults do
+ * application.properties, para os benchmarks.
+ *
+ * O cache de resultados e os checkpoints ficam desligados: cada invocação
+ * precisa fazer a extração de verdade. Propriedades de sistema permitem
+ * ajustar o pipeline sem recompilar (ex: -Docr.languages=eng, -Docr.multipass=false).
+ */
+final class OcrBenchmarkStack implements AutoCloseable {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService pageExecutor;
+    private final TesseractEnginePool enginePool;
+    private final PdfTextLayerAnalyzer textLayerAnalyzer;
+    private final OcrServiceImpl ocrService;
+
+    OcrBenchmarkStack(Path tempDir) {
+        ObservabilityService observability = new ObservabilityService(meterRegistry);
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        pageExecutor = new ForkJoinPool(Integer.getInteger("ocr.parallel.pool-size", cores),
+                ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+        enginePool = new TesseractEnginePool(
+                Integer.getInteger("ocr.pool-size", 0),
+                60_000,
+                System.getProperty("ocr.tessdata-path", ""),
+                System.getProperty("ocr.languages", "por+eng"),
+                observability);
+
+        textLayerAnalyzer = new PdfTextLayerAnalyzer(32, 0.01, 0.1);
+        OcrImagePreprocessor preprocessor = new OcrImagePreprocessor(
+                Boolean.parseBoolean(System.getProperty("ocr.preprocess", "true")),
+                true, 300, true, 5, true, observability);
+        OcrMemoryBudget memoryBudget = new OcrMemoryBudget(0, 120_000, observability);
+        PdfDocumentLoader documentLoader = new PdfDocumentLoader(16 * 1024 * 1024, tempDir.toString());
+        OcrTextRecognizer recognizer = new OcrTextRecognizer(enginePool);
+        ProgressivePageOcr progressivePageOcr = new ProgressivePageOcr(recognizer, preprocessor, memoryBudget,
+                observability, Boolean.parseBoolean(System.getProperty("ocr.multipass", "true")),
+                1.5f, 3.0f, 70f, 8);
+        PdfPageOcrExecutor pageOcrExecutor = new PdfPageOcrExecutor(progressivePageOcr, documentLoader, pageExecutor,
+                Boolean.parseBoolean(System.getProperty("ocr.parallel", "true")),
+                Integer.getInteger("ocr.parallel.max-pages-per-document", 4));
+
+        OcrResultCache resultCache = new OcrResultCache(false, 0, 0, false, null, new ObjectMapper(), observability);
+        OcrPageCheckpointStore checkpointStore = new OcrPageCheckpointStore(false, null);
+
+        ocrService = new OcrServiceImpl(tempDir.toString(), enginePool, pageOcrExecutor, progressivePageOcr,
+                recognizer, textLayerAnalyzer, preprocessor, memoryBudget, documentLoader, resultCache,
+                checkpointStore, observability);
+    }
+
+    OcrServiceImpl ocrService() {
+        return ocrService;
+    }
+
+    PdfTextLayerAnalyzer textLayerAnalyzer() {
+        return textLayerAnalyzer;
+    }
+
+    SimpleMeterRegistry meterRegistry() {
+        return meterRegistry;
+    }
+
+    @Override
+    public void close() {
+        enginePool.shutdown();
+        pageExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,65 @@
+package com.davydcr.document.benchmarks;
+
+import com.davydcr.document.domain.model.ExtractedContent;
+import com.davydcr.document.infrastructure.service.ContentHash;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PDF escaneado: render de cada página + pré-processamento + Tesseract.
+ * Requer Tesseract e os traineddata dos idiomas configurados (-Docr.languages).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 20)
+@Fork(1)
+public class ScannedPdfBenchmark {
+
+    @Param({"1", "4"})
+    public int pages;
+
+    @Param({"150", "300"})
+    public int dpi;
+
+    private Path workDir;
+    private Path pdf;
+    private String contentHash;
+    private OcrBenchmarkStack stack;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        workDir = SyntheticCorpus.createWorkDir("bench-scanned-pdf");
+        pdf = SyntheticCorpus.writeScannedPdf(workDir.resolve("scanned.pdf"), pages, dpi);
+        // Como no upload: o hash já vem calculado do armazenamento
+        contentHash = ContentHash.sha256(pdf);
+        stack = new OcrBenchmarkStack(workDir);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        stack.close();
+        SyntheticCorpus.deleteWorkDir(workDir);
+    }
+
+    @Benchmark
+    public ExtractedContent extractScannedPdf() {
+        return stack.ocrService().extractContent(pdf, "pdf", contentHash);
+    }
+}
@@ -0,0 +1,201 @@
+package com.davydcr.document.benchmarks;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Gerador de corpus sintético para os benchmarks de OCR.
+ *
+ * Produz PDFs nativos (camada de texto), PDFs escaneados (uma imagem por página,
+ * sem texto) e imagens soltas, todos em A4 e com texto conhecido: o texto de
+ * cada página é determinístico a partir do índice da página, então a mesma
+ * entrada é gerada em qualquer máquina e o resultado do OCR pode ser comparado
+ * com {@link #pageText(int)}.
+ *
+ * Uso standalone: {@code java -cp benchmarks.jar com.davydcr.document.benchmarks.SyntheticCorpus <dir> [pages] [dpi]}
+ */
+public final class SyntheticCorpus {
+
+    private static final String[] WORDS = {
+            "contrato", "prestação", "serviços", "cliente", "fornecedor", "pagamento", "valor",
+            "total", "nota", "fiscal", "emissão", "vencimento", "cláusula", "parágrafo", "documento",
+            "assinatura", "data", "endereço", "empresa", "CNPJ", "referente", "mensal", "parcela",
+            "invoice", "amount", "due", "date", "account", "number", "agreement", "terms", "period"
+    };
+
+    private static final int LINES_PER_PAGE = 40;
+    private static final int WORDS_PER_LINE = 9;
+    private static final float FONT_SIZE_PT = 11f;
+    private static final float MARGIN_PT = 56f;
+    private static final float LEADING_PT = FONT_SIZE_PT * 1.45f;
+
+    private SyntheticCorpus() {
+    }
+
+    /**
+     * Linhas de texto da página (base 0), sempre as mesmas para o mesmo índice
+     */
+    public static List<String> pageLines(int pageIndex) {
+        Random random = new Random(31L * pageIndex + 7);
+        List<String> lines = new ArrayList<>(LINES_PER_PAGE);
+        lines.add("Documento sintetico - pagina " + (pageIndex + 1));
+        for (int i = 1; i < LINES_PER_PAGE; i++) {
+            StringBuilder line = new StringBuilder();
+            for (int w = 0; w < WORDS_PER_LINE; w++) {
+                if (w > 0) {
+                    line.append(' ');
+                }
+                line.append(WORDS[random.nextInt(WORDS.length)]);
+            }
+            line.append(' ').append(random.nextInt(100_000));
+            lines.add(line.toString());
+        }
+        return lines;
+    }
+
+    public static String pageText(int pageIndex) {
+        return String.join("\n", pageLines(pageIndex));
+    }
+
+    /**
+     * PDF com camada de texto nativa (caminho sem OCR)
+     */
+    public static Path writeNativePdf(Path target, int pages) throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            for (int p = 0; p < pages; p++) {
+                PDPage page = new PDPage(PDRectangle.A4);
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, FONT_SIZE_PT);
+                    content.setLeading(LEADING_PT);
+                    content.newLineAtOffset(MARGIN_PT, PDRectangle.A4.getHeight() - MARGIN_PT);
+                    for (String line : pageLines(p)) {
+                        content.showText(line);
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+            document.save(target.toFile());
+        }
+        return target;
+    }
+
+    /**
+     * PDF escaneado: cada página é só uma imagem em tons de cinza na resolução indicada
+     */
+    public static Path writeScannedPdf(Path target, int pages, int dpi) throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            for (int p = 0; p < pages; p++) {
+                PDPage page = new PDPage(PDRectangle.A4);
+                document.addPage(page);
+                PDImageXObject image = LosslessFactory.createFromImage(document, renderPage(p, dpi));
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.drawImage(image, 0, 0, PDRectangle.A4.getWidth(), PDRectangle.A4.getHeight());
+                }
+            }
+            document.save(target.toFile());
+        }
+        return target;
+    }
+
+    /**
+     * Imagem de uma página (formato do ImageIO: png, jpg, bmp...)
+     */
+    public static Path writeImage(Path target, int pageIndex, int dpi, String format) throws IOException {
+        if (!ImageIO.write(renderPage(pageIndex, dpi), format, target.toFile())) {
+            throw new IOException("No ImageIO writer for format: " + format);
+        }
+        return target;
+    }
+
+    /**
+     * Desenha o texto da página em um bitmap A4 na resolução indicada
+     */
+    public static BufferedImage renderPage(int pageIndex, int dpi) {
+        double pxPerPt = dpi / 72.0;
+        int width = (int) Math.round(PDRectangle.A4.getWidth() * pxPerPt);
+        int height = (int) Math.round(PDRectangle.A4.getHeight() * pxPerPt);
+
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.setColor(Color.BLACK);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, (int) Math.round(FONT_SIZE_PT * pxPerPt)));
+
+            float x = (float) (MARGIN_PT * pxPerPt);
+            float y = (float) (MARGIN_PT * pxPerPt);
+            for (String line : pageLines(pageIndex)) {
+                g.drawString(line, x, y);
+                y += (float) (LEADING_PT * pxPerPt);
+            }
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    /**
+     * Diretório temporário de trabalho de um benchmark
+     */
+    public static Path createWorkDir(String prefix) throws IOException {
+        return Files.createTempDirectory(prefix);
+    }
+
+    public static void deleteWorkDir(Path dir) throws IOException {
+        if (dir == null || !Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    /**
+     * Gera um corpus de exemplo em disco para inspeção ou uso fora do JMH
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: SyntheticCorpus <output-dir> [pages=10] [dpi=300]");
+            System.exit(1);
+        }
+        Path dir = Files.createDirectories(Paths.get(args[0]));
+        int pages = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int dpi = args.length > 2 ? Integer.parseInt(args[2]) : 300;
+
+        writeNativePdf(dir.resolve("native-" + pages + "p.pdf"), pages);
+        writeScannedPdf(dir.resolve("scanned-" + pages + "p-" + dpi + "dpi.pdf"), pages, dpi);
+        writeImage(dir.resolve("page-" + dpi + "dpi.png"), 0, dpi, "png");
+        for (int p = 0; p < pages; p++) {
+            Files.writeString(dir.resolve("expected-page-" + (p + 1) + ".txt"), pageText(p));
+        }
+        System.out.println("Corpus written to " + dir.toAbsolutePath());
+    }
+}
@@ -0,0 +1,71 @@
+package com.davydcr.document.benchmarks;
+
+import com.davydcr.document.domain.model.ExtractedContent;
+import com.davydcr.document.infrastructure.service.ContentHash;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo da entrada por InputStream (cópia para arquivo temporário + SHA-256)
+ * comparado à entrada por Path do arquivo já armazenado, no mesmo PDF nativo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class TempFileBenchmark {
+
+    @Param({"1", "50"})
+    public int pages;
+
+    private Path workDir;
+    private Path pdf;
+    private String contentHash;
+    private OcrBenchmarkStack stack;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        workDir = SyntheticCorpus.createWorkDir("bench-temp-file");
+        pdf = SyntheticCorpus.writeNativePdf(workDir.resolve("native.pdf"), pages);
+        // Como no upload: o hash já vem calculado do armazenamento
+        contentHash = ContentHash.sha256(pdf);
+        stack = new OcrBenchmarkStack(workDir);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        stack.close();
+        SyntheticCorpus.deleteWorkDir(workDir);
+    }
+
+    @Benchmark
+    public ExtractedContent extractFromPath() {
+        return stack.ocrService().extractContent(pdf, "pdf", contentHash);
+    }
+
+    @Benchmark
+    public ExtractedContent extractFromStream() throws IOException {
+        try (InputStream input = Files.newInputStream(pdf)) {
+            return stack.ocrService().extractContent(input, "pdf");
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.davydcr.document.benchmarks;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para o gerador de corpus sintético
+ */
+@DisplayName("Synthetic Corpus Tests")
+public class SyntheticCorpusTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Deve gerar o mesmo texto para o mesmo índice de página")
+    public void testShouldGenerateDeterministicText() {
+        assertEquals(SyntheticCorpus.pageText(3), SyntheticCorpus.pageText(3));
+        assertNotEquals(SyntheticCorpus.pageText(3), SyntheticCorpus.pageText(4));
+    }
+
+    @Test
+    @DisplayName("Deve gerar PDF nativo com o texto conhecido de cada página")
+    public void testShouldWriteNativePdfWithKnownText() throws Exception {
+        Path pdf = SyntheticCorpus.writeNativePdf(tempDir.resolve("native.pdf"), 3);
+
+        try (PDDocument document = PDDocument.load(pdf.toFile())) {
+            assertEquals(3, document.getNumberOfPages());
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setStartPage(2);
+            stripper.setEndPage(2);
+            assertEquals(SyntheticCorpus.pageText(1).replaceAll("\\s+", " "),
+                    stripper.getText(document).strip().replaceAll("\\s+", " "));
+        }
+    }
+
+    @Test
+    @DisplayName("Deve gerar PDF escaneado sem camada de texto")
+    public void testShouldWriteScannedPdfWithoutText() throws Exception {
+        Path pdf = SyntheticCorpus.writeScannedPdf(tempDir.resolve("scanned.pdf"), 2, 100);
+
+        try (PDDocument document = PDDocument.load(pdf.toFile())) {
+            assertEquals(2, document.getNumberOfPages());
+            assertTrue(new PDFTextStripper().getText(document).isBlank());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve gerar imagem A4 na resolução pedida")
+    public void testShouldWriteImageAtRequestedDpi() throws Exception {
+        Path png = SyntheticCorpus.writeImage(tempDir.resolve("page.png"), 0, 150, "png");
+
+        BufferedImage image = ImageIO.read(png.toFile());
+        assertEquals(1240, image.getWidth(), 1);
+        assertEquals(1754, image.getHeight(), 1);
+    }
+}
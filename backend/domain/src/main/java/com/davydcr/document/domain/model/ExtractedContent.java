@@ -1,17 +1,29 @@
 package com.davydcr.document.domain.model;
 
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalDouble;
 
 public class ExtractedContent {
 
     private final String fullText;
     private final int pageCount;
     private final String ocrEngine;
+    private final List<PageContent> pages;
 
     public ExtractedContent(String fullText, int pageCount, String ocrEngine) {
+        this(fullText, pageCount, ocrEngine, List.of());
+    }
+
+    /**
+     * Cria conteúdo com o detalhamento por página (engine usado em cada página).
+     */
+    public ExtractedContent(String fullText, int pageCount, String ocrEngine, List<PageContent> pages) {
         this.fullText = Objects.requireNonNull(fullText, "fullText cannot be null");
         this.pageCount = pageCount;
         this.ocrEngine = Objects.requireNonNull(ocrEngine, "ocrEngine cannot be null");
+        this.pages = List.copyOf(Objects.requireNonNull(pages, "pages cannot be null"));
 
         if (pageCount < 0) {
             throw new IllegalArgumentException("pageCount cannot be negative");
@@ -19,6 +31,9 @@ public class ExtractedContent {
         if (ocrEngine.isBlank()) {
             throw new IllegalArgumentException("ocrEngine cannot be blank");
         }
+        if (this.pages.size() > pageCount) {
+            throw new IllegalArgumentException("pages cannot exceed pageCount");
+        }
     }
 
     public String getFullText() {
@@ -33,6 +48,25 @@ public class ExtractedContent {
         return ocrEngine;
     }
 
+    /**
+     * Detalhamento por página; vazio quando o engine não fornece essa informação.
+     */
+    public List<PageContent> getPages() {
+        return pages;
+    }
+
+    /**
+     * Confiança média do OCR entre as páginas que a informam; vazio se nenhuma página tem confiança.
+     */
+    public Optional<Double> getMeanOcrConfidence() {
+        OptionalDouble mean = pages.stream()
+                .map(PageContent::getConfidence)
+                .flatMap(Optional::stream)
+                .mapToDouble(Double::doubleValue)
+                .average();
+        return mean.isPresent() ? Optional.of(mean.getAsDouble()) : Optional.empty();
+    }
+
     public boolean hasContent() {
         return !fullText.isBlank();
     }
@@ -44,12 +78,13 @@ public class ExtractedContent {
         ExtractedContent that = (ExtractedContent) o;
         return pageCount == that.pageCount &&
                 Objects.equals(fullText, that.fullText) &&
-                Objects.equals(ocrEngine, that.ocrEngine);
+                Objects.equals(ocrEngine, that.ocrEngine) &&
+                Objects.equals(pages, that.pages);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(fullText, pageCount, ocrEngine);
+        return Objects.hash(fullText, pageCount, ocrEngine, pages);
     }
 
     @Override
@@ -0,0 +1,83 @@
+package com.davydcr.document.domain.model;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Conteúdo extraído de uma página, com o engine que o produziu
+ * (ex: texto nativo do PDF ou OCR) e, para páginas com OCR, a confiança
+ * média do reconhecimento (0-100).
+ */
+public class PageContent {
+
+    private final int pageNumber;
+    private final String text;
+    private final String engine;
+    private final Double confidence;
+
+    public PageContent(int pageNumber, String text, String engine) {
+        this(pageNumber, text, engine, null);
+    }
+
+    /**
+     * @param confidence confiança média do OCR (0-100), ou null se não se aplica (ex: texto nativo)
+     */
+    public PageContent(int pageNumber, String text, String engine, Double confidence) {
+        this.pageNumber = pageNumber;
+        this.text = Objects.requireNonNull(text, "text cannot be null");
+        this.engine = Objects.requireNonNull(engine, "engine cannot be null");
+        this.confidence = confidence;
+
+        if (pageNumber < 1) {
+            throw new IllegalArgumentException("pageNumber must be positive");
+        }
+        if (engine.isBlank()) {
+            throw new IllegalArgumentException("engine cannot be blank");
+        }
+        if (confidence != null && (confidence < 0 || confidence > 100)) {
+            throw new IllegalArgumentException("confidence must be between 0 and 100, got: " + confidence);
+        }
+    }
+
+    public int getPageNumber() {
+        return pageNumber;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public String getEngine() {
+        return engine;
+    }
+
+    public Optional<Double> getConfidence() {
+        return Optional.ofNullable(confidence);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PageContent that = (PageContent) o;
+        return pageNumber == that.pageNumber &&
+                Objects.equals(text, that.text) &&
+                Objects.equals(engine, that.engine) &&
+                Objects.equals(confidence, that.confidence);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(pageNumber, text, engine, confidence);
+    }
+
+    @Override
+    public String toString() {
+        return "PageContent{" +
+                "pageNumber=" + pageNumber +
+                ", engine='" + engine + '\'' +
+                ", confidence=" + confidence +
+                ", textLength=" + text.length() +
+                '}';
+    }
+}
@@ -2,6 +2,8 @@ package com.davydcr.document.domain.model;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.*;
 
 class ExtractedContentTest {
@@ -69,4 +71,56 @@ class ExtractedContentTest {
         assertThat(content1).isEqualTo(content2);
         assertThat(content1.hashCode()).isEqualTo(content2.hashCode());
     }
+
+    @Test
+    void should_keepPerPageEngines_when_pagesProvided() {
+        List<PageContent> pages = List.of(
+                new PageContent(1, "cover letter", "PDFBox (native)"),
+                new PageContent(2, "scanned page", "Tesseract 5.x")
+        );
+
+        ExtractedContent content = new ExtractedContent("cover letter\nscanned page", 2, "Hybrid", pages);
+
+        assertThat(content.getPages()).extracting(PageContent::getEngine)
+                .containsExactly("PDFBox (native)", "Tesseract 5.x");
+    }
+
+    @Test
+    void should_averageOcrConfidence_when_pagesHaveConfidence() {
+        List<PageContent> pages = List.of(
+                new PageContent(1, "cover letter", "PDFBox (native)"),
+                new PageContent(2, "scanned page", "Tesseract 5.x", 80.0),
+                new PageContent(3, "small print", "Tesseract 5.x", 60.0)
+        );
+
+        ExtractedContent content = new ExtractedContent("cover letter\nscanned page\nsmall print", 3, "Hybrid", pages);
+
+        assertThat(content.getMeanOcrConfidence()).contains(70.0);
+        assertThat(new ExtractedContent("text", 1, "PDFBox").getMeanOcrConfidence()).isEmpty();
+    }
+
+    @Test
+    void should_throwException_when_pageConfidenceOutOfRange() {
+        assertThatThrownBy(() -> new PageContent(1, "text", "Tesseract 5.x", 101.0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void should_haveNoPages_when_createdWithoutBreakdown() {
+        ExtractedContent content = new ExtractedContent("text", 3, "Tesseract");
+
+        assertThat(content.getPages()).isEmpty();
+    }
+
+    @Test
+    void should_throwException_when_morePagesThanPageCount() {
+        List<PageContent> pages = List.of(
+                new PageContent(1, "a", "Tesseract"),
+                new PageContent(2, "b", "Tesseract")
+        );
+
+        assertThatThrownBy(() -> new ExtractedContent("a b", 1, "Tesseract", pages))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("cannot exceed pageCount");
+    }
 }
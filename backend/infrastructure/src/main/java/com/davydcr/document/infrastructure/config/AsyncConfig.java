@@ -1,22 +1,35 @@
 package com.davydcr.document.infrastructure.config;
 
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 
 /**
  * Configuração para processamento assíncrono de documentos.
  * 
  * Pool de threads dedicado para OCR e classificação, permitindo que
  * o upload retorne imediatamente enquanto o processamento acontece em background.
+ *
+ * Com app.async.executor.mode=virtual, os executores de I/O (notificações e
+ * cliente HTTP dos LLMs) passam a usar uma virtual thread por tarefa, com a
+ * concorrência limitada por semáforo ({@link BoundedVirtualThreadExecutor}) em
+ * vez de número de threads. O OCR, limitado por CPU, continua nos pools de
+ * plataforma dimensionados.
  */
 @Configuration
 @EnableAsync
 public class AsyncConfig {
 
+    static final String MODE_VIRTUAL = "virtual";
+
     /**
      * Executor para processamento de documentos.
      * 
@@ -24,7 +37,8 @@ public class AsyncConfig {
      * - Max Threads: 16 (escalável)
      * - Queue: 200 tasks
      * - Keep Alive: 60 segundos
-     * - Rejeita tasks quando queue está cheio
+     * - Uploads acima da capacidade são recusados antes, pelo DocumentAdmissionService
+     * - Fila cheia: AbortPolicy; o OCR nunca roda na thread HTTP ou do cliente do LLM
      */
     @Bean(name = "documentProcessingExecutor")
     public Executor documentProcessingExecutor() {
@@ -37,9 +51,11 @@ public class AsyncConfig {
         executor.setKeepAliveSeconds(60);
         executor.setThreadNamePrefix("document-processor-");
         
-        // Rejection policy: CallerRunsPolicy (executa na thread do chamador se queue cheio)
+        // Rejection policy: AbortPolicy (RejectedExecutionException com a fila cheia).
+        // A admissão é uma checagem aproximada e pode estar desligada; quem envia
+        // trata a recusa (503 no upload, job devolvido à fila pelo lease)
         executor.setRejectedExecutionHandler(
-            new java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy()
+            new java.util.concurrent.ThreadPoolExecutor.AbortPolicy()
         );
         
         executor.initialize();
@@ -52,9 +68,19 @@ public class AsyncConfig {
      * - Core Threads: 2
      * - Max Threads: 8
      * - Queue: 100 tasks
+     * - Modo virtual: app.async.virtual.notification.max-concurrency em
+     *   andamento e até max-queued esperando
      */
     @Bean(name = "notificationExecutor")
-    public Executor notificationExecutor() {
+    public Executor notificationExecutor(
+            ObservabilityService observabilityService,
+            @Value("${app.async.executor.mode:platform}") String mode,
+            @Value("${app.async.virtual.notification.max-concurrency:32}") int maxConcurrency,
+            @Value("${app.async.virtual.notification.max-queued:1000}") int maxQueued) {
+        if (MODE_VIRTUAL.equalsIgnoreCase(mode)) {
+            return virtualExecutor("notification", maxConcurrency, maxQueued, observabilityService);
+        }
+
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         
         executor.setCorePoolSize(2);
@@ -69,4 +95,85 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
+
+    /**
+     * Executor da atualização do índice de embeddings (EmbeddingClassificationService).
+     * 
+     * - Uma thread: o backfill é sequencial e não compete com o processamento
+     * - Fila de 1: com uma atualização em andamento e outra esperando, novos
+     *   pedidos são descartados (a que espera já vai ver os documentos novos)
+     */
+    @Bean(name = "embeddingIndexExecutor")
+    public Executor embeddingIndexExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("embedding-index-");
+        executor.setRejectedExecutionHandler(
+            new java.util.concurrent.ThreadPoolExecutor.DiscardPolicy()
+        );
+        
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Pool work-stealing para OCR de páginas de PDFs escaneados.
+     * 
+     * - Parallelism: app.ocr.parallel.pool-size (0 = número de cores)
+     * - Compartilhado entre documentos; o limite por documento fica em
+     *   app.ocr.parallel.max-pages-per-document
+     */
+    @Bean(name = "ocrPageExecutor")
+    public ExecutorService ocrPageExecutor(@Value("${app.ocr.parallel.pool-size:0}") int poolSize) {
+        int parallelism = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+
+        ForkJoinPool.ForkJoinWorkerThreadFactory threadFactory = pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("ocr-page-" + thread.getPoolIndex());
+            return thread;
+        };
+
+        return new ForkJoinPool(parallelism, threadFactory, null, true);
+    }
+
+    /**
+     * Executor do cliente HTTP dos LLMs (LlmHttpClient).
+     * 
+     * - Só processa I/O e callbacks das respostas; nenhuma thread fica
+     *   esperando o modelo gerar, então poucas threads bastam
+     * - Fila sem limite: o limite de requisições fica no próprio cliente
+     * - Modo virtual: app.async.virtual.llm.max-concurrency callbacks em
+     *   andamento; a espera pelo semáforo não tem limite, como a fila acima
+     */
+    @Bean(name = "llmClientExecutor")
+    public Executor llmClientExecutor(
+            ObservabilityService observabilityService,
+            @Value("${app.classification.llm.client-threads:2}") int threads,
+            @Value("${app.async.executor.mode:platform}") String mode,
+            @Value("${app.async.virtual.llm.max-concurrency:64}") int maxConcurrency) {
+        if (MODE_VIRTUAL.equalsIgnoreCase(mode)) {
+            return virtualExecutor("llm-client", maxConcurrency, Integer.MAX_VALUE - maxConcurrency,
+                    observabilityService);
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        
+        executor.setCorePoolSize(Math.max(1, threads));
+        executor.setMaxPoolSize(Math.max(1, threads));
+        executor.setThreadNamePrefix("llm-client-");
+        
+        executor.initialize();
+        return executor;
+    }
+
+    private BoundedVirtualThreadExecutor virtualExecutor(String name, int maxConcurrency, int maxQueued,
+                                                         ObservabilityService observabilityService) {
+        BoundedVirtualThreadExecutor executor = new BoundedVirtualThreadExecutor(name, maxConcurrency, maxQueued,
+                () -> observabilityService.recordExecutorRejected(name));
+        observabilityService.registerExecutorGauges(name, executor::active, executor::waiting);
+        return executor;
+    }
 }
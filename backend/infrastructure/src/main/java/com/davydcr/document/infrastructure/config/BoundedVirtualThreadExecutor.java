@@ -0,0 +1,82 @@
+package com.davydcr.document.infrastructure.config;
+
+import org.springframework.core.task.TaskExecutor;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executor de I/O com uma virtual thread por tarefa.
+ *
+ * O limite de concorrência é um {@link Semaphore} (maxConcurrency permissões)
+ * adquirido dentro da própria virtual thread: quem submete nunca bloqueia, e a
+ * tarefa que espera uma permissão fica estacionada sem ocupar thread de
+ * plataforma. Tarefas esperando além de maxQueued são recusadas com
+ * {@link RejectedExecutionException}, no lugar da fila dos pools de plataforma.
+ */
+public class BoundedVirtualThreadExecutor implements TaskExecutor {
+
+    private final String name;
+    private final ThreadFactory threadFactory;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final int maxQueued;
+    private final Runnable onRejected;
+    private final AtomicInteger pending = new AtomicInteger();
+
+    public BoundedVirtualThreadExecutor(String name, int maxConcurrency, int maxQueued, Runnable onRejected) {
+        this.name = name;
+        this.onRejected = onRejected;
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.maxQueued = Math.max(0, maxQueued);
+        this.permits = new Semaphore(this.maxConcurrency);
+        this.threadFactory = Thread.ofVirtual().name(name + "-", 0).factory();
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (pending.incrementAndGet() > (long) maxConcurrency + maxQueued) {
+            pending.decrementAndGet();
+            onRejected.run();
+            throw new RejectedExecutionException("Executor " + name + " is saturated (" + maxConcurrency
+                    + " running, " + maxQueued + " waiting)");
+        }
+        threadFactory.newThread(() -> run(task)).start();
+    }
+
+    private void run(Runnable task) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            pending.decrementAndGet();
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            task.run();
+        } finally {
+            permits.release();
+            pending.decrementAndGet();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Tarefas em execução (com permissão)
+     */
+    public int active() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    /**
+     * Tarefas submetidas esperando uma permissão
+     */
+    public int waiting() {
+        return Math.max(0, pending.get() - active());
+    }
+}
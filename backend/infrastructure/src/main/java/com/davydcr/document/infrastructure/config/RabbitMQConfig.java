@@ -1,13 +1,17 @@
 package com.davydcr.document.infrastructure.config;
 
+import org.springframework.amqp.core.AcknowledgeMode;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.DirectExchange;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -17,6 +21,20 @@ import org.slf4j.LoggerFactory;
 /**
  * Configuração de RabbitMQ para processamento assíncrono (Semana 7)
  * Define filas, exchanges e bindings para o fluxo de processamento de documentos
+ *
+ * O processamento é um pipeline em etapas, cada uma com sua fila e seu pool de
+ * workers: o upload grava o arquivo e publica na fila de processamento (etapa
+ * de extração, OCR, limitada por CPU); a extração grava o conteúdo e publica
+ * na fila de classificação (etapa limitada pela espera do LLM), que persiste o
+ * resultado e notifica. Mensagens rejeitadas das duas etapas vão para a mesma
+ * DLQ, cujo consumidor marca o documento como FAILED.
+ *
+ * Migração: a fila de processamento era declarada como document.processing.queue
+ * com TTL de 5 minutos e sem dead letter. O RabbitMQ recusa redeclarar uma fila
+ * com argumentos diferentes (PRECONDITION_FAILED), então a fila atual tem nome
+ * novo. Depois do deploy, a fila antiga continua ligada ao exchange e recebendo
+ * cópias das mensagens: remova-a (rabbitmqctl delete_queue document.processing.queue)
+ * quando nenhuma instância da versão anterior estiver consumindo.
  */
 @Configuration
 @ConditionalOnProperty(
@@ -31,23 +49,33 @@ public class RabbitMQConfig {
     // Exchange names
     public static final String DOCUMENT_EXCHANGE = "document.exchange";
     public static final String DOCUMENT_EVENT_EXCHANGE = "document-exchange";
+    public static final String DOCUMENT_DEAD_LETTER_EXCHANGE = "document.dlx";
 
     // Queue names
-    public static final String DOCUMENT_PROCESSING_QUEUE = "document.processing.queue";
+    public static final String DOCUMENT_PROCESSING_QUEUE = "document.processing.v2.queue";
+    public static final String DOCUMENT_CLASSIFICATION_QUEUE = "document.classification.queue";
+    public static final String DOCUMENT_PROCESSING_DEFERRED_QUEUE = "document.processing.deferred.queue";
+    public static final String DOCUMENT_PROCESSING_DLQ = "document.processing.dlq";
     public static final String DOCUMENT_STATE_CHANGED_QUEUE = "document.state-changed.queue";
     public static final String DOCUMENT_PROCESSED_QUEUE = "document.processed.queue";
     public static final String WEBHOOK_EVENTS_QUEUE = "webhook-events-queue";
 
     // Routing keys
     public static final String DOCUMENT_PROCESS_ROUTING_KEY = "document.process";
+    public static final String DOCUMENT_CLASSIFY_ROUTING_KEY = "document.classify";
+    public static final String DOCUMENT_DEFER_ROUTING_KEY = "document.process.deferred";
     public static final String DOCUMENT_STATE_CHANGED_ROUTING_KEY = "document.state-changed";
     public static final String DOCUMENT_PROCESSED_ROUTING_KEY = "document.processed";
 
-    // Message TTL (5 minutes)
-    private static final int MESSAGE_TTL = 300000;
+    // Containers dos workers de cada etapa (ack manual)
+    public static final String DOCUMENT_PROCESSING_LISTENER_FACTORY = "documentProcessingListenerFactory";
+    public static final String DOCUMENT_CLASSIFICATION_LISTENER_FACTORY = "documentClassificationListenerFactory";
+    public static final String DOCUMENT_DEAD_LETTER_LISTENER_FACTORY = "documentDeadLetterListenerFactory";
 
     /**
-     * Define a fila principal de processamento de documentos
+     * Define a fila principal de processamento de documentos.
+     * Sem TTL: uma mensagem expirada deixaria o documento em RECEIVED para sempre;
+     * com a fila cheia ou o worker parado, as mensagens esperam.
      */
     @Bean
     public Queue documentProcessingQueue() {
@@ -58,12 +86,120 @@ public class RabbitMQConfig {
             false, // exclusive
             false, // autoDelete
             new java.util.HashMap<String, Object>() {{
-                put("x-message-ttl", MESSAGE_TTL);  // Messages expire after 5 minutes
                 put("x-max-length", 10000);         // Maximum 10k messages in queue
+                // Rejeitadas e descartadas pelo limite vão para a DLQ em vez de sumir
+                put("x-dead-letter-exchange", DOCUMENT_DEAD_LETTER_EXCHANGE);
+                put("x-dead-letter-routing-key", DOCUMENT_PROCESS_ROUTING_KEY);
             }}
         );
     }
 
+    /**
+     * Fila da etapa de classificação (documentos com o conteúdo já extraído).
+     * Sem TTL: cada mensagem representa um OCR já feito.
+     */
+    @Bean
+    public Queue documentClassificationQueue(
+            @Value("${app.async.worker.classify.max-queue-length:10000}") int maxLength) {
+        logger.info("Creating document classification queue: {}", DOCUMENT_CLASSIFICATION_QUEUE);
+        return new Queue(
+            DOCUMENT_CLASSIFICATION_QUEUE,
+            true,  // durable
+            false, // exclusive
+            false, // autoDelete
+            new java.util.HashMap<String, Object>() {{
+                put("x-max-length", maxLength);
+                put("x-dead-letter-exchange", DOCUMENT_DEAD_LETTER_EXCHANGE);
+                put("x-dead-letter-routing-key", DOCUMENT_CLASSIFY_ROUTING_KEY);
+            }}
+        );
+    }
+
+    /**
+     * Fila de espera da etapa de extração: sem consumidor, cada mensagem expira
+     * pelo TTL da própria mensagem (app.async.worker.backpressure.defer-ms) e
+     * volta para a fila de processamento pelo dead letter. É o atraso usado
+     * quando a fila de classificação está cheia, sem segurar a thread do worker.
+     */
+    @Bean
+    public Queue documentProcessingDeferredQueue() {
+        logger.info("Creating document processing deferred queue: {}", DOCUMENT_PROCESSING_DEFERRED_QUEUE);
+        return new Queue(
+            DOCUMENT_PROCESSING_DEFERRED_QUEUE,
+            true,  // durable
+            false, // exclusive
+            false, // autoDelete
+            new java.util.HashMap<String, Object>() {{
+                put("x-dead-letter-exchange", DOCUMENT_EXCHANGE);
+                put("x-dead-letter-routing-key", DOCUMENT_PROCESS_ROUTING_KEY);
+            }}
+        );
+    }
+
+    /**
+     * Binding entre a fila de espera da extração e o exchange
+     */
+    @Bean
+    public Binding documentProcessingDeferredBinding(
+            Queue documentProcessingDeferredQueue,
+            DirectExchange documentExchange) {
+        return BindingBuilder.bind(documentProcessingDeferredQueue)
+                .to(documentExchange)
+                .with(DOCUMENT_DEFER_ROUTING_KEY);
+    }
+
+    /**
+     * Fila de mensagens das duas etapas rejeitadas pelo worker ou descartadas
+     * pelo x-max-length ({@code DocumentDeadLetterConsumer})
+     */
+    @Bean
+    public Queue documentProcessingDeadLetterQueue() {
+        logger.info("Creating document processing dead letter queue: {}", DOCUMENT_PROCESSING_DLQ);
+        return new Queue(
+            DOCUMENT_PROCESSING_DLQ,
+            true,  // durable
+            false, // exclusive
+            false  // autoDelete
+        );
+    }
+
+    /**
+     * Exchange de dead letter da fila de processamento
+     */
+    @Bean
+    public DirectExchange documentDeadLetterExchange() {
+        logger.info("Creating dead letter exchange: {}", DOCUMENT_DEAD_LETTER_EXCHANGE);
+        return new DirectExchange(
+            DOCUMENT_DEAD_LETTER_EXCHANGE,
+            true,   // durable
+            false   // autoDelete
+        );
+    }
+
+    /**
+     * Binding entre a DLQ e o exchange de dead letter
+     */
+    @Bean
+    public Binding documentProcessingDeadLetterBinding(
+            Queue documentProcessingDeadLetterQueue,
+            DirectExchange documentDeadLetterExchange) {
+        return BindingBuilder.bind(documentProcessingDeadLetterQueue)
+                .to(documentDeadLetterExchange)
+                .with(DOCUMENT_PROCESS_ROUTING_KEY);
+    }
+
+    /**
+     * Binding entre a DLQ e o exchange de dead letter para a etapa de classificação
+     */
+    @Bean
+    public Binding documentClassificationDeadLetterBinding(
+            Queue documentProcessingDeadLetterQueue,
+            DirectExchange documentDeadLetterExchange) {
+        return BindingBuilder.bind(documentProcessingDeadLetterQueue)
+                .to(documentDeadLetterExchange)
+                .with(DOCUMENT_CLASSIFY_ROUTING_KEY);
+    }
+
     /**
      * Define o exchange direto para roteamento de mensagens
      */
@@ -146,6 +282,20 @@ public class RabbitMQConfig {
                 .with(DOCUMENT_PROCESS_ROUTING_KEY);
     }
 
+    /**
+     * Binding entre a fila de classificação e o exchange
+     */
+    @Bean
+    public Binding documentClassificationBinding(
+            Queue documentClassificationQueue,
+            DirectExchange documentExchange) {
+        logger.info("Creating binding: {} -> {} (routing key: {})",
+                DOCUMENT_CLASSIFICATION_QUEUE, DOCUMENT_EXCHANGE, DOCUMENT_CLASSIFY_ROUTING_KEY);
+        return BindingBuilder.bind(documentClassificationQueue)
+                .to(documentExchange)
+                .with(DOCUMENT_CLASSIFY_ROUTING_KEY);
+    }
+
     /**
      * Binding para eventos de mudança de estado
      */
@@ -174,20 +324,6 @@ public class RabbitMQConfig {
                 .with(DOCUMENT_PROCESSED_ROUTING_KEY);
     }
 
-    /**
-     * Binding para eventos de processamento iniciado
-     */
-    @Bean
-    public Binding documentProcessBinding(
-            Queue documentProcessingQueue,
-            DirectExchange documentEventExchange) {
-        logger.info("Creating binding: {} -> {} (routing key: {})",
-                DOCUMENT_PROCESSING_QUEUE, DOCUMENT_EVENT_EXCHANGE, DOCUMENT_PROCESS_ROUTING_KEY);
-        return BindingBuilder.bind(documentProcessingQueue)
-                .to(documentEventExchange)
-                .with(DOCUMENT_PROCESS_ROUTING_KEY);
-    }
-
     /**
      * Binding para eventos de webhooks
      */
@@ -202,6 +338,78 @@ public class RabbitMQConfig {
                 .with("#");  // Catch all events
     }
 
+    /**
+     * Container da etapa de extração (OCR): ack manual, concorrência e prefetch configuráveis.
+     *
+     * OCR ocupa CPU por segundos ou minutos por documento, então a concorrência
+     * acompanha os núcleos do nó e prefetch 1 distribui o trabalho por igual
+     * entre os nós; o máximo em andamento por nó é max-concurrency x prefetch.
+     * Para escalar, adicionam-se nós com o worker habilitado; nós só de API
+     * usam app.async.worker.enabled=false e apenas publicam na fila.
+     */
+    @Bean(DOCUMENT_PROCESSING_LISTENER_FACTORY)
+    public SimpleRabbitListenerContainerFactory documentProcessingListenerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            @Value("${app.async.worker.enabled:true}") boolean workerEnabled,
+            @Value("${app.async.worker.extract.concurrency:2}") int concurrency,
+            @Value("${app.async.worker.extract.max-concurrency:4}") int maxConcurrency,
+            @Value("${app.async.worker.extract.prefetch:1}") int prefetch) {
+        return workerContainerFactory(configurer, connectionFactory, "extract",
+                workerEnabled, concurrency, maxConcurrency, prefetch);
+    }
+
+    /**
+     * Container da etapa de classificação: a thread passa a maior parte do
+     * tempo esperando o LLM, então a concorrência é maior que a do OCR (o
+     * limite real de chamadas simultâneas é o do LlmHttpClient)
+     */
+    @Bean(DOCUMENT_CLASSIFICATION_LISTENER_FACTORY)
+    public SimpleRabbitListenerContainerFactory documentClassificationListenerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            @Value("${app.async.worker.enabled:true}") boolean workerEnabled,
+            @Value("${app.async.worker.classify.concurrency:8}") int concurrency,
+            @Value("${app.async.worker.classify.max-concurrency:16}") int maxConcurrency,
+            @Value("${app.async.worker.classify.prefetch:1}") int prefetch) {
+        return workerContainerFactory(configurer, connectionFactory, "classify",
+                workerEnabled, concurrency, maxConcurrency, prefetch);
+    }
+
+    /**
+     * Container do consumidor da DLQ: um consumidor basta, o volume é pequeno
+     */
+    @Bean(DOCUMENT_DEAD_LETTER_LISTENER_FACTORY)
+    public SimpleRabbitListenerContainerFactory documentDeadLetterListenerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            @Value("${app.async.worker.enabled:true}") boolean workerEnabled) {
+        return workerContainerFactory(configurer, connectionFactory, "dead-letter",
+                workerEnabled, 1, 1, 1);
+    }
+
+    private SimpleRabbitListenerContainerFactory workerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            String stage,
+            boolean workerEnabled,
+            int concurrency,
+            int maxConcurrency,
+            int prefetch) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setMessageConverter(jackson2JsonMessageConverter());
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(Math.max(concurrency, maxConcurrency));
+        factory.setPrefetchCount(prefetch);
+        factory.setDefaultRequeueRejected(false);
+        factory.setAutoStartup(workerEnabled);
+        logger.info("Document {} worker: enabled={}, concurrency={}-{}, prefetch={}",
+                stage, workerEnabled, concurrency, Math.max(concurrency, maxConcurrency), prefetch);
+        return factory;
+    }
+
     /**
      * Configura RabbitTemplate com converter JSON
      */
@@ -3,22 +3,43 @@ package com.davydcr.document.infrastructure.config;
 import com.davydcr.document.application.port.ClassificationService;
 import com.davydcr.document.application.port.DocumentRepository;
 import com.davydcr.document.application.port.OcrService;
+import com.davydcr.document.application.port.ProcessingProgressPublisher;
 import com.davydcr.document.application.usecase.ClassifyDocumentUseCase;
 import com.davydcr.document.application.usecase.ExtractDocumentContentUseCase;
 import com.davydcr.document.application.usecase.GetDocumentUseCase;
 import com.davydcr.document.application.usecase.ProcessDocumentUseCase;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 
 @Configuration
 public class UseCaseConfiguration {
 
+    /**
+     * Há vários beans de ClassificationService (backend, LLM, embeddings); com o
+     * cache ligado o primário é o CachingClassificationService. Com o cache
+     * desligado, quem injeta sem qualifier recebe o backend configurado.
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(
+        name = "app.classification.cache.enabled",
+        havingValue = "false"
+    )
+    public ClassificationService classificationService(
+            @Qualifier("classificationBackend") ClassificationService backend) {
+        return backend;
+    }
+
     @Bean
     public ProcessDocumentUseCase processDocumentUseCase(
             DocumentRepository documentRepository,
             OcrService ocrService,
-            ClassificationService classificationService) {
-        return new ProcessDocumentUseCase(documentRepository, ocrService, classificationService);
+            ClassificationService classificationService,
+            ProcessingProgressPublisher progressPublisher) {
+        return new ProcessDocumentUseCase(documentRepository, ocrService, classificationService, progressPublisher);
     }
 
     @Bean
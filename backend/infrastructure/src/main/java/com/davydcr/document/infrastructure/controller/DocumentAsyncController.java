@@ -2,7 +2,9 @@ package com.davydcr.document.infrastructure.controller;
 
 import com.davydcr.document.application.dto.ProcessDocumentInput;
 import com.davydcr.document.application.dto.ProcessDocumentOutput;
+import com.davydcr.document.infrastructure.exception.ServiceOverloadedException;
 import com.davydcr.document.infrastructure.service.AsyncDocumentProcessingService;
+import com.davydcr.document.infrastructure.service.DocumentAdmissionService;
 import com.davydcr.document.infrastructure.service.DocumentStorageService;
 import com.davydcr.document.infrastructure.observability.ObservabilityService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -43,15 +45,18 @@ public class DocumentAsyncController {
     private final AsyncDocumentProcessingService asyncProcessingService;
     private final DocumentStorageService storageService;
     private final ObservabilityService observabilityService;
+    private final DocumentAdmissionService admissionService;
 
     @Autowired
     public DocumentAsyncController(
             AsyncDocumentProcessingService asyncProcessingService,
             DocumentStorageService storageService,
-            ObservabilityService observabilityService) {
+            ObservabilityService observabilityService,
+            DocumentAdmissionService admissionService) {
         this.asyncProcessingService = asyncProcessingService;
         this.storageService = storageService;
         this.observabilityService = observabilityService;
+        this.admissionService = admissionService;
     }
 
     @PostMapping("/upload")
@@ -64,6 +69,7 @@ public class DocumentAsyncController {
             content = @Content(schema = @Schema(implementation = ProcessDocumentOutput.class))),
         @ApiResponse(responseCode = "400", description = "Tipo de arquivo inválido ou arquivo vazio"),
         @ApiResponse(responseCode = "401", description = "Não autenticado"),
+        @ApiResponse(responseCode = "503", description = "Processamento sobrecarregado; tentar de novo após Retry-After"),
         @ApiResponse(responseCode = "500", description = "Erro interno do servidor")
     })
     public ResponseEntity<ProcessDocumentOutput> uploadDocumentAsync(
@@ -77,6 +83,7 @@ public class DocumentAsyncController {
         
         long startTime = System.currentTimeMillis();
         String userId = authentication != null ? authentication.getName() : "anonymous";
+        DocumentAdmissionService.Permit permit = null;
 
         try {
             // Validações básicas
@@ -92,22 +99,44 @@ public class DocumentAsyncController {
             log.info("Async upload iniciado: file={}, type={}, user={}, timeout={}ms", 
                 filename, fileType, userId, timeoutMs);
 
+            // Sem fila durável, o documento só entra com vaga no executor local (senão 503 antes de gravar o arquivo)
+            if (!asyncProcessingService.isQueueEnabled()) {
+                permit = admissionService.admit();
+            }
+
             // Gerar document ID
             String documentId = UUID.randomUUID().toString();
 
-            // Salvar arquivo
-            String filePath = storageService.saveDocument(file);
+            // Salvar arquivo (SHA-256 calculado durante a gravação)
+            DocumentStorageService.StoredDocument stored = storageService.storeDocument(file);
+            String filePath = stored.path();
             log.info("Document saved to: {} with ID: {}", filePath, documentId);
 
             // Preparar input com timeout
             ProcessDocumentInput input = new ProcessDocumentInput(
                 documentId,
                 filePath,
-                fileType
+                fileType,
+                stored.contentHash()
             );
 
+            if (asyncProcessingService.isQueueEnabled()) {
+                // Processamento por um worker da fila (este ou outro nó)
+                asyncProcessingService.enqueueDocument(input, filename, userId);
+                log.info("Async upload queued: {} (202)", documentId);
+                return ResponseEntity.accepted().body(new ProcessDocumentOutput(
+                    documentId,
+                    "RECEIVED",
+                    null,
+                    null,
+                    null
+                ));
+            }
+
             // Iniciar processamento assíncrono em background (passar userId para a thread assíncrona)
+            DocumentAdmissionService.Permit admitted = permit;
             asyncProcessingService.processDocumentAsync(input, filename, userId)
+                .whenComplete((result, error) -> admitted.release())
                 .thenAccept(result -> {
                     long elapsed = System.currentTimeMillis() - startTime;
                     observabilityService.recordUploadSuccess(elapsed);
@@ -132,7 +161,15 @@ public class DocumentAsyncController {
             log.info("Async upload accepted: {} (202)", documentId);
             return ResponseEntity.accepted().body(response);
 
+        } catch (ServiceOverloadedException e) {
+            if (permit != null) {
+                permit.release();
+            }
+            throw e;
         } catch (Exception e) {
+            if (permit != null) {
+                permit.release();
+            }
             log.error("Erro no upload assíncrono: {}", e.getMessage(), e);
             observabilityService.recordUploadFailure(e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
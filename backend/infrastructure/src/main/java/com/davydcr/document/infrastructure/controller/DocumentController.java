@@ -99,15 +99,17 @@ public class DocumentController {
             // Criar ID do documento
             DocumentId documentId = DocumentId.newId();
             
-            // Salvar arquivo
-            String filePath = storageService.saveDocument(file);
+            // Salvar arquivo (SHA-256 calculado durante a gravação)
+            DocumentStorageService.StoredDocument stored = storageService.storeDocument(file);
+            String filePath = stored.path();
             logger.info("Document saved to: {} with ID: {}", filePath, documentId.value());
             
             // Processar documento com OCR real (cria e processa)
             ProcessDocumentInput input = new ProcessDocumentInput(
                     documentId.value().toString(),
                     filePath,
-                    detectedType
+                    detectedType,
+                    stored.contentHash()
             );
             
             ProcessDocumentOutput result = processDocumentUseCase.executeWithDocumentCreation(input, file.getOriginalFilename());
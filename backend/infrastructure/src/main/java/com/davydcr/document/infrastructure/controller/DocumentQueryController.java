@@ -1,11 +1,15 @@
 package com.davydcr.document.infrastructure.controller;
 
 import com.davydcr.document.infrastructure.controller.dto.DocumentDTO;
+import com.davydcr.document.infrastructure.controller.dto.SimilarDocumentDTO;
 import com.davydcr.document.infrastructure.persistence.DocumentJpaEntity;
 import com.davydcr.document.infrastructure.persistence.DocumentJpaRepository;
 import com.davydcr.document.infrastructure.security.SecurityContextService;
+import com.davydcr.document.infrastructure.service.EmbeddingClassificationService;
+import com.davydcr.document.infrastructure.service.VectorIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -13,6 +17,8 @@ import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -28,11 +34,14 @@ public class DocumentQueryController {
 
     private final DocumentJpaRepository documentRepository;
     private final SecurityContextService securityContextService;
+    private final ObjectProvider<EmbeddingClassificationService> embeddingService;
 
     public DocumentQueryController(DocumentJpaRepository documentRepository,
-                                 SecurityContextService securityContextService) {
+                                 SecurityContextService securityContextService,
+                                 ObjectProvider<EmbeddingClassificationService> embeddingService) {
         this.documentRepository = Objects.requireNonNull(documentRepository);
         this.securityContextService = Objects.requireNonNull(securityContextService);
+        this.embeddingService = Objects.requireNonNull(embeddingService);
     }
 
     /**
@@ -71,6 +80,58 @@ public class DocumentQueryController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Documentos do usuário mais similares a um documento, pelo índice de embeddings.
+     * GET /api/documents/{id}/similar?limit=5
+     * Retorna 503 com o índice desabilitado; lista vazia se o documento ainda não foi indexado.
+     */
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<List<SimilarDocumentDTO>> getSimilarDocuments(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "5") int limit) {
+
+        logger.info("Getting similar documents: id={}, limit={}", id, limit);
+
+        String userId = securityContextService.getCurrentUserId();
+        if (userId == null) {
+            logger.warn("Unauthorized attempt to get similar documents: id={}", id);
+            return ResponseEntity.status(401).build();
+        }
+
+        EmbeddingClassificationService embeddings = embeddingService.getIfAvailable();
+        if (embeddings == null) {
+            return ResponseEntity.status(503).build();
+        }
+
+        DocumentJpaEntity document = documentRepository.findById(id).orElse(null);
+        if (document == null) {
+            logger.warn("Document not found: id={}", id);
+            return ResponseEntity.notFound().build();
+        }
+        if (!securityContextService.isOwner(document.getUserId())) {
+            logger.warn("Access denied to document: id={}, owner={}, requester={}",
+                       id, document.getUserId(), userId);
+            return ResponseEntity.status(403).build();
+        }
+
+        // O índice é global: busca mais vizinhos e mantém só os documentos do usuário
+        int size = Math.max(1, Math.min(limit, 50));
+        List<SimilarDocumentDTO> similar = new ArrayList<>();
+        for (VectorIndex.Neighbor neighbor : embeddings.findSimilar(id, size * 4)) {
+            DocumentJpaEntity candidate = documentRepository.findById(neighbor.id()).orElse(null);
+            if (candidate == null || !userId.equals(candidate.getUserId())) {
+                continue;
+            }
+            similar.add(new SimilarDocumentDTO(candidate.getId(), candidate.getOriginalName(),
+                    candidate.getClassificationLabel(), candidate.getClassificationConfidence(),
+                    neighbor.similarity()));
+            if (similar.size() == size) {
+                break;
+            }
+        }
+        return ResponseEntity.ok(similar);
+    }
+
     /**
      * Lista documentos do usuário com paginação e filtros.
      * GET /api/documents?page=0&size=20&status=COMPLETED&type=PDF
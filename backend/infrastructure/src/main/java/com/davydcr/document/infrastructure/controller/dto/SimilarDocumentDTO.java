@@ -0,0 +1,13 @@
+package com.davydcr.document.infrastructure.controller.dto;
+
+/**
+ * Documento similar (vizinho no índice de embeddings) e a similaridade de cosseno com o consultado
+ */
+public record SimilarDocumentDTO(
+        String id,
+        String originalName,
+        String classificationLabel,
+        Integer classificationConfidence,
+        double similarity
+) {
+}
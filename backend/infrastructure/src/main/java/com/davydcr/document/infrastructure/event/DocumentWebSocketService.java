@@ -102,4 +102,25 @@ public class DocumentWebSocketService {
             logger.error("Error sending processing progress", e);
         }
     }
+
+    /**
+     * Envia progresso do OCR página a página (páginas concluídas / total)
+     */
+    public void sendPageProgress(String documentId, int progress, String phase, int pagesDone, int totalPages) {
+        try {
+            Map<String, Object> message = new HashMap<>();
+            message.put("documentId", documentId);
+            message.put("progress", progress);
+            message.put("phase", phase);
+            message.put("pagesDone", pagesDone);
+            message.put("totalPages", totalPages);
+            message.put("timestamp", System.currentTimeMillis());
+
+            logger.debug("Sending page progress: documentId={}, pages={}/{}", documentId, pagesDone, totalPages);
+
+            messagingTemplate.convertAndSend("/topic/documents/" + documentId + "/progress", message);
+        } catch (Exception e) {
+            logger.error("Error sending page progress", e);
+        }
+    }
 }
@@ -0,0 +1,45 @@
+package com.davydcr.document.infrastructure.event;
+
+import com.davydcr.document.application.port.ProcessingProgressPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publica o progresso do processamento no tópico WebSocket do documento
+ * (/topic/documents/{id}/progress).
+ *
+ * Percentual geral: OCR ocupa de 5% a 85% (proporcional às páginas concluídas),
+ * classificação 90% e conclusão 100%.
+ */
+@Component
+public class WebSocketProcessingProgressPublisher implements ProcessingProgressPublisher {
+
+    private static final int OCR_START_PERCENT = 5;
+    private static final int OCR_SPAN_PERCENT = 80;
+    private static final int CLASSIFICATION_PERCENT = 90;
+
+    private final DocumentWebSocketService webSocketService;
+
+    public WebSocketProcessingProgressPublisher(DocumentWebSocketService webSocketService) {
+        this.webSocketService = webSocketService;
+    }
+
+    @Override
+    public void publishProgress(String documentId, String phase, int completed, int total) {
+        switch (phase) {
+            case PHASE_OCR -> webSocketService.sendPageProgress(
+                    documentId, ocrPercent(completed, total), phase, completed, total);
+            case PHASE_CLASSIFICATION -> webSocketService.sendProcessingProgress(
+                    documentId, CLASSIFICATION_PERCENT, phase);
+            case PHASE_COMPLETED -> webSocketService.sendProcessingProgress(documentId, 100, phase);
+            default -> webSocketService.sendProcessingProgress(
+                    documentId, total > 0 ? completed * 100 / total : 0, phase);
+        }
+    }
+
+    static int ocrPercent(int completedPages, int totalPages) {
+        if (totalPages <= 0) {
+            return OCR_START_PERCENT;
+        }
+        return OCR_START_PERCENT + OCR_SPAN_PERCENT * Math.min(completedPages, totalPages) / totalPages;
+    }
+}
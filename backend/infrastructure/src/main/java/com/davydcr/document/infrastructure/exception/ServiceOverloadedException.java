@@ -0,0 +1,25 @@
+package com.davydcr.document.infrastructure.exception;
+
+/**
+ * Exceção lançada quando o processamento recusa novos documentos por sobrecarga.
+ * Será mapeada para HTTP 503 (Service Unavailable) com Retry-After
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+  private final int retryAfterSeconds;
+  private final String reason;
+
+  public ServiceOverloadedException(String message, int retryAfterSeconds, String reason) {
+    super(message);
+    this.retryAfterSeconds = retryAfterSeconds;
+    this.reason = reason;
+  }
+
+  public int getRetryAfterSeconds() {
+    return retryAfterSeconds;
+  }
+
+  public String getReason() {
+    return reason;
+  }
+}
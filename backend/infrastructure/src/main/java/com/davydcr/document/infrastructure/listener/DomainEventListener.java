@@ -2,7 +2,6 @@ package com.davydcr.document.infrastructure.listener;
 
 import com.davydcr.document.domain.event.DocumentProcessedEvent;
 import com.davydcr.document.domain.event.DocumentStateChangedEvent;
-import com.davydcr.document.domain.event.ProcessDocumentEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
@@ -35,18 +34,6 @@ public class DomainEventListener {
                 event.reason());
     }
 
-    /**
-     * Ouve eventos de processamento iniciado
-     * Nota: O processamento real é feito pelo ProcessDocumentEventHandler
-     */
-    @RabbitListener(queues = "document.processing.queue")
-    public void handleProcessDocument(ProcessDocumentEvent event) {
-        logger.info("Document processing requested: documentId={}, filePath={}",
-                event.documentId(),
-                event.filePath());
-        // Nota: O ProcessDocumentEventHandler também ouve esta queue para fazer o processamento
-    }
-
     /**
      * Ouve eventos de processamento completado
      */
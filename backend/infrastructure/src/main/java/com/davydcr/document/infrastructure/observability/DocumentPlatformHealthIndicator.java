@@ -1,16 +1,38 @@
 package com.davydcr.document.infrastructure.observability;
 
+import com.davydcr.document.application.port.ClassificationService;
+import com.davydcr.document.infrastructure.service.LlmHealthProber;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * Health Indicator customizado para verificar o status
- * dos componentes críticos da plataforma
+ * dos componentes críticos da plataforma.
+ *
+ * A disponibilidade do classificador vem do estado em cache do
+ * {@link LlmHealthProber} (quando o LLM está habilitado); nenhuma chamada
+ * de rede é feita aqui. O LLM fora do ar não muda o status: os documentos
+ * continuam sendo classificados pelas regras, e o status agregado é o que
+ * o healthcheck do docker-compose e o deploy verificam. A situação do LLM
+ * aparece só nos detalhes.
  */
 @Component("documentPlatformHealth")
 public class DocumentPlatformHealthIndicator implements HealthIndicator {
 
+    private final ClassificationService classificationService;
+    private final ObjectProvider<LlmHealthProber> llmHealthProber;
+
+    public DocumentPlatformHealthIndicator(ClassificationService classificationService,
+                                           ObjectProvider<LlmHealthProber> llmHealthProber) {
+        this.classificationService = classificationService;
+        this.llmHealthProber = llmHealthProber;
+    }
+
     @Override
     public Health health() {
         try {
@@ -19,17 +41,18 @@ public class DocumentPlatformHealthIndicator implements HealthIndicator {
             boolean storageReady = checkStorageAvailability();
             boolean classifierReady = checkClassifierAvailability();
 
-            if (ocrReady && storageReady && classifierReady) {
-                return Health.up()
+            if (ocrReady && storageReady) {
+                return withLlmDetails(Health.up()
                         .withDetail("ocrEngine", "Tesseract 5")
                         .withDetail("storageService", "Operational")
-                        .withDetail("classificationService", "Operational")
+                        .withDetail("classificationService", classifierReady
+                                ? "Operational" : "Degraded (LLM unavailable, using rules)"))
                         .build();
             } else {
-                return Health.outOfService()
+                return withLlmDetails(Health.outOfService()
                         .withDetail("ocrReady", ocrReady)
                         .withDetail("storageReady", storageReady)
-                        .withDetail("classifierReady", classifierReady)
+                        .withDetail("classifierReady", classifierReady))
                         .build();
             }
         } catch (Exception e) {
@@ -62,10 +85,32 @@ public class DocumentPlatformHealthIndicator implements HealthIndicator {
 
     private boolean checkClassifierAvailability() {
         try {
-            // Verificar disponibilidade do classificador
-            return true;
+            // Com LLM, estado em cache da última verificação; sem LLM, as regras estão sempre disponíveis
+            return classificationService.isAvailable();
         } catch (Exception e) {
             return false;
         }
     }
+
+    /**
+     * Última verificação de cada instância do LLM (disponível, horário, latência e erro)
+     */
+    private Health.Builder withLlmDetails(Health.Builder builder) {
+        LlmHealthProber prober = llmHealthProber.getIfAvailable();
+        if (prober == null) {
+            return builder;
+        }
+        Map<String, Object> backends = new LinkedHashMap<>();
+        prober.getBackendHealth().forEach((url, health) -> {
+            Map<String, Object> detail = new LinkedHashMap<>();
+            detail.put("available", health.available());
+            detail.put("lastCheckedAt", health.checkedAt() != null ? health.checkedAt().toString() : "never");
+            detail.put("latencyMs", health.latencyMs());
+            if (health.error() != null) {
+                detail.put("error", health.error());
+            }
+            backends.put(url, detail);
+        });
+        return builder.withDetail("llmBackends", backends);
+    }
 }
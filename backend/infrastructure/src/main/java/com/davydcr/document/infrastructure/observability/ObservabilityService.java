@@ -1,5 +1,6 @@
 package com.davydcr.document.infrastructure.observability;
 
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
@@ -8,6 +9,11 @@ import org.springframework.stereotype.Service;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
 
 /**
  * Serviço de observabilidade com métricas customizadas
@@ -19,6 +25,14 @@ public class ObservabilityService {
     private static final Logger logger = LoggerFactory.getLogger(ObservabilityService.class);
     private final MeterRegistry meterRegistry;
     private final Map<String, Timer.Sample> timerSamples = new ConcurrentHashMap<>();
+    private final AtomicLong ocrCacheHits = new AtomicLong();
+    private final AtomicLong ocrCacheMisses = new AtomicLong();
+    private final AtomicLong ocrPixelsProcessed = new AtomicLong();
+    private final AtomicLong ocrPixelsBaseline = new AtomicLong();
+    private final AtomicLong classificationCacheHits = new AtomicLong();
+    private final AtomicLong classificationCacheMisses = new AtomicLong();
+    private final AtomicLong fastPathAgreements = new AtomicLong();
+    private final AtomicLong fastPathComparisons = new AtomicLong();
 
     public ObservabilityService(MeterRegistry meterRegistry) {
         this.meterRegistry = meterRegistry;
@@ -50,6 +64,30 @@ public class ObservabilityService {
         // Gauges para estado atual
         meterRegistry.gauge("document.processing.queue.size", 0);
 
+        // Cache de resultados de OCR
+        meterRegistry.counter("document.ocr.cache.misses");
+        meterRegistry.counter("document.ocr.cache.bytes_saved");
+        Gauge.builder("document.ocr.cache.hit_ratio", this::ocrCacheHitRatio)
+                .strongReference(true)
+                .register(meterRegistry);
+
+        // OCR progressivo: pixels processados versus sempre renderizar em escala alta
+        Gauge.builder("document.ocr.multipass.pixel_savings_ratio", this::ocrPixelSavingsRatio)
+                .strongReference(true)
+                .register(meterRegistry);
+
+        // Cache de classificações
+        meterRegistry.counter("document.classification.cache.misses");
+        meterRegistry.counter("document.classification.cache.llm_seconds_saved");
+        Gauge.builder("document.classification.cache.hit_ratio", this::classificationCacheHitRatio)
+                .strongReference(true)
+                .register(meterRegistry);
+
+        // Caminho rápido (classificador estatístico): concordância com o LLM
+        Gauge.builder("document.classification.fastpath.agreement_ratio", this::fastPathAgreementRatio)
+                .strongReference(true)
+                .register(meterRegistry);
+
         logger.info("Custom metrics initialized");
     }
 
@@ -110,6 +148,450 @@ public class ObservabilityService {
         logger.error("Classification failed: {}", reason);
     }
 
+    private double ocrCacheHitRatio() {
+        long hits = ocrCacheHits.get();
+        long total = hits + ocrCacheMisses.get();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    private double classificationCacheHitRatio() {
+        long hits = classificationCacheHits.get();
+        long total = hits + classificationCacheMisses.get();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    private double fastPathAgreementRatio() {
+        long comparisons = fastPathComparisons.get();
+        return comparisons == 0 ? 0.0 : (double) fastPathAgreements.get() / comparisons;
+    }
+
+    private double ocrPixelSavingsRatio() {
+        long baseline = ocrPixelsBaseline.get();
+        return baseline == 0 ? 0.0 : Math.max(0.0, 1.0 - (double) ocrPixelsProcessed.get() / baseline);
+    }
+
+    /**
+     * Registra gauges do pool de engines Tesseract (tamanho, em uso e utilização)
+     */
+    public void registerOcrEnginePoolGauges(IntSupplier poolSize, IntSupplier inUse) {
+        Gauge.builder("document.ocr.engine.pool.size", poolSize::getAsInt)
+                .strongReference(true)
+                .register(meterRegistry);
+        Gauge.builder("document.ocr.engine.pool.in_use", inUse::getAsInt)
+                .strongReference(true)
+                .register(meterRegistry);
+        Gauge.builder("document.ocr.engine.pool.utilization",
+                        () -> poolSize.getAsInt() == 0 ? 0.0 : (double) inUse.getAsInt() / poolSize.getAsInt())
+                .strongReference(true)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra o tempo de espera para obter um engine Tesseract do pool
+     */
+    public void recordOcrEngineWait(long waitNanos) {
+        meterRegistry.timer("document.ocr.engine.wait").record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registra timeout ao aguardar um engine Tesseract livre
+     */
+    public void recordOcrEngineWaitTimeout() {
+        meterRegistry.counter("document.ocr.engine.wait.timeouts").increment();
+        logger.warn("Timed out waiting for a Tesseract engine");
+    }
+
+    /**
+     * Registra hit no cache de resultados de OCR (tier: memory ou database)
+     * e os bytes de documento que deixaram de passar pelo OCR
+     */
+    public void recordOcrCacheHit(String tier, long bytesSaved) {
+        ocrCacheHits.incrementAndGet();
+        meterRegistry.counter("document.ocr.cache.hits", "tier", tier).increment();
+        meterRegistry.counter("document.ocr.cache.bytes_saved").increment(bytesSaved);
+    }
+
+    /**
+     * Registra miss no cache de resultados de OCR
+     */
+    public void recordOcrCacheMiss() {
+        ocrCacheMisses.incrementAndGet();
+        meterRegistry.counter("document.ocr.cache.misses").increment();
+    }
+
+    /**
+     * Registra hit no cache de classificações (tier: memory ou database)
+     * e o tempo de LLM que a entrada custou quando foi gerada
+     */
+    public void recordClassificationCacheHit(String tier, long generationMsSaved) {
+        classificationCacheHits.incrementAndGet();
+        meterRegistry.counter("document.classification.cache.hits", "tier", tier).increment();
+        meterRegistry.counter("document.classification.cache.llm_seconds_saved").increment(generationMsSaved / 1000.0);
+    }
+
+    /**
+     * Registra miss no cache de classificações
+     */
+    public void recordClassificationCacheMiss() {
+        classificationCacheMisses.incrementAndGet();
+        meterRegistry.counter("document.classification.cache.misses").increment();
+    }
+
+    /**
+     * Registra decisão da classificação em níveis (rules, accepted, escalated ou no_model) e o tempo da previsão
+     */
+    public void recordFastPathDecision(String decision, long predictNanos) {
+        meterRegistry.counter("document.classification.fastpath.decisions", "decision", decision).increment();
+        if (predictNanos > 0) {
+            meterRegistry.timer("document.classification.fastpath.predict.duration")
+                    .record(predictNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Registra se a previsão do caminho rápido coincidiu com o LLM
+     * (source: escalated para documentos abaixo do limiar, shadow para a amostra dos aceitos)
+     */
+    public void recordFastPathAgreement(String source, boolean agreed) {
+        fastPathComparisons.incrementAndGet();
+        if (agreed) {
+            fastPathAgreements.incrementAndGet();
+        }
+        meterRegistry.counter("document.classification.fastpath.agreement",
+                "source", source, "result", agreed ? "agree" : "disagree").increment();
+    }
+
+    /**
+     * Registra uma classificação por regras (matched=false quando caiu no rótulo de fallback)
+     */
+    public void recordRuleClassification(boolean matched, long durationNanos) {
+        meterRegistry.timer("document.classification.rules.duration", "matched", String.valueOf(matched))
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registra uma (re)carga das regras de classificação
+     */
+    public void recordRulesReload(boolean success) {
+        meterRegistry.counter("document.classification.rules.reloads",
+                "result", success ? "success" : "failure").increment();
+    }
+
+    /**
+     * Registra uma chamada coalescida por SingleFlight (coalesced=true quando reaproveitou
+     * o trabalho em andamento de outra chamada com a mesma chave)
+     */
+    public void recordSingleFlightCall(String operation, boolean coalesced) {
+        meterRegistry.counter("document.singleflight.calls",
+                "operation", operation, "result", coalesced ? "coalesced" : "leader").increment();
+    }
+
+    /**
+     * Registra gauge de chaves com trabalho em andamento em um SingleFlight
+     */
+    public void registerSingleFlightGauge(String operation, IntSupplier inFlight) {
+        Gauge.builder("document.singleflight.in_flight", inFlight::getAsInt)
+                .tag("operation", operation)
+                .strongReference(true)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra gauges do último treino do caminho rápido (amostras e métricas de validação)
+     */
+    public void registerFastPathModelGauges(IntSupplier trainingSamples, DoubleSupplier holdoutAccuracy,
+                                            DoubleSupplier holdoutCoverage, DoubleSupplier holdoutAcceptedPrecision) {
+        Gauge.builder("document.classification.fastpath.model.training_samples", trainingSamples::getAsInt)
+                .strongReference(true)
+                .register(meterRegistry);
+        Gauge.builder("document.classification.fastpath.model.holdout_accuracy", holdoutAccuracy::getAsDouble)
+                .strongReference(true)
+                .register(meterRegistry);
+        Gauge.builder("document.classification.fastpath.model.holdout_coverage", holdoutCoverage::getAsDouble)
+                .strongReference(true)
+                .register(meterRegistry);
+        Gauge.builder("document.classification.fastpath.model.holdout_accepted_precision",
+                        holdoutAcceptedPrecision::getAsDouble)
+                .strongReference(true)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra gauges do orçamento de memória de render/OCR (total e reservado, em bytes)
+     */
+    public void registerOcrMemoryBudgetGauges(LongSupplier budgetBytes, LongSupplier reservedBytes) {
+        Gauge.builder("document.ocr.memory.budget.bytes", budgetBytes::getAsLong)
+                .strongReference(true)
+                .register(meterRegistry);
+        Gauge.builder("document.ocr.memory.reserved.bytes", reservedBytes::getAsLong)
+                .strongReference(true)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra o tempo de espera por espaço no orçamento de memória de render/OCR
+     */
+    public void recordOcrMemoryWait(long waitNanos) {
+        meterRegistry.timer("document.ocr.memory.wait").record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registra timeout ao aguardar espaço no orçamento de memória
+     */
+    public void recordOcrMemoryWaitTimeout() {
+        meterRegistry.counter("document.ocr.memory.wait.timeouts").increment();
+        logger.warn("Timed out waiting for OCR memory budget");
+    }
+
+    /**
+     * Registra a duração de uma etapa do pré-processamento de imagem antes do OCR
+     */
+    public void recordOcrPreprocessStep(String step, long durationNanos) {
+        meterRegistry.timer("document.ocr.preprocess.step", "step", step).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registra uma página do OCR progressivo (refinement: none, regions ou page).
+     * A economia de CPU é estimada pelo custo por pixel observado na própria página
+     * aplicado aos pixels que deixaram de ser processados na escala alta.
+     */
+    public void recordOcrMultipassPage(String refinement, long processedPixels, long baselinePixels, long durationNanos) {
+        ocrPixelsProcessed.addAndGet(processedPixels);
+        ocrPixelsBaseline.addAndGet(baselinePixels);
+        meterRegistry.counter("document.ocr.multipass.pages", "refinement", refinement).increment();
+        meterRegistry.counter("document.ocr.multipass.pixels.processed").increment(processedPixels);
+        meterRegistry.counter("document.ocr.multipass.pixels.baseline").increment(baselinePixels);
+
+        long savedPixels = baselinePixels - processedPixels;
+        if (processedPixels > 0 && savedPixels > 0) {
+            double savedSeconds = (double) durationNanos / processedPixels * savedPixels / 1_000_000_000.0;
+            meterRegistry.counter("document.ocr.multipass.cpu_saved.seconds").increment(savedSeconds);
+        }
+    }
+
+    /**
+     * Registra gauges de um backend de LLM (requisições em voo e na fila)
+     */
+    public void registerLlmBackendGauges(String backend, IntSupplier inFlight, IntSupplier queued) {
+        Gauge.builder("llm.client.in_flight", inFlight::getAsInt)
+                .tag("backend", backend)
+                .strongReference(true)
+                .register(meterRegistry);
+        Gauge.builder("llm.client.queued", queued::getAsInt)
+                .tag("backend", backend)
+                .strongReference(true)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra o tempo que uma requisição ao LLM esperou por um slot livre
+     */
+    public void recordLlmQueueWait(String backend, long waitNanos) {
+        meterRegistry.timer("llm.client.queue.wait", "backend", backend).record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registra requisição ao LLM recusada (reason: queue_full ou queue_timeout)
+     */
+    public void recordLlmRequestRejected(String backend, String reason) {
+        meterRegistry.counter("llm.client.rejected", "backend", backend, "reason", reason).increment();
+        logger.warn("LLM request rejected by {}: {}", backend, reason);
+    }
+
+    /**
+     * Registra a duração de uma geração do LLM (outcome: early_stop ou completed)
+     */
+    public void recordLlmGeneration(String model, String outcome, long durationNanos) {
+        meterRegistry.timer("llm.generation.duration", "model", model, "outcome", outcome)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registra o tamanho estimado (tokens) do texto amostrado para o prompt e do documento inteiro
+     */
+    public void recordPromptSample(int sampledTokens, int sourceTokens) {
+        meterRegistry.summary("llm.prompt.tokens").record(sampledTokens);
+        meterRegistry.summary("llm.prompt.source_tokens").record(sourceTokens);
+    }
+
+    /**
+     * Registra uma mensagem tratada por um worker do pipeline em filas
+     * (stage: extract ou classify; outcome: completed, failed, skipped, requeued ou rejected)
+     */
+    public void recordWorkerMessage(String stage, String outcome, long durationMs) {
+        meterRegistry.timer("document.worker.messages", "stage", stage, "outcome", outcome)
+                .record(durationMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Registra um documento adiado porque a fila da etapa seguinte do pipeline estava cheia
+     */
+    public void recordPipelineDeferral(String stage) {
+        meterRegistry.counter("document.pipeline.backpressure.deferred", "stage", stage).increment();
+    }
+
+    /**
+     * Registra gauges do índice de embeddings (documentos indexados e rótulos com protótipo)
+     */
+    public void registerEmbeddingIndexGauges(IntSupplier documents, IntSupplier labels) {
+        Gauge.builder("document.classification.embedding.index.documents", documents::getAsInt)
+                .strongReference(true)
+                .register(meterRegistry);
+        Gauge.builder("document.classification.embedding.index.labels", labels::getAsInt)
+                .strongReference(true)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra uma classificação por embedding (outcome: classified, no_model ou error)
+     */
+    public void recordEmbeddingClassification(String outcome, long durationNanos) {
+        meterRegistry.timer("document.classification.embedding.duration", "outcome", outcome)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registra embeddings calculados para documentos já classificados
+     */
+    public void recordEmbeddingBackfill(int documents) {
+        meterRegistry.counter("document.classification.embedding.backfilled").increment(documents);
+    }
+
+    /**
+     * Registra gauges do roteador de LLM por instância (pendências e saúde 0/1)
+     */
+    public void registerLlmRouterGauges(String backend, IntSupplier outstanding, IntSupplier healthy) {
+        Gauge.builder("llm.router.outstanding", outstanding::getAsInt)
+                .tag("backend", backend)
+                .strongReference(true)
+                .register(meterRegistry);
+        Gauge.builder("llm.router.healthy", healthy::getAsInt)
+                .tag("backend", backend)
+                .strongReference(true)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra o resultado de uma tentativa roteada (outcome: success ou failure)
+     */
+    public void recordLlmRouterRequest(String backend, String outcome) {
+        meterRegistry.counter("llm.router.requests", "backend", backend, "outcome", outcome).increment();
+    }
+
+    /**
+     * Registra requisição duplicada por hedging (result: launched ou won)
+     */
+    public void recordLlmHedge(String backend, String result) {
+        meterRegistry.counter("llm.router.hedges", "backend", backend, "result", result).increment();
+    }
+
+    /**
+     * Registra instância de LLM tirada de rotação por falhas consecutivas
+     */
+    public void recordLlmBackendEjected(String backend) {
+        meterRegistry.counter("llm.router.ejections", "backend", backend).increment();
+    }
+
+    /**
+     * Registra gauge com o estado em cache da verificação de saúde de uma instância de LLM (0/1)
+     */
+    public void registerLlmHealthGauge(String backend, IntSupplier available) {
+        Gauge.builder("llm.health.available", available::getAsInt)
+                .tag("backend", backend)
+                .strongReference(true)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra gauge dos jobs da fila no banco em execução neste nó
+     */
+    public void registerJobQueueGauges(IntSupplier running) {
+        Gauge.builder("document.jobs.running", running::getAsInt)
+                .strongReference(true)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra jobs reservados da fila no banco por este nó
+     */
+    public void recordJobsClaimed(int jobs) {
+        meterRegistry.counter("document.jobs.claimed").increment(jobs);
+    }
+
+    /**
+     * Registra jobs em execução cujo lease foi perdido (vencido e reservado por outro nó)
+     */
+    public void recordJobLeaseLost(int jobs) {
+        meterRegistry.counter("document.jobs.lease_lost").increment(jobs);
+    }
+
+    /**
+     * Registra os sinais do controle de admissão de uploads (fila e threads do executor,
+     * páginas aguardando OCR, documentos admitidos e circuit breaker aberto)
+     */
+    public void registerAdmissionGauges(IntSupplier queueDepth, IntSupplier activeThreads, IntSupplier pendingPages,
+                                        IntSupplier inFlightDocuments, IntSupplier circuitOpen) {
+        Gauge.builder("document.admission.queue_depth", queueDepth::getAsInt)
+                .strongReference(true)
+                .register(meterRegistry);
+        Gauge.builder("document.admission.active_threads", activeThreads::getAsInt)
+                .strongReference(true)
+                .register(meterRegistry);
+        Gauge.builder("document.admission.pending_pages", pendingPages::getAsInt)
+                .strongReference(true)
+                .register(meterRegistry);
+        Gauge.builder("document.admission.in_flight", inFlightDocuments::getAsInt)
+                .strongReference(true)
+                .register(meterRegistry);
+        Gauge.builder("document.admission.circuit_open", circuitOpen::getAsInt)
+                .strongReference(true)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra upload recusado pelo controle de admissão (reason: circuit_open, queue_depth,
+     * pending_pages ou in_flight)
+     */
+    public void recordAdmissionRejected(String reason) {
+        meterRegistry.counter("document.admission.rejected", "reason", reason).increment();
+    }
+
+    /**
+     * Registra gauges de um executor de virtual threads (tarefas em execução e esperando o semáforo)
+     */
+    public void registerExecutorGauges(String executor, IntSupplier active, IntSupplier waiting) {
+        Gauge.builder("executor.virtual.active", active::getAsInt)
+                .tag("executor", executor)
+                .strongReference(true)
+                .register(meterRegistry);
+        Gauge.builder("executor.virtual.waiting", waiting::getAsInt)
+                .tag("executor", executor)
+                .strongReference(true)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra tarefa recusada por um executor saturado
+     */
+    public void recordExecutorRejected(String executor) {
+        meterRegistry.counter("executor.rejected", "executor", executor).increment();
+    }
+
+    /**
+     * Registra virtual thread presa à thread de plataforma (site: classe e método do ponto de bloqueio)
+     */
+    public void recordVirtualThreadPinned(String site, long durationNanos) {
+        meterRegistry.timer("executor.virtual.pinned", "site", site).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registra uma verificação de saúde de instância de LLM (result: up ou down)
+     */
+    public void recordLlmHealthProbe(String backend, boolean up, long latencyNanos) {
+        meterRegistry.timer("llm.health.probe", "backend", backend, "result", up ? "up" : "down")
+                .record(latencyNanos, TimeUnit.NANOSECONDS);
+    }
+
     /**
      * Inicia timer para operação
      */
@@ -38,6 +38,9 @@ public class DocumentJpaEntity {
     @Column
     private Integer classificationConfidence;
 
+    @Column
+    private String classificationModel;
+
     @Column(columnDefinition = "TEXT")
     private String errorMessage;
 
@@ -82,6 +85,7 @@ public class DocumentJpaEntity {
             if (result.getClassification().isPresent()) {
                 entity.classificationLabel = result.getClassification().get().getLabel().getValue();
                 entity.classificationConfidence = result.getClassification().get().getConfidence().getPercentage();
+                entity.classificationModel = result.getClassification().get().getModel();
             }
         }
 
@@ -170,6 +174,14 @@ public class DocumentJpaEntity {
         this.classificationConfidence = classificationConfidence;
     }
 
+    public String getClassificationModel() {
+        return classificationModel;
+    }
+
+    public void setClassificationModel(String classificationModel) {
+        this.classificationModel = classificationModel;
+    }
+
     public String getErrorMessage() {
         return errorMessage;
     }
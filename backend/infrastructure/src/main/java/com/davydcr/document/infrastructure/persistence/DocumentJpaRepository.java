@@ -3,6 +3,8 @@ package com.davydcr.document.infrastructure.persistence;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -21,4 +23,52 @@ public interface DocumentJpaRepository extends JpaRepository<DocumentJpaEntity,
     Page<DocumentJpaEntity> findByUserIdAndType(String userId, String type, Pageable pageable);
 
     Page<DocumentJpaEntity> findByUserIdAndStatusAndType(String userId, String status, String type, Pageable pageable);
+
+    /**
+     * Documentos classificados pelo modelo indicado, com texto extraído e confiança mínima,
+     * mais recentes primeiro (amostras de treino do classificador estatístico)
+     */
+    @Query("SELECT d.extractedText AS extractedText, d.classificationLabel AS classificationLabel "
+            + "FROM DocumentJpaEntity d "
+            + "WHERE d.classificationModel = :model AND d.classificationConfidence >= :minConfidence "
+            + "AND d.extractedText IS NOT NULL AND d.classificationLabel IS NOT NULL "
+            + "ORDER BY d.createdAt DESC")
+    List<LabeledText> findLabeledTexts(@Param("model") String model,
+                                       @Param("minConfidence") int minConfidence,
+                                       Pageable pageable);
+
+    /**
+     * Id e classificação dos documentos com texto extraído, mais recentes primeiro
+     * (base do índice de embeddings; sem carregar o texto)
+     */
+    @Query("SELECT d.id AS id, d.classificationLabel AS classificationLabel, "
+            + "d.classificationModel AS classificationModel, d.classificationConfidence AS classificationConfidence "
+            + "FROM DocumentJpaEntity d "
+            + "WHERE d.extractedText IS NOT NULL "
+            + "ORDER BY d.createdAt DESC")
+    List<EmbeddableDocument> findEmbeddableDocuments(Pageable pageable);
+
+    /**
+     * Projeção com o texto extraído e o rótulo de um documento
+     */
+    interface LabeledText {
+
+        String getExtractedText();
+
+        String getClassificationLabel();
+    }
+
+    /**
+     * Projeção com o id e a classificação de um documento
+     */
+    interface EmbeddableDocument {
+
+        String getId();
+
+        String getClassificationLabel();
+
+        String getClassificationModel();
+
+        Integer getClassificationConfidence();
+    }
 }
@@ -0,0 +1,119 @@
+package com.davydcr.document.infrastructure.persistence.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Entidade JPA do cache persistente de classificações.
+ * Um registro por (fingerprint do texto, modelo, versão do prompt).
+ */
+@Entity
+@Table(name = "classification_result_cache", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_classification_cache_key", columnNames = {"fingerprint", "model_name", "prompt_version"})
+}, indexes = {
+    @Index(name = "idx_classification_cache_expires_at", columnList = "expires_at")
+})
+public class ClassificationResultCacheEntity {
+
+    @Id
+    @Column(name = "id", length = 36)
+    private String id;
+
+    @Column(name = "fingerprint", nullable = false, length = 64)
+    private String fingerprint;
+
+    @Column(name = "model_name", nullable = false, length = 255)
+    private String modelName;
+
+    @Column(name = "prompt_version", nullable = false, length = 64)
+    private String promptVersion;
+
+    @Column(name = "label", nullable = false, length = 100)
+    private String label;
+
+    @Column(name = "confidence", nullable = false)
+    private Integer confidence;
+
+    @Column(name = "generation_ms", nullable = false)
+    private Long generationMs;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Getters e Setters
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public String getModelName() {
+        return modelName;
+    }
+
+    public void setModelName(String modelName) {
+        this.modelName = modelName;
+    }
+
+    public String getPromptVersion() {
+        return promptVersion;
+    }
+
+    public void setPromptVersion(String promptVersion) {
+        this.promptVersion = promptVersion;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    public Integer getConfidence() {
+        return confidence;
+    }
+
+    public void setConfidence(Integer confidence) {
+        this.confidence = confidence;
+    }
+
+    public Long getGenerationMs() {
+        return generationMs;
+    }
+
+    public void setGenerationMs(Long generationMs) {
+        this.generationMs = generationMs;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,92 @@
+package com.davydcr.document.infrastructure.persistence.entity;
+
+import jakarta.persistence.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.LocalDateTime;
+
+/**
+ * Entidade JPA do embedding de um documento.
+ * Um registro por (documento, modelo de embeddings); o vetor é gravado em float32 little-endian.
+ */
+@Entity
+@Table(name = "document_embeddings", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_document_embeddings_document_model", columnNames = {"document_id", "model_name"})
+}, indexes = {
+    @Index(name = "idx_document_embeddings_model_name", columnList = "model_name")
+})
+public class DocumentEmbeddingEntity {
+
+    @Id
+    @Column(name = "id", length = 36)
+    private String id;
+
+    @Column(name = "document_id", nullable = false, length = 36)
+    private String documentId;
+
+    @Column(name = "model_name", nullable = false, length = 255)
+    private String modelName;
+
+    @Column(name = "dimension", nullable = false)
+    private Integer dimension;
+
+    @Column(name = "vector", nullable = false)
+    private byte[] vector;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    /**
+     * Vetor decodificado
+     */
+    public float[] toVector() {
+        float[] values = new float[dimension];
+        ByteBuffer.wrap(vector).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(values);
+        return values;
+    }
+
+    /**
+     * Codifica e guarda o vetor (e a dimensão)
+     */
+    public void setVector(float[] values) {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asFloatBuffer().put(values);
+        this.vector = buffer.array();
+        this.dimension = values.length;
+    }
+
+    // Getters e Setters
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getDocumentId() {
+        return documentId;
+    }
+
+    public void setDocumentId(String documentId) {
+        this.documentId = documentId;
+    }
+
+    public String getModelName() {
+        return modelName;
+    }
+
+    public void setModelName(String modelName) {
+        this.modelName = modelName;
+    }
+
+    public Integer getDimension() {
+        return dimension;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
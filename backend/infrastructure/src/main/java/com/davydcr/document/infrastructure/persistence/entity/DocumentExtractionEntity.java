@@ -0,0 +1,80 @@
+package com.davydcr.document.infrastructure.persistence.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Entidade JPA do conteúdo extraído entre as etapas de OCR e de classificação.
+ * Um registro por documento, removido quando o processamento termina.
+ */
+@Entity
+@Table(name = "document_extractions", indexes = {
+    @Index(name = "idx_document_extractions_created_at", columnList = "created_at")
+})
+public class DocumentExtractionEntity {
+
+    @Id
+    @Column(name = "document_id", length = 36)
+    private String documentId;
+
+    @Column(name = "ocr_engine", nullable = false, length = 255)
+    private String ocrEngine;
+
+    @Column(name = "page_count", nullable = false)
+    private Integer pageCount;
+
+    @Column(name = "full_text", nullable = false, columnDefinition = "TEXT")
+    private String fullText;
+
+    @Column(name = "pages_json", columnDefinition = "TEXT")
+    private String pagesJson;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    // Getters e Setters
+
+    public String getDocumentId() {
+        return documentId;
+    }
+
+    public void setDocumentId(String documentId) {
+        this.documentId = documentId;
+    }
+
+    public String getOcrEngine() {
+        return ocrEngine;
+    }
+
+    public void setOcrEngine(String ocrEngine) {
+        this.ocrEngine = ocrEngine;
+    }
+
+    public Integer getPageCount() {
+        return pageCount;
+    }
+
+    public void setPageCount(Integer pageCount) {
+        this.pageCount = pageCount;
+    }
+
+    public String getFullText() {
+        return fullText;
+    }
+
+    public void setFullText(String fullText) {
+        this.fullText = fullText;
+    }
+
+    public String getPagesJson() {
+        return pagesJson;
+    }
+
+    public void setPagesJson(String pagesJson) {
+        this.pagesJson = pagesJson;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,107 @@
+package com.davydcr.document.infrastructure.persistence.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Entidade JPA de checkpoint do OCR: texto de uma página já concluída
+ * de um documento cuja extração ainda não terminou.
+ */
+@Entity
+@Table(name = "ocr_page_checkpoints", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_ocr_page_checkpoints_page",
+            columnNames = {"content_hash", "extraction_version", "page_number"})
+})
+public class OcrPageCheckpointEntity {
+
+    @Id
+    @Column(name = "id", length = 36)
+    private String id;
+
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    @Column(name = "extraction_version", nullable = false, length = 255)
+    private String extractionVersion;
+
+    @Column(name = "page_number", nullable = false)
+    private Integer pageNumber;
+
+    @Column(name = "page_text", nullable = false, columnDefinition = "TEXT")
+    private String pageText;
+
+    @Column(name = "engine", nullable = false, length = 255)
+    private String engine;
+
+    @Column(name = "confidence")
+    private Double confidence;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    // Getters e Setters
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public String getExtractionVersion() {
+        return extractionVersion;
+    }
+
+    public void setExtractionVersion(String extractionVersion) {
+        this.extractionVersion = extractionVersion;
+    }
+
+    public Integer getPageNumber() {
+        return pageNumber;
+    }
+
+    public void setPageNumber(Integer pageNumber) {
+        this.pageNumber = pageNumber;
+    }
+
+    public String getPageText() {
+        return pageText;
+    }
+
+    public void setPageText(String pageText) {
+        this.pageText = pageText;
+    }
+
+    public String getEngine() {
+        return engine;
+    }
+
+    public void setEngine(String engine) {
+        this.engine = engine;
+    }
+
+    public Double getConfidence() {
+        return confidence;
+    }
+
+    public void setConfidence(Double confidence) {
+        this.confidence = confidence;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
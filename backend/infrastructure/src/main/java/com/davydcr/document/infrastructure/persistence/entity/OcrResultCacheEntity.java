@@ -0,0 +1,131 @@
+package com.davydcr.document.infrastructure.persistence.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Entidade JPA do cache persistente de resultados de OCR.
+ * Um registro por (SHA-256 do arquivo, versão da configuração de extração).
+ */
+@Entity
+@Table(name = "ocr_result_cache", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_ocr_result_cache_hash_version", columnNames = {"content_hash", "extraction_version"})
+}, indexes = {
+    @Index(name = "idx_ocr_result_cache_created_at", columnList = "created_at"),
+    @Index(name = "idx_ocr_result_cache_expires_at", columnList = "expires_at")
+})
+public class OcrResultCacheEntity {
+
+    @Id
+    @Column(name = "id", length = 36)
+    private String id;
+
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    @Column(name = "extraction_version", nullable = false, length = 255)
+    private String extractionVersion;
+
+    @Column(name = "ocr_engine", nullable = false, length = 255)
+    private String ocrEngine;
+
+    @Column(name = "page_count", nullable = false)
+    private Integer pageCount;
+
+    @Column(name = "full_text", nullable = false, columnDefinition = "TEXT")
+    private String fullText;
+
+    @Column(name = "pages_json", columnDefinition = "TEXT")
+    private String pagesJson;
+
+    @Column(name = "size_bytes", nullable = false)
+    private Long sizeBytes;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Getters e Setters
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public String getExtractionVersion() {
+        return extractionVersion;
+    }
+
+    public void setExtractionVersion(String extractionVersion) {
+        this.extractionVersion = extractionVersion;
+    }
+
+    public String getOcrEngine() {
+        return ocrEngine;
+    }
+
+    public void setOcrEngine(String ocrEngine) {
+        this.ocrEngine = ocrEngine;
+    }
+
+    public Integer getPageCount() {
+        return pageCount;
+    }
+
+    public void setPageCount(Integer pageCount) {
+        this.pageCount = pageCount;
+    }
+
+    public String getFullText() {
+        return fullText;
+    }
+
+    public void setFullText(String fullText) {
+        this.fullText = fullText;
+    }
+
+    public String getPagesJson() {
+        return pagesJson;
+    }
+
+    public void setPagesJson(String pagesJson) {
+        this.pagesJson = pagesJson;
+    }
+
+    public Long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public void setSizeBytes(Long sizeBytes) {
+        this.sizeBytes = sizeBytes;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,30 @@
+package com.davydcr.document.infrastructure.persistence.repository;
+
+import com.davydcr.document.infrastructure.persistence.entity.ClassificationResultCacheEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface ClassificationResultCacheJpaRepository extends JpaRepository<ClassificationResultCacheEntity, String> {
+
+    Optional<ClassificationResultCacheEntity> findByFingerprintAndModelNameAndPromptVersion(
+            String fingerprint, String modelName, String promptVersion);
+
+    /**
+     * Remove entradas expiradas e as geradas por outro modelo ou versão de prompt
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ClassificationResultCacheEntity c WHERE c.expiresAt < :now "
+            + "OR c.modelName <> :modelName OR c.promptVersion <> :promptVersion")
+    int deleteStale(@Param("now") LocalDateTime now,
+                    @Param("modelName") String modelName,
+                    @Param("promptVersion") String promptVersion);
+}
@@ -0,0 +1,13 @@
+package com.davydcr.document.infrastructure.persistence.repository;
+
+import com.davydcr.document.infrastructure.persistence.entity.DocumentEmbeddingEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface DocumentEmbeddingJpaRepository extends JpaRepository<DocumentEmbeddingEntity, String> {
+
+    List<DocumentEmbeddingEntity> findByModelName(String modelName);
+}
@@ -0,0 +1,9 @@
+package com.davydcr.document.infrastructure.persistence.repository;
+
+import com.davydcr.document.infrastructure.persistence.entity.DocumentExtractionEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DocumentExtractionJpaRepository extends JpaRepository<DocumentExtractionEntity, String> {
+}
@@ -0,0 +1,23 @@
+package com.davydcr.document.infrastructure.persistence.repository;
+
+import com.davydcr.document.infrastructure.persistence.entity.OcrPageCheckpointEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface OcrPageCheckpointJpaRepository extends JpaRepository<OcrPageCheckpointEntity, String> {
+
+    List<OcrPageCheckpointEntity> findByContentHashAndExtractionVersion(String contentHash, String extractionVersion);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OcrPageCheckpointEntity c WHERE c.contentHash = :contentHash AND c.extractionVersion = :extractionVersion")
+    int deleteByContentHashAndExtractionVersion(@Param("contentHash") String contentHash,
+                                                @Param("extractionVersion") String extractionVersion);
+}
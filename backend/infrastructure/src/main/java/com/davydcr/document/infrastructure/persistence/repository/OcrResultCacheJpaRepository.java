@@ -0,0 +1,28 @@
+package com.davydcr.document.infrastructure.persistence.repository;
+
+import com.davydcr.document.infrastructure.persistence.entity.OcrResultCacheEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface OcrResultCacheJpaRepository extends JpaRepository<OcrResultCacheEntity, String> {
+
+    Optional<OcrResultCacheEntity> findByContentHashAndExtractionVersion(String contentHash, String extractionVersion);
+
+    /**
+     * Remove entradas expiradas e as geradas por outra versão da extração
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OcrResultCacheEntity c WHERE c.expiresAt < :now "
+            + "OR c.extractionVersion <> :extractionVersion")
+    int deleteStale(@Param("now") LocalDateTime now,
+                    @Param("extractionVersion") String extractionVersion);
+}
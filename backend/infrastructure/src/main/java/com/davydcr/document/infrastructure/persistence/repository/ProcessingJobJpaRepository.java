@@ -0,0 +1,47 @@
+package com.davydcr.document.infrastructure.persistence.repository;
+
+import com.davydcr.document.infrastructure.persistence.entity.ProcessingJobEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ProcessingJobJpaRepository extends JpaRepository<ProcessingJobEntity, String> {
+
+    /**
+     * Trava até limit jobs prontos (pendentes ou com lease vencido), pulando os já
+     * travados por outro nó; deve rodar na mesma transação que marca os jobs como RUNNING
+     */
+    @Query(value = "SELECT * FROM processing_jobs " +
+            "WHERE (status = 'PENDING' AND available_at <= :now) " +
+            "OR (status = 'RUNNING' AND lease_expires_at < :now) " +
+            "ORDER BY available_at " +
+            "LIMIT :limit " +
+            "FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<ProcessingJobEntity> lockClaimable(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Renova o lease dos jobs que ainda pertencem ao nó
+     */
+    @Modifying
+    @Query("UPDATE ProcessingJobEntity j SET j.leaseExpiresAt = :leaseExpiresAt, j.updatedAt = :now " +
+            "WHERE j.documentId IN :documentIds AND j.leaseOwner = :owner AND j.status = 'RUNNING'")
+    int renewLeases(@Param("documentIds") Collection<String> documentIds, @Param("owner") String owner,
+                    @Param("leaseExpiresAt") LocalDateTime leaseExpiresAt, @Param("now") LocalDateTime now);
+
+    /**
+     * Remove o job concluído, se o lease ainda for do nó
+     */
+    @Modifying
+    @Query("DELETE FROM ProcessingJobEntity j WHERE j.documentId = :documentId AND j.leaseOwner = :owner")
+    int deleteOwned(@Param("documentId") String documentId, @Param("owner") String owner);
+
+    long countByStatus(String status);
+}
@@ -0,0 +1,222 @@
+package com.davydcr.document.infrastructure.service;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Autômato Aho-Corasick para buscar vários termos em uma única passada.
+ *
+ * A varredura lê o CharSequence caractere a caractere, dobrando caixa e
+ * acentos no próprio laço (sem toLowerCase nem cópia do texto) e tratando
+ * qualquer sequência de espaços como um espaço. Só são reportadas ocorrências
+ * de palavra inteira: o caractere antes e depois do termo não pode ser letra
+ * ou dígito. O autômato é imutável e pode ser compartilhado entre threads.
+ */
+public final class AhoCorasickMatcher {
+
+    private static final char[] FOLD_TABLE = buildFoldTable();
+
+    private final char[][] edgeChars;
+    private final int[][] edgeTargets;
+    private final int[] failure;
+    private final int[][] outputs;
+    private final int[] patternLengths;
+    private final int maxPatternLength;
+
+    private AhoCorasickMatcher(char[][] edgeChars, int[][] edgeTargets, int[] failure,
+                               int[][] outputs, int[] patternLengths) {
+        this.edgeChars = edgeChars;
+        this.edgeTargets = edgeTargets;
+        this.failure = failure;
+        this.outputs = outputs;
+        this.patternLengths = patternLengths;
+        this.maxPatternLength = Arrays.stream(patternLengths).max().orElse(0);
+    }
+
+    /**
+     * Constrói o autômato; o índice de cada termo na lista identifica suas ocorrências
+     */
+    public static AhoCorasickMatcher build(List<String> patterns) {
+        List<TreeMap<Character, Integer>> children = new ArrayList<>();
+        List<List<Integer>> nodeOutputs = new ArrayList<>();
+        children.add(new TreeMap<>());
+        nodeOutputs.add(new ArrayList<>());
+        int[] patternLengths = new int[patterns.size()];
+
+        for (int p = 0; p < patterns.size(); p++) {
+            String pattern = foldPattern(patterns.get(p));
+            if (pattern.isEmpty()) {
+                throw new IllegalArgumentException("pattern cannot be blank: index " + p);
+            }
+            patternLengths[p] = pattern.length();
+            int node = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                Integer next = children.get(node).get(pattern.charAt(i));
+                if (next == null) {
+                    next = children.size();
+                    children.add(new TreeMap<>());
+                    nodeOutputs.add(new ArrayList<>());
+                    children.get(node).put(pattern.charAt(i), next);
+                }
+                node = next;
+            }
+            nodeOutputs.get(node).add(p);
+        }
+
+        int nodeCount = children.size();
+        char[][] edgeChars = new char[nodeCount][];
+        int[][] edgeTargets = new int[nodeCount][];
+        for (int node = 0; node < nodeCount; node++) {
+            TreeMap<Character, Integer> edges = children.get(node);
+            edgeChars[node] = new char[edges.size()];
+            edgeTargets[node] = new int[edges.size()];
+            int i = 0;
+            for (var edge : edges.entrySet()) {
+                edgeChars[node][i] = edge.getKey();
+                edgeTargets[node][i] = edge.getValue();
+                i++;
+            }
+        }
+
+        // Links de falha em largura; as saídas do sufixo são herdadas
+        int[] failure = new int[nodeCount];
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int child : edgeTargets[0]) {
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int i = 0; i < edgeChars[node].length; i++) {
+                char c = edgeChars[node][i];
+                int child = edgeTargets[node][i];
+                int fallback = failure[node];
+                while (fallback != 0 && transition(edgeChars, edgeTargets, fallback, c) < 0) {
+                    fallback = failure[fallback];
+                }
+                int target = transition(edgeChars, edgeTargets, fallback, c);
+                failure[child] = target >= 0 && target != child ? target : 0;
+                nodeOutputs.get(child).addAll(nodeOutputs.get(failure[child]));
+                queue.add(child);
+            }
+        }
+
+        int[][] outputs = new int[nodeCount][];
+        for (int node = 0; node < nodeCount; node++) {
+            outputs[node] = nodeOutputs.get(node).stream().mapToInt(Integer::intValue).toArray();
+        }
+        return new AhoCorasickMatcher(edgeChars, edgeTargets, failure, outputs, patternLengths);
+    }
+
+    /**
+     * Varre o texto e notifica cada ocorrência de palavra inteira
+     */
+    public void scan(CharSequence text, MatchListener listener) {
+        int length = text.length();
+        // Posição no texto original de cada caractere emitido, para checar a fronteira inicial
+        int ringSize = maxPatternLength + 1;
+        int[] sourceIndex = new int[ringSize];
+        long emitted = 0;
+        int state = 0;
+        boolean previousSpace = true;
+
+        for (int i = 0; i < length; i++) {
+            char c = fold(text.charAt(i));
+            if (Character.isWhitespace(c)) {
+                if (previousSpace) {
+                    continue;
+                }
+                c = ' ';
+                previousSpace = true;
+            } else {
+                previousSpace = false;
+            }
+            sourceIndex[(int) (emitted % ringSize)] = i;
+            emitted++;
+
+            int next;
+            while ((next = transition(edgeChars, edgeTargets, state, c)) < 0 && state != 0) {
+                state = failure[state];
+            }
+            state = Math.max(next, 0);
+
+            for (int pattern : outputs[state]) {
+                int start = sourceIndex[(int) ((emitted - patternLengths[pattern]) % ringSize)];
+                if (isBoundary(text, start - 1) && isBoundary(text, i + 1)) {
+                    listener.onMatch(pattern, start, i + 1);
+                }
+            }
+        }
+    }
+
+    public int getPatternCount() {
+        return patternLengths.length;
+    }
+
+    /**
+     * Forma dobrada de um termo (mesma dobra usada na varredura)
+     */
+    static String foldPattern(String pattern) {
+        StringBuilder folded = new StringBuilder(pattern.length());
+        boolean previousSpace = true;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = fold(pattern.charAt(i));
+            if (Character.isWhitespace(c)) {
+                if (!previousSpace) {
+                    folded.append(' ');
+                }
+                previousSpace = true;
+            } else {
+                folded.append(c);
+                previousSpace = false;
+            }
+        }
+        int end = folded.length();
+        while (end > 0 && folded.charAt(end - 1) == ' ') {
+            end--;
+        }
+        return folded.substring(0, end);
+    }
+
+    static char fold(char c) {
+        return c < FOLD_TABLE.length ? FOLD_TABLE[c] : Character.toLowerCase(c);
+    }
+
+    private static boolean isBoundary(CharSequence text, int index) {
+        return index < 0 || index >= text.length() || !Character.isLetterOrDigit(text.charAt(index));
+    }
+
+    private static int transition(char[][] edgeChars, int[][] edgeTargets, int node, char c) {
+        int i = Arrays.binarySearch(edgeChars[node], c);
+        return i >= 0 ? edgeTargets[node][i] : (node == 0 ? 0 : -1);
+    }
+
+    /**
+     * Caixa baixa sem acento para Latin-1 e Latin Extended-A (ex: 'Ç' -> 'c', 'É' -> 'e')
+     */
+    private static char[] buildFoldTable() {
+        char[] table = new char[0x180];
+        for (char c = 0; c < table.length; c++) {
+            if (Character.isSpaceChar(c)) {
+                table[c] = ' ';  // inclui o espaço não separável comum em PDFs
+                continue;
+            }
+            String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+            table[c] = Character.toLowerCase(decomposed.charAt(0));
+        }
+        return table;
+    }
+
+    /**
+     * Ocorrência do termo patternIndex em [start, end) do texto original
+     */
+    @FunctionalInterface
+    public interface MatchListener {
+
+        void onMatch(int patternIndex, int start, int end);
+    }
+}
@@ -1,18 +1,26 @@
 package com.davydcr.document.infrastructure.service;
 
+import com.davydcr.document.application.dto.DocumentProcessingMessage;
 import com.davydcr.document.application.dto.ProcessDocumentInput;
 import com.davydcr.document.application.dto.ProcessDocumentOutput;
 import com.davydcr.document.application.port.DocumentRepository;
 import com.davydcr.document.application.usecase.ProcessDocumentUseCase;
 import com.davydcr.document.domain.model.DocumentId;
+import com.davydcr.document.infrastructure.exception.ServiceOverloadedException;
 import com.davydcr.document.infrastructure.security.SecurityContextService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
 
 /**
  * Serviço para processamento assíncrono de documentos.
@@ -20,6 +28,12 @@ import java.util.concurrent.CompletableFuture;
  * Responsável por executar OCR e classificação em thread separada,
  * retornando CompletableFuture para não bloquear o cliente.
  * Notifica via webhook quando completa e rastreia saúde do sistema via circuit breaker.
+ *
+ * Com app.async.processing-enabled, o upload só registra o documento e o
+ * publica na fila do RabbitMQ ({@link #enqueueDocument}); o processamento
+ * fica com o {@link DocumentProcessingConsumer} de qualquer nó worker. Sem
+ * RabbitMQ e com app.async.job-queue.enabled, o documento vai para a fila no
+ * banco ({@link DocumentJobQueue}) e é processado pelo {@link DocumentJobWorker}.
  */
 @Service
 public class AsyncDocumentProcessingService {
@@ -30,82 +44,193 @@ public class AsyncDocumentProcessingService {
     private final DocumentRepository documentRepository;
     private final DocumentNotificationService notificationService;
     private final ProcessingCircuitBreakerService circuitBreakerService;
+    private final Executor processingExecutor;
+    private final ObjectProvider<AsyncProcessingService> queueProvider;
+    private final ObjectProvider<DocumentJobQueue> jobQueueProvider;
+    private final TransactionTemplate transactionTemplate;
+    private final DocumentAdmissionService admissionService;
 
     @Autowired
     public AsyncDocumentProcessingService(
             ProcessDocumentUseCase processDocumentUseCase,
             DocumentRepository documentRepository,
             DocumentNotificationService notificationService,
-            ProcessingCircuitBreakerService circuitBreakerService) {
+            ProcessingCircuitBreakerService circuitBreakerService,
+            @Qualifier("documentProcessingExecutor") Executor processingExecutor,
+            ObjectProvider<AsyncProcessingService> queueProvider,
+            ObjectProvider<DocumentJobQueue> jobQueueProvider,
+            TransactionTemplate transactionTemplate,
+            DocumentAdmissionService admissionService) {
         this.processDocumentUseCase = processDocumentUseCase;
         this.documentRepository = documentRepository;
         this.notificationService = notificationService;
         this.circuitBreakerService = circuitBreakerService;
+        this.processingExecutor = processingExecutor;
+        this.queueProvider = queueProvider;
+        this.jobQueueProvider = jobQueueProvider;
+        this.transactionTemplate = transactionTemplate;
+        this.admissionService = admissionService;
+    }
+
+    /**
+     * Indica se os uploads vão para uma fila durável (RabbitMQ ou banco) em vez do executor local
+     */
+    public boolean isQueueEnabled() {
+        return queueProvider.getIfAvailable() != null || jobQueueProvider.getIfAvailable() != null;
+    }
+
+    /**
+     * Registra o documento (RECEIVED, com o usuário do upload) e publica a
+     * mensagem de processamento na fila (ou grava o job na fila do banco).
+     *
+     * Na fila do banco o documento e o job são gravados na mesma transação:
+     * não sobra documento RECEIVED sem job se o nó cair entre as duas gravações.
+     * No RabbitMQ a publicação só acontece depois do commit do documento (o
+     * consumidor precisa encontrá-lo); falha ao publicar deixa o documento
+     * como FAILED, para não ficar parado em RECEIVED.
+     *
+     * @param input Dados de entrada para processamento
+     * @param fileName Nome do arquivo original
+     * @param userId ID do usuário que fez o upload
+     */
+    public void enqueueDocument(ProcessDocumentInput input, String fileName, String userId) {
+        AsyncProcessingService queue = queueProvider.getIfAvailable();
+        if (queue == null) {
+            DocumentJobQueue jobQueue = jobQueueProvider.getObject();
+            transactionTemplate.executeWithoutResult(status -> {
+                runAsUser(userId, () -> processDocumentUseCase.registerDocument(input, fileName));
+                jobQueue.enqueue(input, fileName, userId);
+            });
+            log.info("Documento gravado na fila do banco: documentId={}", input.getDocumentId());
+            return;
+        }
+
+        runAsUser(userId, () -> processDocumentUseCase.registerDocument(input, fileName));
+        try {
+            queue.sendProcessingMessage(new DocumentProcessingMessage(
+                    input.getDocumentId(),
+                    input.getFilePath(),
+                    input.getFileType(),
+                    userId,
+                    System.currentTimeMillis(),
+                    input.getContentHash()));
+            log.info("Documento enviado para a fila de processamento: documentId={}", input.getDocumentId());
+        } catch (RuntimeException e) {
+            runAsUser(userId, () -> markFailed(input.getDocumentId(), "Error queueing document: " + e.getMessage()));
+            throw e;
+        }
+    }
+
+    private void markFailed(String documentId, String error) {
+        documentRepository.findById(new DocumentId(java.util.UUID.fromString(documentId)))
+                .ifPresent(document -> {
+                    document.requestProcessing();
+                    document.failProcessing(error);
+                    documentRepository.save(document);
+                });
     }
 
     /**
      * Processa documento de forma assíncrona em thread separada.
      * 
+     * O OCR roda em uma thread do documentProcessingExecutor; a classificação
+     * não ocupa thread enquanto o LLM gera a resposta, e a persistência do
+     * resultado volta para o mesmo executor quando ela termina.
+     *
+     * Com o executor cheio o upload é recusado com {@link ServiceOverloadedException}
+     * (503). Se a recusa vier na volta da classificação, o documento é marcado
+     * como FAILED em vez de ficar em PROCESSING.
+     * 
      * @param input Dados de entrada para processamento
      * @param fileName Nome do arquivo original
-     * @param userId ID do usuário que fez o upload (propagado para a thread assíncrona)
+     * @param userId ID do usuário que fez o upload (propagado para as threads assíncronas)
      * @return CompletableFuture com resultado do processamento
      */
-    @Async("documentProcessingExecutor")
     public CompletableFuture<ProcessDocumentOutput> processDocumentAsync(
             ProcessDocumentInput input,
             String fileName,
             String userId) {
 
+        // Toda etapa roda com o userId do upload no ThreadLocal
+        Executor userContextExecutor = task -> processingExecutor.execute(() -> runAsUser(userId, task));
+
+        CompletableFuture<CompletableFuture<ProcessDocumentOutput>> started;
         try {
-            // Propagar userId para a thread assíncrona via ThreadLocal
-            if (userId != null) {
-                SecurityContextService.setAsyncUserId(userId);
-                log.info("Iniciando processamento assíncrono de documento: {} para usuário: {}", fileName, userId);
-            } else {
-                log.info("Iniciando processamento assíncrono de documento: {} (usuário não identificado)", fileName);
-            }
-            
-            // Executar processamento (OCR + classificação)
-            ProcessDocumentOutput result = processDocumentUseCase
-                .executeWithDocumentCreation(input, fileName);
+            started = CompletableFuture.supplyAsync(() -> {
+                if (userId != null) {
+                    log.info("Iniciando processamento assíncrono de documento: {} para usuário: {}", fileName, userId);
+                } else {
+                    log.info("Iniciando processamento assíncrono de documento: {} (usuário não identificado)", fileName);
+                }
+                // Executar processamento (OCR agora, classificação sem bloquear)
+                return processDocumentUseCase.executeWithDocumentCreationAsync(input, fileName, userContextExecutor);
+            }, userContextExecutor);
+        } catch (RejectedExecutionException e) {
+            log.warn("Executor de processamento cheio, upload recusado: {}", fileName);
+            throw admissionService.executorSaturated();
+        }
 
-            log.info("Processamento concluído com sucesso: documentId={}", result.getDocumentId());
-            
-            // Registrar sucesso no circuit breaker
-            circuitBreakerService.recordSuccess();
-            
-            // Notificar via webhook
-            try {
-                notificationService.notifyCompletion(result.getDocumentId(), result);
-            } catch (Exception e) {
-                log.warn("Erro ao notificar webhook: {}", e.getMessage());
-            }
-            
-            return CompletableFuture.completedFuture(result);
-            
-        } catch (Exception e) {
-            log.error("Erro ao processar documento {}: {}", fileName, e.getMessage(), e);
-            
-            // Registrar falha no circuit breaker
-            circuitBreakerService.recordFailure();
-            
-            // Notificar falha via webhook se documentId disponível
-            if (input != null) {
-                try {
-                    notificationService.notifyFailure(input.getDocumentId(), e.getMessage());
-                } catch (Exception notifyError) {
-                    log.warn("Erro ao notificar falha: {}", notifyError.getMessage());
+        return started
+            .thenCompose(Function.identity())
+            .whenComplete((result, error) -> {
+                if (error == null) {
+                    onSuccess(result);
+                } else {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    if (cause instanceof RejectedExecutionException) {
+                        // Classificação pronta, mas sem vaga para persistir o resultado
+                        runAsUser(userId, () -> markFailed(input.getDocumentId(),
+                                "Error processing document: processing executor is full"));
+                    }
+                    onFailure(input, fileName, cause);
                 }
-            }
-            
-            return CompletableFuture.failedFuture(e);
+            });
+    }
+
+    private void runAsUser(String userId, Runnable task) {
+        // Propagar userId para a thread assíncrona via ThreadLocal
+        if (userId != null) {
+            SecurityContextService.setAsyncUserId(userId);
+        }
+        try {
+            task.run();
         } finally {
-            // Limpar ThreadLocal após processamento
+            // Limpar ThreadLocal após cada etapa
             SecurityContextService.clearAsyncUserId();
         }
     }
 
+    private void onSuccess(ProcessDocumentOutput result) {
+        log.info("Processamento concluído com sucesso: documentId={}", result.getDocumentId());
+        
+        // Registrar sucesso no circuit breaker
+        circuitBreakerService.recordSuccess();
+        
+        // Notificar via webhook
+        try {
+            notificationService.notifyCompletion(result.getDocumentId(), result);
+        } catch (Exception e) {
+            log.warn("Erro ao notificar webhook: {}", e.getMessage());
+        }
+    }
+
+    private void onFailure(ProcessDocumentInput input, String fileName, Throwable e) {
+        log.error("Erro ao processar documento {}: {}", fileName, e.getMessage(), e);
+        
+        // Registrar falha no circuit breaker
+        circuitBreakerService.recordFailure();
+        
+        // Notificar falha via webhook se documentId disponível
+        if (input != null) {
+            try {
+                notificationService.notifyFailure(input.getDocumentId(), e.getMessage());
+            } catch (Exception notifyError) {
+                log.warn("Erro ao notificar falha: {}", notifyError.getMessage());
+            }
+        }
+    }
+
     /**
      * Obtém o status atual de um documento.
      * 
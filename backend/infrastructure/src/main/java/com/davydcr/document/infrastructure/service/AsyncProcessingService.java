@@ -2,15 +2,23 @@ package com.davydcr.document.infrastructure.service;
 
 import com.davydcr.document.application.dto.DocumentProcessingMessage;
 import com.davydcr.document.infrastructure.config.RabbitMQConfig;
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
 /**
  * Serviço para enviar mensagens de processamento de documentos para fila RabbitMQ
  * Implementa padrão de producer para processamento assíncrono (Semana 7)
+ *
+ * Também faz a passagem da etapa de extração para a de classificação, com
+ * backpressure: enquanto a fila de classificação tem max-queued mensagens ou
+ * mais, o worker de OCR não começa documentos novos; em vez de esperar com a
+ * mensagem sem ack, ele a adia para a fila de espera, de onde ela volta à
+ * fila de processamento depois de defer-ms.
  */
 @Service
 @ConditionalOnProperty(
@@ -23,9 +31,19 @@ public class AsyncProcessingService {
     private static final Logger logger = LoggerFactory.getLogger(AsyncProcessingService.class);
 
     private final RabbitTemplate rabbitTemplate;
+    private final ObservabilityService observabilityService;
+    private final int classifyMaxQueued;
+    private final long deferMs;
 
-    public AsyncProcessingService(RabbitTemplate rabbitTemplate) {
+    public AsyncProcessingService(
+            RabbitTemplate rabbitTemplate,
+            ObservabilityService observabilityService,
+            @Value("${app.async.worker.classify.max-queued:200}") int classifyMaxQueued,
+            @Value("${app.async.worker.backpressure.defer-ms:5000}") long deferMs) {
         this.rabbitTemplate = rabbitTemplate;
+        this.observabilityService = observabilityService;
+        this.classifyMaxQueued = classifyMaxQueued;
+        this.deferMs = deferMs;
         logger.info("AsyncProcessingService initialized with RabbitMQ");
     }
 
@@ -62,6 +80,50 @@ public class AsyncProcessingService {
         }
     }
 
+    /**
+     * Envia documento com conteúdo já extraído para a fila de classificação
+     */
+    public void sendClassificationMessage(DocumentProcessingMessage message) {
+        rabbitTemplate.convertAndSend(
+            RabbitMQConfig.DOCUMENT_EXCHANGE,
+            RabbitMQConfig.DOCUMENT_CLASSIFY_ROUTING_KEY,
+            message
+        );
+        logger.debug("Message sent to classification queue for documentId: {}", message.getDocumentId());
+    }
+
+    /**
+     * Indica se a fila de classificação está abaixo de max-queued, ou seja,
+     * se vale começar o OCR de mais um documento
+     */
+    public boolean hasClassificationCapacity() {
+        return classificationQueueDepth() < classifyMaxQueued;
+    }
+
+    /**
+     * Publica a mensagem na fila de espera; ela volta à fila de processamento
+     * depois de defer-ms (TTL da mensagem)
+     */
+    public void deferProcessingMessage(DocumentProcessingMessage message) {
+        rabbitTemplate.convertAndSend(
+            RabbitMQConfig.DOCUMENT_EXCHANGE,
+            RabbitMQConfig.DOCUMENT_DEFER_ROUTING_KEY,
+            message,
+            msg -> {
+                msg.getMessageProperties().setExpiration(String.valueOf(deferMs));
+                return msg;
+            }
+        );
+        observabilityService.recordPipelineDeferral(DocumentClassificationConsumer.STAGE);
+        logger.debug("Classification queue full, deferred documentId {} for {}ms", message.getDocumentId(), deferMs);
+    }
+
+    private int classificationQueueDepth() {
+        Integer depth = rabbitTemplate.execute(channel ->
+                channel.queueDeclarePassive(RabbitMQConfig.DOCUMENT_CLASSIFICATION_QUEUE).getMessageCount());
+        return depth == null ? 0 : depth;
+    }
+
     /**
      * Verifica se o serviço está ativo/disponível
      */
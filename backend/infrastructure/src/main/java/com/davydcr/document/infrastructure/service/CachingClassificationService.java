@@ -0,0 +1,200 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.application.port.ClassificationService;
+import com.davydcr.document.domain.model.DocumentClassification;
+import com.davydcr.document.domain.model.ExtractedContent;
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Decorator de ClassificationService com cache de resultados.
+ *
+ * Documentos repetidos (contratos padrão, faturas recorrentes do mesmo
+ * fornecedor) são respondidos pelo {@link ClassificationResultCache} sem
+ * chamar o LLM. A chave combina o fingerprint do texto que vai no prompt
+ * (os trechos escolhidos pelo {@link PromptTextSampler}, com a mesma
+ * configuração app.classification.llm.prompt.*) com o modelo e a versão do
+ * prompt do serviço decorado: documentos que só diferem fora dos trechos
+ * amostrados recebem a mesma resposta do LLM e dividem a entrada. Classificações com
+ * confiança zero (erro ou resposta inválida do LLM) ou produzidas por outro
+ * modelo que não o da chave não são armazenadas. Backends com
+ * isCacheable() false (as regras locais) são chamados direto, sem cache.
+ *
+ * É o bean primário: quem injeta ClassificationService recebe o decorator,
+ * que delega para a implementação marcada com @Qualifier("classificationBackend").
+ *
+ * Em caso de miss, classificações concorrentes da mesma chave (reenvio do
+ * upload, duplicatas em lote) são coalescidas por {@link SingleFlight}: uma
+ * só chamada ao serviço decorado, com o resultado compartilhado.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(
+    name = "app.classification.cache.enabled",
+    havingValue = "true",
+    matchIfMissing = true
+)
+public class CachingClassificationService implements ClassificationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachingClassificationService.class);
+
+    private final ClassificationService delegate;
+    private final ClassificationResultCache cache;
+    private final PromptTextSampler sampler;
+    private final SingleFlight<String, DocumentClassification> flights;
+    private final boolean cacheable;
+
+    @Autowired
+    public CachingClassificationService(
+            @Qualifier("classificationBackend") ClassificationService delegate,
+            ClassificationResultCache cache,
+            @Value("${app.classification.llm.prompt.token-budget:192}") int promptTokenBudget,
+            @Value("${app.classification.llm.prompt.first-page-share:0.4}") double firstPageShare,
+            @Value("${app.classification.llm.prompt.last-page-share:0.2}") double lastPageShare,
+            ObservabilityService observabilityService) {
+        this(delegate, cache, new PromptTextSampler(promptTokenBudget, firstPageShare, lastPageShare),
+                observabilityService);
+    }
+
+    CachingClassificationService(ClassificationService delegate,
+                                 ClassificationResultCache cache,
+                                 PromptTextSampler sampler,
+                                 ObservabilityService observabilityService) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.sampler = sampler;
+        this.flights = new SingleFlight<>("classification", observabilityService);
+        this.cacheable = delegate.isCacheable();
+        if (cacheable) {
+            logger.info("Classification cache enabled for {} (prompt version {})",
+                    delegate.getModelName(), delegate.getPromptVersion());
+        } else {
+            logger.info("Classification cache bypassed for {} (local backend)", delegate.getModelName());
+        }
+    }
+
+    @Override
+    public DocumentClassification classify(ExtractedContent content) {
+        if (bypass(content.getFullText())) {
+            return delegate.classify(content);
+        }
+
+        String fingerprint = fingerprint(content);
+        Optional<DocumentClassification> cached = lookup(fingerprint);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        return flights.execute(fingerprint, () -> {
+            long startedAt = System.nanoTime();
+            DocumentClassification classification = delegate.classify(content);
+            store(fingerprint, classification, System.nanoTime() - startedAt);
+            return classification;
+        });
+    }
+
+    @Override
+    public DocumentClassification classify(String text) {
+        if (bypass(text)) {
+            return delegate.classify(text);
+        }
+
+        String fingerprint = fingerprint(new ExtractedContent(text, 0, "text"));
+        Optional<DocumentClassification> cached = lookup(fingerprint);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        return flights.execute(fingerprint, () -> {
+            long startedAt = System.nanoTime();
+            DocumentClassification classification = delegate.classify(text);
+            store(fingerprint, classification, System.nanoTime() - startedAt);
+            return classification;
+        });
+    }
+
+    @Override
+    public CompletableFuture<DocumentClassification> classifyAsync(ExtractedContent content) {
+        if (bypass(content.getFullText())) {
+            return delegate.classifyAsync(content);
+        }
+
+        String fingerprint = fingerprint(content);
+        Optional<DocumentClassification> cached = lookup(fingerprint);
+        if (cached.isPresent()) {
+            return CompletableFuture.completedFuture(cached.get());
+        }
+
+        return flights.executeAsync(fingerprint, () -> {
+            long startedAt = System.nanoTime();
+            return delegate.classifyAsync(content).whenComplete((classification, error) -> {
+                if (error == null) {
+                    store(fingerprint, classification, System.nanoTime() - startedAt);
+                }
+            });
+        });
+    }
+
+    /**
+     * Limpeza periódica das entradas expiradas e das geradas por outro modelo ou prompt
+     */
+    @Scheduled(fixedDelayString = "${app.classification.cache.purge-interval-ms:3600000}", initialDelay = 60000)
+    public void purgeStaleEntries() {
+        cache.purgeStale(delegate.getModelName(), delegate.getPromptVersion());
+    }
+
+    /**
+     * Sem cache para texto vazio e para backends que não valem a consulta
+     */
+    private boolean bypass(String text) {
+        return !cacheable || text == null || text.isBlank();
+    }
+
+    /**
+     * Fingerprint dos trechos que o LLM recebe no prompt
+     */
+    private String fingerprint(ExtractedContent content) {
+        return ClassificationResultCache.fingerprint(sampler.sample(content).text());
+    }
+
+    private Optional<DocumentClassification> lookup(String fingerprint) {
+        return cache.get(fingerprint, delegate.getModelName(), delegate.getPromptVersion());
+    }
+
+    private void store(String fingerprint, DocumentClassification classification, long generationNanos) {
+        if (classification == null || classification.getConfidence().getPercentage() == 0) {
+            return;
+        }
+        // Só o resultado do próprio modelo da chave (ex: previsões do caminho rápido não são guardadas)
+        if (!delegate.getModelName().equals(classification.getModel())) {
+            return;
+        }
+        cache.put(fingerprint, delegate.getModelName(), delegate.getPromptVersion(), classification, generationNanos);
+    }
+
+    @Override
+    public String getModelName() {
+        return delegate.getModelName();
+    }
+
+    @Override
+    public String getPromptVersion() {
+        return delegate.getPromptVersion();
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return delegate.isAvailable();
+    }
+}
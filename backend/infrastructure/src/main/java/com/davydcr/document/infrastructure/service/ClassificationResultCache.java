@@ -0,0 +1,231 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.domain.model.ClassificationLabel;
+import com.davydcr.document.domain.model.Confidence;
+import com.davydcr.document.domain.model.DocumentClassification;
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import com.davydcr.document.infrastructure.persistence.entity.ClassificationResultCacheEntity;
+import com.davydcr.document.infrastructure.persistence.repository.ClassificationResultCacheJpaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.text.Normalizer;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Cache de classificações indexado por (fingerprint do texto normalizado, modelo, versão do prompt).
+ *
+ * Mesmo desenho do {@link OcrResultCache}: LRU em memória e tabela
+ * classification_result_cache no banco, com hits do banco promovidos para a
+ * memória. Cada entrada guarda quanto tempo o LLM levou para gerá-la, que é
+ * contabilizado como tempo economizado a cada hit. Entradas expiram após o TTL;
+ * como o modelo faz parte da chave, trocar app.classification.llm-model
+ * invalida tudo que foi gerado pelo modelo anterior.
+ */
+@Component
+public class ClassificationResultCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClassificationResultCache.class);
+
+    static final String TIER_MEMORY = "memory";
+    static final String TIER_DATABASE = "database";
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final boolean persistentEnabled;
+    private final Duration ttl;
+    private final Map<String, CachedClassification> memoryTier;
+    private final ClassificationResultCacheJpaRepository repository;
+    private final ObservabilityService observabilityService;
+    private final Clock clock;
+
+    @Autowired
+    public ClassificationResultCache(
+            @Value("${app.classification.cache.memory-max-entries:1024}") int memoryMaxEntries,
+            @Value("${app.classification.cache.ttl-hours:168}") long ttlHours,
+            @Value("${app.classification.cache.persistent-enabled:true}") boolean persistentEnabled,
+            ClassificationResultCacheJpaRepository repository,
+            ObservabilityService observabilityService) {
+        this(memoryMaxEntries, Duration.ofHours(ttlHours), persistentEnabled, repository,
+                observabilityService, Clock.systemUTC());
+    }
+
+    ClassificationResultCache(int memoryMaxEntries, Duration ttl, boolean persistentEnabled,
+                              ClassificationResultCacheJpaRepository repository,
+                              ObservabilityService observabilityService, Clock clock) {
+        this.persistentEnabled = persistentEnabled;
+        this.ttl = ttl;
+        this.repository = repository;
+        this.observabilityService = observabilityService;
+        this.clock = clock;
+
+        int maxEntries = Math.max(1, memoryMaxEntries);
+        this.memoryTier = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedClassification> eldest) {
+                return size() > maxEntries;
+            }
+        });
+
+        logger.info("Classification cache ready: memoryMaxEntries={}, ttl={}, persistent={}",
+                maxEntries, ttl, persistentEnabled);
+    }
+
+    /**
+     * Fingerprint do texto: SHA-256 após normalização Unicode (NFKC), caixa baixa
+     * e colapso de espaços, para que variações de extração do mesmo documento
+     * caiam na mesma entrada
+     */
+    public static String fingerprint(String text) {
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+        MessageDigest digest = ContentHash.newDigest();
+        digest.update(normalized.getBytes(StandardCharsets.UTF_8));
+        return ContentHash.toHex(digest);
+    }
+
+    /**
+     * Busca uma classificação na memória e depois no banco
+     */
+    public Optional<DocumentClassification> get(String fingerprint, String modelName, String promptVersion) {
+        String key = key(fingerprint, modelName, promptVersion);
+        Instant now = clock.instant();
+
+        CachedClassification cached = memoryTier.get(key);
+        if (cached != null) {
+            if (cached.expiresAt().isAfter(now)) {
+                observabilityService.recordClassificationCacheHit(TIER_MEMORY, cached.generationMs());
+                logger.debug("Classification cache hit (memory): {}", fingerprint);
+                return Optional.of(cached.toClassification());
+            }
+            memoryTier.remove(key);
+        }
+
+        if (persistentEnabled) {
+            try {
+                Optional<ClassificationResultCacheEntity> entity = repository
+                        .findByFingerprintAndModelNameAndPromptVersion(fingerprint, modelName, promptVersion);
+                if (entity.isPresent()) {
+                    CachedClassification loaded = fromEntity(entity.get());
+                    if (loaded.expiresAt().isAfter(now)) {
+                        memoryTier.put(key, loaded);
+                        observabilityService.recordClassificationCacheHit(TIER_DATABASE, loaded.generationMs());
+                        logger.debug("Classification cache hit (database): {}", fingerprint);
+                        return Optional.of(loaded.toClassification());
+                    }
+                }
+            } catch (Exception e) {
+                logger.warn("Classification cache lookup failed for {}: {}", fingerprint, e.getMessage());
+            }
+        }
+
+        observabilityService.recordClassificationCacheMiss();
+        return Optional.empty();
+    }
+
+    /**
+     * Armazena uma classificação nos dois níveis
+     *
+     * @param generationNanos tempo que o LLM levou para gerar a classificação
+     */
+    public void put(String fingerprint, String modelName, String promptVersion,
+                    DocumentClassification classification, long generationNanos) {
+        CachedClassification entry = new CachedClassification(
+                classification.getLabel().getValue(),
+                classification.getConfidence().getPercentage(),
+                classification.getModel(),
+                TimeUnit.NANOSECONDS.toMillis(generationNanos),
+                clock.instant().plus(ttl));
+        memoryTier.put(key(fingerprint, modelName, promptVersion), entry);
+
+        if (persistentEnabled) {
+            try {
+                Optional<ClassificationResultCacheEntity> existing = repository
+                        .findByFingerprintAndModelNameAndPromptVersion(fingerprint, modelName, promptVersion);
+                // Uma entrada expirada ainda não removida pela limpeza é sobrescrita
+                ClassificationResultCacheEntity entity = existing.orElseGet(() -> {
+                    ClassificationResultCacheEntity created = new ClassificationResultCacheEntity();
+                    created.setId(UUID.randomUUID().toString());
+                    created.setFingerprint(fingerprint);
+                    created.setModelName(modelName);
+                    created.setPromptVersion(promptVersion);
+                    return created;
+                });
+                entity.setLabel(entry.label());
+                entity.setConfidence(entry.confidence());
+                entity.setGenerationMs(entry.generationMs());
+                entity.setCreatedAt(toLocalDateTime(clock.instant()));
+                entity.setExpiresAt(toLocalDateTime(entry.expiresAt()));
+                repository.save(entity);
+            } catch (Exception e) {
+                // Classificação concorrente do mesmo texto pode violar a unique key; o resultado já está salvo
+                logger.warn("Failed to persist classification cache entry for {}: {}", fingerprint, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Remove do banco entradas expiradas e as de outro modelo ou versão de prompt
+     */
+    public int purgeStale(String modelName, String promptVersion) {
+        if (!persistentEnabled) {
+            return 0;
+        }
+        try {
+            int removed = repository.deleteStale(toLocalDateTime(clock.instant()), modelName, promptVersion);
+            if (removed > 0) {
+                logger.info("Removed {} stale classification cache entries", removed);
+            }
+            return removed;
+        } catch (Exception e) {
+            logger.warn("Failed to purge classification cache: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    int getMemoryEntryCount() {
+        return memoryTier.size();
+    }
+
+    private String key(String fingerprint, String modelName, String promptVersion) {
+        return fingerprint + "|" + modelName + "|" + promptVersion;
+    }
+
+    private LocalDateTime toLocalDateTime(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    private CachedClassification fromEntity(ClassificationResultCacheEntity entity) {
+        return new CachedClassification(
+                entity.getLabel(),
+                entity.getConfidence(),
+                entity.getModelName(),
+                entity.getGenerationMs(),
+                entity.getExpiresAt().toInstant(ZoneOffset.UTC));
+    }
+
+    private record CachedClassification(String label, int confidence, String model,
+                                        long generationMs, Instant expiresAt) {
+
+        DocumentClassification toClassification() {
+            return new DocumentClassification(ClassificationLabel.of(label), Confidence.of(confidence), model);
+        }
+    }
+}
@@ -5,16 +5,19 @@ import com.davydcr.document.domain.model.ClassificationLabel;
 import com.davydcr.document.domain.model.Confidence;
 import com.davydcr.document.domain.model.DocumentClassification;
 import com.davydcr.document.domain.model.ExtractedContent;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Implementação mock de ClassificationService (fallback).
- * Usado quando app.classification.llm-enabled=false ou Ollama não está disponível.
+ * Implementação de ClassificationService sem LLM (fallback).
+ * Usado quando app.classification.llm-enabled=false: classifica pelas
+ * regras de palavras-chave do {@link RuleBasedClassifier}.
  */
 @Service
+@Qualifier("classificationBackend")
 @ConditionalOnProperty(
     name = "app.classification.llm-enabled",
     havingValue = "false",
@@ -24,6 +27,14 @@ public class ClassificationServiceImpl implements ClassificationService {
     
     private static final Logger logger = LoggerFactory.getLogger(ClassificationServiceImpl.class);
 
+    static final String MODEL_NAME = "rules";
+
+    private final RuleBasedClassifier ruleClassifier;
+
+    public ClassificationServiceImpl(RuleBasedClassifier ruleClassifier) {
+        this.ruleClassifier = ruleClassifier;
+    }
+
     @Override
     public DocumentClassification classify(ExtractedContent content) {
         return classify(content.getFullText());
@@ -31,35 +42,25 @@ public class ClassificationServiceImpl implements ClassificationService {
 
     @Override
     public DocumentClassification classify(String text) {
-        logger.debug("Using mock classification (LLM not enabled)");
-        
-        ClassificationLabel label;
-        Confidence confidence;
+        logger.debug("Using rule-based classification (LLM not enabled)");
 
-        // Lógica simplificada para mock
-        if (text.toLowerCase().contains("invoice") || 
-            text.toLowerCase().contains("fatura")) {
-            label = ClassificationLabel.of("Invoice");
-            confidence = Confidence.of(95);
-        } else if (text.toLowerCase().contains("contract") || 
-                   text.toLowerCase().contains("contrato")) {
-            label = ClassificationLabel.of("Contract");
-            confidence = Confidence.of(90);
-        } else if (text.toLowerCase().contains("receipt") || 
-                   text.toLowerCase().contains("recibo")) {
-            label = ClassificationLabel.of("Receipt");
-            confidence = Confidence.of(88);
-        } else {
-            label = ClassificationLabel.of("Other");
-            confidence = Confidence.of(75);
-        }
-
-        return new DocumentClassification(label, confidence, getModelName());
+        RuleBasedClassifier.RuleResult result = ruleClassifier.classify(text);
+        return new DocumentClassification(
+                ClassificationLabel.of(result.label()), Confidence.of(result.confidence()), getModelName());
     }
 
     @Override
     public String getModelName() {
-        return "mock-llm";
+        return MODEL_NAME;
+    }
+
+    /**
+     * As regras são recarregadas em tempo de execução e classificar o texto
+     * inteiro é mais barato que a consulta ao cache
+     */
+    @Override
+    public boolean isCacheable() {
+        return false;
     }
 
     @Override
@@ -0,0 +1,158 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.infrastructure.exception.ServiceOverloadedException;
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Controle de admissão dos uploads processados no executor local.
+ *
+ * Antes de aceitar um documento, olha o circuit breaker, a fila do
+ * documentProcessingExecutor, as páginas aguardando OCR
+ * ({@link PdfPageOcrExecutor#getPendingPages()}) e os documentos já admitidos
+ * e ainda não concluídos. Com qualquer sinal acima do limite, o upload é
+ * recusado na hora com {@link ServiceOverloadedException} (HTTP 503 com
+ * Retry-After). O limite de documentos admitidos fica abaixo da capacidade
+ * do executor (16 threads + 200 na fila), mas a checagem não é atômica com o
+ * envio: se ainda assim o executor recusar a tarefa, o
+ * {@link AsyncDocumentProcessingService} responde com {@link #executorSaturated()}.
+ *
+ * Com uma fila durável (RabbitMQ ou a fila no banco do {@link DocumentJobQueue})
+ * o upload fica estacionado nela e não passa por aqui.
+ */
+@Service
+public class DocumentAdmissionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentAdmissionService.class);
+
+    static final String REASON_CIRCUIT_OPEN = "circuit_open";
+    static final String REASON_QUEUE_DEPTH = "queue_depth";
+    static final String REASON_PENDING_PAGES = "pending_pages";
+    static final String REASON_IN_FLIGHT = "in_flight";
+    static final String REASON_EXECUTOR_FULL = "executor_full";
+
+    private final ThreadPoolTaskExecutor processingExecutor;
+    private final PdfPageOcrExecutor pageOcrExecutor;
+    private final ProcessingCircuitBreakerService circuitBreakerService;
+    private final ObservabilityService observabilityService;
+    private final boolean enabled;
+    private final int maxQueueDepth;
+    private final int maxPendingPages;
+    private final int maxInFlightDocuments;
+    private final int retryAfterSeconds;
+    private final int circuitRetryAfterSeconds;
+    private final AtomicInteger inFlightDocuments = new AtomicInteger();
+
+    public DocumentAdmissionService(
+            @Qualifier("documentProcessingExecutor") Executor processingExecutor,
+            PdfPageOcrExecutor pageOcrExecutor,
+            ProcessingCircuitBreakerService circuitBreakerService,
+            ObservabilityService observabilityService,
+            @Value("${app.async.admission.enabled:true}") boolean enabled,
+            @Value("${app.async.admission.max-queue-depth:100}") int maxQueueDepth,
+            @Value("${app.async.admission.max-pending-pages:200}") int maxPendingPages,
+            @Value("${app.async.admission.max-in-flight-documents:150}") int maxInFlightDocuments,
+            @Value("${app.async.admission.retry-after-seconds:15}") int retryAfterSeconds,
+            @Value("${app.async.admission.circuit-retry-after-seconds:60}") int circuitRetryAfterSeconds) {
+        this.processingExecutor = processingExecutor instanceof ThreadPoolTaskExecutor pool ? pool : null;
+        this.pageOcrExecutor = pageOcrExecutor;
+        this.circuitBreakerService = circuitBreakerService;
+        this.observabilityService = observabilityService;
+        this.enabled = enabled;
+        this.maxQueueDepth = maxQueueDepth;
+        this.maxPendingPages = maxPendingPages;
+        this.maxInFlightDocuments = maxInFlightDocuments;
+        this.retryAfterSeconds = Math.max(1, retryAfterSeconds);
+        this.circuitRetryAfterSeconds = Math.max(1, circuitRetryAfterSeconds);
+
+        observabilityService.registerAdmissionGauges(this::queueDepth, this::activeThreads,
+                pageOcrExecutor::getPendingPages, inFlightDocuments::get,
+                () -> circuitBreakerService.isCircuitBreakerOpen() ? 1 : 0);
+        logger.info("Document admission control ready: enabled={}, maxQueueDepth={}, maxPendingPages={}, "
+                + "maxInFlightDocuments={}", enabled, maxQueueDepth, maxPendingPages, maxInFlightDocuments);
+    }
+
+    /**
+     * Admite um documento ou recusa com {@link ServiceOverloadedException}.
+     * A permissão devolvida deve ser liberada quando o processamento terminar.
+     */
+    public Permit admit() {
+        if (!enabled) {
+            inFlightDocuments.incrementAndGet();
+            return new Permit();
+        }
+        if (circuitBreakerService.isCircuitBreakerOpen()) {
+            throw reject(REASON_CIRCUIT_OPEN, circuitRetryAfterSeconds,
+                    "Document processing is failing; new uploads are paused");
+        }
+        int queueDepth = queueDepth();
+        if (maxQueueDepth > 0 && queueDepth >= maxQueueDepth) {
+            throw reject(REASON_QUEUE_DEPTH, retryAfterSeconds,
+                    "Processing queue is full (" + queueDepth + " waiting)");
+        }
+        int pendingPages = pageOcrExecutor.getPendingPages();
+        if (maxPendingPages > 0 && pendingPages >= maxPendingPages) {
+            throw reject(REASON_PENDING_PAGES, retryAfterSeconds,
+                    "OCR backlog is full (" + pendingPages + " pages pending)");
+        }
+        int admitted = inFlightDocuments.incrementAndGet();
+        if (maxInFlightDocuments > 0 && admitted > maxInFlightDocuments) {
+            inFlightDocuments.decrementAndGet();
+            throw reject(REASON_IN_FLIGHT, retryAfterSeconds,
+                    "Too many documents in processing (" + maxInFlightDocuments + ")");
+        }
+        return new Permit();
+    }
+
+    /**
+     * Recusa de um documento que encontrou o documentProcessingExecutor cheio
+     * (admissão desligada ou corrida entre a checagem e o envio)
+     */
+    public ServiceOverloadedException executorSaturated() {
+        return reject(REASON_EXECUTOR_FULL, retryAfterSeconds, "Processing executor is full");
+    }
+
+    private ServiceOverloadedException reject(String reason, int retryAfter, String message) {
+        observabilityService.recordAdmissionRejected(reason);
+        logger.warn("Upload rejected by admission control: reason={}, retryAfter={}s", reason, retryAfter);
+        return new ServiceOverloadedException(message, retryAfter, reason);
+    }
+
+    int queueDepth() {
+        return processingExecutor != null ? processingExecutor.getThreadPoolExecutor().getQueue().size() : 0;
+    }
+
+    private int activeThreads() {
+        return processingExecutor != null ? processingExecutor.getActiveCount() : 0;
+    }
+
+    public int getInFlightDocuments() {
+        return inFlightDocuments.get();
+    }
+
+    /**
+     * Vaga de um documento admitido; liberar mais de uma vez não tem efeito
+     */
+    public final class Permit {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit() {
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                inFlightDocuments.decrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.application.dto.DocumentProcessingMessage;
+import com.davydcr.document.application.dto.ProcessDocumentInput;
+import com.davydcr.document.application.dto.ProcessDocumentOutput;
+import com.davydcr.document.application.usecase.ProcessDocumentUseCase;
+import com.davydcr.document.domain.exception.DomainException;
+import com.davydcr.document.domain.model.DocumentStatus;
+import com.davydcr.document.domain.model.ExtractedContent;
+import com.davydcr.document.infrastructure.config.RabbitMQConfig;
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import com.davydcr.document.infrastructure.persistence.DocumentJpaEntity;
+import com.davydcr.document.infrastructure.persistence.DocumentJpaRepository;
+import com.davydcr.document.infrastructure.security.SecurityContextService;
+import com.rabbitmq.client.Channel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Worker da etapa de classificação do pipeline: lê o conteúdo gravado pela
+ * etapa de extração ({@link DocumentProcessingConsumer}), classifica, persiste
+ * o resultado e notifica.
+ *
+ * Tem pool próprio (app.async.worker.classify.*), maior que o do OCR, porque a
+ * thread passa a maior parte do tempo esperando o LLM; assim os núcleos
+ * continuam ocupados com OCR enquanto as classificações aguardam. Ack manual
+ * com as mesmas regras da extração: erro dentro do caso de uso recebe ack (o
+ * documento já está FAILED); erro fora dele (ler o documento ou o conteúdo
+ * extraído) volta para a fila uma vez e depois vai para a DLQ.
+ */
+@Service
+@ConditionalOnProperty(
+    name = "app.async.processing-enabled",
+    havingValue = "true",
+    matchIfMissing = false
+)
+public class DocumentClassificationConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentClassificationConsumer.class);
+
+    static final String STAGE = "classify";
+
+    private final ProcessDocumentUseCase processDocumentUseCase;
+    private final DocumentJpaRepository documentRepository;
+    private final DocumentExtractionStore extractionStore;
+    private final DocumentNotificationService notificationService;
+    private final ProcessingCircuitBreakerService circuitBreakerService;
+    private final ObservabilityService observabilityService;
+
+    public DocumentClassificationConsumer(
+            ProcessDocumentUseCase processDocumentUseCase,
+            DocumentJpaRepository documentRepository,
+            DocumentExtractionStore extractionStore,
+            DocumentNotificationService notificationService,
+            ProcessingCircuitBreakerService circuitBreakerService,
+            ObservabilityService observabilityService) {
+        this.processDocumentUseCase = processDocumentUseCase;
+        this.documentRepository = documentRepository;
+        this.extractionStore = extractionStore;
+        this.notificationService = notificationService;
+        this.circuitBreakerService = circuitBreakerService;
+        this.observabilityService = observabilityService;
+        logger.info("DocumentClassificationConsumer initialized");
+    }
+
+    /**
+     * Listener para mensagens na fila de classificação
+     */
+    @RabbitListener(queues = RabbitMQConfig.DOCUMENT_CLASSIFICATION_QUEUE,
+            containerFactory = RabbitMQConfig.DOCUMENT_CLASSIFICATION_LISTENER_FACTORY)
+    public void classifyDocument(DocumentProcessingMessage message,
+                                 Channel channel,
+                                 @Header(AmqpHeaders.DELIVERY_TAG) long deliveryTag,
+                                 @Header(name = AmqpHeaders.REDELIVERED, required = false) Boolean redelivered)
+            throws IOException {
+        long startTime = System.currentTimeMillis();
+        String documentId = message.getDocumentId();
+        boolean isRedelivery = Boolean.TRUE.equals(redelivered);
+
+        String outcome;
+        try {
+            outcome = classify(message);
+            channel.basicAck(deliveryTag, false);
+        } catch (Exception e) {
+            // Erro fora do fluxo do documento (banco, broker): tenta de novo uma vez, depois DLQ
+            outcome = isRedelivery ? DocumentProcessingConsumer.OUTCOME_REJECTED
+                    : DocumentProcessingConsumer.OUTCOME_REQUEUED;
+            logger.error("Error classifying document from queue: documentId={}, outcome={}",
+                    documentId, outcome, e);
+            channel.basicNack(deliveryTag, false, !isRedelivery);
+        }
+
+        long duration = System.currentTimeMillis() - startTime;
+        observabilityService.recordWorkerMessage(STAGE, outcome, duration);
+        logger.info("Document classification message handled: documentId={}, outcome={}, duration={}ms",
+                documentId, outcome, duration);
+    }
+
+    private String classify(DocumentProcessingMessage message) {
+        String documentId = message.getDocumentId();
+        Optional<DocumentJpaEntity> stored = documentRepository.findById(documentId);
+        if (stored.isEmpty()) {
+            logger.warn("Document not found for classification message, dropping: documentId={}", documentId);
+            return DocumentProcessingConsumer.OUTCOME_SKIPPED;
+        }
+        DocumentStatus status = stored.get().getStatus();
+        if (status == DocumentStatus.COMPLETED || status == DocumentStatus.FAILED) {
+            logger.info("Document already {}, skipping classification message: documentId={}", status, documentId);
+            extractionStore.delete(documentId);
+            return DocumentProcessingConsumer.OUTCOME_SKIPPED;
+        }
+
+        Optional<ExtractedContent> content = extractionStore.find(documentId);
+        if (content.isEmpty()) {
+            // Sem o resultado da extração não há o que classificar: falha definitiva
+            String error = "Extracted content not found for classification";
+            logger.warn("{}: documentId={}", error, documentId);
+            DocumentJpaEntity entity = stored.get();
+            entity.setStatus(DocumentStatus.FAILED);
+            entity.setErrorMessage(error);
+            documentRepository.save(entity);
+            circuitBreakerService.recordFailure();
+            notifySafely(() -> notificationService.notifyFailure(documentId, error));
+            return DocumentProcessingConsumer.OUTCOME_FAILED;
+        }
+
+        // O documento é gravado de novo com o dono original
+        SecurityContextService.setAsyncUserId(stored.get().getUserId());
+        try {
+            ProcessDocumentOutput result = processDocumentUseCase.classifyExtracted(new ProcessDocumentInput(
+                    documentId, message.getFilePath(), message.getFileType(), message.getContentHash()),
+                    content.get());
+            extractionStore.delete(documentId);
+            circuitBreakerService.recordSuccess();
+            notifySafely(() -> notificationService.notifyCompletion(documentId, result));
+            return DocumentProcessingConsumer.OUTCOME_COMPLETED;
+        } catch (DomainException e) {
+            // O caso de uso já marcou o documento como FAILED
+            logger.warn("Document classification failed: documentId={}, error={}", documentId, e.getMessage());
+            extractionStore.delete(documentId);
+            circuitBreakerService.recordFailure();
+            notifySafely(() -> notificationService.notifyFailure(documentId, e.getMessage()));
+            return DocumentProcessingConsumer.OUTCOME_FAILED;
+        } finally {
+            SecurityContextService.clearAsyncUserId();
+        }
+    }
+
+    private void notifySafely(Runnable notification) {
+        try {
+            notification.run();
+        } catch (Exception e) {
+            logger.warn("Error notifying webhook: {}", e.getMessage());
+        }
+    }
+}
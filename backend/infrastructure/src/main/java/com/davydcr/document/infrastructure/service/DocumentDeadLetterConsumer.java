@@ -0,0 +1,119 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.application.dto.DocumentProcessingMessage;
+import com.davydcr.document.domain.model.DocumentStatus;
+import com.davydcr.document.infrastructure.config.RabbitMQConfig;
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import com.davydcr.document.infrastructure.persistence.DocumentJpaEntity;
+import com.davydcr.document.infrastructure.persistence.DocumentJpaRepository;
+import com.rabbitmq.client.Channel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Consumidor da DLQ do pipeline: as mensagens chegam aqui quando um worker
+ * rejeita a reentrega depois de um erro de infraestrutura ou quando a fila
+ * descarta a mais antiga pelo x-max-length. Nos dois casos ninguém mais vai
+ * processar o documento, então ele é marcado como FAILED (o cliente pode
+ * reenviar) e o webhook de falha é disparado.
+ *
+ * Se a atualização falhar (banco fora do ar), a mensagem volta para a DLQ e
+ * é tentada de novo.
+ */
+@Service
+@ConditionalOnProperty(
+    name = "app.async.processing-enabled",
+    havingValue = "true",
+    matchIfMissing = false
+)
+public class DocumentDeadLetterConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentDeadLetterConsumer.class);
+
+    static final String STAGE = "dead-letter";
+
+    // Motivo informado pelo RabbitMQ ao mover a mensagem (rejected, maxlen, expired)
+    static final String FIRST_DEATH_REASON_HEADER = "x-first-death-reason";
+
+    private final DocumentJpaRepository documentRepository;
+    private final DocumentExtractionStore extractionStore;
+    private final DocumentNotificationService notificationService;
+    private final ObservabilityService observabilityService;
+
+    public DocumentDeadLetterConsumer(
+            DocumentJpaRepository documentRepository,
+            DocumentExtractionStore extractionStore,
+            DocumentNotificationService notificationService,
+            ObservabilityService observabilityService) {
+        this.documentRepository = documentRepository;
+        this.extractionStore = extractionStore;
+        this.notificationService = notificationService;
+        this.observabilityService = observabilityService;
+        logger.info("DocumentDeadLetterConsumer initialized");
+    }
+
+    /**
+     * Listener para mensagens na DLQ de processamento
+     */
+    @RabbitListener(queues = RabbitMQConfig.DOCUMENT_PROCESSING_DLQ,
+            containerFactory = RabbitMQConfig.DOCUMENT_DEAD_LETTER_LISTENER_FACTORY)
+    public void handleDeadLetter(DocumentProcessingMessage message,
+                                 Channel channel,
+                                 @Header(AmqpHeaders.DELIVERY_TAG) long deliveryTag,
+                                 @Header(name = FIRST_DEATH_REASON_HEADER, required = false) String reason)
+            throws IOException {
+        long startTime = System.currentTimeMillis();
+        String documentId = message.getDocumentId();
+
+        String outcome;
+        try {
+            outcome = markFailed(documentId, reason);
+            channel.basicAck(deliveryTag, false);
+        } catch (Exception e) {
+            outcome = DocumentProcessingConsumer.OUTCOME_REQUEUED;
+            logger.error("Error handling dead-lettered document: documentId={}", documentId, e);
+            channel.basicNack(deliveryTag, false, true);
+        }
+
+        observabilityService.recordWorkerMessage(STAGE, outcome, System.currentTimeMillis() - startTime);
+    }
+
+    private String markFailed(String documentId, String reason) {
+        Optional<DocumentJpaEntity> stored = documentRepository.findById(documentId);
+        if (stored.isEmpty()) {
+            logger.warn("Document not found for dead-lettered message, dropping: documentId={}", documentId);
+            return DocumentProcessingConsumer.OUTCOME_SKIPPED;
+        }
+        DocumentJpaEntity entity = stored.get();
+        DocumentStatus status = entity.getStatus();
+        if (status == DocumentStatus.COMPLETED || status == DocumentStatus.FAILED) {
+            logger.info("Document already {}, ignoring dead-lettered message: documentId={}", status, documentId);
+            return DocumentProcessingConsumer.OUTCOME_SKIPPED;
+        }
+
+        String error = "Processing message dead-lettered (" + (reason != null ? reason : "unknown") + ")";
+        logger.warn("{}: documentId={}, previousStatus={}", error, documentId, status);
+        entity.setStatus(DocumentStatus.FAILED);
+        entity.setErrorMessage(error);
+        documentRepository.save(entity);
+        extractionStore.delete(documentId);
+        notifySafely(() -> notificationService.notifyFailure(documentId, error));
+        return DocumentProcessingConsumer.OUTCOME_FAILED;
+    }
+
+    private void notifySafely(Runnable notification) {
+        try {
+            notification.run();
+        } catch (Exception e) {
+            logger.warn("Error notifying webhook: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.domain.model.ExtractedContent;
+import com.davydcr.document.domain.model.PageContent;
+import com.davydcr.document.infrastructure.persistence.entity.DocumentExtractionEntity;
+import com.davydcr.document.infrastructure.persistence.repository.DocumentExtractionJpaRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Conteúdo extraído de um documento entre as etapas do pipeline em filas.
+ *
+ * A etapa de OCR grava o resultado (com as páginas, usadas na amostragem do
+ * prompt) e a etapa de classificação lê e remove quando termina. Assim a
+ * mensagem da fila fica pequena e uma reentrega da classificação não repete o OCR.
+ */
+@Component
+public class DocumentExtractionStore {
+
+    private final DocumentExtractionJpaRepository repository;
+    private final ObjectMapper objectMapper;
+
+    public DocumentExtractionStore(DocumentExtractionJpaRepository repository, ObjectMapper objectMapper) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+    }
+
+    public void save(String documentId, ExtractedContent content) {
+        List<StoredPage> pages = content.getPages().stream()
+                .map(page -> new StoredPage(page.getPageNumber(), page.getText(), page.getEngine(),
+                        page.getConfidence().orElse(null)))
+                .toList();
+
+        DocumentExtractionEntity entity = new DocumentExtractionEntity();
+        entity.setDocumentId(documentId);
+        entity.setOcrEngine(content.getOcrEngine());
+        entity.setPageCount(content.getPageCount());
+        entity.setFullText(content.getFullText());
+        try {
+            entity.setPagesJson(objectMapper.writeValueAsString(pages));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        repository.save(entity);
+    }
+
+    public Optional<ExtractedContent> find(String documentId) {
+        return repository.findById(documentId).map(this::toContent);
+    }
+
+    public boolean exists(String documentId) {
+        return repository.existsById(documentId);
+    }
+
+    public void delete(String documentId) {
+        repository.deleteById(documentId);
+    }
+
+    private ExtractedContent toContent(DocumentExtractionEntity entity) {
+        List<PageContent> pages = List.of();
+        if (entity.getPagesJson() != null) {
+            try {
+                pages = objectMapper.readValue(entity.getPagesJson(), new TypeReference<List<StoredPage>>() {})
+                        .stream()
+                        .map(page -> new PageContent(page.pageNumber(), page.text(), page.engine(), page.confidence()))
+                        .toList();
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return new ExtractedContent(entity.getFullText(), entity.getPageCount(), entity.getOcrEngine(), pages);
+    }
+
+    /**
+     * Forma serializada (JSON) de uma página no banco
+     */
+    private record StoredPage(int pageNumber, String text, String engine, Double confidence) {
+    }
+}
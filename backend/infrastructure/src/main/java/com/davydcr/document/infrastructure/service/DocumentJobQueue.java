@@ -0,0 +1,144 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.application.dto.ProcessDocumentInput;
+import com.davydcr.document.infrastructure.persistence.entity.ProcessingJobEntity;
+import com.davydcr.document.infrastructure.persistence.repository.ProcessingJobJpaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fila de processamento durável na tabela processing_jobs, para o modo sem RabbitMQ.
+ *
+ * O upload grava um job por documento na mesma hora em que registra o
+ * documento. Os nós reservam lotes com SELECT ... FOR UPDATE SKIP LOCKED
+ * (nós concorrentes pegam jobs diferentes sem esperar uns pelos outros) e
+ * recebem um lease de app.async.job-queue.lease-ms, renovado por heartbeat
+ * enquanto o job roda. Job de nó que caiu ou reiniciou volta a ser
+ * reservável quando o lease vence; nada fica só em memória.
+ */
+@Component
+@ConditionalOnExpression("${app.async.job-queue.enabled:false} and !${app.async.processing-enabled:false}")
+public class DocumentJobQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentJobQueue.class);
+
+    private final ProcessingJobJpaRepository repository;
+    private final Duration lease;
+    private final String nodeId;
+
+    public DocumentJobQueue(ProcessingJobJpaRepository repository,
+                            @Value("${app.async.job-queue.lease-ms:60000}") long leaseMs) {
+        this.repository = repository;
+        this.lease = Duration.ofMillis(Math.max(1000, leaseMs));
+        this.nodeId = hostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        logger.info("Database job queue ready: node={}, lease={}ms", nodeId, lease.toMillis());
+    }
+
+    /**
+     * Grava o job do documento já registrado
+     */
+    @Transactional
+    public void enqueue(ProcessDocumentInput input, String fileName, String userId) {
+        ProcessingJobEntity job = new ProcessingJobEntity();
+        job.setDocumentId(input.getDocumentId());
+        job.setFileName(fileName);
+        job.setFilePath(input.getFilePath());
+        job.setFileType(input.getFileType());
+        job.setContentHash(input.getContentHash());
+        job.setUserId(userId);
+        repository.save(job);
+    }
+
+    /**
+     * Reserva até limit jobs para este nó (status RUNNING, lease novo e uma tentativa a mais)
+     */
+    @Transactional
+    public List<ProcessingJobEntity> claim(int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<ProcessingJobEntity> jobs = repository.lockClaimable(now, limit);
+        for (ProcessingJobEntity job : jobs) {
+            if (ProcessingJobEntity.STATUS_RUNNING.equals(job.getStatus())) {
+                logger.warn("Reclaiming job with expired lease: documentId={}, previousOwner={}, attempts={}",
+                        job.getDocumentId(), job.getLeaseOwner(), job.getAttempts());
+            }
+            job.setStatus(ProcessingJobEntity.STATUS_RUNNING);
+            job.setLeaseOwner(nodeId);
+            job.setLeaseExpiresAt(now.plus(lease));
+            job.setAttempts(job.getAttempts() + 1);
+            job.setUpdatedAt(now);
+        }
+        return repository.saveAll(jobs);
+    }
+
+    /**
+     * Renova o lease dos jobs em execução neste nó; retorna quantos ainda eram deste nó
+     */
+    @Transactional
+    public int heartbeat(Collection<String> documentIds) {
+        if (documentIds.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return repository.renewLeases(documentIds, nodeId, now.plus(lease), now);
+    }
+
+    /**
+     * Remove o job concluído (com sucesso ou falha definitiva do documento)
+     */
+    @Transactional
+    public void complete(String documentId) {
+        if (repository.deleteOwned(documentId, nodeId) == 0) {
+            logger.warn("Completed job was no longer owned by this node: documentId={}", documentId);
+        }
+    }
+
+    /**
+     * Devolve o job para a fila, disponível de novo depois de delay
+     */
+    @Transactional
+    public void retry(String documentId, String error, Duration delay) {
+        repository.findById(documentId)
+                .filter(job -> nodeId.equals(job.getLeaseOwner()))
+                .ifPresent(job -> {
+                    LocalDateTime now = LocalDateTime.now();
+                    job.setStatus(ProcessingJobEntity.STATUS_PENDING);
+                    job.setLeaseOwner(null);
+                    job.setLeaseExpiresAt(null);
+                    job.setAvailableAt(now.plus(delay));
+                    job.setLastError(error);
+                    job.setUpdatedAt(now);
+                    repository.save(job);
+                });
+    }
+
+    public long countPending() {
+        return repository.countByStatus(ProcessingJobEntity.STATUS_PENDING);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    private static String hostName() {
+        try {
+            String host = InetAddress.getLocalHost().getHostName();
+            return host.length() > 80 ? host.substring(0, 80) : host;
+        } catch (Exception e) {
+            return "node";
+        }
+    }
+}
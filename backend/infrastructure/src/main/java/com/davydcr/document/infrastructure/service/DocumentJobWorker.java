@@ -0,0 +1,242 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.application.dto.ProcessDocumentInput;
+import com.davydcr.document.application.dto.ProcessDocumentOutput;
+import com.davydcr.document.application.port.DocumentRepository;
+import com.davydcr.document.application.usecase.ProcessDocumentUseCase;
+import com.davydcr.document.domain.exception.DomainException;
+import com.davydcr.document.domain.model.DocumentId;
+import com.davydcr.document.domain.model.DocumentStatus;
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import com.davydcr.document.infrastructure.persistence.DocumentJpaEntity;
+import com.davydcr.document.infrastructure.persistence.DocumentJpaRepository;
+import com.davydcr.document.infrastructure.persistence.entity.ProcessingJobEntity;
+import com.davydcr.document.infrastructure.security.SecurityContextService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Worker da fila de processamento no banco ({@link DocumentJobQueue}).
+ *
+ * A cada app.async.job-queue.poll-interval-ms reserva um lote de até
+ * batch-size jobs, limitado às vagas livres (max-concurrency menos os jobs em
+ * execução no nó), e roda cada um no documentProcessingExecutor. Um heartbeat
+ * renova o lease dos jobs em execução. Job de documento inexistente ou já
+ * COMPLETED/FAILED (reprocessamento manual, job reservado de novo depois de um
+ * lease vencido) é removido sem rodar. Ao terminar o job é removido; falha do
+ * documento é definitiva, erro fora do fluxo do documento devolve o job para a
+ * fila com espera crescente até max-attempts tentativas.
+ */
+@Component
+@ConditionalOnExpression("${app.async.job-queue.enabled:false} and !${app.async.processing-enabled:false}")
+public class DocumentJobWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentJobWorker.class);
+
+    static final String STAGE = "job";
+
+    private final DocumentJobQueue jobQueue;
+    private final ProcessDocumentUseCase processDocumentUseCase;
+    private final DocumentRepository documentRepository;
+    private final DocumentJpaRepository documentJpaRepository;
+    private final DocumentNotificationService notificationService;
+    private final ProcessingCircuitBreakerService circuitBreakerService;
+    private final ObservabilityService observabilityService;
+    private final Executor processingExecutor;
+    private final int batchSize;
+    private final int maxConcurrency;
+    private final int maxAttempts;
+    private final long retryDelayMs;
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    public DocumentJobWorker(
+            DocumentJobQueue jobQueue,
+            ProcessDocumentUseCase processDocumentUseCase,
+            DocumentRepository documentRepository,
+            DocumentJpaRepository documentJpaRepository,
+            DocumentNotificationService notificationService,
+            ProcessingCircuitBreakerService circuitBreakerService,
+            ObservabilityService observabilityService,
+            @Qualifier("documentProcessingExecutor") Executor processingExecutor,
+            @Value("${app.async.job-queue.batch-size:4}") int batchSize,
+            @Value("${app.async.job-queue.max-concurrency:4}") int maxConcurrency,
+            @Value("${app.async.job-queue.max-attempts:3}") int maxAttempts,
+            @Value("${app.async.job-queue.retry-delay-ms:30000}") long retryDelayMs) {
+        this.jobQueue = jobQueue;
+        this.processDocumentUseCase = processDocumentUseCase;
+        this.documentRepository = documentRepository;
+        this.documentJpaRepository = documentJpaRepository;
+        this.notificationService = notificationService;
+        this.circuitBreakerService = circuitBreakerService;
+        this.observabilityService = observabilityService;
+        this.processingExecutor = processingExecutor;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryDelayMs = Math.max(0, retryDelayMs);
+        observabilityService.registerJobQueueGauges(running::size);
+        logger.info("Database job worker ready: node={}, batchSize={}, maxConcurrency={}, maxAttempts={}",
+                jobQueue.getNodeId(), this.batchSize, this.maxConcurrency, this.maxAttempts);
+    }
+
+    @Scheduled(fixedDelayString = "${app.async.job-queue.poll-interval-ms:1000}",
+            initialDelayString = "${app.async.job-queue.poll-interval-ms:1000}")
+    public void poll() {
+        int free = maxConcurrency - running.size();
+        if (free <= 0) {
+            return;
+        }
+
+        List<ProcessingJobEntity> jobs;
+        try {
+            jobs = jobQueue.claim(Math.min(batchSize, free));
+        } catch (RuntimeException e) {
+            logger.warn("Error claiming jobs: {}", e.getMessage());
+            return;
+        }
+        if (jobs.isEmpty()) {
+            return;
+        }
+
+        observabilityService.recordJobsClaimed(jobs.size());
+        for (ProcessingJobEntity job : jobs) {
+            running.add(job.getDocumentId());
+            try {
+                processingExecutor.execute(() -> run(job));
+            } catch (RuntimeException e) {
+                // O job continua reservado e volta para a fila quando o lease vencer
+                running.remove(job.getDocumentId());
+                logger.warn("Error starting job: documentId={}, error={}", job.getDocumentId(), e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.async.job-queue.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        Set<String> documentIds = Set.copyOf(running);
+        if (documentIds.isEmpty()) {
+            return;
+        }
+        try {
+            int renewed = jobQueue.heartbeat(documentIds);
+            if (renewed < documentIds.size()) {
+                // Lease vencido e job reservado por outro nó: os dois vão processar o documento
+                observabilityService.recordJobLeaseLost(documentIds.size() - renewed);
+                logger.warn("Lost lease on {} of {} running jobs", documentIds.size() - renewed, documentIds.size());
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Error renewing job leases: {}", e.getMessage());
+        }
+    }
+
+    void run(ProcessingJobEntity job) {
+        long startTime = System.currentTimeMillis();
+        String documentId = job.getDocumentId();
+        String outcome;
+
+        // O documento é gravado de novo com o dono original
+        SecurityContextService.setAsyncUserId(job.getUserId());
+        try {
+            outcome = process(job);
+        } catch (Exception e) {
+            outcome = handleError(job, e);
+        } finally {
+            SecurityContextService.clearAsyncUserId();
+            running.remove(documentId);
+        }
+
+        long duration = System.currentTimeMillis() - startTime;
+        observabilityService.recordWorkerMessage(STAGE, outcome, duration);
+        logger.info("Document job handled: documentId={}, attempt={}, outcome={}, duration={}ms",
+                documentId, job.getAttempts(), outcome, duration);
+    }
+
+    private String process(ProcessingJobEntity job) {
+        String documentId = job.getDocumentId();
+        Optional<DocumentJpaEntity> stored = documentJpaRepository.findById(documentId);
+        if (stored.isEmpty()) {
+            logger.warn("Document not found for job, dropping: documentId={}", documentId);
+            jobQueue.complete(documentId);
+            return DocumentProcessingConsumer.OUTCOME_SKIPPED;
+        }
+        DocumentStatus status = stored.get().getStatus();
+        if (status == DocumentStatus.COMPLETED || status == DocumentStatus.FAILED) {
+            logger.info("Document already {}, dropping job: documentId={}", status, documentId);
+            jobQueue.complete(documentId);
+            return DocumentProcessingConsumer.OUTCOME_SKIPPED;
+        }
+
+        if (job.getAttempts() > maxAttempts) {
+            // Lease vencido repetidas vezes (o nó cai no meio do documento): não tenta de novo
+            return fail(job, "Processing abandoned after " + maxAttempts + " attempts");
+        }
+
+        try {
+            ProcessDocumentOutput result = processDocumentUseCase.execute(new ProcessDocumentInput(
+                    documentId, job.getFilePath(), job.getFileType(), job.getContentHash()));
+            jobQueue.complete(documentId);
+            circuitBreakerService.recordSuccess();
+            notifySafely(() -> notificationService.notifyCompletion(documentId, result));
+            return DocumentProcessingConsumer.OUTCOME_COMPLETED;
+        } catch (DomainException e) {
+            // O caso de uso já marcou o documento como FAILED: reprocessar não muda o resultado
+            logger.warn("Document job failed: documentId={}, error={}", documentId, e.getMessage());
+            jobQueue.complete(documentId);
+            circuitBreakerService.recordFailure();
+            notifySafely(() -> notificationService.notifyFailure(documentId, e.getMessage()));
+            return DocumentProcessingConsumer.OUTCOME_FAILED;
+        }
+    }
+
+    private String handleError(ProcessingJobEntity job, Exception error) {
+        String documentId = job.getDocumentId();
+        logger.error("Error running document job: documentId={}, attempt={}", documentId, job.getAttempts(), error);
+        try {
+            if (job.getAttempts() >= maxAttempts) {
+                fail(job, error.getMessage());
+                return DocumentProcessingConsumer.OUTCOME_REJECTED;
+            }
+            jobQueue.retry(documentId, error.getMessage(), Duration.ofMillis(retryDelayMs * job.getAttempts()));
+            return DocumentProcessingConsumer.OUTCOME_REQUEUED;
+        } catch (RuntimeException e) {
+            // Sem acesso ao banco: o lease vence e o job volta para a fila
+            logger.warn("Error releasing job: documentId={}, error={}", documentId, e.getMessage());
+            return DocumentProcessingConsumer.OUTCOME_REQUEUED;
+        }
+    }
+
+    private String fail(ProcessingJobEntity job, String error) {
+        String documentId = job.getDocumentId();
+        documentRepository.findById(new DocumentId(UUID.fromString(documentId)))
+                .ifPresent(document -> {
+                    document.requestProcessing();
+                    document.failProcessing(error);
+                    documentRepository.save(document);
+                });
+        jobQueue.complete(documentId);
+        circuitBreakerService.recordFailure();
+        notifySafely(() -> notificationService.notifyFailure(documentId, error));
+        return DocumentProcessingConsumer.OUTCOME_FAILED;
+    }
+
+    private void notifySafely(Runnable notification) {
+        try {
+            notification.run();
+        } catch (Exception e) {
+            logger.warn("Error notifying webhook: {}", e.getMessage());
+        }
+    }
+}
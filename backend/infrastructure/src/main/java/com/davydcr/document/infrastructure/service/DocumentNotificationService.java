@@ -4,6 +4,7 @@ import com.davydcr.document.application.dto.ProcessDocumentOutput;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.http.HttpEntity;
@@ -13,12 +14,17 @@ import org.springframework.http.MediaType;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Serviço para notificações de webhook quando documentos completam.
  * 
  * Permite que clientes se registrem para receber notificações de completion
  * via webhook quando documento termina de processar.
+ *
+ * O POST do webhook roda no notificationExecutor: o worker que concluiu o
+ * documento não espera o endpoint do cliente responder.
  */
 @Service
 public class DocumentNotificationService {
@@ -29,10 +35,13 @@ public class DocumentNotificationService {
     private final Map<String, String> webhookSubscriptions = new ConcurrentHashMap<>();
     
     private final RestTemplate restTemplate;
+    private final Executor notificationExecutor;
 
     @Autowired
-    public DocumentNotificationService(RestTemplate restTemplate) {
+    public DocumentNotificationService(RestTemplate restTemplate,
+                                       @Qualifier("notificationExecutor") Executor notificationExecutor) {
         this.restTemplate = restTemplate;
+        this.notificationExecutor = notificationExecutor;
     }
 
     /**
@@ -91,11 +100,9 @@ public class DocumentNotificationService {
             headers.setContentType(MediaType.APPLICATION_JSON);
             HttpEntity<Map<String, Object>> request = new HttpEntity<>(payload, headers);
 
-            restTemplate.postForObject(webhookUrl, request, String.class);
-            log.info("Webhook enviado com sucesso para documento {}", documentId);
-            
-            // Remover subscription após notificar
+            // Remover subscription antes do envio: cada documento notifica uma vez
             webhookSubscriptions.remove(documentId);
+            send(documentId, webhookUrl, request, "Webhook enviado com sucesso para documento {}");
 
         } catch (Exception e) {
             log.error("Erro ao enviar webhook para documento {}: {}", documentId, e.getMessage());
@@ -130,17 +137,31 @@ public class DocumentNotificationService {
             headers.setContentType(MediaType.APPLICATION_JSON);
             HttpEntity<Map<String, Object>> request = new HttpEntity<>(payload, headers);
 
-            restTemplate.postForObject(webhookUrl, request, String.class);
-            log.info("Webhook de falha enviado para documento {}", documentId);
-            
             // Remover subscription
             webhookSubscriptions.remove(documentId);
+            send(documentId, webhookUrl, request, "Webhook de falha enviado para documento {}");
 
         } catch (Exception e) {
             log.error("Erro ao enviar webhook de falha para documento {}: {}", documentId, e.getMessage());
         }
     }
 
+    private void send(String documentId, String webhookUrl, HttpEntity<Map<String, Object>> request,
+                      String successMessage) {
+        try {
+            notificationExecutor.execute(() -> {
+                try {
+                    restTemplate.postForObject(webhookUrl, request, String.class);
+                    log.info(successMessage, documentId);
+                } catch (Exception e) {
+                    log.error("Erro ao enviar webhook para documento {}: {}", documentId, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Webhook descartado para documento {}: {}", documentId, e.getMessage());
+        }
+    }
+
     /**
      * Obtém número de webhooks ativos.
      * 
@@ -1,18 +1,47 @@
 package com.davydcr.document.infrastructure.service;
 
 import com.davydcr.document.application.dto.DocumentProcessingMessage;
+import com.davydcr.document.application.dto.ProcessDocumentInput;
 import com.davydcr.document.application.usecase.ProcessDocumentUseCase;
+import com.davydcr.document.domain.exception.DomainException;
+import com.davydcr.document.domain.model.DocumentStatus;
+import com.davydcr.document.domain.model.ExtractedContent;
 import com.davydcr.document.infrastructure.config.RabbitMQConfig;
 import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import com.davydcr.document.infrastructure.persistence.DocumentJpaEntity;
+import com.davydcr.document.infrastructure.persistence.DocumentJpaRepository;
+import com.davydcr.document.infrastructure.security.SecurityContextService;
+import com.rabbitmq.client.Channel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.util.Optional;
+
 /**
- * Consumer (listener) para processar mensagens da fila RabbitMQ
- * Implementa padrão de consumer para processamento assíncrono (Semana 7)
+ * Worker da etapa de extração do pipeline: carrega o arquivo do storage,
+ * executa o OCR pelo {@link ProcessDocumentUseCase}, grava o conteúdo no
+ * {@link DocumentExtractionStore} e publica o documento na fila de
+ * classificação ({@link DocumentClassificationConsumer}).
+ *
+ * Consome com ack manual pelo container documentProcessingListenerFactory
+ * (concorrência e prefetch em app.async.worker.extract.*), então a mensagem só
+ * sai da fila depois que a etapa seguinte recebeu o documento. Qualquer erro
+ * dentro do caso de uso (inclusive de infraestrutura, como ler o arquivo) chega
+ * como DomainException com o documento já marcado como FAILED: é definitivo e
+ * recebe ack. Os erros fora dele (ler o documento, gravar a extração, publicar
+ * na fila de classificação) devolvem a mensagem para a fila uma vez e, na
+ * segunda entrega, ela vai para a DLQ, cujo consumidor marca o documento como
+ * FAILED. Mensagens repetidas de documentos já concluídos são descartadas.
+ *
+ * Com a fila de classificação cheia, documentos novos são adiados pelo
+ * {@link AsyncProcessingService} (a mensagem recebe ack e volta depois pela
+ * fila de espera), sem ocupar a thread do worker.
  */
 @Service
 @ConditionalOnProperty(
@@ -24,53 +53,135 @@ public class DocumentProcessingConsumer {
 
     private static final Logger logger = LoggerFactory.getLogger(DocumentProcessingConsumer.class);
 
+    static final String OUTCOME_COMPLETED = "completed";
+    static final String OUTCOME_FAILED = "failed";
+    static final String OUTCOME_SKIPPED = "skipped";
+    static final String OUTCOME_REQUEUED = "requeued";
+    static final String OUTCOME_REJECTED = "rejected";
+    static final String OUTCOME_DEFERRED = "deferred";
+
+    static final String STAGE = "extract";
+
     private final ProcessDocumentUseCase processDocumentUseCase;
+    private final DocumentJpaRepository documentRepository;
+    private final DocumentExtractionStore extractionStore;
+    private final AsyncProcessingService asyncProcessingService;
+    private final DocumentNotificationService notificationService;
+    private final ProcessingCircuitBreakerService circuitBreakerService;
     private final ObservabilityService observabilityService;
 
     public DocumentProcessingConsumer(
             ProcessDocumentUseCase processDocumentUseCase,
+            DocumentJpaRepository documentRepository,
+            DocumentExtractionStore extractionStore,
+            AsyncProcessingService asyncProcessingService,
+            DocumentNotificationService notificationService,
+            ProcessingCircuitBreakerService circuitBreakerService,
             ObservabilityService observabilityService) {
         this.processDocumentUseCase = processDocumentUseCase;
+        this.documentRepository = documentRepository;
+        this.extractionStore = extractionStore;
+        this.asyncProcessingService = asyncProcessingService;
+        this.notificationService = notificationService;
+        this.circuitBreakerService = circuitBreakerService;
         this.observabilityService = observabilityService;
         logger.info("DocumentProcessingConsumer initialized");
     }
 
     /**
-     * Listener para mensagens na fila de processamento
-     * Processa documentos de forma assíncrona
+     * Listener para mensagens na fila de processamento (etapa de extração)
      */
-    @RabbitListener(queues = RabbitMQConfig.DOCUMENT_PROCESSING_QUEUE)
-    public void processDocument(DocumentProcessingMessage message) {
+    @RabbitListener(queues = RabbitMQConfig.DOCUMENT_PROCESSING_QUEUE,
+            containerFactory = RabbitMQConfig.DOCUMENT_PROCESSING_LISTENER_FACTORY)
+    public void processDocument(DocumentProcessingMessage message,
+                                Channel channel,
+                                @Header(AmqpHeaders.DELIVERY_TAG) long deliveryTag,
+                                @Header(name = AmqpHeaders.REDELIVERED, required = false) Boolean redelivered)
+            throws IOException {
         long startTime = System.currentTimeMillis();
-        
-        logger.info("Processing document from queue: documentId={}, fileType={}", 
-                message.getDocumentId(), message.getFileType());
+        String documentId = message.getDocumentId();
+        boolean isRedelivery = Boolean.TRUE.equals(redelivered);
 
+        logger.info("Processing document from queue: documentId={}, fileType={}, redelivered={}",
+                documentId, message.getFileType(), isRedelivery);
+
+        String outcome;
         try {
-            // Aqui entraríamos a lógica de processamento
-            // Por enquanto, apenas log
-            // Em uma implementação real, teríamos:
-            // - Carregar arquivo do storage
-            // - Executar OCR
-            // - Fazer classificação
-            // - Salvar resultados
-
-            long duration = System.currentTimeMillis() - startTime;
-            logger.info("Document queued for processing: documentId={}, duration={}ms", 
-                    message.getDocumentId(), duration);
-            
-            // Registrar métrica de sucesso
-            observabilityService.recordOcrSuccess(duration, 1);
+            outcome = process(message, isRedelivery);
+            channel.basicAck(deliveryTag, false);
+        } catch (Exception e) {
+            // Erro fora do caso de uso (banco, broker): tenta de novo uma vez, depois DLQ
+            outcome = isRedelivery ? OUTCOME_REJECTED : OUTCOME_REQUEUED;
+            logger.error("Error processing document from queue: documentId={}, outcome={}",
+                    documentId, outcome, e);
+            channel.basicNack(deliveryTag, false, !isRedelivery);
+        }
+
+        long duration = System.currentTimeMillis() - startTime;
+        observabilityService.recordWorkerMessage(STAGE, outcome, duration);
+        logger.info("Document message handled: documentId={}, outcome={}, duration={}ms",
+                documentId, outcome, duration);
+    }
+
+    private String process(DocumentProcessingMessage message, boolean redelivered) {
+        String documentId = message.getDocumentId();
+        Optional<DocumentJpaEntity> stored = documentRepository.findById(documentId);
+        if (stored.isEmpty()) {
+            logger.warn("Document not found for queued message, dropping: documentId={}", documentId);
+            return OUTCOME_SKIPPED;
+        }
+
+        DocumentStatus status = stored.get().getStatus();
+        // PROCESSING só é retomado em reentrega (o worker anterior caiu antes do ack)
+        if (status == DocumentStatus.COMPLETED || status == DocumentStatus.FAILED
+                || (status == DocumentStatus.PROCESSING && !redelivered)) {
+            logger.info("Document already {}, skipping queued message: documentId={}", status, documentId);
+            return OUTCOME_SKIPPED;
+        }
 
+        // Reentrega depois do OCR gravado (worker caiu antes do ack): só falta publicar
+        if (status == DocumentStatus.PROCESSING && extractionStore.exists(documentId)) {
+            asyncProcessingService.sendClassificationMessage(message);
+            return OUTCOME_COMPLETED;
+        }
+
+        // Backpressure: classificação saturada, o OCR de um documento novo fica para depois.
+        // Só RECEIVED: a mensagem adiada volta como entrega nova e um PROCESSING seria descartado
+        if (status == DocumentStatus.RECEIVED && !asyncProcessingService.hasClassificationCapacity()) {
+            asyncProcessingService.deferProcessingMessage(message);
+            return OUTCOME_DEFERRED;
+        }
+
+        // O documento é gravado de novo com o dono original
+        SecurityContextService.setAsyncUserId(stored.get().getUserId());
+        try {
+            ExtractedContent content = processDocumentUseCase.extract(new ProcessDocumentInput(
+                    documentId, message.getFilePath(), message.getFileType(), message.getContentHash()));
+
+            // Resultado intermediário persistido antes de passar para a classificação
+            extractionStore.save(documentId, content);
+            DocumentJpaEntity entity = stored.get();
+            entity.setStatus(DocumentStatus.PROCESSING);
+            documentRepository.save(entity);
+
+            asyncProcessingService.sendClassificationMessage(message);
+            return OUTCOME_COMPLETED;
+        } catch (DomainException e) {
+            // O caso de uso já marcou o documento como FAILED: reprocessar não muda o resultado
+            logger.warn("Document processing failed: documentId={}, error={}", documentId, e.getMessage());
+            circuitBreakerService.recordFailure();
+            notifySafely(() -> notificationService.notifyFailure(documentId, e.getMessage()));
+            return OUTCOME_FAILED;
+        } finally {
+            SecurityContextService.clearAsyncUserId();
+        }
+    }
+
+    private void notifySafely(Runnable notification) {
+        try {
+            notification.run();
         } catch (Exception e) {
-            long duration = System.currentTimeMillis() - startTime;
-            logger.error("Error processing document: documentId={}, duration={}ms", 
-                    message.getDocumentId(), duration, e);
-            
-            observabilityService.recordOcrFailure(e.getMessage());
-            
-            // Em produção, poderia reenviar para DLQ (Dead Letter Queue)
-            // Por enquanto, apenas loga o erro
+            logger.warn("Error notifying webhook: {}", e.getMessage());
         }
     }
 }
@@ -7,9 +7,12 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.util.UUID;
 
 /**
@@ -44,6 +47,14 @@ public class DocumentStorageService {
      * Salva um arquivo enviado e retorna seu caminho
      */
     public String saveDocument(MultipartFile file) throws IOException {
+        return storeDocument(file).path();
+    }
+
+    /**
+     * Salva um arquivo enviado calculando o SHA-256 do conteúdo na mesma passada
+     * da cópia (sem reler o arquivo depois).
+     */
+    public StoredDocument storeDocument(MultipartFile file) throws IOException {
         if (file == null || file.isEmpty()) {
             throw new IllegalArgumentException("File cannot be empty");
         }
@@ -59,13 +70,24 @@ public class DocumentStorageService {
         
         Path filePath = Paths.get(uploadDir, uniqueFileName);
         
-        // Salvar arquivo
-        Files.copy(file.getInputStream(), filePath);
+        // Salvar arquivo (hash calculado durante a cópia)
+        MessageDigest digest = ContentHash.newDigest();
+        long sizeBytes;
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            sizeBytes = Files.copy(in, filePath);
+        }
+        String contentHash = ContentHash.toHex(digest);
         
-        logger.info("Document saved successfully. Original: {}, Stored as: {}", 
-            originalFileName, uniqueFileName);
+        logger.info("Document saved successfully. Original: {}, Stored as: {}, SHA-256: {}", 
+            originalFileName, uniqueFileName, contentHash);
         
-        return filePath.toString();
+        return new StoredDocument(filePath.toString(), contentHash, sizeBytes);
+    }
+
+    /**
+     * Documento armazenado: caminho, SHA-256 (hex) e tamanho em bytes
+     */
+    public record StoredDocument(String path, String contentHash, long sizeBytes) {
     }
 
     /**
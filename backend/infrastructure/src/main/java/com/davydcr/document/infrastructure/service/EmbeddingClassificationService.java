@@ -0,0 +1,340 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.application.port.ClassificationService;
+import com.davydcr.document.domain.model.ClassificationLabel;
+import com.davydcr.document.domain.model.Confidence;
+import com.davydcr.document.domain.model.DocumentClassification;
+import com.davydcr.document.domain.model.ExtractedContent;
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import com.davydcr.document.infrastructure.persistence.DocumentJpaEntity;
+import com.davydcr.document.infrastructure.persistence.DocumentJpaRepository;
+import com.davydcr.document.infrastructure.persistence.entity.DocumentEmbeddingEntity;
+import com.davydcr.document.infrastructure.persistence.repository.DocumentEmbeddingJpaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Classificação por similaridade de embeddings com protótipos por rótulo.
+ *
+ * Cada documento custa uma chamada de embedding (bem mais barata que uma
+ * geração): o vetor é comparado com o protótipo (centroide) de cada rótulo e
+ * a confiança vem de um softmax das similaridades, reduzida quando nem o
+ * melhor protótipo chega a min-similarity.
+ *
+ * O {@link VectorIndex} tem todos os documentos com texto extraído, seja
+ * qual for o classificador que os rotulou, e responde a busca de documentos
+ * similares; os protótipos saem só dos classificados por label-source-model
+ * (o LLM) com confiança mínima. Os vetores ficam na tabela
+ * document_embeddings; cada atualização do índice só calcula embeddings de
+ * documentos novos (até max-backfill-per-run).
+ *
+ * A atualização (na subida e a cada refresh-interval-ms) roda no
+ * embeddingIndexExecutor: o backfill chama o embedder documento a documento
+ * e não deve segurar a subida nem a thread do agendador.
+ */
+@Service
+@Qualifier("embeddingClassification")
+@ConditionalOnProperty(
+    name = "app.classification.embedding.enabled",
+    havingValue = "true",
+    matchIfMissing = false
+)
+public class EmbeddingClassificationService implements ClassificationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddingClassificationService.class);
+
+    static final String OUTCOME_CLASSIFIED = "classified";
+    static final String OUTCOME_NO_MODEL = "no_model";
+    static final String OUTCOME_ERROR = "error";
+
+    private final DocumentJpaRepository documentRepository;
+    private final DocumentEmbeddingJpaRepository embeddingRepository;
+    private final TextEmbedder embedder;
+    private final ObservabilityService observabilityService;
+    private final PromptTextSampler sampler;
+    private final String labelSourceModel;
+    private final int minLabelConfidence;
+    private final int maxDocuments;
+    private final int maxBackfillPerRun;
+    private final int minSamplesPerLabel;
+    private final double temperature;
+    private final double minSimilarity;
+    private final Executor refreshExecutor;
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+
+    public EmbeddingClassificationService(
+            DocumentJpaRepository documentRepository,
+            DocumentEmbeddingJpaRepository embeddingRepository,
+            TextEmbedder embedder,
+            ObservabilityService observabilityService,
+            @Value("${app.classification.embedding.label-source-model:ollama-${app.classification.llm-model:mistral}}")
+            String labelSourceModel,
+            @Value("${app.classification.embedding.min-label-confidence:70}") int minLabelConfidence,
+            @Value("${app.classification.embedding.max-documents:20000}") int maxDocuments,
+            @Value("${app.classification.embedding.max-backfill-per-run:500}") int maxBackfillPerRun,
+            @Value("${app.classification.embedding.min-samples-per-label:10}") int minSamplesPerLabel,
+            @Value("${app.classification.embedding.token-budget:512}") int tokenBudget,
+            @Value("${app.classification.embedding.temperature:0.05}") double temperature,
+            @Value("${app.classification.embedding.min-similarity:0.5}") double minSimilarity,
+            @Qualifier("embeddingIndexExecutor") Executor refreshExecutor) {
+        this.documentRepository = documentRepository;
+        this.embeddingRepository = embeddingRepository;
+        this.embedder = embedder;
+        this.observabilityService = observabilityService;
+        this.sampler = new PromptTextSampler(tokenBudget, 0.4, 0.2);
+        this.labelSourceModel = labelSourceModel;
+        this.minLabelConfidence = minLabelConfidence;
+        this.maxDocuments = maxDocuments;
+        this.maxBackfillPerRun = maxBackfillPerRun;
+        this.minSamplesPerLabel = minSamplesPerLabel;
+        this.temperature = temperature;
+        this.minSimilarity = minSimilarity;
+        this.refreshExecutor = refreshExecutor;
+
+        observabilityService.registerEmbeddingIndexGauges(
+                () -> Optional.ofNullable(current.get()).map(snapshot -> snapshot.index().size()).orElse(0),
+                () -> Optional.ofNullable(current.get()).map(snapshot -> snapshot.prototypes().getLabels().size())
+                        .orElse(0));
+        logger.info("Embedding classification initialized with embedder: {}, labels from: {}",
+                embedder.getModelName(), labelSourceModel);
+    }
+
+    @Override
+    public DocumentClassification classify(ExtractedContent content) {
+        return classifyAsync(content).join();
+    }
+
+    @Override
+    public DocumentClassification classify(String text) {
+        return classifyAsync(new ExtractedContent(text == null ? "" : text, 0, "text")).join();
+    }
+
+    @Override
+    public CompletableFuture<DocumentClassification> classifyAsync(ExtractedContent content) {
+        Snapshot snapshot = current.get();
+        if (snapshot == null || snapshot.prototypes().isEmpty()
+                || content.getFullText() == null || content.getFullText().isBlank()) {
+            observabilityService.recordEmbeddingClassification(OUTCOME_NO_MODEL, 0);
+            return CompletableFuture.completedFuture(unknown());
+        }
+
+        long startedAt = System.nanoTime();
+        return embedder.embed(sampler.sample(content).text())
+                .thenApply(vector -> {
+                    DocumentClassification classification = nearestPrototype(snapshot.prototypes(), vector);
+                    observabilityService.recordEmbeddingClassification(OUTCOME_CLASSIFIED, System.nanoTime() - startedAt);
+                    return classification;
+                })
+                .exceptionally(e -> {
+                    observabilityService.recordEmbeddingClassification(OUTCOME_ERROR, System.nanoTime() - startedAt);
+                    logger.error("Error classifying by embedding: {}", e.getMessage());
+                    return unknown();
+                });
+    }
+
+    /**
+     * Documentos mais similares a um documento indexado (vizinhos no índice, sem o próprio)
+     */
+    public List<VectorIndex.Neighbor> findSimilar(String documentId, int limit) {
+        Snapshot snapshot = current.get();
+        if (snapshot == null) {
+            return List.of();
+        }
+        return snapshot.index().vector(documentId)
+                .map(vector -> snapshot.index().nearest(vector, limit, documentId))
+                .orElse(List.of());
+    }
+
+    DocumentClassification nearestPrototype(VectorIndex.Prototypes prototypes, float[] vector) {
+        double[] similarities = prototypes.similarities(vector);
+        int best = 0;
+        for (int i = 1; i < similarities.length; i++) {
+            if (similarities[i] > similarities[best]) {
+                best = i;
+            }
+        }
+        int confidence = confidence(similarities, best, temperature, minSimilarity);
+        return new DocumentClassification(
+                ClassificationLabel.of(prototypes.getLabels().get(best)), Confidence.of(confidence), getModelName());
+    }
+
+    /**
+     * Softmax das similaridades com temperatura, reduzido proporcionalmente
+     * quando a melhor similaridade fica abaixo de minSimilarity
+     */
+    static int confidence(double[] similarities, int best, double temperature, double minSimilarity) {
+        double sum = 0.0;
+        for (double similarity : similarities) {
+            sum += Math.exp((similarity - similarities[best]) / temperature);
+        }
+        double probability = 1.0 / sum;
+        if (similarities[best] < minSimilarity) {
+            probability *= Math.max(0.0, similarities[best]) / minSimilarity;
+        }
+        return (int) Math.floor(probability * 100);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void refreshOnStartup() {
+        refreshInBackground();
+    }
+
+    @Scheduled(fixedDelayString = "${app.classification.embedding.refresh-interval-ms:600000}",
+            initialDelayString = "${app.classification.embedding.refresh-interval-ms:600000}")
+    public void scheduledRefresh() {
+        refreshInBackground();
+    }
+
+    private void refreshInBackground() {
+        try {
+            refreshExecutor.execute(this::refresh);
+        } catch (RuntimeException e) {
+            logger.warn("Embedding index refresh not scheduled: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reconstrói o índice com os documentos rotulados, calculando os embeddings que faltam,
+     * e publica os novos protótipos. Em caso de erro o índice atual é mantido.
+     */
+    public synchronized Optional<IndexReport> refresh() {
+        try {
+            long startedAt = System.nanoTime();
+            // Todos os documentos com texto; rótulo só para os que entram nos protótipos (null nos demais)
+            Map<String, String> labels = new LinkedHashMap<>();
+            for (DocumentJpaRepository.EmbeddableDocument row : documentRepository.findEmbeddableDocuments(
+                    PageRequest.of(0, maxDocuments))) {
+                labels.put(row.getId(), isPrototypeSample(row) ? row.getClassificationLabel() : null);
+            }
+
+            Map<String, float[]> vectors = new HashMap<>();
+            for (DocumentEmbeddingEntity entity : embeddingRepository.findByModelName(embedder.getModelName())) {
+                if (labels.containsKey(entity.getDocumentId())) {
+                    vectors.put(entity.getDocumentId(), entity.toVector());
+                }
+            }
+            int embedded = backfill(labels, vectors);
+
+            VectorIndex index = null;
+            for (Map.Entry<String, String> document : labels.entrySet()) {
+                float[] vector = vectors.get(document.getKey());
+                if (vector == null) {
+                    continue;
+                }
+                if (index == null) {
+                    index = new VectorIndex(vector.length, vectors.size());
+                }
+                if (vector.length == index.dimension()) {
+                    index.add(document.getKey(), document.getValue(), vector);
+                }
+            }
+            if (index == null) {
+                logger.info("Embedding index not built: no documents with extracted text");
+                return Optional.empty();
+            }
+
+            VectorIndex.Prototypes prototypes = index.prototypes(minSamplesPerLabel);
+            current.set(new Snapshot(index, prototypes));
+            IndexReport report = new IndexReport(index.size(), prototypes.getLabels().size(), embedded,
+                    index.dimension());
+            logger.info("Embedding index refreshed in {} ms: {}", (System.nanoTime() - startedAt) / 1_000_000, report);
+            return Optional.of(report);
+        } catch (Exception e) {
+            logger.error("Embedding index refresh failed: {}", e.getMessage(), e);
+            return Optional.empty();
+        }
+    }
+
+    private boolean isPrototypeSample(DocumentJpaRepository.EmbeddableDocument row) {
+        return row.getClassificationLabel() != null
+                && labelSourceModel.equals(row.getClassificationModel())
+                && row.getClassificationConfidence() != null
+                && row.getClassificationConfidence() >= minLabelConfidence;
+    }
+
+    /**
+     * Calcula e grava os embeddings que faltam; para no primeiro erro do embedder
+     */
+    private int backfill(Map<String, String> labels, Map<String, float[]> vectors) {
+        int embedded = 0;
+        for (String documentId : labels.keySet()) {
+            if (embedded >= maxBackfillPerRun) {
+                break;
+            }
+            if (vectors.containsKey(documentId)) {
+                continue;
+            }
+            Optional<DocumentJpaEntity> document = documentRepository.findById(documentId);
+            if (document.isEmpty() || document.get().getExtractedText() == null) {
+                continue;
+            }
+            float[] vector;
+            try {
+                ExtractedContent content = new ExtractedContent(document.get().getExtractedText(), 0, "text");
+                vector = embedder.embed(sampler.sample(content).text()).join();
+            } catch (Exception e) {
+                logger.warn("Embedding backfill stopped after {} documents: {}", embedded, e.getMessage());
+                break;
+            }
+
+            DocumentEmbeddingEntity entity = new DocumentEmbeddingEntity();
+            entity.setId(UUID.randomUUID().toString());
+            entity.setDocumentId(documentId);
+            entity.setModelName(embedder.getModelName());
+            entity.setVector(vector);
+            embeddingRepository.save(entity);
+            vectors.put(documentId, vector);
+            embedded++;
+        }
+        observabilityService.recordEmbeddingBackfill(embedded);
+        return embedded;
+    }
+
+    private DocumentClassification unknown() {
+        return new DocumentClassification(ClassificationLabel.of("Unknown"), Confidence.of(0), getModelName());
+    }
+
+    @Override
+    public String getModelName() {
+        return "embedding-" + embedder.getModelName();
+    }
+
+    /**
+     * Disponível quando há protótipos publicados
+     */
+    @Override
+    public boolean isAvailable() {
+        Snapshot snapshot = current.get();
+        return snapshot != null && !snapshot.prototypes().isEmpty();
+    }
+
+    /**
+     * Resultado de uma atualização do índice
+     *
+     * @param labels rótulos com amostras suficientes para ter protótipo
+     * @param embedded embeddings calculados nesta atualização
+     */
+    public record IndexReport(int documents, int labels, int embedded, int dimension) {
+    }
+
+    private record Snapshot(VectorIndex index, VectorIndex.Prototypes prototypes) {
+    }
+}
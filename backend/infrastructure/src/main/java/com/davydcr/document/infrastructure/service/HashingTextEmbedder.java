@@ -0,0 +1,76 @@
+package com.davydcr.document.infrastructure.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Embedding local e determinístico, sem modelo nem rede.
+ *
+ * Os mesmos unigramas e bigramas do {@link NaiveBayesTextClassifier} são
+ * espalhados por hashing com sinal em um vetor de dimensão fixa e
+ * normalizados. Não captura sinônimos como um modelo de embeddings, mas o
+ * mesmo texto sempre gera o mesmo vetor: serve para testes, ambientes sem
+ * Ollama e como base de comparação.
+ */
+@Component
+@ConditionalOnExpression("${app.classification.embedding.enabled:false} "
+        + "and '${app.classification.embedding.provider:ollama}' == 'hashing'")
+public class HashingTextEmbedder implements TextEmbedder {
+
+    private final int dimension;
+    private final int maxChars;
+
+    public HashingTextEmbedder(
+            @Value("${app.classification.embedding.hashing.dimension:512}") int dimension,
+            @Value("${app.classification.fast-path.max-chars:4000}") int maxChars) {
+        if (dimension < 16) {
+            throw new IllegalArgumentException("dimension must be at least 16, got: " + dimension);
+        }
+        this.dimension = dimension;
+        this.maxChars = maxChars;
+    }
+
+    @Override
+    public CompletableFuture<float[]> embed(String text) {
+        return CompletableFuture.completedFuture(embedNow(text));
+    }
+
+    float[] embedNow(String text) {
+        float[] vector = new float[dimension];
+        List<String> tokens = NaiveBayesTextClassifier.tokenize(text, maxChars);
+        String previous = null;
+        for (String token : tokens) {
+            accumulate(vector, token);
+            if (previous != null) {
+                accumulate(vector, previous + ' ' + token);
+            }
+            previous = token;
+        }
+        VectorIndex.normalize(vector);
+        return vector;
+    }
+
+    private void accumulate(float[] vector, String feature) {
+        int h = mix(feature.hashCode());
+        // Bit alto decide o sinal: colisões tendem a se cancelar em vez de somar
+        vector[(h & 0x7fffffff) % dimension] += (h & 0x80000000) == 0 ? 1f : -1f;
+    }
+
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    @Override
+    public String getModelName() {
+        return "hashing-" + dimension;
+    }
+}
@@ -0,0 +1,322 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Distribui as chamadas de LLM entre várias instâncias do Ollama.
+ *
+ * app.classification.llm-url aceita uma lista separada por vírgula. Cada
+ * chamada vai para a instância saudável com menos requisições pendentes
+ * (empates sorteados). A saúde é passiva: falhas consecutivas acima do
+ * limite tiram a instância de rotação por um período; a primeira resposta
+ * bem-sucedida a devolve. Saturação local (fila cheia ou prazo na fila do
+ * {@link LlmHttpClient}) não conta como falha da instância.
+ *
+ * Com hedging habilitado, se a resposta demorar mais que o percentil
+ * configurado das latências recentes, uma cópia da requisição é enviada a
+ * outra instância; a primeira resposta vence e a outra é cancelada. Uma
+ * falha sem outra tentativa em andamento é repetida uma vez em outra instância.
+ */
+@Component
+public class LlmBackendRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LlmBackendRouter.class);
+
+    private static final int MIN_LATENCY_SAMPLES = 20;
+
+    private final List<Endpoint> endpoints;
+    private final ObservabilityService observabilityService;
+    private final int failureThreshold;
+    private final long ejectionNanos;
+    private final boolean hedgingEnabled;
+    private final double hedgePercentile;
+    private final long hedgeMinDelayMs;
+    private final long[] latencyWindow;
+    private int latencyCount;
+    private int latencyNext;
+
+    public LlmBackendRouter(
+            ObservabilityService observabilityService,
+            @Value("${app.classification.llm-url:http://localhost:11434}") String backendUrls,
+            @Value("${app.classification.llm.router.failure-threshold:3}") int failureThreshold,
+            @Value("${app.classification.llm.router.ejection-ms:30000}") long ejectionMs,
+            @Value("${app.classification.llm.router.hedge.enabled:false}") boolean hedgingEnabled,
+            @Value("${app.classification.llm.router.hedge.percentile:0.95}") double hedgePercentile,
+            @Value("${app.classification.llm.router.hedge.min-delay-ms:2000}") long hedgeMinDelayMs,
+            @Value("${app.classification.llm.router.latency-window:256}") int latencyWindow) {
+        this.observabilityService = observabilityService;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.ejectionNanos = TimeUnit.MILLISECONDS.toNanos(ejectionMs);
+        this.hedgePercentile = Math.min(1.0, Math.max(0.0, hedgePercentile));
+        this.hedgeMinDelayMs = Math.max(0, hedgeMinDelayMs);
+        this.latencyWindow = new long[Math.max(MIN_LATENCY_SAMPLES, latencyWindow)];
+
+        List<Endpoint> parsed = new ArrayList<>();
+        for (String url : backendUrls.split(",")) {
+            String trimmed = url.trim();
+            if (!trimmed.isEmpty()) {
+                parsed.add(new Endpoint(trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed));
+            }
+        }
+        if (parsed.isEmpty()) {
+            throw new IllegalArgumentException("app.classification.llm-url must list at least one backend");
+        }
+        this.endpoints = List.copyOf(parsed);
+        this.hedgingEnabled = hedgingEnabled && endpoints.size() > 1;
+
+        for (Endpoint endpoint : endpoints) {
+            observabilityService.registerLlmRouterGauges(endpoint.url, endpoint.outstanding::get,
+                    () -> endpoint.isHealthy(System.nanoTime()) ? 1 : 0);
+        }
+        logger.info("LLM router ready: backends={}, hedging={}, failureThreshold={}, ejection={}ms",
+                endpoints.stream().map(endpoint -> endpoint.url).toList(), this.hedgingEnabled,
+                this.failureThreshold, ejectionMs);
+    }
+
+    /**
+     * Executa a chamada na melhor instância (call recebe a URL base, ex: http://ollama-1:11434).
+     * call pode ser chamada mais de uma vez (hedge/failover) e deve criar estado novo a cada vez.
+     */
+    public <T> CompletableFuture<T> execute(Function<String, CompletableFuture<T>> call) {
+        Exchange<T> exchange = new Exchange<>(call);
+        Endpoint primary = select(exchange.tried);
+        launch(exchange, primary, false);
+
+        if (hedgingEnabled) {
+            long delayMs = hedgeDelayMillis();
+            CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS).execute(() -> {
+                if (exchange.result.isDone()) {
+                    return;
+                }
+                Endpoint secondary;
+                synchronized (exchange) {
+                    secondary = select(exchange.tried);
+                    if (exchange.tried.contains(secondary)) {
+                        return;  // nenhuma outra instância disponível
+                    }
+                }
+                observabilityService.recordLlmHedge(secondary.url, "launched");
+                logger.debug("LLM request exceeded {}ms, hedging to {}", delayMs, secondary.url);
+                launch(exchange, secondary, true);
+            });
+        }
+
+        // A resposta vencedora cancela as demais tentativas (e o chamador pode cancelar todas)
+        exchange.result.whenComplete((value, error) -> exchange.cancelAttempts());
+        return exchange.result;
+    }
+
+    public List<String> getBackendUrls() {
+        return endpoints.stream().map(endpoint -> endpoint.url).toList();
+    }
+
+    /**
+     * Instância saudável com menos pendências, fora as já tentadas; sem opção melhor,
+     * a que volta à rotação primeiro
+     */
+    private Endpoint select(Set<Endpoint> exclude) {
+        long now = System.nanoTime();
+        int offset = ThreadLocalRandom.current().nextInt(endpoints.size());
+        Endpoint best = null;
+        for (int i = 0; i < endpoints.size(); i++) {
+            Endpoint candidate = endpoints.get((i + offset) % endpoints.size());
+            if (exclude.contains(candidate) || !candidate.isHealthy(now)) {
+                continue;
+            }
+            if (best == null || candidate.outstanding.get() < best.outstanding.get()) {
+                best = candidate;
+            }
+        }
+        if (best != null) {
+            return best;
+        }
+
+        for (Endpoint candidate : endpoints) {
+            if (exclude.contains(candidate)) {
+                continue;
+            }
+            if (best == null || candidate.ejectedUntil < best.ejectedUntil) {
+                best = candidate;
+            }
+        }
+        return best != null ? best : endpoints.get(offset);
+    }
+
+    private <T> void launch(Exchange<T> exchange, Endpoint endpoint, boolean hedge) {
+        CompletableFuture<T> attempt;
+        synchronized (exchange) {
+            exchange.tried.add(endpoint);
+            exchange.pending++;
+        }
+        endpoint.outstanding.incrementAndGet();
+        long startedAt = System.nanoTime();
+        try {
+            attempt = exchange.call.apply(endpoint.url);
+        } catch (RuntimeException e) {
+            attempt = CompletableFuture.failedFuture(e);
+        }
+        exchange.addAttempt(attempt);
+
+        attempt.whenComplete((value, error) -> {
+            endpoint.outstanding.decrementAndGet();
+            Throwable cause = unwrap(error);
+            if (cause == null) {
+                endpoint.recordSuccess();
+                recordLatency(System.nanoTime() - startedAt);
+                if (exchange.result.complete(value)) {
+                    observabilityService.recordLlmRouterRequest(endpoint.url, "success");
+                    if (hedge) {
+                        observabilityService.recordLlmHedge(endpoint.url, "won");
+                    }
+                }
+                return;
+            }
+            if (cause instanceof CancellationException) {
+                return;  // tentativa perdedora cancelada
+            }
+
+            if (countsAgainstHealth(cause) && endpoint.recordFailure(System.nanoTime(), failureThreshold, ejectionNanos)) {
+                observabilityService.recordLlmBackendEjected(endpoint.url);
+                logger.warn("LLM backend {} ejected for {}ms after {} consecutive failures: {}",
+                        endpoint.url, TimeUnit.NANOSECONDS.toMillis(ejectionNanos), failureThreshold, cause.getMessage());
+            }
+            observabilityService.recordLlmRouterRequest(endpoint.url, "failure");
+            onAttemptFailed(exchange, cause);
+        });
+    }
+
+    private <T> void onAttemptFailed(Exchange<T> exchange, Throwable cause) {
+        Endpoint failover = null;
+        synchronized (exchange) {
+            exchange.pending--;
+            if (exchange.result.isDone() || exchange.pending > 0) {
+                return;  // outra tentativa ainda pode responder
+            }
+            if (!exchange.failedOver) {
+                Endpoint candidate = select(exchange.tried);
+                if (!exchange.tried.contains(candidate)) {
+                    exchange.failedOver = true;
+                    failover = candidate;
+                }
+            }
+        }
+        if (failover != null) {
+            logger.debug("LLM request failed ({}), retrying on {}", cause.getMessage(), failover.url);
+            launch(exchange, failover, false);
+        } else {
+            exchange.result.completeExceptionally(cause);
+        }
+    }
+
+    private boolean countsAgainstHealth(Throwable cause) {
+        // Fila local cheia ou prazo de espera por slot: a instância não chegou a ser chamada
+        return !LlmHttpClient.isSaturation(cause);
+    }
+
+    private synchronized void recordLatency(long nanos) {
+        latencyWindow[latencyNext] = nanos;
+        latencyNext = (latencyNext + 1) % latencyWindow.length;
+        latencyCount = Math.min(latencyCount + 1, latencyWindow.length);
+    }
+
+    /**
+     * Atraso do hedge: percentil das latências recentes, nunca abaixo do mínimo configurado
+     */
+    synchronized long hedgeDelayMillis() {
+        if (latencyCount < MIN_LATENCY_SAMPLES) {
+            return hedgeMinDelayMs;
+        }
+        long[] samples = Arrays.copyOf(latencyWindow, latencyCount);
+        Arrays.sort(samples);
+        int index = (int) Math.min(samples.length - 1, Math.ceil(hedgePercentile * samples.length) - 1);
+        return Math.max(hedgeMinDelayMs, TimeUnit.NANOSECONDS.toMillis(samples[Math.max(0, index)]));
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    /**
+     * Estado de uma chamada roteada: tentativas em andamento e instâncias já usadas
+     */
+    private static final class Exchange<T> {
+
+        private final Function<String, CompletableFuture<T>> call;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final List<CompletableFuture<T>> attempts = new ArrayList<>();
+        private final Set<Endpoint> tried = new HashSet<>();
+        private int pending;
+        private boolean failedOver;
+
+        Exchange(Function<String, CompletableFuture<T>> call) {
+            this.call = call;
+        }
+
+        synchronized void addAttempt(CompletableFuture<T> attempt) {
+            attempts.add(attempt);
+            if (result.isDone()) {
+                attempt.cancel(true);
+            }
+        }
+
+        synchronized void cancelAttempts() {
+            for (CompletableFuture<T> attempt : attempts) {
+                attempt.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Uma instância do backend com contagem de pendências e saúde passiva
+     */
+    private static final class Endpoint {
+
+        private final String url;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private int consecutiveFailures;
+        private volatile long ejectedUntil;
+
+        Endpoint(String url) {
+            this.url = url;
+        }
+
+        boolean isHealthy(long now) {
+            return ejectedUntil == 0 || now - ejectedUntil >= 0;
+        }
+
+        synchronized void recordSuccess() {
+            consecutiveFailures = 0;
+            ejectedUntil = 0;
+        }
+
+        /**
+         * @return true se a falha tirou a instância de rotação
+         */
+        synchronized boolean recordFailure(long now, int threshold, long ejectionNanos) {
+            consecutiveFailures++;
+            if (consecutiveFailures >= threshold && isHealthy(now)) {
+                ejectedUntil = now + ejectionNanos;
+                consecutiveFailures = 0;
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Verificação de saúde das instâncias do LLM em segundo plano.
+ *
+ * A cada app.classification.llm.health.interval-ms um GET /api/tags é
+ * disparado para cada instância, sem bloquear a thread do agendador; o
+ * resultado (disponível, horário e latência da última verificação) fica em
+ * cache e {@link #isAvailable()} só lê esse estado. Uma instância é marcada
+ * indisponível após failure-threshold falhas seguidas e volta na primeira
+ * resposta. Até a primeira verificação a instância é considerada disponível.
+ * Os logs saem apenas nas mudanças de estado.
+ */
+@Component
+@ConditionalOnProperty(
+    name = "app.classification.llm-enabled",
+    havingValue = "true",
+    matchIfMissing = false
+)
+public class LlmHealthProber {
+
+    private static final Logger logger = LoggerFactory.getLogger(LlmHealthProber.class);
+
+    private final LlmHttpClient llmClient;
+    private final ObservabilityService observabilityService;
+    private final Duration timeout;
+    private final int failureThreshold;
+    private final Map<String, ProbeState> states = new LinkedHashMap<>();
+
+    public LlmHealthProber(
+            LlmHttpClient llmClient,
+            LlmBackendRouter router,
+            ObservabilityService observabilityService,
+            @Value("${app.classification.llm.health.timeout-ms:3000}") long timeoutMs,
+            @Value("${app.classification.llm.health.failure-threshold:2}") int failureThreshold) {
+        this.llmClient = llmClient;
+        this.observabilityService = observabilityService;
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.failureThreshold = Math.max(1, failureThreshold);
+        for (String url : router.getBackendUrls()) {
+            ProbeState state = new ProbeState(url);
+            states.put(url, state);
+            observabilityService.registerLlmHealthGauge(url, () -> state.health.available() ? 1 : 0);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        probe();
+    }
+
+    /**
+     * Dispara a verificação de todas as instâncias (a anterior de cada uma precisa ter terminado)
+     */
+    @Scheduled(fixedDelayString = "${app.classification.llm.health.interval-ms:10000}",
+            initialDelayString = "${app.classification.llm.health.interval-ms:10000}")
+    public void probe() {
+        for (ProbeState state : states.values()) {
+            if (state.running.compareAndSet(false, true)) {
+                probe(state);
+            }
+        }
+    }
+
+    private void probe(ProbeState state) {
+        long startedAt = System.nanoTime();
+        llmClient.get(state.url + "/api/tags", timeout).whenComplete((body, error) -> {
+            long latencyNanos = System.nanoTime() - startedAt;
+            try {
+                state.update(error == null, latencyNanos, error);
+                observabilityService.recordLlmHealthProbe(state.url, error == null, latencyNanos);
+            } finally {
+                state.running.set(false);
+            }
+        });
+    }
+
+    /**
+     * Estado em cache: true se alguma instância está disponível
+     */
+    public boolean isAvailable() {
+        return states.values().stream().anyMatch(state -> state.health.available());
+    }
+
+    /**
+     * Último resultado de cada instância, na ordem configurada
+     */
+    public Map<String, BackendHealth> getBackendHealth() {
+        Map<String, BackendHealth> snapshot = new LinkedHashMap<>();
+        states.forEach((url, state) -> snapshot.put(url, state.health));
+        return snapshot;
+    }
+
+    /**
+     * Resultado da última verificação de uma instância
+     *
+     * @param checkedAt null até a primeira verificação
+     * @param latencyMs -1 até a primeira verificação
+     * @param error mensagem da última falha (null se a última verificação passou)
+     */
+    public record BackendHealth(boolean available, Instant checkedAt, long latencyMs, String error) {
+    }
+
+    private final class ProbeState {
+
+        private final String url;
+        private final AtomicBoolean running = new AtomicBoolean();
+        private volatile BackendHealth health = new BackendHealth(true, null, -1, null);
+        private int consecutiveFailures;
+
+        ProbeState(String url) {
+            this.url = url;
+        }
+
+        synchronized void update(boolean success, long latencyNanos, Throwable error) {
+            boolean wasAvailable = health.available();
+            long latencyMs = TimeUnit.NANOSECONDS.toMillis(latencyNanos);
+            if (success) {
+                consecutiveFailures = 0;
+                health = new BackendHealth(true, Instant.now(), latencyMs, null);
+                if (!wasAvailable) {
+                    logger.info("LLM backend {} is available again ({}ms)", url, latencyMs);
+                }
+                return;
+            }
+
+            consecutiveFailures++;
+            Throwable cause = error.getCause() != null ? error.getCause() : error;
+            String message = cause.getClass().getSimpleName() + ": " + cause.getMessage();
+            boolean available = wasAvailable && consecutiveFailures < failureThreshold;
+            health = new BackendHealth(available, Instant.now(), latencyMs, message);
+            if (wasAvailable && !available) {
+                logger.warn("LLM backend {} is unavailable after {} failed health checks: {}",
+                        url, consecutiveFailures, message);
+            }
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Cliente HTTP assíncrono para backends de LLM (Ollama).
+ *
+ * Usa um único java.net.http.HttpClient, que mantém conexões keep-alive
+ * reutilizadas entre chamadas, e não prende threads enquanto o modelo gera
+ * a resposta: cada chamada devolve um CompletableFuture.
+ *
+ * Cada backend (scheme://host:port) tem um limite de requisições em voo.
+ * Acima dele as requisições esperam em uma fila limitada; quem passa do prazo
+ * na fila falha com TimeoutException e, com a fila cheia, a chamada falha na
+ * hora com RejectedExecutionException, sem acumular trabalho que não será atendido.
+ * Cancelar o future devolvido tira a requisição da fila ou aborta a troca
+ * HTTP em andamento (usado pelo hedging do {@link LlmBackendRouter}).
+ */
+@Component
+public class LlmHttpClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(LlmHttpClient.class);
+
+    private final HttpClient httpClient;
+    private final ObservabilityService observabilityService;
+    private final int maxInFlight;
+    private final int queueCapacity;
+    private final Duration queueTimeout;
+    private final Duration requestTimeout;
+    private final Map<String, Backend> backends = new ConcurrentHashMap<>();
+
+    public LlmHttpClient(
+            @Qualifier("llmClientExecutor") Executor executor,
+            ObservabilityService observabilityService,
+            @Value("${app.classification.llm.max-in-flight:4}") int maxInFlight,
+            @Value("${app.classification.llm.queue-capacity:64}") int queueCapacity,
+            @Value("${app.classification.llm.queue-timeout-ms:30000}") long queueTimeoutMs,
+            @Value("${app.classification.llm.connect-timeout-ms:10000}") long connectTimeoutMs,
+            @Value("${app.classification.llm.request-timeout-ms:120000}") long requestTimeoutMs) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .executor(executor)
+                .build();
+        this.observabilityService = observabilityService;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.queueCapacity = Math.max(0, queueCapacity);
+        this.queueTimeout = Duration.ofMillis(queueTimeoutMs);
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+
+        logger.info("LLM HTTP client ready: maxInFlight={}, queueCapacity={}, queueTimeout={}ms, requestTimeout={}ms",
+                this.maxInFlight, this.queueCapacity, queueTimeoutMs, requestTimeoutMs);
+    }
+
+    /**
+     * Indica se a falha veio do limite local (fila cheia ou prazo de espera por
+     * slot) e não do modelo: a instância nem chegou a ser chamada
+     */
+    public static boolean isSaturation(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof RejectedExecutionException || cause instanceof TimeoutException;
+    }
+
+    /**
+     * POST de um corpo JSON; o future completa com o corpo da resposta (HTTP 2xx)
+     */
+    public CompletableFuture<String> postJson(String url, String jsonBody) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(jsonBody))
+                .build();
+        return send(request);
+    }
+
+    /**
+     * GET com timeout próprio (ex: health check). Não ocupa slot nem entra na
+     * fila do backend: uma verificação de saúde não pode esperar atrás das gerações.
+     */
+    public CompletableFuture<String> get(String url, Duration timeout) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(timeout)
+                .GET()
+                .build();
+        return exchange(request);
+    }
+
+    /**
+     * POST de um corpo JSON com resposta em streaming (NDJSON/linhas).
+     * Cada linha vai para o handler assim que chega; quando ele devolve um
+     * resultado a resposta é cancelada (a conexão é fechada e o backend para de
+     * gerar) e o slot do backend é liberado na hora.
+     */
+    public <T> CompletableFuture<T> postJsonStreaming(String url, String jsonBody, StreamingHandler<T> handler) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(jsonBody))
+                .build();
+        return backend(request.uri()).submit(() -> {
+            LineStreamSubscriber<T> subscriber = new LineStreamSubscriber<>(handler);
+            CompletableFuture<HttpResponse<Void>> exchange = httpClient.sendAsync(request, responseInfo -> {
+                if (responseInfo.statusCode() / 100 != 2) {
+                    subscriber.result.completeExceptionally(new IllegalStateException("LLM backend returned HTTP "
+                            + responseInfo.statusCode() + " for " + request.uri().getPath()));
+                    return HttpResponse.BodySubscribers.replacing(null);
+                }
+                return HttpResponse.BodySubscribers.fromLineSubscriber(subscriber);
+            });
+            exchange.whenComplete((response, error) -> {
+                if (error != null) {
+                    subscriber.result.completeExceptionally(error);
+                }
+            });
+            return cancelling(subscriber.result, exchange);
+        });
+    }
+
+    private CompletableFuture<String> send(HttpRequest request) {
+        return backend(request.uri()).submit(() -> exchange(request));
+    }
+
+    private CompletableFuture<String> exchange(HttpRequest request) {
+        CompletableFuture<HttpResponse<String>> exchange =
+                httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+        return cancelling(exchange.thenApply(response -> {
+            if (response.statusCode() / 100 != 2) {
+                throw new IllegalStateException("LLM backend returned HTTP " + response.statusCode()
+                        + " for " + request.uri().getPath());
+            }
+            return response.body();
+        }), exchange);
+    }
+
+    /**
+     * Cancelar o resultado aborta a troca HTTP (futures dependentes não propagam o cancelamento)
+     */
+    private static <T> CompletableFuture<T> cancelling(CompletableFuture<T> result, CompletableFuture<?> exchange) {
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                exchange.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private Backend backend(URI uri) {
+        String key = uri.getScheme() + "://" + uri.getAuthority();
+        return backends.computeIfAbsent(key, Backend::new);
+    }
+
+    /**
+     * Consumidor das linhas de uma resposta em streaming
+     */
+    public interface StreamingHandler<T> {
+
+        /**
+         * Chamado a cada linha; um valor presente encerra a resposta antecipadamente
+         */
+        Optional<T> onLine(String line);
+
+        /**
+         * Fim do stream sem encerramento antecipado
+         */
+        T onComplete();
+    }
+
+    private static final class LineStreamSubscriber<T> implements Flow.Subscriber<String> {
+
+        private final StreamingHandler<T> handler;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private Flow.Subscription subscription;
+
+        LineStreamSubscriber(StreamingHandler<T> handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (result.isDone()) {
+                return;
+            }
+            try {
+                Optional<T> early = handler.onLine(line);
+                if (early.isPresent()) {
+                    result.complete(early.get());
+                    subscription.cancel();
+                }
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+                subscription.cancel();
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            result.completeExceptionally(error);
+        }
+
+        @Override
+        public void onComplete() {
+            if (result.isDone()) {
+                return;
+            }
+            try {
+                result.complete(handler.onComplete());
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Limite de requisições em voo e fila com prazo de um backend
+     */
+    private class Backend {
+
+        private final String name;
+        private final Deque<Pending<?>> queue = new ArrayDeque<>();
+        private int inFlight;
+
+        Backend(String name) {
+            this.name = name;
+            observabilityService.registerLlmBackendGauges(name, this::inFlight, this::queued);
+        }
+
+        <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> call) {
+            Pending<T> pending = new Pending<>(call, System.nanoTime());
+            pending.result.whenComplete((value, error) -> {
+                if (pending.result.isCancelled()) {
+                    cancel(pending);
+                }
+            });
+            synchronized (this) {
+                if (inFlight < maxInFlight) {
+                    inFlight++;
+                } else if (queue.size() < queueCapacity) {
+                    queue.addLast(pending);
+                    scheduleQueueTimeout(pending);
+                    return pending.result;
+                } else {
+                    observabilityService.recordLlmRequestRejected(name, "queue_full");
+                    return CompletableFuture.failedFuture(new RejectedExecutionException(
+                            "LLM backend " + name + " is saturated (" + maxInFlight + " in flight, "
+                                    + queueCapacity + " queued)"));
+                }
+            }
+            start(pending);
+            return pending.result;
+        }
+
+        private void scheduleQueueTimeout(Pending<?> pending) {
+            CompletableFuture.delayedExecutor(queueTimeout.toMillis(), TimeUnit.MILLISECONDS).execute(() -> {
+                boolean removed;
+                synchronized (this) {
+                    removed = queue.remove(pending);
+                }
+                if (removed) {
+                    observabilityService.recordLlmRequestRejected(name, "queue_timeout");
+                    pending.result.completeExceptionally(new TimeoutException(
+                            "Waited more than " + queueTimeout.toMillis() + "ms for a free slot on LLM backend " + name));
+                }
+            });
+        }
+
+        /**
+         * Na fila: sai sem consumir slot. Em voo: a chamada é cancelada e o slot liberado quando ela termina
+         */
+        private void cancel(Pending<?> pending) {
+            synchronized (this) {
+                if (queue.remove(pending)) {
+                    return;
+                }
+            }
+            CompletableFuture<?> call = pending.call;
+            if (call != null) {
+                call.cancel(true);
+            }
+        }
+
+        private <T> void start(Pending<T> pending) {
+            observabilityService.recordLlmQueueWait(name, System.nanoTime() - pending.enqueuedAt);
+            CompletableFuture<T> call;
+            try {
+                call = pending.supplier.get();
+            } catch (RuntimeException e) {
+                call = CompletableFuture.failedFuture(e);
+            }
+            pending.call = call;
+            if (pending.result.isCancelled()) {
+                call.cancel(true);
+            }
+            call.whenComplete((value, error) -> {
+                release();
+                if (error != null) {
+                    pending.result.completeExceptionally(error);
+                } else {
+                    pending.result.complete(value);
+                }
+            });
+        }
+
+        private void release() {
+            Pending<?> next;
+            synchronized (this) {
+                next = queue.pollFirst();
+                if (next == null) {
+                    inFlight--;
+                    return;
+                }
+            }
+            // O slot passa direto para o próximo da fila
+            start(next);
+        }
+
+        private synchronized int inFlight() {
+            return inFlight;
+        }
+
+        private synchronized int queued() {
+            return queue.size();
+        }
+    }
+
+    private static final class Pending<T> {
+
+        private final Supplier<CompletableFuture<T>> supplier;
+        private final long enqueuedAt;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private volatile CompletableFuture<T> call;
+
+        Pending(Supplier<CompletableFuture<T>> supplier, long enqueuedAt) {
+            this.supplier = supplier;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
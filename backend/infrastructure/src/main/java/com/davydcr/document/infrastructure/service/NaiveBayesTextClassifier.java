@@ -0,0 +1,216 @@
+package com.davydcr.document.infrastructure.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Naive Bayes multinomial binarizado sobre n-gramas de palavras com hashing.
+ *
+ * Cada documento vira o conjunto de unigramas e bigramas presentes (sem
+ * contagem repetida), mapeados por hash para 2^hashBits posições; não há
+ * vocabulário a manter. Tokens com dígitos são trocados por um marcador de
+ * forma ("#num"), para que números de fatura, valores e datas generalizem.
+ *
+ * O modelo é imutável depois de treinado e a previsão não aloca além do
+ * vetor de features, então uma instância pode ser compartilhada entre threads.
+ */
+public final class NaiveBayesTextClassifier {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final String NUMBER_TOKEN = "#num";
+    private static final double SMOOTHING = 1.0;
+
+    private final String[] labels;
+    private final double[] logPriors;
+    private final float[][] logLikelihoods;
+    private final int featureMask;
+    private final int maxChars;
+    private final int trainingSamples;
+
+    private NaiveBayesTextClassifier(String[] labels, double[] logPriors, float[][] logLikelihoods,
+                                     int featureMask, int maxChars, int trainingSamples) {
+        this.labels = labels;
+        this.logPriors = logPriors;
+        this.logLikelihoods = logLikelihoods;
+        this.featureMask = featureMask;
+        this.maxChars = maxChars;
+        this.trainingSamples = trainingSamples;
+    }
+
+    /**
+     * Treina um modelo com as amostras rotuladas
+     *
+     * @param hashBits tamanho do espaço de features (2^hashBits posições por rótulo)
+     * @param maxChars apenas o início de cada texto é considerado
+     */
+    public static NaiveBayesTextClassifier train(List<Sample> samples, int hashBits, int maxChars) {
+        if (hashBits < 8 || hashBits > 24) {
+            throw new IllegalArgumentException("hashBits must be between 8 and 24, got: " + hashBits);
+        }
+        if (samples.isEmpty()) {
+            throw new IllegalArgumentException("samples cannot be empty");
+        }
+
+        Map<String, Integer> labelIndex = new LinkedHashMap<>();
+        for (Sample sample : samples) {
+            labelIndex.putIfAbsent(sample.label(), labelIndex.size());
+        }
+
+        int buckets = 1 << hashBits;
+        int featureMask = buckets - 1;
+        int labelCount = labelIndex.size();
+        int[] documentCounts = new int[labelCount];
+        int[][] featureCounts = new int[labelCount][buckets];
+        long[] featureTotals = new long[labelCount];
+
+        for (Sample sample : samples) {
+            int label = labelIndex.get(sample.label());
+            documentCounts[label]++;
+            for (int feature : features(sample.text(), featureMask, maxChars)) {
+                featureCounts[label][feature]++;
+                featureTotals[label]++;
+            }
+        }
+
+        double[] logPriors = new double[labelCount];
+        float[][] logLikelihoods = new float[labelCount][buckets];
+        for (int label = 0; label < labelCount; label++) {
+            logPriors[label] = Math.log((double) documentCounts[label] / samples.size());
+            double denominator = Math.log(featureTotals[label] + SMOOTHING * buckets);
+            for (int feature = 0; feature < buckets; feature++) {
+                logLikelihoods[label][feature] =
+                        (float) (Math.log(featureCounts[label][feature] + SMOOTHING) - denominator);
+            }
+        }
+
+        return new NaiveBayesTextClassifier(labelIndex.keySet().toArray(new String[0]), logPriors,
+                logLikelihoods, featureMask, maxChars, samples.size());
+    }
+
+    /**
+     * Rótulo mais provável e sua probabilidade a posteriori (0-1)
+     */
+    public Prediction predict(String text) {
+        int[] features = features(text, featureMask, maxChars);
+        double[] scores = new double[labels.length];
+        double best = Double.NEGATIVE_INFINITY;
+        int bestLabel = 0;
+        for (int label = 0; label < labels.length; label++) {
+            double score = logPriors[label];
+            float[] likelihoods = logLikelihoods[label];
+            for (int feature : features) {
+                score += likelihoods[feature];
+            }
+            scores[label] = score;
+            if (score > best) {
+                best = score;
+                bestLabel = label;
+            }
+        }
+
+        // Softmax estável: normaliza pelo maior score
+        double sum = 0.0;
+        for (double score : scores) {
+            sum += Math.exp(score - best);
+        }
+        return new Prediction(labels[bestLabel], 1.0 / sum);
+    }
+
+    public List<String> getLabels() {
+        return List.of(labels);
+    }
+
+    public int getTrainingSamples() {
+        return trainingSamples;
+    }
+
+    /**
+     * Features distintas (posições de hash) do texto, ordenadas
+     */
+    static int[] features(String text, int featureMask, int maxChars) {
+        List<String> tokens = tokenize(text, maxChars);
+        int[] features = new int[tokens.size() * 2];
+        int count = 0;
+        String previous = null;
+        for (String token : tokens) {
+            features[count++] = hash(token) & featureMask;
+            if (previous != null) {
+                features[count++] = hash(previous + ' ' + token) & featureMask;
+            }
+            previous = token;
+        }
+
+        Arrays.sort(features, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || features[i] != features[distinct - 1]) {
+                features[distinct++] = features[i];
+            }
+        }
+        return Arrays.copyOf(features, distinct);
+    }
+
+    static List<String> tokenize(String text, int maxChars) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        String head = text.length() > maxChars ? text.substring(0, maxChars) : text;
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(head, Normalizer.Form.NFKD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        boolean hasDigit = false;
+        for (int i = 0; i <= normalized.length(); i++) {
+            char c = i < normalized.length() ? normalized.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                if (start < 0) {
+                    start = i;
+                    hasDigit = false;
+                }
+                hasDigit |= Character.isDigit(c);
+            } else if (start >= 0) {
+                if (hasDigit) {
+                    // "1.500,00" e "12/03/2026" viram um único marcador
+                    if (tokens.isEmpty() || !tokens.get(tokens.size() - 1).equals(NUMBER_TOKEN)) {
+                        tokens.add(NUMBER_TOKEN);
+                    }
+                } else if (i - start >= 2) {
+                    tokens.add(normalized.substring(start, i));
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static int hash(String value) {
+        // Finalizador do MurmurHash3 sobre o hashCode, para espalhar os bits baixos
+        int h = value.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * Texto rotulado para treino
+     */
+    public record Sample(String text, String label) {
+    }
+
+    /**
+     * Rótulo previsto e probabilidade a posteriori (0-1)
+     */
+    public record Prediction(String label, double probability) {
+    }
+}
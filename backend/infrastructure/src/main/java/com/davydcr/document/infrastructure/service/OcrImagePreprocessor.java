@@ -0,0 +1,323 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import org.imgscalr.Scalr;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
+import java.util.Arrays;
+import java.util.function.UnaryOperator;
+
+/**
+ * Pré-processamento de imagens antes do Tesseract.
+ *
+ * Etapas (cada uma configurável e cronometrada):
+ * 1. downscale: reduz imagens maiores que a resolução alvo (imgscalr);
+ *    feito primeiro para que as demais etapas trabalhem com menos pixels
+ * 2. grayscale: converte para TYPE_BYTE_GRAY
+ * 3. deskew: estima a inclinação do texto por perfil de projeção e corrige
+ * 4. binarize: limiarização global de Otsu (preto/branco)
+ *
+ * Deskew e binarização operam em tons de cinza; se habilitados, a conversão
+ * para cinza acontece mesmo com a etapa grayscale desabilitada.
+ *
+ * {@link #preprocessPage} informa a rotação aplicada pelo deskew, para que
+ * coordenadas da imagem pré-processada possam ser levadas de volta ao render;
+ * {@link #preprocessRegion} aplica a mesma rotação a um recorte da página.
+ */
+@Component
+public class OcrImagePreprocessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(OcrImagePreprocessor.class);
+
+    // Lado maior de uma página A4 em polegadas (converte DPI alvo em pixels)
+    private static final double PAGE_LONG_SIDE_INCHES = 11.69;
+    // Inclinações menores que isso não compensam a rotação
+    private static final double MIN_SKEW_DEGREES = 0.3;
+    private static final double SKEW_STEP_DEGREES = 0.25;
+    // Resolução usada para estimar a inclinação (amostragem de pixels)
+    private static final int SKEW_SAMPLE_LONG_SIDE = 800;
+    private static final int DARK_THRESHOLD = 128;
+
+    private final boolean enabled;
+    private final boolean grayscale;
+    private final int targetDpi;
+    private final int maxLongSide;
+    private final boolean deskew;
+    private final double maxSkewDegrees;
+    private final boolean binarize;
+    private final ObservabilityService observabilityService;
+
+    public OcrImagePreprocessor(
+            @Value("${app.ocr.preprocess.enabled:true}") boolean enabled,
+            @Value("${app.ocr.preprocess.grayscale:true}") boolean grayscale,
+            @Value("${app.ocr.preprocess.target-dpi:300}") int targetDpi,
+            @Value("${app.ocr.preprocess.deskew:true}") boolean deskew,
+            @Value("${app.ocr.preprocess.max-skew-degrees:5}") double maxSkewDegrees,
+            @Value("${app.ocr.preprocess.binarize:true}") boolean binarize,
+            ObservabilityService observabilityService) {
+        this.enabled = enabled;
+        this.grayscale = grayscale;
+        this.targetDpi = targetDpi;
+        // 0 (ou negativo) = sem downscale
+        this.maxLongSide = targetDpi > 0 ? (int) Math.round(targetDpi * PAGE_LONG_SIDE_INCHES) : 0;
+        this.deskew = deskew;
+        this.maxSkewDegrees = maxSkewDegrees;
+        this.binarize = binarize;
+        this.observabilityService = observabilityService;
+
+        logger.info("OCR image preprocessing: enabled={}, grayscale={}, targetDpi={}, deskew={}, binarize={}",
+                enabled, grayscale, targetDpi, deskew, binarize);
+    }
+
+    /**
+     * Aplica as etapas habilitadas e retorna a imagem a ser enviada ao OCR
+     */
+    public BufferedImage preprocess(BufferedImage source) {
+        return preprocessPage(source).image();
+    }
+
+    /**
+     * Pré-processa a página inteira e retorna também a rotação aplicada pelo deskew
+     */
+    public Preprocessed preprocessPage(BufferedImage source) {
+        return run(source, null);
+    }
+
+    /**
+     * Pré-processa um recorte da página com a rotação já estimada na página
+     * inteira: um recorte de uma linha não tem texto suficiente para a estimativa
+     */
+    public BufferedImage preprocessRegion(BufferedImage region, double rotationDegrees) {
+        return run(region, rotationDegrees).image();
+    }
+
+    private Preprocessed run(BufferedImage source, Double knownRotation) {
+        if (!enabled) {
+            return new Preprocessed(source, 0.0);
+        }
+
+        long start = System.nanoTime();
+        BufferedImage image = source;
+        double rotation = 0.0;
+
+        if (maxLongSide > 0 && Math.max(image.getWidth(), image.getHeight()) > maxLongSide) {
+            image = timed("downscale", image,
+                    img -> Scalr.resize(img, Scalr.Method.BALANCED, Scalr.Mode.AUTOMATIC, maxLongSide));
+        }
+        if (grayscale || deskew || binarize) {
+            image = timed("grayscale", image, this::toGrayscale);
+        }
+        if (deskew) {
+            long deskewStart = System.nanoTime();
+            rotation = knownRotation != null ? knownRotation : -estimateSkewDegrees(image);
+            if (Math.abs(rotation) < MIN_SKEW_DEGREES) {
+                rotation = 0.0;
+            } else {
+                image = rotate(image, rotation);
+            }
+            observabilityService.recordOcrPreprocessStep("deskew", System.nanoTime() - deskewStart);
+        }
+        if (binarize) {
+            image = timed("binarize", image, this::binarize);
+        }
+
+        logger.debug("Preprocessed image {}x{} -> {}x{} in {}ms",
+                source.getWidth(), source.getHeight(), image.getWidth(), image.getHeight(),
+                (System.nanoTime() - start) / 1_000_000);
+        return new Preprocessed(image, rotation);
+    }
+
+    /**
+     * Configuração em uso, para compor a versão da extração (chave do cache de OCR)
+     */
+    public String getConfigSignature() {
+        if (!enabled) {
+            return "preprocess(off)";
+        }
+        return "preprocess(gray=" + grayscale + ",dpi=" + targetDpi + ",deskew=" + deskew
+                + (deskew ? ",maxSkew=" + maxSkewDegrees : "") + ",binarize=" + binarize + ")";
+    }
+
+    private BufferedImage timed(String step, BufferedImage input, UnaryOperator<BufferedImage> operation) {
+        long start = System.nanoTime();
+        BufferedImage output = operation.apply(input);
+        observabilityService.recordOcrPreprocessStep(step, System.nanoTime() - start);
+        return output;
+    }
+
+    BufferedImage toGrayscale(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_BYTE_GRAY) {
+            return image;
+        }
+        BufferedImage gray = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g = gray.createGraphics();
+        try {
+            // Fundo branco para imagens com transparência
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, image.getWidth(), image.getHeight());
+            g.drawImage(image, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return gray;
+    }
+
+    /**
+     * Gira a imagem em torno do centro, mantendo o tamanho (cantos em branco)
+     */
+    private BufferedImage rotate(BufferedImage gray, double rotationDegrees) {
+        logger.debug("Deskewing image by {} degrees", rotationDegrees);
+
+        BufferedImage rotated = new BufferedImage(gray.getWidth(), gray.getHeight(), BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g = rotated.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, gray.getWidth(), gray.getHeight());
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(gray, AffineTransform.getRotateInstance(
+                    Math.toRadians(rotationDegrees), gray.getWidth() / 2.0, gray.getHeight() / 2.0), null);
+        } finally {
+            g.dispose();
+        }
+        return rotated;
+    }
+
+    /**
+     * Estima a inclinação das linhas de texto (graus; positivo = linhas descendo
+     * para a direita). Para cada ângulo candidato projeta os pixels escuros nas
+     * linhas horizontais rotacionadas; o ângulo correto concentra os pixels em
+     * poucas linhas e maximiza a soma dos quadrados do histograma.
+     */
+    double estimateSkewDegrees(BufferedImage gray) {
+        int width = gray.getWidth();
+        int height = gray.getHeight();
+        int step = Math.max(1, Math.max(width, height) / SKEW_SAMPLE_LONG_SIDE);
+
+        // Coleta amostrada das coordenadas dos pixels escuros
+        WritableRaster raster = gray.getRaster();
+        int[] row = new int[width];
+        int[] xs = new int[(width / step + 1) * (height / step + 1)];
+        int[] ys = new int[xs.length];
+        int points = 0;
+        for (int y = 0; y < height; y += step) {
+            raster.getSamples(0, y, width, 1, 0, row);
+            for (int x = 0; x < width; x += step) {
+                if (row[x] < DARK_THRESHOLD) {
+                    xs[points] = x;
+                    ys[points] = y;
+                    points++;
+                }
+            }
+        }
+        if (points == 0) {
+            return 0.0;
+        }
+
+        int diagonal = (int) Math.ceil(Math.hypot(width, height));
+        int[] bins = new int[2 * diagonal / step + 2];
+        double bestAngle = 0.0;
+        long bestScore = -1;
+
+        for (double angle = -maxSkewDegrees; angle <= maxSkewDegrees + 1e-9; angle += SKEW_STEP_DEGREES) {
+            double radians = Math.toRadians(angle);
+            double sin = Math.sin(radians);
+            double cos = Math.cos(radians);
+            Arrays.fill(bins, 0);
+
+            for (int i = 0; i < points; i++) {
+                double projected = ys[i] * cos - xs[i] * sin;
+                bins[(int) ((projected + diagonal) / step)]++;
+            }
+
+            long score = 0;
+            for (int count : bins) {
+                score += (long) count * count;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestAngle = angle;
+            }
+        }
+        return bestAngle;
+    }
+
+    /**
+     * Imagem pré-processada e a rotação aplicada pelo deskew (graus, em torno do
+     * centro da imagem, no sentido do AffineTransform; 0 quando não girou)
+     */
+    public record Preprocessed(BufferedImage image, double rotationDegrees) {
+    }
+
+    /**
+     * Binarização de Otsu: escolhe o limiar que maximiza a variância entre classes
+     */
+    BufferedImage binarize(BufferedImage gray) {
+        int width = gray.getWidth();
+        int height = gray.getHeight();
+        WritableRaster source = gray.getRaster();
+        int[] row = new int[width];
+        int[] histogram = new int[256];
+
+        for (int y = 0; y < height; y++) {
+            source.getSamples(0, y, width, 1, 0, row);
+            for (int value : row) {
+                histogram[value]++;
+            }
+        }
+
+        int threshold = otsuThreshold(histogram, (long) width * height);
+
+        BufferedImage binary = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+        WritableRaster target = binary.getRaster();
+        for (int y = 0; y < height; y++) {
+            source.getSamples(0, y, width, 1, 0, row);
+            for (int x = 0; x < width; x++) {
+                row[x] = row[x] > threshold ? 255 : 0;
+            }
+            target.setSamples(0, y, width, 1, 0, row);
+        }
+        return binary;
+    }
+
+    private int otsuThreshold(int[] histogram, long total) {
+        double sumAll = 0;
+        for (int i = 0; i < 256; i++) {
+            sumAll += (double) i * histogram[i];
+        }
+
+        double sumBackground = 0;
+        long weightBackground = 0;
+        double bestVariance = -1;
+        int threshold = DARK_THRESHOLD;
+
+        for (int t = 0; t < 256; t++) {
+            weightBackground += histogram[t];
+            if (weightBackground == 0) {
+                continue;
+            }
+            long weightForeground = total - weightBackground;
+            if (weightForeground == 0) {
+                break;
+            }
+            sumBackground += (double) t * histogram[t];
+            double meanBackground = sumBackground / weightBackground;
+            double meanForeground = (sumAll - sumBackground) / weightForeground;
+            double diff = meanBackground - meanForeground;
+            double variance = (double) weightBackground * weightForeground * diff * diff;
+            if (variance > bestVariance) {
+                bestVariance = variance;
+                threshold = t;
+            }
+        }
+        return threshold;
+    }
+}
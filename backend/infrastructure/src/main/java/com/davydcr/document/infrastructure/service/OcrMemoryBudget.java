@@ -0,0 +1,131 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Orçamento de memória (bytes) para render + OCR, compartilhado por todas as
+ * threads de processamento.
+ *
+ * Antes de renderizar uma página (ou decodificar uma imagem), a thread reserva
+ * o custo estimado do bitmap e das cópias feitas pelo pré-processamento; se o
+ * orçamento estiver esgotado, espera outras páginas terminarem. Assim alguns
+ * scans enormes em paralelo ficam limitados a um teto de heap em vez de
+ * provocarem pausas longas de GC ou OOM.
+ *
+ * Internamente usa um semáforo justo com permits em KiB.
+ */
+@Component
+public class OcrMemoryBudget {
+
+    private static final Logger logger = LoggerFactory.getLogger(OcrMemoryBudget.class);
+
+    // Cópias simultâneas do bitmap no pior caso (render + cinza/deskew + binarização)
+    private static final int PIPELINE_COPIES = 3;
+
+    private final long budgetBytes;
+    private final int budgetKib;
+    private final long acquireTimeoutMs;
+    private final Semaphore permits;
+    private final ObservabilityService observabilityService;
+
+    public OcrMemoryBudget(
+            @Value("${app.ocr.memory.render-budget-bytes:0}") long configuredBudgetBytes,
+            @Value("${app.ocr.memory.acquire-timeout-ms:120000}") long acquireTimeoutMs,
+            ObservabilityService observabilityService) {
+        // 0 (ou negativo) = 25% do heap máximo
+        long budget = configuredBudgetBytes > 0
+                ? configuredBudgetBytes
+                : Runtime.getRuntime().maxMemory() / 4;
+        this.budgetKib = (int) Math.min(Integer.MAX_VALUE, Math.max(1, budget / 1024));
+        this.budgetBytes = budgetKib * 1024L;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.permits = new Semaphore(budgetKib, true);
+        this.observabilityService = observabilityService;
+
+        observabilityService.registerOcrMemoryBudgetGauges(this::getBudgetBytes, this::getReservedBytes);
+
+        logger.info("OCR memory budget: {} MB", budgetBytes / (1024 * 1024));
+    }
+
+    /**
+     * Reserva bytes do orçamento, bloqueando até haver espaço ou o timeout expirar.
+     * Reservas maiores que o orçamento inteiro são limitadas a ele (a página roda sozinha).
+     * Deve ser usado com try-with-resources.
+     */
+    public Reservation reserve(long bytes) {
+        int kib = (int) Math.min(budgetKib, Math.max(1, (bytes + 1023) / 1024));
+
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(kib, acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for OCR memory budget", e);
+        }
+
+        if (!acquired) {
+            observabilityService.recordOcrMemoryWaitTimeout();
+            throw new IllegalStateException("OCR memory budget exhausted: " + bytes
+                    + " bytes not available after " + acquireTimeoutMs + "ms (budget: " + budgetBytes + " bytes)");
+        }
+
+        observabilityService.recordOcrMemoryWait(System.nanoTime() - start);
+        return new Reservation(kib);
+    }
+
+    /**
+     * Estima o custo de renderizar uma página na escala dada (1 byte/pixel em cinza)
+     */
+    public long estimatePageRenderBytes(PDPage page, float scale) {
+        PDRectangle box = page.getCropBox();
+        long width = (long) Math.ceil(box.getWidth() * scale);
+        long height = (long) Math.ceil(box.getHeight() * scale);
+        return width * height * PIPELINE_COPIES;
+    }
+
+    /**
+     * Estima o custo de decodificar e pré-processar uma imagem (ARGB decodificado + cópias em cinza)
+     */
+    public long estimateImageBytes(int width, int height) {
+        long pixels = (long) width * height;
+        return pixels * 4 + pixels * (PIPELINE_COPIES - 1);
+    }
+
+    public long getBudgetBytes() {
+        return budgetBytes;
+    }
+
+    public long getReservedBytes() {
+        return (budgetKib - (long) permits.availablePermits()) * 1024L;
+    }
+
+    /**
+     * Reserva de parte do orçamento. Fechar devolve os bytes.
+     */
+    public final class Reservation implements AutoCloseable {
+
+        private int kib;
+
+        private Reservation(int kib) {
+            this.kib = kib;
+        }
+
+        @Override
+        public void close() {
+            if (kib > 0) {
+                permits.release(kib);
+                kib = 0;
+            }
+        }
+    }
+}
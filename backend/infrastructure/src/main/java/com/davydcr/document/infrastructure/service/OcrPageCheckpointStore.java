@@ -0,0 +1,94 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.domain.model.PageContent;
+import com.davydcr.document.infrastructure.persistence.entity.OcrPageCheckpointEntity;
+import com.davydcr.document.infrastructure.persistence.repository.OcrPageCheckpointJpaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Checkpoints de OCR por página, indexados por (SHA-256 do arquivo, versão da extração).
+ *
+ * Cada página com OCR concluído é gravada assim que termina; se o processo cair
+ * na página 180 de 200, a próxima extração do mesmo conteúdo carrega as 179
+ * anteriores e só faz OCR do restante. Falhas de gravação não interrompem o OCR.
+ */
+@Component
+public class OcrPageCheckpointStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(OcrPageCheckpointStore.class);
+
+    private final boolean enabled;
+    private final OcrPageCheckpointJpaRepository repository;
+
+    public OcrPageCheckpointStore(
+            @Value("${app.ocr.checkpoint.enabled:true}") boolean enabled,
+            OcrPageCheckpointJpaRepository repository) {
+        this.enabled = enabled;
+        this.repository = repository;
+    }
+
+    /**
+     * Páginas já concluídas, por número da página (base 1)
+     */
+    public Map<Integer, PageContent> load(String contentHash, String extractionVersion) {
+        Map<Integer, PageContent> pages = new HashMap<>();
+        if (!enabled || contentHash == null) {
+            return pages;
+        }
+        try {
+            for (OcrPageCheckpointEntity entity :
+                    repository.findByContentHashAndExtractionVersion(contentHash, extractionVersion)) {
+                pages.put(entity.getPageNumber(),
+                        new PageContent(entity.getPageNumber(), entity.getPageText(), entity.getEngine(),
+                                entity.getConfidence()));
+            }
+            if (!pages.isEmpty()) {
+                logger.info("Resuming OCR of {} from {} checkpointed pages", contentHash, pages.size());
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to load OCR checkpoints for {}: {}", contentHash, e.getMessage());
+        }
+        return pages;
+    }
+
+    public void save(String contentHash, String extractionVersion, PageContent page) {
+        if (!enabled || contentHash == null) {
+            return;
+        }
+        try {
+            OcrPageCheckpointEntity entity = new OcrPageCheckpointEntity();
+            entity.setId(UUID.randomUUID().toString());
+            entity.setContentHash(contentHash);
+            entity.setExtractionVersion(extractionVersion);
+            entity.setPageNumber(page.getPageNumber());
+            entity.setPageText(page.getText());
+            entity.setEngine(page.getEngine());
+            entity.setConfidence(page.getConfidence().orElse(null));
+            repository.save(entity);
+        } catch (Exception e) {
+            // Execução concorrente do mesmo conteúdo pode violar a unique key; a página já está salva
+            logger.warn("Failed to checkpoint page {} of {}: {}", page.getPageNumber(), contentHash, e.getMessage());
+        }
+    }
+
+    /**
+     * Remove os checkpoints de um documento concluído
+     */
+    public void clear(String contentHash, String extractionVersion) {
+        if (!enabled || contentHash == null) {
+            return;
+        }
+        try {
+            repository.deleteByContentHashAndExtractionVersion(contentHash, extractionVersion);
+        } catch (Exception e) {
+            logger.warn("Failed to clear OCR checkpoints for {}: {}", contentHash, e.getMessage());
+        }
+    }
+}
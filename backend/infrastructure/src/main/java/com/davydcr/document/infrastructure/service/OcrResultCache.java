@@ -0,0 +1,244 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.domain.model.ExtractedContent;
+import com.davydcr.document.domain.model.PageContent;
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import com.davydcr.document.infrastructure.persistence.entity.OcrResultCacheEntity;
+import com.davydcr.document.infrastructure.persistence.repository.OcrResultCacheJpaRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Cache de resultados de OCR indexado por (SHA-256 do arquivo, versão da extração).
+ *
+ * Dois níveis: LRU em memória (limitado em entradas) e tabela ocr_result_cache
+ * no banco, que sobrevive a restarts e é compartilhada entre instâncias.
+ * Hits no banco são promovidos para a memória. Falhas do cache nunca
+ * interrompem o OCR: são logadas e tratadas como miss.
+ *
+ * Cada entrada vale por app.ocr.cache.ttl-hours; a limpeza periódica
+ * ({@link #purgeStale(String)}) remove do banco as expiradas e as de outra
+ * versão da extração, que deixam de ser lidas quando o pipeline muda.
+ */
+@Component
+public class OcrResultCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(OcrResultCache.class);
+
+    static final String TIER_MEMORY = "memory";
+    static final String TIER_DATABASE = "database";
+
+    private final boolean enabled;
+    private final boolean persistentEnabled;
+    private final Duration ttl;
+    private final Map<String, CachedResult> memoryTier;
+    private final OcrResultCacheJpaRepository repository;
+    private final ObjectMapper objectMapper;
+    private final ObservabilityService observabilityService;
+    private final Clock clock;
+
+    @Autowired
+    public OcrResultCache(
+            @Value("${app.ocr.cache.enabled:true}") boolean enabled,
+            @Value("${app.ocr.cache.memory-max-entries:256}") int memoryMaxEntries,
+            @Value("${app.ocr.cache.ttl-hours:720}") long ttlHours,
+            @Value("${app.ocr.cache.persistent-enabled:true}") boolean persistentEnabled,
+            OcrResultCacheJpaRepository repository,
+            ObjectMapper objectMapper,
+            ObservabilityService observabilityService) {
+        this(enabled, memoryMaxEntries, Duration.ofHours(ttlHours), persistentEnabled, repository,
+                objectMapper, observabilityService, Clock.systemUTC());
+    }
+
+    OcrResultCache(boolean enabled, int memoryMaxEntries, Duration ttl, boolean persistentEnabled,
+                   OcrResultCacheJpaRepository repository, ObjectMapper objectMapper,
+                   ObservabilityService observabilityService, Clock clock) {
+        this.enabled = enabled;
+        this.persistentEnabled = persistentEnabled;
+        this.ttl = ttl;
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.observabilityService = observabilityService;
+        this.clock = clock;
+
+        int maxEntries = Math.max(1, memoryMaxEntries);
+        this.memoryTier = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+                return size() > maxEntries;
+            }
+        });
+
+        logger.info("OCR result cache ready: enabled={}, memoryMaxEntries={}, ttl={}, persistent={}",
+                enabled, maxEntries, ttl, persistentEnabled);
+    }
+
+    /**
+     * Busca um resultado na memória e depois no banco
+     */
+    public Optional<ExtractedContent> get(String contentHash, String extractionVersion) {
+        if (!enabled || contentHash == null) {
+            return Optional.empty();
+        }
+
+        String key = key(contentHash, extractionVersion);
+        Instant now = clock.instant();
+
+        CachedResult cached = memoryTier.get(key);
+        if (cached != null) {
+            if (cached.expiresAt().isAfter(now)) {
+                observabilityService.recordOcrCacheHit(TIER_MEMORY, cached.sizeBytes());
+                logger.debug("OCR cache hit (memory): {}", contentHash);
+                return Optional.of(cached.content());
+            }
+            memoryTier.remove(key);
+        }
+
+        if (persistentEnabled) {
+            try {
+                Optional<OcrResultCacheEntity> entity =
+                        repository.findByContentHashAndExtractionVersion(contentHash, extractionVersion);
+                if (entity.isPresent()) {
+                    CachedResult loaded = fromEntity(entity.get());
+                    if (loaded.expiresAt().isAfter(now)) {
+                        memoryTier.put(key, loaded);
+                        observabilityService.recordOcrCacheHit(TIER_DATABASE, loaded.sizeBytes());
+                        logger.debug("OCR cache hit (database): {}", contentHash);
+                        return Optional.of(loaded.content());
+                    }
+                }
+            } catch (Exception e) {
+                logger.warn("OCR cache lookup failed for {}: {}", contentHash, e.getMessage());
+            }
+        }
+
+        observabilityService.recordOcrCacheMiss();
+        return Optional.empty();
+    }
+
+    /**
+     * Armazena um resultado nos dois níveis
+     */
+    public void put(String contentHash, String extractionVersion, long sizeBytes, ExtractedContent content) {
+        if (!enabled || contentHash == null) {
+            return;
+        }
+
+        Instant now = clock.instant();
+        Instant expiresAt = now.plus(ttl);
+        memoryTier.put(key(contentHash, extractionVersion), new CachedResult(content, sizeBytes, expiresAt));
+
+        if (persistentEnabled) {
+            try {
+                // Uma entrada expirada ainda não removida pela limpeza é sobrescrita
+                OcrResultCacheEntity entity = repository
+                        .findByContentHashAndExtractionVersion(contentHash, extractionVersion)
+                        .orElseGet(() -> {
+                            OcrResultCacheEntity created = new OcrResultCacheEntity();
+                            created.setId(UUID.randomUUID().toString());
+                            created.setContentHash(contentHash);
+                            created.setExtractionVersion(extractionVersion);
+                            return created;
+                        });
+                fillEntity(entity, sizeBytes, content);
+                entity.setCreatedAt(toLocalDateTime(now));
+                entity.setExpiresAt(toLocalDateTime(expiresAt));
+                repository.save(entity);
+            } catch (Exception e) {
+                // Upload concorrente do mesmo arquivo pode violar a unique key; o resultado já está salvo
+                logger.warn("Failed to persist OCR cache entry for {}: {}", contentHash, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Remove do banco entradas expiradas e as de outra versão da extração
+     */
+    public int purgeStale(String extractionVersion) {
+        if (!enabled || !persistentEnabled) {
+            return 0;
+        }
+        try {
+            int removed = repository.deleteStale(toLocalDateTime(clock.instant()), extractionVersion);
+            if (removed > 0) {
+                logger.info("Removed {} stale OCR cache entries", removed);
+            }
+            return removed;
+        } catch (Exception e) {
+            logger.warn("Failed to purge OCR cache: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    int getMemoryEntryCount() {
+        return memoryTier.size();
+    }
+
+    private String key(String contentHash, String extractionVersion) {
+        return contentHash + "|" + extractionVersion;
+    }
+
+    private LocalDateTime toLocalDateTime(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    private void fillEntity(OcrResultCacheEntity entity, long sizeBytes,
+                            ExtractedContent content) throws JsonProcessingException {
+        List<CachedPage> pages = content.getPages().stream()
+                .map(page -> new CachedPage(page.getPageNumber(), page.getText(), page.getEngine(),
+                        page.getConfidence().orElse(null)))
+                .toList();
+
+        entity.setOcrEngine(content.getOcrEngine());
+        entity.setPageCount(content.getPageCount());
+        entity.setFullText(content.getFullText());
+        entity.setPagesJson(objectMapper.writeValueAsString(pages));
+        entity.setSizeBytes(sizeBytes);
+    }
+
+    private CachedResult fromEntity(OcrResultCacheEntity entity) throws JsonProcessingException {
+        List<PageContent> pages = List.of();
+        if (entity.getPagesJson() != null) {
+            pages = objectMapper.readValue(entity.getPagesJson(), new TypeReference<List<CachedPage>>() {})
+                    .stream()
+                    .map(page -> new PageContent(page.pageNumber(), page.text(), page.engine(), page.confidence()))
+                    .toList();
+        }
+        ExtractedContent content = new ExtractedContent(
+                entity.getFullText(),
+                entity.getPageCount(),
+                entity.getOcrEngine(),
+                pages
+        );
+        Instant expiresAt = entity.getExpiresAt() != null
+                ? entity.getExpiresAt().toInstant(ZoneOffset.UTC) : Instant.EPOCH;
+        return new CachedResult(content, entity.getSizeBytes(), expiresAt);
+    }
+
+    private record CachedResult(ExtractedContent content, long sizeBytes, Instant expiresAt) {
+    }
+
+    /**
+     * Forma serializada (JSON) de uma página no banco
+     */
+    private record CachedPage(int pageNumber, String text, String engine, Double confidence) {
+    }
+}
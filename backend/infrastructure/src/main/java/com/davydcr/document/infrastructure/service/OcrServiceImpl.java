@@ -1,54 +1,101 @@
 package com.davydcr.document.infrastructure.service;
 
+import com.davydcr.document.application.port.OcrProgressListener;
 import com.davydcr.document.application.port.OcrService;
 import com.davydcr.document.domain.model.ExtractedContent;
-import net.sourceforge.tess4j.Tesseract;
+import com.davydcr.document.domain.model.PageContent;
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
 import net.sourceforge.tess4j.TesseractException;
 import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
-import org.apache.pdfbox.rendering.PDFRenderer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Dimension;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Serviço real de OCR usando Tesseract + PDFBox
- * Extrai texto de PDFs, imagens (PNG, JPG, TIFF) e arquivos de texto
+ * Extrai texto de PDFs, imagens (PNG, JPG, TIFF) e arquivos de texto.
+ * Os engines Tesseract vêm do {@link TesseractEnginePool} via
+ * {@link OcrTextRecognizer}; cada chamada de OCR usa um engine exclusivo
+ * durante a chamada. Aqui o pool só entra na versão da extração (idiomas).
  */
 @Service
 public class OcrServiceImpl implements OcrService {
 
     private static final Logger logger = LoggerFactory.getLogger(OcrServiceImpl.class);
 
-    private final Tesseract tesseract;
+    private static final String NATIVE_PDF_ENGINE = "PDFBox (native)";
+    private static final String OCR_ENGINE = "Tesseract 5.x";
+
+    // Incrementar quando o pipeline de extração mudar (invalida o cache de OCR)
+    private static final int EXTRACTION_REVISION = 3;
+
+    private final PdfPageOcrExecutor pageOcrExecutor;
+    private final ProgressivePageOcr progressivePageOcr;
+    private final OcrTextRecognizer textRecognizer;
+    private final PdfTextLayerAnalyzer textLayerAnalyzer;
+    private final OcrImagePreprocessor preprocessor;
+    private final OcrMemoryBudget memoryBudget;
+    private final PdfDocumentLoader documentLoader;
+    private final OcrResultCache resultCache;
+    private final OcrPageCheckpointStore checkpointStore;
+    private final SingleFlight<String, ExtractedContent> extractionFlights;
+    private final String extractionVersion;
     private final String tempDir;
 
     public OcrServiceImpl(@Value("${app.ocr.temp-dir:/tmp/document-ai}") String tempDir,
-                         @Value("${app.ocr.tessdata-path:}") String tessdataPath) {
+                         TesseractEnginePool enginePool,
+                         PdfPageOcrExecutor pageOcrExecutor,
+                         ProgressivePageOcr progressivePageOcr,
+                         OcrTextRecognizer textRecognizer,
+                         PdfTextLayerAnalyzer textLayerAnalyzer,
+                         OcrImagePreprocessor preprocessor,
+                         OcrMemoryBudget memoryBudget,
+                         PdfDocumentLoader documentLoader,
+                         OcrResultCache resultCache,
+                         OcrPageCheckpointStore checkpointStore,
+                         ObservabilityService observabilityService) {
         this.tempDir = tempDir;
-        
-        // Inicializar Tesseract
-        this.tesseract = new Tesseract();
-        
-        // Se tessdataPath foi fornecido, usar; caso contrário, Tesseract tentará usar padrão
-        if (tessdataPath != null && !tessdataPath.isBlank()) {
-            this.tesseract.setDatapath(tessdataPath);
-            logger.info("Tesseract configured with custom tessdata path: {}", tessdataPath);
-        }
-        
-        // Configurar idioma padrão (português + inglês)
-        this.tesseract.setLanguage("por+eng");
+        this.pageOcrExecutor = pageOcrExecutor;
+        this.progressivePageOcr = progressivePageOcr;
+        this.textRecognizer = textRecognizer;
+        this.textLayerAnalyzer = textLayerAnalyzer;
+        this.preprocessor = preprocessor;
+        this.memoryBudget = memoryBudget;
+        this.documentLoader = documentLoader;
+        this.resultCache = resultCache;
+        this.checkpointStore = checkpointStore;
+        this.extractionFlights = new SingleFlight<>("ocr", observabilityService);
+        this.extractionVersion = "r" + EXTRACTION_REVISION
+                + ";" + OCR_ENGINE
+                + ";lang=" + enginePool.getLanguages()
+                + ";" + textLayerAnalyzer.getConfigSignature()
+                + ";" + preprocessor.getConfigSignature()
+                + ";" + progressivePageOcr.getConfigSignature();
         
         // Criar diretório temporário se não existir
         try {
@@ -67,69 +114,183 @@ public class OcrServiceImpl implements OcrService {
             throw new IllegalArgumentException("File type not supported for OCR: " + fileType);
         }
 
+        // Streams não têm arquivo de origem: materializar em arquivo temporário
+        // (o SHA-256 é calculado durante a cópia)
+        Path tempFile = null;
         try {
-            String tempFile = saveTempFile(documentStream);
-            String extractedText;
-            int pageCount = 1;
-
-            if ("pdf".equalsIgnoreCase(fileType)) {
-                ExtractedContent pdfContent = extractFromPdf(tempFile);
-                extractedText = pdfContent.getFullText();
-                pageCount = pdfContent.getPageCount();
-            } else {
-                // Para imagens (PNG, JPG, TIFF, etc.)
-                extractedText = extractFromImage(tempFile);
-            }
-
-            // Cleanup
-            Files.deleteIfExists(Paths.get(tempFile));
-
-            logger.info("OCR extraction completed successfully. Pages: {}, TextLength: {}", 
-                pageCount, extractedText.length());
+            MessageDigest digest = ContentHash.newDigest();
+            tempFile = saveTempFile(new DigestInputStream(documentStream, digest));
+            return extractCached(tempFile, fileType, ContentHash.toHex(digest), OcrProgressListener.NONE);
+        } catch (Exception e) {
+            logger.error("Error during OCR extraction", e);
+            throw new RuntimeException("Failed to extract content from document: " + e.getMessage(), e);
+        } finally {
+            deleteTempFile(tempFile);
+        }
+    }
 
-            return new ExtractedContent(
-                    extractedText,
-                    pageCount,
-                    "Tesseract 5.x"
-            );
+    @Override
+    public ExtractedContent extractContent(Path documentPath, String fileType, String contentHash,
+                                           OcrProgressListener progressListener) {
+        logger.debug("Starting OCR extraction for file: {} (type: {})", documentPath, fileType);
+        
+        if (!supportsFileType(fileType)) {
+            throw new IllegalArgumentException("File type not supported for OCR: " + fileType);
+        }
 
+        try {
+            // Arquivo já persistido: PDFBox/ImageIO leem direto dele, sem cópia
+            String hash = contentHash != null ? contentHash : ContentHash.sha256(documentPath);
+            return extractCached(documentPath, fileType, hash, progressListener);
         } catch (Exception e) {
-            logger.error("Error during OCR extraction", e);
+            logger.error("Error during OCR extraction: {}", documentPath, e);
             throw new RuntimeException("Failed to extract content from document: " + e.getMessage(), e);
         }
     }
 
     /**
-     * Extrai texto de um arquivo PDF usando PDFBox (mais rápido e preciso para PDFs nativos)
+     * Consulta o cache de resultados pelo hash do conteúdo; em caso de miss
+     * extrai e armazena o resultado. Extrações concorrentes do mesmo conteúdo
+     * (reenvio do upload, duplicatas em lote) são coalescidas: só a primeira
+     * faz o OCR e as demais recebem o mesmo resultado.
      */
-    private ExtractedContent extractFromPdf(String filePath) throws IOException {
-        logger.debug("Extracting text from PDF: {}", filePath);
+    private ExtractedContent extractCached(Path file, String fileType, String contentHash,
+                                           OcrProgressListener progressListener)
+            throws IOException {
+        Optional<ExtractedContent> cached = resultCache.get(contentHash, extractionVersion);
+        if (cached.isPresent()) {
+            logger.info("OCR skipped, cached result reused for content {}", contentHash);
+            notifyAllPages(cached.get(), progressListener);
+            return cached.get();
+        }
+
+        boolean[] leader = new boolean[1];
+        ExtractedContent content;
+        try {
+            content = extractionFlights.execute(contentHash + "|" + extractionVersion, () -> {
+                leader[0] = true;
+                try {
+                    ExtractedContent extracted = extractFromFile(file, fileType, contentHash, progressListener);
+                    // Página com erro do engine não vai para o cache: o próximo upload tenta de novo
+                    if (!extracted.getFullText().contains(ProgressivePageOcr.OCR_FAILED_MARKER)) {
+                        resultCache.put(contentHash, extractionVersion, Files.size(file), extracted);
+                    }
+                    return extracted;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        if (!leader[0]) {
+            logger.info("OCR coalesced with in-flight extraction of content {}", contentHash);
+            notifyAllPages(content, progressListener);
+        }
+        return content;
+    }
+
+    private ExtractedContent extractFromFile(Path file, String fileType, String contentHash,
+                                             OcrProgressListener progressListener)
+            throws IOException {
+        ExtractedContent content;
+
+        if ("pdf".equalsIgnoreCase(fileType)) {
+            content = extractFromPdf(file.toFile(), contentHash, progressListener);
+        } else {
+            // Para imagens (PNG, JPG, TIFF, etc.)
+            OcrTextRecognizer.RecognizedText recognized = extractFromImage(file.toFile());
+            PageContent page = new PageContent(1, recognized.text(), OCR_ENGINE, recognized.meanConfidence());
+            progressListener.onPageCompleted(page, 1, 1);
+            content = new ExtractedContent(recognized.text(), 1, OCR_ENGINE, List.of(page));
+        }
+
+        logger.info("OCR extraction completed successfully. Pages: {}, TextLength: {}, Engine: {}", 
+            content.getPageCount(), content.getFullText().length(), content.getOcrEngine());
+
+        return content;
+    }
+
+    /**
+     * Extrai texto de um arquivo PDF página a página.
+     * Páginas com camada de texto nativa utilizável usam o texto do PDFBox;
+     * apenas páginas sem texto (escaneadas/imagem) passam pelo Tesseract.
+     */
+    private ExtractedContent extractFromPdf(File source, String contentHash,
+                                            OcrProgressListener progressListener) throws IOException {
+        logger.debug("Extracting text from PDF: {}", source);
         
         PDDocument document = null;
         try {
             // Carregar PDF do arquivo
-            document = PDDocument.load(new File(filePath));
+            document = documentLoader.load(source);
+            
+            // Analisar a camada de texto nativa de cada página
+            List<PdfTextLayerAnalyzer.PageTextLayer> layers = textLayerAnalyzer.analyze(document);
+            int totalPages = layers.size();
+            PageContent[] pages = new PageContent[totalPages];
+            AtomicInteger completedPages = new AtomicInteger();
+            
+            // Páginas com OCR concluído em uma execução anterior interrompida
+            Map<Integer, PageContent> checkpointed = checkpointStore.load(contentHash, extractionVersion);
+            
+            List<Integer> ocrPageIndices = new ArrayList<>();
+            for (PdfTextLayerAnalyzer.PageTextLayer layer : layers) {
+                int pageIndex = layer.pageIndex();
+                if (!layer.needsOcr()) {
+                    pages[pageIndex] = new PageContent(pageIndex + 1, layer.text(), NATIVE_PDF_ENGINE);
+                } else if (checkpointed.containsKey(pageIndex + 1)) {
+                    pages[pageIndex] = checkpointed.get(pageIndex + 1);
+                } else {
+                    ocrPageIndices.add(pageIndex);
+                    continue;
+                }
+                progressListener.onPageCompleted(pages[pageIndex], completedPages.incrementAndGet(), totalPages);
+            }
+            
+            // OCR apenas nas páginas sem texto nativo utilizável; cada página concluída
+            // é gravada como checkpoint e notificada assim que termina
+            if (!ocrPageIndices.isEmpty()) {
+                pageOcrExecutor.ocrPages(document, source, ocrPageIndices, (pageIndex, result) -> {
+                    PageContent page = new PageContent(pageIndex + 1, result.text(), OCR_ENGINE, result.confidence());
+                    pages[pageIndex] = page;
+                    if (!result.failed()) {
+                        checkpointStore.save(contentHash, extractionVersion, page);
+                    }
+                    progressListener.onPageCompleted(page, completedPages.incrementAndGet(), totalPages);
+                });
+            }
+            
+            StringBuilder fullText = new StringBuilder();
+            int ocrPageCount = 0;
+            for (PageContent page : pages) {
+                if (OCR_ENGINE.equals(page.getEngine())) {
+                    fullText.append(page.getText()).append("\n");
+                    ocrPageCount++;
+                } else {
+                    fullText.append(page.getText());
+                }
+            }
             
-            // Primeiro, tentar extrair texto nativo do PDF
-            PDFTextStripper stripper = new PDFTextStripper();
-            String nativeText = stripper.getText(document);
+            logger.debug("PDF extraction: {} native pages, {} OCR pages ({} from checkpoints)",
+                    totalPages - ocrPageCount, ocrPageCount, ocrPageCount - ocrPageIndices.size());
             
-            // Se o PDF contém texto nativo e ele não é vazio, usar esse
-            if (nativeText != null && !nativeText.trim().isEmpty()) {
-                logger.debug("Native PDF text found. Length: {}", nativeText.length());
-                return new ExtractedContent(
-                        nativeText,
-                        document.getNumberOfPages(),
-                        "PDFBox (native)"
-                );
+            // Documento concluído: os checkpoints não são mais necessários (com página
+            // falha eles ficam, e a nova tentativa refaz só o que falhou)
+            if (ocrPageCount > 0 && fullText.indexOf(ProgressivePageOcr.OCR_FAILED_MARKER) < 0) {
+                checkpointStore.clear(contentHash, extractionVersion);
             }
             
-            // Se não houver texto nativo (PDF com imagens/scaneado), usar OCR nas imagens
-            logger.debug("No native text found. Performing OCR on PDF pages...");
-            return extractFromScannedPdf(document);
+            return new ExtractedContent(
+                    fullText.toString(),
+                    document.getNumberOfPages(),
+                    resolvePdfEngine(ocrPageCount, totalPages),
+                    List.of(pages)
+            );
             
         } catch (IOException e) {
-            logger.error("Error reading PDF file: {}", filePath, e);
+            logger.error("Error reading PDF file: {}", source, e);
             throw e;
         } finally {
             if (document != null) {
@@ -143,67 +304,111 @@ public class OcrServiceImpl implements OcrService {
     }
 
     /**
-     * Extrai texto de um PDF escaneado (imagens) usando OCR
+     * Resultado vindo do cache: todas as páginas já estão concluídas
      */
-    private ExtractedContent extractFromScannedPdf(PDDocument document) throws IOException {
-        StringBuilder fullText = new StringBuilder();
-        int pageCount = document.getNumberOfPages();
-        
-        PDFRenderer pdfRenderer = new PDFRenderer(document);
+    private void notifyAllPages(ExtractedContent content, OcrProgressListener progressListener) {
+        List<PageContent> pages = content.getPages();
+        if (pages.isEmpty()) {
+            progressListener.onPageCompleted(
+                    new PageContent(1, content.getFullText(), content.getOcrEngine()), 1, 1);
+            return;
+        }
+        for (int i = 0; i < pages.size(); i++) {
+            progressListener.onPageCompleted(pages.get(i), i + 1, pages.size());
+        }
+    }
+
+    /**
+     * Descreve o engine do documento a partir da quantidade de páginas com OCR
+     */
+    private String resolvePdfEngine(int ocrPageCount, int pageCount) {
+        if (ocrPageCount == 0) {
+            return NATIVE_PDF_ENGINE;
+        }
+        if (ocrPageCount == pageCount) {
+            return OCR_ENGINE + " (scanned PDF)";
+        }
+        return NATIVE_PDF_ENGINE + " + " + OCR_ENGINE + " (hybrid PDF)";
+    }
+
+    /**
+     * Extrai texto de uma imagem (PNG, JPG, TIFF) usando OCR
+     */
+    private OcrTextRecognizer.RecognizedText extractFromImage(File imageFile) throws IOException {
+        logger.debug("Extracting text from image: {}", imageFile);
         
-        for (int pageIndex = 0; pageIndex < pageCount; pageIndex++) {
+        // Reserva a memória do bitmap decodificado antes de decodificar
+        Dimension size = readImageSize(imageFile);
+        try (OcrMemoryBudget.Reservation reservation =
+                     memoryBudget.reserve(memoryBudget.estimateImageBytes(size.width, size.height))) {
+            BufferedImage image = ImageIO.read(imageFile);
+            
+            if (image == null) {
+                throw new IOException("Failed to load image: " + imageFile);
+            }
+            
+            OcrTextRecognizer.RecognizedText recognized;
             try {
-                logger.debug("Processing page {} of {}", pageIndex + 1, pageCount);
-                
-                // Renderizar página como imagem com 150 DPI
-                BufferedImage image = pdfRenderer.renderImage(pageIndex, 1.5f);
-                
-                // Extrair texto da imagem com OCR
-                String pageText = tesseract.doOCR(image);
-                fullText.append(pageText).append("\n");
-                
+                recognized = textRecognizer.recognize(preprocessor.preprocess(image));
             } catch (TesseractException e) {
-                logger.warn("OCR failed for page {}: {}", pageIndex + 1, e.getMessage());
-                fullText.append("[OCR failed for page ").append(pageIndex + 1).append("]\n");
+                throw new IOException("OCR failed for image: " + e.getMessage(), e);
             }
+            logger.debug("Image OCR completed. Lines: {}, confidence: {}",
+                    recognized.lines().size(), recognized.meanConfidence());
+            
+            return recognized;
         }
-        
-        return new ExtractedContent(
-                fullText.toString(),
-                pageCount,
-                "Tesseract 5.x (scanned PDF)"
-        );
     }
 
     /**
-     * Extrai texto de uma imagem (PNG, JPG, TIFF) usando OCR
+     * Lê as dimensões da imagem pelo cabeçalho, sem decodificar os pixels
      */
-    private String extractFromImage(String filePath) throws IOException, TesseractException {
-        logger.debug("Extracting text from image: {}", filePath);
-        
-        BufferedImage image = ImageIO.read(new File(filePath));
-        
-        if (image == null) {
-            throw new IOException("Failed to load image: " + filePath);
+    private Dimension readImageSize(File imageFile) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(imageFile)) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : Collections.emptyIterator();
+            if (!readers.hasNext()) {
+                throw new IOException("Failed to load image: " + imageFile);
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                return new Dimension(reader.getWidth(0), reader.getHeight(0));
+            } finally {
+                reader.dispose();
+            }
         }
-        
-        String extractedText = tesseract.doOCR(image);
-        logger.debug("Image OCR completed. Text length: {}", extractedText.length());
-        
-        return extractedText;
     }
 
     /**
      * Salva o InputStream em arquivo temporário
      */
-    private String saveTempFile(InputStream inputStream) throws IOException {
+    private Path saveTempFile(InputStream inputStream) throws IOException {
         String fileName = UUID.randomUUID() + ".tmp";
         Path tempFilePath = Paths.get(tempDir, fileName);
         
         Files.copy(inputStream, tempFilePath);
         logger.debug("Temp file created: {}", tempFilePath);
         
-        return tempFilePath.toString();
+        return tempFilePath;
+    }
+
+    private void deleteTempFile(Path tempFile) {
+        if (tempFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(tempFile);
+        } catch (IOException e) {
+            logger.warn("Failed to delete temp file: {}", tempFile, e);
+        }
+    }
+
+    /**
+     * Limpeza periódica do cache de OCR: entradas expiradas e de outra versão da extração
+     */
+    @Scheduled(fixedDelayString = "${app.ocr.cache.purge-interval-ms:3600000}", initialDelay = 60000)
+    public void purgeStaleCacheEntries() {
+        resultCache.purgeStale(extractionVersion);
     }
 
     @Override
@@ -0,0 +1,76 @@
+package com.davydcr.document.infrastructure.service;
+
+import net.sourceforge.tess4j.TesseractException;
+import net.sourceforge.tess4j.Word;
+import org.springframework.stereotype.Component;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reconhecimento com confiança: usa o iterador de resultados do Tesseract
+ * no nível de linha, que traz o texto, a caixa e a confiança de cada linha
+ * (média das palavras). O texto da página é a junção das linhas. Erro do
+ * engine sai como TesseractException, para não ser confundido com uma página
+ * em branco.
+ */
+@Component
+public class OcrTextRecognizer {
+
+    private final TesseractEnginePool enginePool;
+
+    public OcrTextRecognizer(TesseractEnginePool enginePool) {
+        this.enginePool = enginePool;
+    }
+
+    public RecognizedText recognize(BufferedImage image) throws TesseractException {
+        List<Word> words;
+        try (TesseractEnginePool.Lease lease = enginePool.acquire()) {
+            words = lease.recognizeLines(image);
+        }
+
+        List<RecognizedLine> lines = new ArrayList<>(words.size());
+        for (Word word : words) {
+            String text = word.getText() == null ? "" : word.getText().strip();
+            if (!text.isEmpty()) {
+                lines.add(new RecognizedLine(text, word.getConfidence(), word.getBoundingBox()));
+            }
+        }
+        return new RecognizedText(lines);
+    }
+
+    /**
+     * Linha reconhecida: texto, confiança (0-100) e caixa em pixels da imagem
+     */
+    public record RecognizedLine(String text, float confidence, Rectangle box) {
+    }
+
+    /**
+     * Resultado de uma imagem, linha a linha na ordem de leitura
+     */
+    public record RecognizedText(List<RecognizedLine> lines) {
+
+        public String text() {
+            StringBuilder text = new StringBuilder();
+            for (RecognizedLine line : lines) {
+                text.append(line.text()).append('\n');
+            }
+            return text.toString();
+        }
+
+        /**
+         * Confiança média ponderada pelo tamanho de cada linha; null se não há texto
+         */
+        public Double meanConfidence() {
+            double weighted = 0;
+            long chars = 0;
+            for (RecognizedLine line : lines) {
+                weighted += (double) line.confidence() * line.text().length();
+                chars += line.text().length();
+            }
+            return chars == 0 ? null : Math.max(0.0, Math.min(100.0, weighted / chars));
+        }
+    }
+}
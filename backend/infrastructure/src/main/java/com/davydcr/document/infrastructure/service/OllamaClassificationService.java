@@ -5,26 +5,47 @@ import com.davydcr.document.domain.model.ClassificationLabel;
 import com.davydcr.document.domain.model.Confidence;
 import com.davydcr.document.domain.model.DocumentClassification;
 import com.davydcr.document.domain.model.ExtractedContent;
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.regex.Pattern;
 
 /**
  * Implementação real de ClassificationService usando Ollama LLM.
  * Conecta a um serviço Ollama rodando em localhost:11434 (ou URL configurada).
+ * As chamadas passam pelo {@link LlmHttpClient} (conexões reutilizadas, limite
+ * de requisições em voo e fila com prazo); classifyAsync não prende a thread
+ * chamadora enquanto o modelo gera a resposta.
+ *
+ * No modo streaming o NDJSON de /api/generate é lido token a token e a
+ * geração é cancelada assim que o par CATEGORIA|confiança está completo;
+ * num_predict limita o tamanho da resposta nos dois modos.
+ *
+ * O texto do prompt é escolhido pelo {@link PromptTextSampler} dentro de um
+ * orçamento de tokens (app.classification.llm.prompt.token-budget): início da
+ * primeira página, títulos, linhas com valores/datas e fim da última página.
+ *
+ * Com várias instâncias configuradas, o {@link LlmBackendRouter} escolhe a
+ * instância de cada chamada (menos requisições pendentes, saúde passiva e hedging).
+ *
+ * Erros do modelo (HTTP, resposta inválida) viram a classificação padrão
+ * Unknown com confiança 0; fila cheia ou prazo de espera por slot no
+ * {@link LlmHttpClient} propagam a exceção, porque o documento nem foi avaliado.
  */
 @Service
+@Qualifier("llmClassification")
 @ConditionalOnProperty(
     name = "app.classification.llm-enabled",
     havingValue = "true",
@@ -34,25 +55,50 @@ public class OllamaClassificationService implements ClassificationService {
 
     private static final Logger logger = LoggerFactory.getLogger(OllamaClassificationService.class);
 
-    private final RestTemplate restTemplate;
-    private final String ollamaUrl;
+    // Incrementar ao alterar o prompt ou o parse da resposta (invalida o cache de classificações)
+    private static final String PROMPT_VERSION = "2";
+
+    // 'CATEGORIA|confiança' com a confiança já terminada (seguida de outro caractere ou com 3 dígitos)
+    private static final Pattern COMPLETE_LABEL =
+            Pattern.compile("^\\s*\\[?[A-Za-z]+\\]?\\s*\\|\\s*\\[?(\\d{3}|\\d{1,2}(?=\\D))");
+
+    private final LlmHttpClient llmClient;
+    private final LlmBackendRouter router;
+    private final LlmHealthProber healthProber;
     private final String modelName;
     private final ObjectMapper objectMapper;
+    private final ObservabilityService observabilityService;
+    private final boolean streaming;
+    private final int numPredict;
+    private final PromptTextSampler sampler;
 
     public OllamaClassificationService(
-            RestTemplate restTemplate,
-            @Value("${app.classification.llm-url:http://localhost:11434}") String ollamaUrl,
-            @Value("${app.classification.llm-model:mistral}") String modelName) {
-        this.restTemplate = restTemplate;
-        this.ollamaUrl = ollamaUrl;
+            LlmHttpClient llmClient,
+            LlmBackendRouter router,
+            LlmHealthProber healthProber,
+            @Value("${app.classification.llm-model:mistral}") String modelName,
+            @Value("${app.classification.llm.streaming:true}") boolean streaming,
+            @Value("${app.classification.llm.num-predict:16}") int numPredict,
+            @Value("${app.classification.llm.prompt.token-budget:192}") int promptTokenBudget,
+            @Value("${app.classification.llm.prompt.first-page-share:0.4}") double firstPageShare,
+            @Value("${app.classification.llm.prompt.last-page-share:0.2}") double lastPageShare,
+            ObservabilityService observabilityService) {
+        this.llmClient = llmClient;
+        this.router = router;
+        this.healthProber = healthProber;
         this.modelName = modelName;
         this.objectMapper = new ObjectMapper();
-        logger.info("OllamaClassificationService initialized with URL: {} and model: {}", ollamaUrl, modelName);
+        this.observabilityService = observabilityService;
+        this.streaming = streaming;
+        this.numPredict = numPredict;
+        this.sampler = new PromptTextSampler(promptTokenBudget, firstPageShare, lastPageShare);
+        logger.info("OllamaClassificationService initialized with URLs: {} and model: {}",
+                router.getBackendUrls(), modelName);
     }
 
     @Override
     public DocumentClassification classify(ExtractedContent content) {
-        return classify(content.getFullText());
+        return classifyAsync(content).join();
     }
 
     @Override
@@ -61,68 +107,158 @@ public class OllamaClassificationService implements ClassificationService {
             logger.warn("Empty text provided for classification");
             return createDefaultClassification("Unknown", 0);
         }
+        return classifyAsync(new ExtractedContent(text, 0, "text")).join();
+    }
+
+    @Override
+    public CompletableFuture<DocumentClassification> classifyAsync(ExtractedContent content) {
+        String text = content.getFullText();
+        if (text == null || text.isBlank()) {
+            logger.warn("Empty text provided for classification");
+            return CompletableFuture.completedFuture(createDefaultClassification("Unknown", 0));
+        }
 
         try {
-            logger.debug("Classifying text with length: {} using model: {}", text.length(), modelName);
-            
+            // Trechos mais informativos dentro do orçamento de tokens
+            PromptTextSampler.Sample sample = sampler.sample(content);
+            observabilityService.recordPromptSample(sample.tokens(), sample.sourceTokens());
+            logger.debug("Classifying text with length: {} using model: {} (~{} of ~{} tokens sampled)",
+                    text.length(), modelName, sample.tokens(), sample.sourceTokens());
+
             // Preparar prompt para classificação
-            String prompt = buildClassificationPrompt(text);
-            
-            // Chamar Ollama API
-            String classification = callOllamaAPI(prompt);
+            String prompt = buildClassificationPrompt(sample.text());
             
-            // Parsear resposta
-            return parseClassificationResponse(classification);
+            // Chamar Ollama API e parsear a resposta quando chegar
+            return callOllamaAPI(prompt)
+                    .thenApply(this::parseClassificationResponse)
+                    .exceptionally(e -> {
+                        if (LlmHttpClient.isSaturation(e)) {
+                            // Sem slot no cliente: não é uma resposta do modelo, quem chamou escolhe o fallback
+                            logger.warn("Ollama saturated, classification not attempted: {}", e.getMessage());
+                            throw e instanceof CompletionException completion ? completion : new CompletionException(e);
+                        }
+                        logger.error("Error classifying text with Ollama: {}", e.getMessage());
+                        return createDefaultClassification("Unknown", 0);
+                    });
 
         } catch (Exception e) {
             logger.error("Error classifying text with Ollama", e);
-            return createDefaultClassification("Unknown", 0);
+            return CompletableFuture.completedFuture(createDefaultClassification("Unknown", 0));
         }
     }
 
     /**
      * Constrói prompt otimizado para classificação de documentos
      */
-    private String buildClassificationPrompt(String text) {
+    private String buildClassificationPrompt(String sampledText) {
         return String.format(
             "Classify the following document text into ONE of these categories: " +
             "Invoice, Contract, Receipt, Report, Letter, Email, Other. " +
             "Respond with ONLY: '[CATEGORY]|[confidence_0_to_100]' format. " +
-            "Example: 'Invoice|92'\n\nDocument text:\n%s",
-            text.substring(0, Math.min(500, text.length()))
+            "Example: 'Invoice|92'\n\nDocument excerpts ('...' marks omitted parts):\n%s",
+            sampledText
         );
     }
 
     /**
      * Chama a API do Ollama
      */
-    private String callOllamaAPI(String prompt) throws Exception {
-        String url = ollamaUrl + "/api/generate";
-        
+    private CompletableFuture<String> callOllamaAPI(String prompt) throws Exception {
         Map<String, Object> requestBody = new HashMap<>();
         requestBody.put("model", modelName);
         requestBody.put("prompt", prompt);
-        requestBody.put("stream", false);
-        requestBody.put("temperature", 0.1);  // Temperatura baixa para respostas consistentes
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        
-        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-
-        logger.debug("Calling Ollama API: {}", url);
-        String response = restTemplate.postForObject(url, entity, String.class);
-        
-        if (response == null) {
-            throw new IllegalStateException("Empty response from Ollama API");
+        requestBody.put("stream", streaming);
+
+        Map<String, Object> options = new HashMap<>();
+        options.put("temperature", 0.1);  // Temperatura baixa para respostas consistentes
+        if (numPredict > 0) {
+            options.put("num_predict", numPredict);  // A resposta esperada tem poucos tokens
+        }
+        requestBody.put("options", options);
+
+        String body = objectMapper.writeValueAsString(requestBody);
+        // Cada tentativa (hedge/failover) tem o seu próprio handler de stream
+        return router.execute(baseUrl -> {
+            String url = baseUrl + "/api/generate";
+            logger.debug("Calling Ollama API: {} (stream={})", url, streaming);
+            if (!streaming) {
+                return llmClient.postJson(url, body).thenApply(this::extractGeneratedText);
+            }
+            return llmClient.postJsonStreaming(url, body, new GenerationStreamHandler(System.nanoTime()));
+        });
+    }
+
+    /**
+     * Indica se o texto gerado até agora já tem o par CATEGORIA|confiança completo
+     */
+    static boolean hasCompleteLabel(String generatedText) {
+        return COMPLETE_LABEL.matcher(generatedText).find();
+    }
+
+    /**
+     * Acumula o campo 'response' de cada linha NDJSON e encerra a geração
+     * assim que o rótulo pode ser extraído
+     */
+    private class GenerationStreamHandler implements LlmHttpClient.StreamingHandler<String> {
+
+        private final StringBuilder generated = new StringBuilder();
+        private final long startedAt;
+
+        GenerationStreamHandler(long startedAt) {
+            this.startedAt = startedAt;
+        }
+
+        @Override
+        public Optional<String> onLine(String line) {
+            if (line.isBlank()) {
+                return Optional.empty();
+            }
+            JsonNode chunk;
+            try {
+                chunk = objectMapper.readTree(line);
+            } catch (Exception e) {
+                throw new IllegalStateException("Invalid stream chunk from Ollama API: " + e.getMessage(), e);
+            }
+            if (chunk.hasNonNull("error")) {
+                throw new IllegalStateException("Ollama API error: " + chunk.get("error").asText());
+            }
+            generated.append(chunk.path("response").asText(""));
+
+            if (!chunk.path("done").asBoolean(false) && hasCompleteLabel(generated.toString())) {
+                observabilityService.recordLlmGeneration(modelName, "early_stop", System.nanoTime() - startedAt);
+                logger.debug("Ollama stream stopped early: {}", generated);
+                return Optional.of(generated.toString());
+            }
+            return Optional.empty();
+        }
+
+        @Override
+        public String onComplete() {
+            if (generated.isEmpty()) {
+                throw new IllegalStateException("Empty response from Ollama API");
+            }
+            observabilityService.recordLlmGeneration(modelName, "completed", System.nanoTime() - startedAt);
+            logger.debug("Ollama response: {}", generated);
+            return generated.toString();
         }
+    }
 
-        // Extrair 'response' field do JSON
-        JsonNode jsonNode = objectMapper.readTree(response);
-        String generatedText = jsonNode.get("response").asText();
-        
-        logger.debug("Ollama response: {}", generatedText);
-        return generatedText;
+    /**
+     * Extrai o campo 'response' do JSON do Ollama
+     */
+    private String extractGeneratedText(String response) {
+        if (response == null || response.isBlank()) {
+            throw new IllegalStateException("Empty response from Ollama API");
+        }
+        try {
+            JsonNode jsonNode = objectMapper.readTree(response);
+            String generatedText = jsonNode.get("response").asText();
+            
+            logger.debug("Ollama response: {}", generatedText);
+            return generatedText;
+        } catch (Exception e) {
+            throw new IllegalStateException("Invalid response from Ollama API: " + e.getMessage(), e);
+        }
     }
 
     /**
@@ -220,16 +356,19 @@ public class OllamaClassificationService implements ClassificationService {
         return "ollama-" + modelName;
     }
 
+    /**
+     * Inclui o orçamento de tokens: outro orçamento gera outro prompt (e outra entrada de cache)
+     */
+    @Override
+    public String getPromptVersion() {
+        return PROMPT_VERSION + "/t" + sampler.getTokenBudget();
+    }
+
+    /**
+     * Estado mantido pelo {@link LlmHealthProber} (sem chamada de rede)
+     */
     @Override
     public boolean isAvailable() {
-        try {
-            String healthUrl = ollamaUrl + "/api/tags";
-            restTemplate.getForObject(healthUrl, String.class);
-            logger.info("Ollama service is available");
-            return true;
-        } catch (Exception e) {
-            logger.error("Ollama service is not available: {}", e.getMessage());
-            return false;
-        }
+        return healthProber.isAvailable();
     }
 }
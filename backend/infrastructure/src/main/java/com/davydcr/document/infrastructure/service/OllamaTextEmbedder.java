@@ -0,0 +1,75 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Embeddings pelo endpoint /api/embeddings do Ollama.
+ *
+ * As chamadas passam pelo {@link LlmBackendRouter} e pelo {@link LlmHttpClient},
+ * como as gerações: mesmas instâncias, limites de requisições e saúde passiva.
+ */
+@Component
+@ConditionalOnExpression("${app.classification.embedding.enabled:false} "
+        + "and '${app.classification.embedding.provider:ollama}' == 'ollama'")
+public class OllamaTextEmbedder implements TextEmbedder {
+
+    private static final Logger logger = LoggerFactory.getLogger(OllamaTextEmbedder.class);
+
+    private final LlmHttpClient llmClient;
+    private final LlmBackendRouter router;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String model;
+
+    public OllamaTextEmbedder(
+            LlmHttpClient llmClient,
+            LlmBackendRouter router,
+            @Value("${app.classification.embedding.model:nomic-embed-text}") String model) {
+        this.llmClient = llmClient;
+        this.router = router;
+        this.model = model;
+        logger.info("Ollama text embedder initialized with model: {}", model);
+    }
+
+    @Override
+    public CompletableFuture<float[]> embed(String text) {
+        String body;
+        try {
+            body = objectMapper.writeValueAsString(Map.of("model", model, "prompt", text));
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return router.execute(baseUrl -> llmClient.postJson(baseUrl + "/api/embeddings", body))
+                .thenApply(this::parseEmbedding);
+    }
+
+    private float[] parseEmbedding(String response) {
+        JsonNode embedding;
+        try {
+            embedding = objectMapper.readTree(response).path("embedding");
+        } catch (Exception e) {
+            throw new IllegalStateException("Invalid response from Ollama embeddings API: " + e.getMessage(), e);
+        }
+        if (!embedding.isArray() || embedding.isEmpty()) {
+            throw new IllegalStateException("Empty embedding from Ollama API for model " + model);
+        }
+        float[] vector = new float[embedding.size()];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = (float) embedding.get(i).asDouble();
+        }
+        return vector;
+    }
+
+    @Override
+    public String getModelName() {
+        return "ollama-" + model;
+    }
+}
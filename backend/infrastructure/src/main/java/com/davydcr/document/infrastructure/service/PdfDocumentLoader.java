@@ -0,0 +1,42 @@
+package com.davydcr.document.infrastructure.service;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Carrega PDFs com uso de memória limitado: até main-memory-bytes por documento
+ * ficam no heap e o restante dos buffers do PDFBox vai para arquivos temporários.
+ */
+@Component
+public class PdfDocumentLoader {
+
+    private final long mainMemoryBytes;
+    private final File tempDir;
+
+    public PdfDocumentLoader(
+            @Value("${app.ocr.memory.pdf-main-memory-bytes:16777216}") long mainMemoryBytes,
+            @Value("${app.ocr.temp-dir:/tmp/document-ai}") String tempDir) {
+        this.mainMemoryBytes = mainMemoryBytes;
+        this.tempDir = new File(tempDir);
+    }
+
+    public PDDocument load(File source) throws IOException {
+        return PDDocument.load(source, memoryUsageSetting());
+    }
+
+    private MemoryUsageSetting memoryUsageSetting() {
+        // 0 (ou negativo) = somente arquivo temporário
+        MemoryUsageSetting setting = mainMemoryBytes > 0
+                ? MemoryUsageSetting.setupMixed(mainMemoryBytes)
+                : MemoryUsageSetting.setupTempFileOnly();
+        if (tempDir.isDirectory()) {
+            setting.setTempDir(tempDir);
+        }
+        return setting;
+    }
+}
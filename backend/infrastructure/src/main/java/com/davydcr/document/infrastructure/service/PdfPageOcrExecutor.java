@@ -0,0 +1,172 @@
+package com.davydcr.document.infrastructure.service;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executa render + OCR das páginas de um PDF escaneado.
+ *
+ * No modo paralelo as páginas são distribuídas entre workers do pool
+ * work-stealing "ocrPageExecutor". O PDFRenderer do PDFBox não é thread-safe,
+ * então cada worker carrega seu próprio PDDocument/PDFRenderer do arquivo e
+ * consome páginas de um contador compartilhado até acabarem. O texto é
+ * remontado na ordem das páginas.
+ *
+ * O OCR de cada página (render, reserva de memória e refinamento por
+ * confiança) fica no {@link ProgressivePageOcr}.
+ */
+@Component
+public class PdfPageOcrExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PdfPageOcrExecutor.class);
+
+    private final ProgressivePageOcr pageOcr;
+    private final PdfDocumentLoader documentLoader;
+    private final ExecutorService pageExecutor;
+    private final boolean parallelEnabled;
+    private final int maxParallelismPerDocument;
+    private final AtomicInteger pendingPages = new AtomicInteger();
+
+    public PdfPageOcrExecutor(
+            ProgressivePageOcr pageOcr,
+            PdfDocumentLoader documentLoader,
+            @Qualifier("ocrPageExecutor") ExecutorService pageExecutor,
+            @Value("${app.ocr.parallel.enabled:true}") boolean parallelEnabled,
+            @Value("${app.ocr.parallel.max-pages-per-document:4}") int maxParallelismPerDocument) {
+        this.pageOcr = pageOcr;
+        this.documentLoader = documentLoader;
+        this.pageExecutor = pageExecutor;
+        this.parallelEnabled = parallelEnabled;
+        this.maxParallelismPerDocument = Math.max(1, maxParallelismPerDocument);
+        logger.info("PDF page OCR executor ready: parallel={}, maxPagesPerDocument={}",
+                parallelEnabled, this.maxParallelismPerDocument);
+    }
+
+    /**
+     * Faz OCR das páginas indicadas e retorna o resultado de cada uma, na mesma ordem de pageIndices.
+     *
+     * @param document documento já carregado (usado no modo sequencial)
+     * @param source arquivo de origem (cada worker paralelo carrega sua própria cópia)
+     * @param pageIndices índices (base 0) das páginas que precisam de OCR
+     * @param pageListener notificado a cada página concluída (de qualquer worker, fora de ordem)
+     */
+    public List<ProgressivePageOcr.PageResult> ocrPages(PDDocument document, File source, List<Integer> pageIndices,
+                                 PageListener pageListener) throws IOException {
+        AtomicInteger remaining = new AtomicInteger(pageIndices.size());
+        pendingPages.addAndGet(pageIndices.size());
+        PageListener countingListener = (pageIndex, result) -> {
+            remaining.decrementAndGet();
+            pendingPages.decrementAndGet();
+            pageListener.onPageDone(pageIndex, result);
+        };
+        try {
+            return ocrPages(document, source, pageIndices, countingListener, document.getNumberOfPages());
+        } finally {
+            // Páginas não concluídas (erro no meio do documento) saem da contagem
+            pendingPages.addAndGet(-remaining.get());
+        }
+    }
+
+    /**
+     * Páginas aguardando ou em OCR, somando todos os documentos em andamento
+     */
+    public int getPendingPages() {
+        return pendingPages.get();
+    }
+
+    private List<ProgressivePageOcr.PageResult> ocrPages(PDDocument document, File source, List<Integer> pageIndices,
+                                                         PageListener pageListener, int pageCount) throws IOException {
+        int workers = Math.min(maxParallelismPerDocument, pageIndices.size());
+
+        if (!parallelEnabled || workers <= 1) {
+            return ocrPagesSequential(document, pageIndices, pageListener);
+        }
+
+        logger.debug("OCR of {} pages with {} parallel workers", pageIndices.size(), workers);
+
+        ProgressivePageOcr.PageResult[] results = new ProgressivePageOcr.PageResult[pageIndices.size()];
+        AtomicInteger nextSlot = new AtomicInteger(0);
+
+        List<CompletableFuture<Void>> tasks = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            tasks.add(CompletableFuture.runAsync(
+                    () -> runWorker(source, pageCount, pageIndices, nextSlot, results, pageListener), pageExecutor));
+        }
+
+        try {
+            CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException unchecked) {
+                throw unchecked.getCause();
+            }
+            throw e;
+        }
+
+        return Arrays.asList(results);
+    }
+
+    private List<ProgressivePageOcr.PageResult> ocrPagesSequential(PDDocument document, List<Integer> pageIndices,
+                                                                   PageListener pageListener) throws IOException {
+        int pageCount = document.getNumberOfPages();
+        PDFRenderer renderer = new PDFRenderer(document);
+        List<ProgressivePageOcr.PageResult> results = new ArrayList<>(pageIndices.size());
+
+        for (int pageIndex : pageIndices) {
+            ProgressivePageOcr.PageResult result = ocrPage(document, renderer, pageIndex, pageCount);
+            pageListener.onPageDone(pageIndex, result);
+            results.add(result);
+        }
+        return results;
+    }
+
+    /**
+     * Worker: carrega seu próprio PDDocument e processa páginas até o contador esgotar
+     */
+    private void runWorker(File source, int pageCount, List<Integer> pageIndices,
+                           AtomicInteger nextSlot, ProgressivePageOcr.PageResult[] results,
+                           PageListener pageListener) {
+        try (PDDocument workerDocument = documentLoader.load(source)) {
+            PDFRenderer renderer = new PDFRenderer(workerDocument);
+            int slot;
+            while ((slot = nextSlot.getAndIncrement()) < pageIndices.size()) {
+                int pageIndex = pageIndices.get(slot);
+                results[slot] = ocrPage(workerDocument, renderer, pageIndex, pageCount);
+                pageListener.onPageDone(pageIndex, results[slot]);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ProgressivePageOcr.PageResult ocrPage(PDDocument document, PDFRenderer renderer,
+                                                  int pageIndex, int pageCount) throws IOException {
+        logger.debug("Processing page {} of {}", pageIndex + 1, pageCount);
+        return pageOcr.ocrPage(document, renderer, pageIndex);
+    }
+
+    /**
+     * Notificação de página concluída (pageIndex base 0)
+     */
+    @FunctionalInterface
+    public interface PageListener {
+
+        void onPageDone(int pageIndex, ProgressivePageOcr.PageResult result);
+    }
+}
@@ -0,0 +1,169 @@
+package com.davydcr.document.infrastructure.service;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.pdfbox.text.TextPosition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Analisa a camada de texto nativa de um PDF página a página.
+ *
+ * Em uma única passada do PDFTextStripper coleta, para cada página, o texto
+ * nativo, a quantidade de caracteres úteis, a cobertura de glifos (área das
+ * caixas de texto / área da página) e a fração de glifos sem mapeamento Unicode.
+ * Com isso o OCR decide por página se o texto nativo é utilizável ou se a
+ * página precisa passar pelo Tesseract.
+ */
+@Component
+public class PdfTextLayerAnalyzer {
+
+    private static final Logger logger = LoggerFactory.getLogger(PdfTextLayerAnalyzer.class);
+
+    private final int minTextChars;
+    private final double minGlyphCoverage;
+    private final double maxUnmappedRatio;
+
+    public PdfTextLayerAnalyzer(
+            @Value("${app.ocr.hybrid.min-text-chars:32}") int minTextChars,
+            @Value("${app.ocr.hybrid.min-glyph-coverage:0.01}") double minGlyphCoverage,
+            @Value("${app.ocr.hybrid.max-unmapped-ratio:0.1}") double maxUnmappedRatio) {
+        this.minTextChars = minTextChars;
+        this.minGlyphCoverage = minGlyphCoverage;
+        this.maxUnmappedRatio = maxUnmappedRatio;
+    }
+
+    /**
+     * Retorna a análise de cada página, na ordem do documento
+     */
+    public List<PageTextLayer> analyze(PDDocument document) throws IOException {
+        PageCollectingStripper stripper = new PageCollectingStripper();
+        stripper.writeText(document, new StringWriter());
+
+        // O stripper ignora páginas sem content stream; são páginas em branco,
+        // sem imagem para OCR, então entram como texto nativo vazio
+        int pageCount = document.getNumberOfPages();
+        PageTextLayer[] byIndex = new PageTextLayer[pageCount];
+        for (PageTextLayer layer : stripper.layers) {
+            byIndex[layer.pageIndex()] = layer;
+        }
+        List<PageTextLayer> layers = new ArrayList<>(pageCount);
+        for (int i = 0; i < pageCount; i++) {
+            layers.add(byIndex[i] != null ? byIndex[i] : new PageTextLayer(i, "", 0, 0.0, 0.0, false));
+        }
+
+        if (logger.isDebugEnabled()) {
+            long ocrPages = layers.stream().filter(PageTextLayer::needsOcr).count();
+            logger.debug("Text layer analysis: {} of {} pages need OCR", ocrPages, pageCount);
+        }
+        return layers;
+    }
+
+    /**
+     * Limiares em uso, para compor a versão da extração (chave do cache de OCR)
+     */
+    public String getConfigSignature() {
+        return "hybrid(chars=" + minTextChars + ",coverage=" + minGlyphCoverage + ",unmapped=" + maxUnmappedRatio + ")";
+    }
+
+    /**
+     * Resultado da análise de uma página (pageIndex começa em 0)
+     */
+    public record PageTextLayer(int pageIndex,
+                                String text,
+                                int textChars,
+                                double glyphCoverage,
+                                double unmappedRatio,
+                                boolean needsOcr) {
+    }
+
+    private boolean needsOcr(int textChars, double glyphCoverage, double unmappedRatio) {
+        return textChars < minTextChars
+                || glyphCoverage < minGlyphCoverage
+                || unmappedRatio > maxUnmappedRatio;
+    }
+
+    /**
+     * Stripper que separa o texto por página e acumula métricas de glifos
+     */
+    private class PageCollectingStripper extends PDFTextStripper {
+
+        private final List<PageTextLayer> layers = new ArrayList<>();
+        private int pageStartOffset;
+        private double glyphArea;
+        private int glyphCount;
+        private int unmappedGlyphs;
+
+        PageCollectingStripper() throws IOException {
+            super();
+        }
+
+        @Override
+        protected void startPage(PDPage page) throws IOException {
+            super.startPage(page);
+            output.flush();
+            pageStartOffset = ((StringWriter) output).getBuffer().length();
+            glyphArea = 0;
+            glyphCount = 0;
+            unmappedGlyphs = 0;
+        }
+
+        @Override
+        protected void writeString(String text, List<TextPosition> textPositions) throws IOException {
+            for (TextPosition position : textPositions) {
+                String unicode = position.getUnicode();
+                if (unicode == null || unicode.isBlank()) {
+                    continue;
+                }
+                glyphCount++;
+                if (unicode.indexOf('\uFFFD') >= 0 || unicode.charAt(0) < 0x20) {
+                    unmappedGlyphs++;
+                }
+                glyphArea += Math.abs(position.getWidthDirAdj() * position.getHeightDir());
+            }
+            super.writeString(text, textPositions);
+        }
+
+        @Override
+        protected void endPage(PDPage page) throws IOException {
+            output.flush();
+            StringBuffer buffer = ((StringWriter) output).getBuffer();
+            String pageText = buffer.substring(pageStartOffset);
+
+            PDRectangle box = page.getCropBox();
+            double pageArea = box.getWidth() * (double) box.getHeight();
+            double coverage = pageArea > 0 ? Math.min(1.0, glyphArea / pageArea) : 0.0;
+            double unmappedRatio = glyphCount > 0 ? (double) unmappedGlyphs / glyphCount : 0.0;
+            int textChars = countNonWhitespace(pageText);
+
+            layers.add(new PageTextLayer(
+                    getCurrentPageNo() - 1,
+                    pageText,
+                    textChars,
+                    coverage,
+                    unmappedRatio,
+                    needsOcr(textChars, coverage, unmappedRatio)
+            ));
+            super.endPage(page);
+        }
+
+        private int countNonWhitespace(String text) {
+            int count = 0;
+            for (int i = 0; i < text.length(); i++) {
+                if (!Character.isWhitespace(text.charAt(i))) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.stereotype.Service;
 
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Serviço de Circuit Breaker para tarefas de processamento assíncrono.
@@ -15,6 +16,10 @@ import java.util.concurrent.atomic.AtomicInteger;
  * - Controlar taxa de falha
  * - Evitar cascata de falhas
  * - Monitoramento de saúde
+ *
+ * A janela é protegida por {@link ReentrantLock} e não por synchronized:
+ * os registros vêm também de virtual threads, que ficariam presas à
+ * thread de plataforma dentro de um monitor.
  */
 @Service
 public class ProcessingCircuitBreakerService {
@@ -31,18 +36,22 @@ public class ProcessingCircuitBreakerService {
     private final Queue<Boolean> failureWindow = new LinkedList<>();
     private final AtomicInteger totalFailures = new AtomicInteger(0);
     private final AtomicInteger totalSuccesses = new AtomicInteger(0);
+    private final ReentrantLock windowLock = new ReentrantLock();
 
     /**
      * Registra sucesso.
      */
     public void recordSuccess() {
-        synchronized (failureWindow) {
+        windowLock.lock();
+        try {
             failureWindow.offer(true);
             totalSuccesses.incrementAndGet();
             
             if (failureWindow.size() > windowSize) {
                 failureWindow.poll();
             }
+        } finally {
+            windowLock.unlock();
         }
         
         if (!isCircuitBreakerOpen() && totalFailures.get() > 0) {
@@ -54,7 +63,8 @@ public class ProcessingCircuitBreakerService {
      * Registra falha.
      */
     public void recordFailure() {
-        synchronized (failureWindow) {
+        windowLock.lock();
+        try {
             failureWindow.offer(false);
             totalFailures.incrementAndGet();
             
@@ -65,6 +75,8 @@ public class ProcessingCircuitBreakerService {
             if (isCircuitBreakerOpen()) {
                 log.warn("⚠️  CIRCUIT BREAKER ABERTO - Taxa de falha acima de {}%", failureThresholdPercent);
             }
+        } finally {
+            windowLock.unlock();
         }
     }
 
@@ -72,7 +84,8 @@ public class ProcessingCircuitBreakerService {
      * Verifica se circuit breaker está aberto.
      */
     public boolean isCircuitBreakerOpen() {
-        synchronized (failureWindow) {
+        windowLock.lock();
+        try {
             if (failureWindow.isEmpty() || failureWindow.size() < 10) {
                 return false;
             }
@@ -83,6 +96,8 @@ public class ProcessingCircuitBreakerService {
 
             int failurePercent = (int) ((failureCount * 100) / failureWindow.size());
             return failurePercent >= failureThresholdPercent;
+        } finally {
+            windowLock.unlock();
         }
     }
 
@@ -90,7 +105,8 @@ public class ProcessingCircuitBreakerService {
      * Obtém estatísticas do circuit breaker.
      */
     public Map<String, Object> getCircuitBreakerStatus() {
-        synchronized (failureWindow) {
+        windowLock.lock();
+        try {
             long failureCount = failureWindow.stream()
                 .filter(success -> !success)
                 .count();
@@ -109,6 +125,8 @@ public class ProcessingCircuitBreakerService {
             status.put("totalSuccesses", totalSuccesses.get());
 
             return status;
+        } finally {
+            windowLock.unlock();
         }
     }
 
@@ -116,11 +134,14 @@ public class ProcessingCircuitBreakerService {
      * Reset manual do circuit breaker.
      */
     public void reset() {
-        synchronized (failureWindow) {
+        windowLock.lock();
+        try {
             failureWindow.clear();
             totalFailures.set(0);
             totalSuccesses.set(0);
             log.info("Circuit breaker resetado manualmente");
+        } finally {
+            windowLock.unlock();
         }
     }
 }
@@ -0,0 +1,308 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import net.sourceforge.tess4j.TesseractException;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * OCR progressivo de uma página de PDF guiado pela confiança do Tesseract.
+ *
+ * 1ª passada: render na escala baixa (barata) e reconhecimento linha a linha.
+ * Se alguma linha ficar abaixo da confiança mínima, só essa parte é refeita
+ * na escala alta: poucas linhas ruins são re-renderizadas como regiões
+ * recortadas; muitas linhas ruins (ou a maior parte da página) fazem a página
+ * inteira ser re-renderizada. O resultado refinado só substitui o original se
+ * a confiança melhorar.
+ *
+ * As caixas das linhas estão na imagem pré-processada (reduzida e girada pelo
+ * deskew); para achar a região no render em escala alta a caixa passa pela
+ * rotação inversa e pela escala, e o recorte recebe a mesma rotação da página
+ * antes do OCR.
+ *
+ * O custo é reportado em pixels processados versus o que sempre renderizar na
+ * escala alta custaria, e a economia é convertida em tempo de CPU estimado.
+ *
+ * Erro do Tesseract na 1ª passada vira o marcador "[OCR failed for page N]"
+ * com {@link PageResult#failed()}; erro em um refinamento mantém o resultado
+ * da 1ª passada.
+ */
+@Component
+public class ProgressivePageOcr {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProgressivePageOcr.class);
+
+    // Margem em volta da linha ao recortar a região (fração da altura da linha)
+    private static final double REGION_PADDING = 0.25;
+
+    static final String REFINEMENT_NONE = "none";
+    static final String REFINEMENT_REGIONS = "regions";
+    static final String REFINEMENT_PAGE = "page";
+
+    public static final String OCR_FAILED_MARKER = "[OCR failed for page";
+
+    private final OcrTextRecognizer recognizer;
+    private final OcrImagePreprocessor preprocessor;
+    private final OcrMemoryBudget memoryBudget;
+    private final ObservabilityService observabilityService;
+    private final boolean enabled;
+    private final float lowScale;
+    private final float highScale;
+    private final float minConfidence;
+    private final int maxRegions;
+
+    public ProgressivePageOcr(
+            OcrTextRecognizer recognizer,
+            OcrImagePreprocessor preprocessor,
+            OcrMemoryBudget memoryBudget,
+            ObservabilityService observabilityService,
+            @Value("${app.ocr.multipass.enabled:true}") boolean enabled,
+            @Value("${app.ocr.multipass.low-scale:1.5}") float lowScale,
+            @Value("${app.ocr.multipass.high-scale:3.0}") float highScale,
+            @Value("${app.ocr.multipass.min-confidence:70}") float minConfidence,
+            @Value("${app.ocr.multipass.max-regions:8}") int maxRegions) {
+        this.recognizer = recognizer;
+        this.preprocessor = preprocessor;
+        this.memoryBudget = memoryBudget;
+        this.observabilityService = observabilityService;
+        this.enabled = enabled;
+        this.lowScale = lowScale;
+        this.highScale = Math.max(lowScale, highScale);
+        this.minConfidence = minConfidence;
+        this.maxRegions = maxRegions;
+
+        logger.info("Progressive OCR: enabled={}, scales={}x -> {}x, minConfidence={}, maxRegions={}",
+                enabled, lowScale, this.highScale, minConfidence, maxRegions);
+    }
+
+    /**
+     * Faz OCR de uma página (pageIndex base 0) com o renderer da thread atual
+     */
+    public PageResult ocrPage(PDDocument document, PDFRenderer renderer, int pageIndex) throws IOException {
+        long start = System.nanoTime();
+        PDPage page = document.getPage(pageIndex);
+        double highFactor = highScale / lowScale;
+
+        // 1ª passada na escala baixa
+        OcrTextRecognizer.RecognizedText firstPass;
+        long firstPassPixels;
+        long baselinePixels;
+        double imageToHigh;
+        AffineTransform imageToHighTransform;
+        double rotationDegrees;
+        int highWidth;
+        int highHeight;
+        try (OcrMemoryBudget.Reservation reservation =
+                     memoryBudget.reserve(memoryBudget.estimatePageRenderBytes(page, lowScale))) {
+            BufferedImage rendered = renderer.renderImage(pageIndex, lowScale, ImageType.GRAY);
+            OcrImagePreprocessor.Preprocessed preprocessed = preprocessor.preprocessPage(rendered);
+            BufferedImage image = preprocessed.image();
+            rotationDegrees = preprocessed.rotationDegrees();
+            try {
+                firstPass = recognizer.recognize(image);
+            } catch (TesseractException e) {
+                logger.warn("OCR failed for page {}: {}", pageIndex + 1, e.getMessage());
+                return PageResult.failed(pageIndex);
+            }
+
+            firstPassPixels = (long) image.getWidth() * image.getHeight();
+            highWidth = (int) Math.ceil(rendered.getWidth() * highFactor);
+            highHeight = (int) Math.ceil(rendered.getHeight() * highFactor);
+            baselinePixels = (long) highWidth * highHeight;
+            // Pixels da imagem pré-processada -> pixels do render na escala alta
+            imageToHigh = (double) rendered.getWidth() / image.getWidth() * highFactor;
+            // Desfaz a rotação do deskew (em torno do centro da imagem) e aplica a escala
+            imageToHighTransform = AffineTransform.getScaleInstance(imageToHigh, imageToHigh);
+            imageToHighTransform.rotate(Math.toRadians(-rotationDegrees), image.getWidth() / 2.0, image.getHeight() / 2.0);
+        }
+
+        if (!enabled) {
+            return new PageResult(firstPass.text(), firstPass.meanConfidence());
+        }
+
+        List<OcrTextRecognizer.RecognizedLine> lowLines = firstPass.lines().stream()
+                .filter(line -> line.confidence() < minConfidence)
+                .toList();
+
+        OcrTextRecognizer.RecognizedText result = firstPass;
+        String refinement = REFINEMENT_NONE;
+        long refinedPixels = 0;
+
+        if (!lowLines.isEmpty()) {
+            long lowArea = 0;
+            for (OcrTextRecognizer.RecognizedLine line : lowLines) {
+                lowArea += (long) (line.box().getWidth() * line.box().getHeight() * imageToHigh * imageToHigh);
+            }
+
+            if (lowLines.size() > maxRegions || lowArea * 2 > baselinePixels) {
+                refinement = REFINEMENT_PAGE;
+                Refined refined = refinePage(page, renderer, pageIndex, firstPass);
+                result = refined.text();
+                refinedPixels = refined.pixels();
+            } else {
+                refinement = REFINEMENT_REGIONS;
+                Refined refined = refineRegions(renderer, pageIndex, firstPass, imageToHighTransform, imageToHigh,
+                        rotationDegrees, highWidth, highHeight);
+                result = refined.text();
+                refinedPixels = refined.pixels();
+            }
+            logger.debug("Page {} refined ({}): {} low-confidence lines, confidence {} -> {}",
+                    pageIndex + 1, refinement, lowLines.size(), firstPass.meanConfidence(), result.meanConfidence());
+        }
+
+        observabilityService.recordOcrMultipassPage(
+                refinement, firstPassPixels + refinedPixels, baselinePixels, System.nanoTime() - start);
+
+        return new PageResult(result.text(), result.meanConfidence());
+    }
+
+    /**
+     * Configuração em uso, para compor a versão da extração (chave do cache de OCR)
+     */
+    public String getConfigSignature() {
+        if (!enabled) {
+            return "multipass(off,scale=" + lowScale + ")";
+        }
+        return "multipass(scale=" + lowScale + "->" + highScale + ",min=" + minConfidence
+                + ",regions=" + maxRegions + ")";
+    }
+
+    /**
+     * Refaz a página inteira na escala alta
+     */
+    private Refined refinePage(PDPage page, PDFRenderer renderer, int pageIndex,
+                               OcrTextRecognizer.RecognizedText firstPass) throws IOException {
+        try (OcrMemoryBudget.Reservation reservation =
+                     memoryBudget.reserve(memoryBudget.estimatePageRenderBytes(page, highScale))) {
+            BufferedImage image = preprocessor.preprocess(renderer.renderImage(pageIndex, highScale, ImageType.GRAY));
+            long pixels = (long) image.getWidth() * image.getHeight();
+            OcrTextRecognizer.RecognizedText secondPass;
+            try {
+                secondPass = recognizer.recognize(image);
+            } catch (TesseractException e) {
+                logger.warn("OCR refinement failed for page {}, keeping first pass: {}", pageIndex + 1, e.getMessage());
+                return new Refined(firstPass, pixels);
+            }
+            return new Refined(isBetter(secondPass.meanConfidence(), firstPass.meanConfidence()) ? secondPass : firstPass,
+                    pixels);
+        }
+    }
+
+    /**
+     * Refaz apenas as linhas de baixa confiança, renderizando cada região na escala alta
+     */
+    private Refined refineRegions(PDFRenderer renderer, int pageIndex, OcrTextRecognizer.RecognizedText firstPass,
+                                  AffineTransform imageToHighTransform, double imageToHigh, double rotationDegrees,
+                                  int highWidth, int highHeight) throws IOException {
+        List<OcrTextRecognizer.RecognizedLine> lines = new ArrayList<>(firstPass.lines());
+        long pixels = 0;
+
+        for (int i = 0; i < lines.size(); i++) {
+            OcrTextRecognizer.RecognizedLine line = lines.get(i);
+            if (line.confidence() >= minConfidence) {
+                continue;
+            }
+
+            Rectangle region = toHighRegion(line.box(), imageToHighTransform, imageToHigh, highWidth, highHeight);
+            if (region.isEmpty()) {
+                continue;
+            }
+
+            OcrTextRecognizer.RecognizedText regionText;
+            pixels += (long) region.width * region.height;
+            try (OcrMemoryBudget.Reservation reservation =
+                         memoryBudget.reserve((long) region.width * region.height * 3)) {
+                regionText = recognizer.recognize(preprocessor.preprocessRegion(
+                        renderRegion(renderer, pageIndex, region), rotationDegrees));
+            } catch (TesseractException e) {
+                logger.warn("OCR refinement failed for a region of page {}, keeping first pass: {}",
+                        pageIndex + 1, e.getMessage());
+                continue;
+            }
+
+            // A margem pode pegar pedaços das linhas vizinhas: fica a linha mais longa
+            OcrTextRecognizer.RecognizedLine best = null;
+            for (OcrTextRecognizer.RecognizedLine candidate : regionText.lines()) {
+                if (best == null || candidate.text().length() > best.text().length()) {
+                    best = candidate;
+                }
+            }
+            if (best != null && best.confidence() > line.confidence()) {
+                lines.set(i, new OcrTextRecognizer.RecognizedLine(best.text(), best.confidence(), line.box()));
+            }
+        }
+        return new Refined(new OcrTextRecognizer.RecognizedText(lines), pixels);
+    }
+
+    /**
+     * Caixa da linha na imagem pré-processada -> região (com margem) no render em escala alta.
+     * Com deskew a caixa girada vira o retângulo que a envolve
+     */
+    private Rectangle toHighRegion(Rectangle box, AffineTransform imageToHighTransform, double imageToHigh,
+                                   int highWidth, int highHeight) {
+        Rectangle2D bounds = imageToHighTransform.createTransformedShape(box).getBounds2D();
+        int padding = (int) Math.ceil(box.height * REGION_PADDING * imageToHigh);
+        int x = (int) Math.floor(bounds.getMinX()) - padding;
+        int y = (int) Math.floor(bounds.getMinY()) - padding;
+        int width = (int) Math.ceil(bounds.getMaxX()) + padding - x;
+        int height = (int) Math.ceil(bounds.getMaxY()) + padding - y;
+        return new Rectangle(x, y, width, height).intersection(new Rectangle(0, 0, highWidth, highHeight));
+    }
+
+    /**
+     * Renderiza só a região indicada (coordenadas do render na escala alta)
+     */
+    private BufferedImage renderRegion(PDFRenderer renderer, int pageIndex, Rectangle region) throws IOException {
+        BufferedImage image = new BufferedImage(region.width, region.height, BufferedImage.TYPE_BYTE_GRAY);
+        Graphics2D g = image.createGraphics();
+        try {
+            // renderPageToGraphics limpa a página com a cor de fundo, que por padrão é preta
+            g.setBackground(Color.WHITE);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, region.width, region.height);
+            g.translate(-region.x, -region.y);
+            renderer.renderPageToGraphics(pageIndex, g, highScale);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    private boolean isBetter(Double candidate, Double current) {
+        return candidate != null && (current == null || candidate > current);
+    }
+
+    private record Refined(OcrTextRecognizer.RecognizedText text, long pixels) {
+    }
+
+    /**
+     * Texto final da página e confiança média (0-100; null se a página não tem texto).
+     * Página com erro do engine tem failed = true e o marcador no lugar do texto
+     */
+    public record PageResult(String text, Double confidence, boolean failed) {
+
+        public PageResult(String text, Double confidence) {
+            this(text, confidence, false);
+        }
+
+        static PageResult failed(int pageIndex) {
+            return new PageResult(OCR_FAILED_MARKER + " " + (pageIndex + 1) + "]", null, true);
+        }
+    }
+}
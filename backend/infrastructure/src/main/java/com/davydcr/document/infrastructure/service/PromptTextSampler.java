@@ -0,0 +1,266 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.domain.model.ExtractedContent;
+import com.davydcr.document.domain.model.PageContent;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Seleciona os trechos mais informativos de um documento dentro de um
+ * orçamento de tokens, para o prompt de classificação.
+ *
+ * O orçamento é dividido em: início da primeira página (firstPageShare),
+ * fim da última página (lastPageShare) e, com o que sobrar, títulos e linhas
+ * com valores ou datas de qualquer página, nessa ordem de prioridade. Linhas
+ * repetidas (cabeçalhos e rodapés de cada página) entram uma vez. O resultado
+ * mantém a ordem do documento, com "..." entre trechos não contíguos.
+ *
+ * Os tokens são estimados sem tokenizador (cerca de 4 caracteres por token em
+ * cada palavra, 1 por sinal), o que basta para limitar o tamanho do prompt.
+ * A instância é imutável e pode ser compartilhada entre threads.
+ */
+public final class PromptTextSampler {
+
+    static final String GAP = "...";
+
+    // Linha muito longa (OCR ou texto sem quebras) é dividida em pedaços deste tamanho
+    private static final int MAX_LINE_TOKENS = 48;
+    private static final int MAX_HEADING_CHARS = 80;
+
+    private static final Pattern AMOUNT = Pattern.compile(
+            "(r\\$|us\\$|\\$|€|£|\\b(brl|usd|eur)\\b)\\s*\\d|\\d[\\d.]*,\\d{2}\\b|\\d[\\d,]*\\.\\d{2}\\b",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern DATE = Pattern.compile(
+            "\\b\\d{1,2}[/.-]\\d{1,2}[/.-]\\d{2,4}\\b|\\b\\d{4}-\\d{2}-\\d{2}\\b"
+                    + "|\\b\\d{1,2} de [a-zç]+ de \\d{4}\\b"
+                    + "|\\b(jan|feb|fev|mar|apr|abr|may|mai|jun|jul|aug|ago|sep|set|oct|out|nov|dec|dez)[a-z]*\\.? \\d{1,2},? \\d{4}\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    private final int tokenBudget;
+    private final double firstPageShare;
+    private final double lastPageShare;
+
+    /**
+     * @param tokenBudget tokens estimados para o texto do documento no prompt
+     * @param firstPageShare fração do orçamento reservada ao início da primeira página
+     * @param lastPageShare fração do orçamento reservada ao fim da última página
+     */
+    public PromptTextSampler(int tokenBudget, double firstPageShare, double lastPageShare) {
+        if (tokenBudget < 16) {
+            throw new IllegalArgumentException("tokenBudget must be at least 16, got: " + tokenBudget);
+        }
+        if (firstPageShare < 0 || lastPageShare < 0 || firstPageShare + lastPageShare > 1.0) {
+            throw new IllegalArgumentException("page shares must be non-negative and add up to at most 1");
+        }
+        this.tokenBudget = tokenBudget;
+        this.firstPageShare = firstPageShare;
+        this.lastPageShare = lastPageShare;
+    }
+
+    public int getTokenBudget() {
+        return tokenBudget;
+    }
+
+    /**
+     * Texto amostrado do documento (páginas, se houver; senão o texto completo como página única)
+     */
+    public Sample sample(ExtractedContent content) {
+        List<String> pageTexts = new ArrayList<>();
+        for (PageContent page : content.getPages()) {
+            pageTexts.add(page.getText());
+        }
+        if (pageTexts.isEmpty()) {
+            pageTexts.add(content.getFullText() == null ? "" : content.getFullText());
+        }
+        return sample(pageTexts);
+    }
+
+    Sample sample(List<String> pageTexts) {
+        List<Line> lines = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        int sourceTokens = 0;
+        for (int page = 0; page < pageTexts.size(); page++) {
+            for (String raw : pageTexts.get(page).split("\\R")) {
+                String text = raw.strip().replaceAll("\\s+", " ");
+                if (text.isEmpty()) {
+                    continue;
+                }
+                for (String chunk : split(text, MAX_LINE_TOKENS)) {
+                    int tokens = estimateTokens(chunk);
+                    sourceTokens += tokens;
+                    if (seen.add(chunk.toLowerCase(Locale.ROOT))) {  // cabeçalho/rodapé repetido entra uma vez
+                        lines.add(new Line(lines.size(), page, chunk, tokens, score(chunk)));
+                    }
+                }
+            }
+        }
+        if (lines.isEmpty()) {
+            return new Sample("", 0, 0);
+        }
+
+        boolean[] selected = new boolean[lines.size()];
+        int firstPage = lines.get(0).page;
+        int lastPage = lines.get(lines.size() - 1).page;
+        int used = 0;
+
+        // 1. Início da primeira página, em ordem
+        int share = (int) (tokenBudget * firstPageShare);
+        for (int i = 0; i < lines.size() && lines.get(i).page == firstPage; i++) {
+            if (!fits(lines.get(i), used, share)) {
+                break;
+            }
+            selected[i] = true;
+            used += lines.get(i).tokens;
+        }
+
+        // 2. Fim da última página, de trás para frente
+        share = used + (int) (tokenBudget * lastPageShare);
+        for (int i = lines.size() - 1; i >= 0 && lines.get(i).page == lastPage; i--) {
+            if (selected[i]) {
+                break;
+            }
+            if (!fits(lines.get(i), used, share)) {
+                break;
+            }
+            selected[i] = true;
+            used += lines.get(i).tokens;
+        }
+
+        // 3. Títulos e linhas com valores/datas, pela pontuação; empate pela posição
+        List<Line> ranked = new ArrayList<>(lines);
+        ranked.removeIf(line -> line.score == 0 || selected[line.index]);
+        ranked.sort(Comparator.comparingInt((Line line) -> line.score).reversed()
+                .thenComparingInt(line -> line.index));
+        for (Line line : ranked) {
+            if (fits(line, used, tokenBudget)) {
+                selected[line.index] = true;
+                used += line.tokens;
+            }
+        }
+
+        // 4. Sobrou orçamento (documento curto ou pouca estrutura): completa em ordem
+        for (Line line : lines) {
+            if (!selected[line.index] && fits(line, used, tokenBudget)) {
+                selected[line.index] = true;
+                used += line.tokens;
+            }
+        }
+
+        StringBuilder text = new StringBuilder();
+        int previous = -1;
+        for (Line line : lines) {
+            if (!selected[line.index]) {
+                continue;
+            }
+            if (previous >= 0 && line.index != previous + 1) {
+                text.append(GAP).append('\n');
+            }
+            text.append(line.text).append('\n');
+            previous = line.index;
+        }
+        return new Sample(text.toString().stripTrailing(), used, sourceTokens);
+    }
+
+    private static boolean fits(Line line, int used, int limit) {
+        // Cada salto entre trechos custa o token do "..."
+        return used + line.tokens + 1 <= limit;
+    }
+
+    /**
+     * 3 para títulos, 2 para valores e datas, 0 para o resto
+     */
+    static int score(String line) {
+        if (isHeading(line)) {
+            return 3;
+        }
+        if (AMOUNT.matcher(line).find() || DATE.matcher(line).find()) {
+            return 2;
+        }
+        return 0;
+    }
+
+    private static boolean isHeading(String line) {
+        if (line.length() < 4 || line.length() > MAX_HEADING_CHARS) {
+            return false;
+        }
+        if (line.endsWith(":")) {
+            return true;
+        }
+        int letters = 0;
+        int upper = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (Character.isLetter(c)) {
+                letters++;
+                if (Character.isUpperCase(c)) {
+                    upper++;
+                }
+            }
+        }
+        return letters >= 4 && upper * 10 >= letters * 8;
+    }
+
+    /**
+     * Estimativa de tokens: cada sequência de letras/dígitos conta 1 token a
+     * cada 4 caracteres, cada outro caractere visível conta 1
+     */
+    static int estimateTokens(CharSequence text) {
+        int tokens = 0;
+        int run = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                run++;
+                continue;
+            }
+            tokens += (run + 3) / 4;
+            run = 0;
+            if (!Character.isWhitespace(c)) {
+                tokens++;
+            }
+        }
+        return tokens + (run + 3) / 4;
+    }
+
+    /**
+     * Divide a linha em pedaços de até maxTokens, nos espaços
+     */
+    static List<String> split(String text, int maxTokens) {
+        if (estimateTokens(text) <= maxTokens) {
+            return List.of(text);
+        }
+        List<String> chunks = new ArrayList<>();
+        int chunkStart = 0;
+        int tokens = 0;
+        int start = 0;
+        while (start < text.length()) {
+            int next = text.indexOf(' ', start);
+            next = next < 0 ? text.length() : next;
+            int wordTokens = estimateTokens(text.substring(start, next));
+            if (tokens > 0 && tokens + wordTokens > maxTokens) {
+                chunks.add(text.substring(chunkStart, start - 1));
+                chunkStart = start;
+                tokens = 0;
+            }
+            tokens += wordTokens;
+            start = next + 1;
+        }
+        chunks.add(text.substring(chunkStart));
+        return chunks;
+    }
+
+    /**
+     * Texto amostrado e tamanhos estimados (tokens usados e do documento inteiro)
+     */
+    public record Sample(String text, int tokens, int sourceTokens) {
+    }
+
+    private record Line(int index, int page, String text, int tokens, int score) {
+    }
+}
@@ -0,0 +1,225 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Classificador por regras de palavras-chave com pesos.
+ *
+ * As regras (app.classification.rules.location, JSON com termos e pesos por
+ * rótulo) são compiladas em um único {@link AhoCorasickMatcher}: uma passada
+ * pelo texto pontua todos os rótulos, contando cada termo uma vez por
+ * documento. A confiança cresce com a pontuação do vencedor e cai com a do
+ * segundo colocado; abaixo de minScore o documento recebe o rótulo de fallback.
+ *
+ * Regras em arquivo são recarregadas quando o arquivo muda; uma versão
+ * inválida é rejeitada e as regras anteriores continuam valendo.
+ */
+@Component
+public class RuleBasedClassifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(RuleBasedClassifier.class);
+
+    private final ResourceLoader resourceLoader;
+    private final ObjectMapper objectMapper;
+    private final ObservabilityService observabilityService;
+    private final String location;
+    private final AtomicReference<RuleSet> rules = new AtomicReference<>();
+    private volatile long loadedLastModified = -1;
+
+    public RuleBasedClassifier(
+            ResourceLoader resourceLoader,
+            ObjectMapper objectMapper,
+            ObservabilityService observabilityService,
+            @Value("${app.classification.rules.location:classpath:classification-rules.json}") String location) {
+        this.resourceLoader = resourceLoader;
+        this.objectMapper = objectMapper;
+        this.observabilityService = observabilityService;
+        this.location = location;
+        if (!reload()) {
+            throw new IllegalStateException("Could not load classification rules from " + location);
+        }
+    }
+
+    /**
+     * Pontua todos os rótulos em uma passada e retorna o melhor
+     */
+    public RuleResult classify(CharSequence text) {
+        RuleSet current = rules.get();
+        long startedAt = System.nanoTime();
+        RuleResult result = current.score(text == null ? "" : text);
+        observabilityService.recordRuleClassification(result.matched(), System.nanoTime() - startedAt);
+        return result;
+    }
+
+    /**
+     * Recarrega as regras se o arquivo mudou desde a última carga
+     */
+    @Scheduled(fixedDelayString = "${app.classification.rules.reload-interval-ms:30000}", initialDelay = 30000)
+    public void reloadIfChanged() {
+        Resource resource = resourceLoader.getResource(location);
+        try {
+            if (resource.isFile() && resource.lastModified() != loadedLastModified) {
+                reload();
+            }
+        } catch (IOException e) {
+            logger.warn("Could not check classification rules at {}: {}", location, e.getMessage());
+        }
+    }
+
+    /**
+     * Carrega e compila as regras; em caso de erro mantém as atuais
+     */
+    public synchronized boolean reload() {
+        Resource resource = resourceLoader.getResource(location);
+        try (InputStream in = resource.getInputStream()) {
+            long lastModified = resource.isFile() ? resource.lastModified() : 0;
+            RuleSet loaded = RuleSet.parse(objectMapper.readTree(in));
+            rules.set(loaded);
+            loadedLastModified = lastModified;
+            observabilityService.recordRulesReload(true);
+            logger.info("Classification rules loaded from {}: {} labels, {} terms",
+                    location, loaded.labels.length, loaded.matcher.getPatternCount());
+            return true;
+        } catch (Exception e) {
+            observabilityService.recordRulesReload(false);
+            logger.error("Invalid classification rules at {}, keeping previous rules: {}", location, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Rótulo escolhido pelas regras
+     *
+     * @param matched false quando nenhum rótulo atingiu minScore (rótulo de fallback)
+     * @param score pontuação do rótulo vencedor
+     */
+    public record RuleResult(String label, int confidence, double score, boolean matched) {
+    }
+
+    /**
+     * Regras compiladas (imutável, trocada inteira a cada reload)
+     */
+    static final class RuleSet {
+
+        private final String[] labels;
+        private final AhoCorasickMatcher matcher;
+        // Para cada termo: rótulos que ele pontua e o peso em cada um
+        private final int[][] termLabels;
+        private final double[][] termWeights;
+        private final double minScore;
+        private final String fallbackLabel;
+        private final int fallbackConfidence;
+
+        private RuleSet(String[] labels, AhoCorasickMatcher matcher, int[][] termLabels, double[][] termWeights,
+                        double minScore, String fallbackLabel, int fallbackConfidence) {
+            this.labels = labels;
+            this.matcher = matcher;
+            this.termLabels = termLabels;
+            this.termWeights = termWeights;
+            this.minScore = minScore;
+            this.fallbackLabel = fallbackLabel;
+            this.fallbackConfidence = fallbackConfidence;
+        }
+
+        static RuleSet parse(JsonNode root) {
+            JsonNode labelsNode = root.path("labels");
+            if (!labelsNode.isObject() || labelsNode.isEmpty()) {
+                throw new IllegalArgumentException("rules must define at least one label");
+            }
+
+            List<String> labels = new ArrayList<>();
+            Map<String, Map<Integer, Double>> terms = new LinkedHashMap<>();
+            Iterator<Map.Entry<String, JsonNode>> labelEntries = labelsNode.fields();
+            while (labelEntries.hasNext()) {
+                Map.Entry<String, JsonNode> labelEntry = labelEntries.next();
+                int labelIndex = labels.size();
+                labels.add(labelEntry.getKey());
+                Iterator<Map.Entry<String, JsonNode>> termEntries = labelEntry.getValue().fields();
+                while (termEntries.hasNext()) {
+                    Map.Entry<String, JsonNode> term = termEntries.next();
+                    if (!term.getValue().isNumber()) {
+                        throw new IllegalArgumentException("weight of '" + term.getKey() + "' must be a number");
+                    }
+                    String folded = AhoCorasickMatcher.foldPattern(term.getKey());
+                    if (folded.isEmpty()) {
+                        throw new IllegalArgumentException("blank term in label " + labelEntry.getKey());
+                    }
+                    terms.computeIfAbsent(folded, key -> new LinkedHashMap<>())
+                            .merge(labelIndex, term.getValue().asDouble(), Double::sum);
+                }
+            }
+
+            List<String> patterns = new ArrayList<>(terms.keySet());
+            int[][] termLabels = new int[patterns.size()][];
+            double[][] termWeights = new double[patterns.size()][];
+            for (int t = 0; t < patterns.size(); t++) {
+                Map<Integer, Double> weights = terms.get(patterns.get(t));
+                termLabels[t] = weights.keySet().stream().mapToInt(Integer::intValue).toArray();
+                termWeights[t] = weights.values().stream().mapToDouble(Double::doubleValue).toArray();
+            }
+
+            int fallbackConfidence = root.path("fallbackConfidence").asInt(50);
+            if (fallbackConfidence < 0 || fallbackConfidence > 100) {
+                throw new IllegalArgumentException("fallbackConfidence must be between 0 and 100");
+            }
+            return new RuleSet(
+                    labels.toArray(new String[0]),
+                    AhoCorasickMatcher.build(patterns),
+                    termLabels,
+                    termWeights,
+                    root.path("minScore").asDouble(1.0),
+                    root.path("fallbackLabel").asText("Other"),
+                    fallbackConfidence);
+        }
+
+        RuleResult score(CharSequence text) {
+            double[] scores = new double[labels.length];
+            boolean[] seen = new boolean[termLabels.length];
+            matcher.scan(text, (term, start, end) -> {
+                if (!seen[term]) {
+                    seen[term] = true;
+                    for (int i = 0; i < termLabels[term].length; i++) {
+                        scores[termLabels[term][i]] += termWeights[term][i];
+                    }
+                }
+            });
+
+            int best = 0;
+            double runnerUp = 0.0;
+            for (int label = 1; label < scores.length; label++) {
+                if (scores[label] > scores[best]) {
+                    runnerUp = scores[best];
+                    best = label;
+                } else if (scores[label] > runnerUp) {
+                    runnerUp = scores[label];
+                }
+            }
+
+            double top = scores[best];
+            if (top < minScore) {
+                return new RuleResult(fallbackLabel, fallbackConfidence, top, false);
+            }
+            // Vitória isolada e com muitos termos -> perto de 100; empate -> perto de 50
+            int confidence = (int) Math.min(99, Math.round(100.0 * top / (top + runnerUp + 1.0)));
+            return new RuleResult(labels[best], confidence, top, true);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalescência de chamadas concorrentes com a mesma chave ("single flight").
+ *
+ * A primeira chamada para uma chave (líder) executa o trabalho; as que
+ * chegam enquanto ele está em andamento recebem o mesmo resultado, ou a
+ * mesma exceção, sem repetir o trabalho. A chave sai do mapa quando o
+ * líder termina, então chamadas posteriores executam de novo (o cache de
+ * resultados, quando existe, fica à frente). Cada chamador recebe uma
+ * cópia do future compartilhado, assim cancelar a sua não afeta os demais.
+ */
+public final class SingleFlight<K, V> {
+
+    private final String operation;
+    private final ObservabilityService observabilityService;
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    public SingleFlight(String operation, ObservabilityService observabilityService) {
+        this.operation = operation;
+        this.observabilityService = observabilityService;
+        observabilityService.registerSingleFlightGauge(operation, inFlight::size);
+    }
+
+    /**
+     * Versão síncrona: o líder executa call na própria thread, os demais esperam o resultado
+     */
+    public V execute(K key, Supplier<V> call) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            observabilityService.recordSingleFlightCall(operation, true);
+            return join(existing);
+        }
+
+        observabilityService.recordSingleFlightCall(operation, false);
+        try {
+            V value = call.get();
+            inFlight.remove(key, flight);
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Versão assíncrona: o líder inicia call, todos recebem o future do resultado compartilhado
+     */
+    public CompletableFuture<V> executeAsync(K key, Supplier<CompletableFuture<V>> call) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            observabilityService.recordSingleFlightCall(operation, true);
+            return existing.copy();
+        }
+
+        observabilityService.recordSingleFlightCall(operation, false);
+        CompletableFuture<V> started;
+        try {
+            started = call.get();
+        } catch (RuntimeException | Error e) {
+            started = CompletableFuture.failedFuture(e);
+        }
+        started.whenComplete((value, error) -> {
+            inFlight.remove(key, flight);
+            if (error != null) {
+                flight.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error);
+            } else {
+                flight.complete(value);
+            }
+        });
+        return flight.copy();
+    }
+
+    int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    private V join(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.application.port.ClassificationService;
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import com.davydcr.document.infrastructure.persistence.DocumentJpaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Treina o {@link NaiveBayesTextClassifier} do caminho rápido de classificação.
+ *
+ * As amostras são documentos da tabela documents classificados pelo LLM
+ * (classification_model igual ao modelo do LLM atual) com confiança mínima;
+ * previsões do próprio caminho rápido nunca entram no treino. Antes de
+ * publicar, um modelo treinado em 80% das amostras é avaliado nos 20%
+ * restantes: acurácia, cobertura (fração acima do limiar de confiança) e
+ * precisão das previsões aceitas. O modelo publicado é retreinado com todas
+ * as amostras.
+ *
+ * Roda na inicialização e depois fora do caminho das requisições, no
+ * horário de app.classification.fast-path.retrain-cron.
+ */
+@Component
+@ConditionalOnProperty(
+    name = "app.classification.llm-enabled",
+    havingValue = "true",
+    matchIfMissing = false
+)
+public class StatisticalClassifierTrainer {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatisticalClassifierTrainer.class);
+
+    private static final long SPLIT_SEED = 42L;
+
+    private final DocumentJpaRepository documentRepository;
+    private final ClassificationService teacher;
+    private final boolean enabled;
+    private final int hashBits;
+    private final int maxChars;
+    private final int maxTrainingDocuments;
+    private final int minSamplesPerLabel;
+    private final int minLabelConfidence;
+    private final double minProbability;
+    private final double holdoutRatio;
+    private final AtomicReference<NaiveBayesTextClassifier> currentModel = new AtomicReference<>();
+    private final AtomicReference<TrainingReport> lastReport = new AtomicReference<>();
+
+    public StatisticalClassifierTrainer(
+            DocumentJpaRepository documentRepository,
+            @Qualifier("llmClassification") ClassificationService teacher,
+            ObservabilityService observabilityService,
+            @Value("${app.classification.fast-path.enabled:true}") boolean enabled,
+            @Value("${app.classification.fast-path.hash-bits:16}") int hashBits,
+            @Value("${app.classification.fast-path.max-chars:4000}") int maxChars,
+            @Value("${app.classification.fast-path.max-training-documents:5000}") int maxTrainingDocuments,
+            @Value("${app.classification.fast-path.min-samples-per-label:20}") int minSamplesPerLabel,
+            @Value("${app.classification.fast-path.min-label-confidence:70}") int minLabelConfidence,
+            @Value("${app.classification.fast-path.min-confidence:90}") int minConfidence,
+            @Value("${app.classification.fast-path.holdout-ratio:0.2}") double holdoutRatio) {
+        this.documentRepository = documentRepository;
+        this.teacher = teacher;
+        this.enabled = enabled;
+        this.hashBits = hashBits;
+        this.maxChars = maxChars;
+        this.maxTrainingDocuments = maxTrainingDocuments;
+        this.minSamplesPerLabel = minSamplesPerLabel;
+        this.minLabelConfidence = minLabelConfidence;
+        this.minProbability = minConfidence / 100.0;
+        this.holdoutRatio = Math.min(0.5, Math.max(0.0, holdoutRatio));
+
+        observabilityService.registerFastPathModelGauges(
+                () -> Optional.ofNullable(lastReport.get()).map(TrainingReport::trainingSamples).orElse(0),
+                () -> Optional.ofNullable(lastReport.get()).map(TrainingReport::holdoutAccuracy).orElse(0.0),
+                () -> Optional.ofNullable(lastReport.get()).map(TrainingReport::holdoutCoverage).orElse(0.0),
+                () -> Optional.ofNullable(lastReport.get()).map(TrainingReport::holdoutAcceptedPrecision).orElse(0.0));
+    }
+
+    /**
+     * Modelo publicado, se já houve um treino com amostras suficientes
+     */
+    public Optional<NaiveBayesTextClassifier> currentModel() {
+        return Optional.ofNullable(currentModel.get());
+    }
+
+    public Optional<TrainingReport> lastReport() {
+        return Optional.ofNullable(lastReport.get());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void trainOnStartup() {
+        retrain();
+    }
+
+    @Scheduled(cron = "${app.classification.fast-path.retrain-cron:0 30 3 * * *}")
+    public void scheduledRetrain() {
+        retrain();
+    }
+
+    /**
+     * Retreina com os documentos rotulados pelo LLM e publica o novo modelo.
+     * Sem amostras suficientes o modelo atual é mantido.
+     */
+    public synchronized Optional<TrainingReport> retrain() {
+        if (!enabled) {
+            return Optional.empty();
+        }
+
+        try {
+            long startedAt = System.nanoTime();
+            List<NaiveBayesTextClassifier.Sample> samples = loadSamples();
+            long labels = samples.stream().map(NaiveBayesTextClassifier.Sample::label).distinct().count();
+            if (labels < 2) {
+                logger.info("Fast-path classifier not trained: {} usable samples across {} labels labeled by {}",
+                        samples.size(), labels, teacher.getModelName());
+                return Optional.empty();
+            }
+
+            List<NaiveBayesTextClassifier.Sample> shuffled = new ArrayList<>(samples);
+            Collections.shuffle(shuffled, new Random(SPLIT_SEED));
+            int holdoutSize = (int) Math.round(shuffled.size() * holdoutRatio);
+            TrainingReport report = holdoutSize > 0
+                    ? evaluate(shuffled.subList(holdoutSize, shuffled.size()), shuffled.subList(0, holdoutSize),
+                            (int) labels)
+                    : new TrainingReport(samples.size(), (int) labels, 0, 0.0, 0.0, 0.0);
+
+            currentModel.set(NaiveBayesTextClassifier.train(samples, hashBits, maxChars));
+            lastReport.set(report);
+            logger.info("Fast-path classifier trained in {} ms: {}",
+                    (System.nanoTime() - startedAt) / 1_000_000, report);
+            return Optional.of(report);
+        } catch (Exception e) {
+            logger.error("Fast-path classifier training failed: {}", e.getMessage(), e);
+            return Optional.empty();
+        }
+    }
+
+    private List<NaiveBayesTextClassifier.Sample> loadSamples() {
+        List<NaiveBayesTextClassifier.Sample> samples = documentRepository
+                .findLabeledTexts(teacher.getModelName(), minLabelConfidence, PageRequest.of(0, maxTrainingDocuments))
+                .stream()
+                .filter(row -> !row.getExtractedText().isBlank())
+                .map(row -> new NaiveBayesTextClassifier.Sample(row.getExtractedText(), row.getClassificationLabel()))
+                .toList();
+
+        // Rótulos raros dariam previsões com pouca evidência; ficam sempre com o LLM
+        Map<String, Long> perLabel = samples.stream()
+                .collect(Collectors.groupingBy(NaiveBayesTextClassifier.Sample::label, Collectors.counting()));
+        return samples.stream()
+                .filter(sample -> perLabel.get(sample.label()) >= minSamplesPerLabel)
+                .toList();
+    }
+
+    private TrainingReport evaluate(List<NaiveBayesTextClassifier.Sample> training,
+                                    List<NaiveBayesTextClassifier.Sample> holdout, int labels) {
+        NaiveBayesTextClassifier candidate = NaiveBayesTextClassifier.train(training, hashBits, maxChars);
+        int correct = 0;
+        int accepted = 0;
+        int acceptedCorrect = 0;
+        for (NaiveBayesTextClassifier.Sample sample : holdout) {
+            NaiveBayesTextClassifier.Prediction prediction = candidate.predict(sample.text());
+            boolean hit = prediction.label().equals(sample.label());
+            if (hit) {
+                correct++;
+            }
+            if (prediction.probability() >= minProbability) {
+                accepted++;
+                if (hit) {
+                    acceptedCorrect++;
+                }
+            }
+        }
+        return new TrainingReport(
+                training.size() + holdout.size(),
+                labels,
+                holdout.size(),
+                (double) correct / holdout.size(),
+                (double) accepted / holdout.size(),
+                accepted == 0 ? 0.0 : (double) acceptedCorrect / accepted);
+    }
+
+    /**
+     * Resultado de um treino: amostras usadas e desempenho no conjunto de validação
+     *
+     * @param holdoutCoverage fração da validação que o caminho rápido responderia (acima do limiar)
+     * @param holdoutAcceptedPrecision acurácia apenas das previsões acima do limiar
+     */
+    public record TrainingReport(int trainingSamples,
+                                 int labels,
+                                 int holdoutSamples,
+                                 double holdoutAccuracy,
+                                 double holdoutCoverage,
+                                 double holdoutAcceptedPrecision) {
+    }
+}
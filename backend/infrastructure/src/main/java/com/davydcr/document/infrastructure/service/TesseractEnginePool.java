@@ -0,0 +1,253 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import com.sun.jna.Pointer;
+import jakarta.annotation.PreDestroy;
+import net.sourceforge.tess4j.ITessAPI;
+import net.sourceforge.tess4j.TessAPI;
+import net.sourceforge.tess4j.Tesseract;
+import net.sourceforge.tess4j.TesseractException;
+import net.sourceforge.tess4j.Word;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool limitado de engines Tesseract confinadas por thread.
+ *
+ * Uma instância de {@link Tesseract} não é thread-safe: o handle nativo é
+ * compartilhado entre chamadas de doOCR. Cada engine do pool é usada por uma
+ * única thread de cada vez (lease/return), e mantém o tessdata carregado entre
+ * chamadas em vez de reinicializar a API nativa a cada página.
+ */
+@Component
+public class TesseractEnginePool {
+
+    private static final Logger logger = LoggerFactory.getLogger(TesseractEnginePool.class);
+
+    private final BlockingQueue<PersistentTesseract> idleEngines;
+    private final List<PersistentTesseract> allEngines;
+    private final int poolSize;
+    private final long acquireTimeoutMs;
+    private final String languages;
+    private final AtomicInteger inUse = new AtomicInteger(0);
+    private final ObservabilityService observabilityService;
+
+    public TesseractEnginePool(
+            @Value("${app.ocr.pool-size:0}") int configuredPoolSize,
+            @Value("${app.ocr.pool-acquire-timeout-ms:60000}") long acquireTimeoutMs,
+            @Value("${app.ocr.tessdata-path:}") String tessdataPath,
+            @Value("${app.ocr.languages:por+eng}") String languages,
+            ObservabilityService observabilityService) {
+        // 0 (ou negativo) = um engine por core disponível
+        this.poolSize = configuredPoolSize > 0
+                ? configuredPoolSize
+                : Runtime.getRuntime().availableProcessors();
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.languages = languages;
+        this.observabilityService = observabilityService;
+        this.idleEngines = new ArrayBlockingQueue<>(poolSize);
+        this.allEngines = new ArrayList<>(poolSize);
+
+        for (int i = 0; i < poolSize; i++) {
+            PersistentTesseract engine = new PersistentTesseract();
+            if (tessdataPath != null && !tessdataPath.isBlank()) {
+                engine.setDatapath(tessdataPath);
+            }
+            engine.setLanguage(languages);
+            allEngines.add(engine);
+            idleEngines.add(engine);
+        }
+
+        observabilityService.registerOcrEnginePoolGauges(this::getPoolSize, this::getInUseCount);
+
+        logger.info("Tesseract engine pool initialized: size={}, languages={}, tessdata={}",
+                poolSize, languages, tessdataPath == null || tessdataPath.isBlank() ? "default" : tessdataPath);
+    }
+
+    /**
+     * Obtém um engine exclusivo para a thread atual.
+     * Bloqueia até um engine ficar livre ou o timeout configurado expirar.
+     * Deve ser usado com try-with-resources para garantir a devolução.
+     */
+    public Lease acquire() {
+        long start = System.nanoTime();
+        PersistentTesseract engine;
+        try {
+            engine = idleEngines.poll(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a Tesseract engine", e);
+        }
+
+        long waitNanos = System.nanoTime() - start;
+        if (engine == null) {
+            observabilityService.recordOcrEngineWaitTimeout();
+            throw new IllegalStateException(
+                    "No Tesseract engine available after " + acquireTimeoutMs + "ms (pool size: " + poolSize + ")");
+        }
+
+        inUse.incrementAndGet();
+        observabilityService.recordOcrEngineWait(waitNanos);
+        return new Lease(engine);
+    }
+
+    private void release(PersistentTesseract engine) {
+        inUse.decrementAndGet();
+        if (!idleEngines.offer(engine)) {
+            logger.warn("Tesseract engine returned to a full pool; discarding it");
+            engine.shutdown();
+        }
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public int getInUseCount() {
+        return inUse.get();
+    }
+
+    public String getLanguages() {
+        return languages;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        logger.info("Shutting down Tesseract engine pool ({} engines)", allEngines.size());
+        idleEngines.clear();
+        allEngines.forEach(PersistentTesseract::shutdown);
+    }
+
+    /**
+     * Empréstimo de um engine do pool. Fechar o lease devolve o engine.
+     */
+    public final class Lease implements AutoCloseable {
+
+        private PersistentTesseract engine;
+
+        private Lease(PersistentTesseract engine) {
+            this.engine = engine;
+        }
+
+        public Tesseract engine() {
+            if (engine == null) {
+                throw new IllegalStateException("Tesseract lease already returned");
+            }
+            return engine;
+        }
+
+        /**
+         * Linhas reconhecidas com texto, confiança e caixa; erro do engine vira
+         * TesseractException em vez de uma lista vazia
+         */
+        public List<Word> recognizeLines(BufferedImage image) throws TesseractException {
+            if (engine == null) {
+                throw new IllegalStateException("Tesseract lease already returned");
+            }
+            return engine.recognizeLines(image);
+        }
+
+        @Override
+        public void close() {
+            if (engine != null) {
+                PersistentTesseract returned = engine;
+                engine = null;
+                release(returned);
+            }
+        }
+    }
+
+    /**
+     * Tesseract que inicializa a API nativa (e carrega o tessdata) uma única vez
+     * e a mantém viva entre chamadas, em vez do init/dispose por doOCR do tess4j.
+     */
+    static class PersistentTesseract extends Tesseract {
+
+        private boolean initialized;
+
+        @Override
+        protected void init() {
+            if (!initialized) {
+                super.init();
+                initialized = true;
+            }
+        }
+
+        @Override
+        protected void dispose() {
+            // Mantém o handle nativo vivo; liberado apenas em shutdown()
+        }
+
+        /**
+         * Mesmo percurso do getWords do tess4j no nível de linha, que só loga os
+         * erros do engine e devolve o que tiver reconhecido até ali
+         */
+        List<Word> recognizeLines(BufferedImage image) throws TesseractException {
+            int level = ITessAPI.TessPageIteratorLevel.RIL_TEXTLINE;
+            try {
+                init();
+                setVariables();
+                setImage(image);
+                TessAPI api = getAPI();
+                ITessAPI.TessBaseAPI handle = getHandle();
+                if (api.TessBaseAPIRecognize(handle, null) != 0) {
+                    throw new TesseractException("Tesseract recognition failed");
+                }
+
+                List<Word> lines = new ArrayList<>();
+                ITessAPI.TessResultIterator results = api.TessBaseAPIGetIterator(handle);
+                if (results == null) {
+                    return lines;
+                }
+                try {
+                    ITessAPI.TessPageIterator page = api.TessResultIteratorGetPageIterator(results);
+                    api.TessPageIteratorBegin(page);
+                    do {
+                        Pointer utf8 = api.TessResultIteratorGetUTF8Text(results, level);
+                        if (utf8 == null) {
+                            continue;
+                        }
+                        String text = utf8.getString(0);
+                        api.TessDeleteText(utf8);
+                        float confidence = api.TessResultIteratorConfidence(results, level);
+                        IntBuffer left = IntBuffer.allocate(1);
+                        IntBuffer top = IntBuffer.allocate(1);
+                        IntBuffer right = IntBuffer.allocate(1);
+                        IntBuffer bottom = IntBuffer.allocate(1);
+                        api.TessPageIteratorBoundingBox(page, level, left, top, right, bottom);
+                        int x = left.get(0);
+                        int y = top.get(0);
+                        lines.add(new Word(text, confidence,
+                                new Rectangle(x, y, right.get(0) - x, bottom.get(0) - y)));
+                    } while (api.TessPageIteratorNext(page, level) == ITessAPI.TRUE);
+                } finally {
+                    api.TessResultIteratorDelete(results);
+                }
+                return lines;
+            } catch (TesseractException e) {
+                throw e;
+            } catch (Exception | LinkageError e) {
+                throw new TesseractException("Tesseract recognition failed: " + e.getMessage(), e);
+            }
+        }
+
+        void shutdown() {
+            if (initialized) {
+                super.dispose();
+                initialized = false;
+            }
+        }
+    }
+}
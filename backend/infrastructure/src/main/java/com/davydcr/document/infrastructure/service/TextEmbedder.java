@@ -0,0 +1,23 @@
+package com.davydcr.document.infrastructure.service;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Gera o vetor de embedding de um texto.
+ *
+ * Implementações: {@link OllamaTextEmbedder} (modelo de embeddings do Ollama)
+ * e {@link HashingTextEmbedder} (local e determinístico, sem rede), escolhidas
+ * por app.classification.embedding.provider.
+ */
+public interface TextEmbedder {
+
+    /**
+     * Embedding do texto; o tamanho do vetor é fixo para um mesmo modelo
+     */
+    CompletableFuture<float[]> embed(String text);
+
+    /**
+     * Identifica o modelo; vetores de modelos diferentes não são comparáveis
+     */
+    String getModelName();
+}
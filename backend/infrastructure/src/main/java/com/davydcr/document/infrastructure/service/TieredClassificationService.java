@@ -0,0 +1,242 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.application.port.ClassificationService;
+import com.davydcr.document.domain.model.ClassificationLabel;
+import com.davydcr.document.domain.model.Confidence;
+import com.davydcr.document.domain.model.DocumentClassification;
+import com.davydcr.document.domain.model.ExtractedContent;
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Classificação em níveis: regras de palavras-chave, classificador estatístico na JVM e LLM.
+ *
+ * As regras do {@link RuleBasedClassifier} filtram primeiro: documentos com
+ * evidência forte (confiança a partir de app.classification.rules.prefilter-min-confidence)
+ * são respondidos sem modelo algum. Em seguida, o {@link NaiveBayesTextClassifier} publicado pelo
+ * {@link StatisticalClassifierTrainer} responde em microssegundos; a
+ * previsão só é aceita com confiança a partir de
+ * app.classification.fast-path.min-confidence. Abaixo disso (ou sem modelo
+ * treinado) o documento é escalado para o LLM e a previsão descartada é
+ * comparada com a resposta dele. Uma amostra das previsões aceitas também
+ * é enviada ao LLM em segundo plano (shadow), para medir a concordância
+ * justamente onde o caminho rápido decide sozinho.
+ *
+ * Com app.classification.embedding.enabled, o que seria escalado passa antes
+ * pelo {@link EmbeddingClassificationService} (uma chamada de embedding em vez
+ * de uma geração); o resultado é aceito com confiança a partir de
+ * app.classification.embedding.min-confidence.
+ *
+ * Enquanto o LLM está indisponível (estado em cache do {@link LlmHealthProber}),
+ * o que seria escalado recebe direto o resultado das regras, sem esperar
+ * timeout de rede; a amostragem shadow fica suspensa. O mesmo vale para a
+ * chamada recusada pelo limite local do LLM (fila cheia ou sem slot a tempo).
+ */
+@Service
+@Qualifier("classificationBackend")
+@ConditionalOnProperty(
+    name = "app.classification.llm-enabled",
+    havingValue = "true",
+    matchIfMissing = false
+)
+public class TieredClassificationService implements ClassificationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TieredClassificationService.class);
+
+    static final String FAST_PATH_MODEL = "naive-bayes";
+    static final String RULES_MODEL = "rules";
+
+    static final String DECISION_RULES = "rules";
+    static final String DECISION_ACCEPTED = "accepted";
+    static final String DECISION_ESCALATED = "escalated";
+    static final String DECISION_NO_MODEL = "no_model";
+    static final String DECISION_LLM_DOWN = "llm_down";
+    static final String DECISION_LLM_BUSY = "llm_busy";
+    static final String DECISION_EMBEDDING = "embedding";
+
+    static final String SOURCE_ESCALATED = "escalated";
+    static final String SOURCE_SHADOW = "shadow";
+
+    private final ClassificationService llm;
+    private final StatisticalClassifierTrainer trainer;
+    private final RuleBasedClassifier ruleClassifier;
+    private final Optional<EmbeddingClassificationService> embedding;
+    private final ObservabilityService observabilityService;
+    private final boolean enabled;
+    private final double minProbability;
+    private final double shadowSampleRate;
+    private final boolean rulesPrefilterEnabled;
+    private final int rulesMinConfidence;
+    private final int embeddingMinConfidence;
+
+    public TieredClassificationService(
+            @Qualifier("llmClassification") ClassificationService llm,
+            StatisticalClassifierTrainer trainer,
+            RuleBasedClassifier ruleClassifier,
+            Optional<EmbeddingClassificationService> embedding,
+            ObservabilityService observabilityService,
+            @Value("${app.classification.fast-path.enabled:true}") boolean enabled,
+            @Value("${app.classification.fast-path.min-confidence:90}") int minConfidence,
+            @Value("${app.classification.fast-path.shadow-sample-rate:0.05}") double shadowSampleRate,
+            @Value("${app.classification.rules.prefilter-enabled:true}") boolean rulesPrefilterEnabled,
+            @Value("${app.classification.rules.prefilter-min-confidence:90}") int rulesMinConfidence,
+            @Value("${app.classification.embedding.min-confidence:85}") int embeddingMinConfidence) {
+        this.llm = llm;
+        this.trainer = trainer;
+        this.ruleClassifier = ruleClassifier;
+        this.embedding = embedding;
+        this.observabilityService = observabilityService;
+        this.enabled = enabled;
+        this.minProbability = minConfidence / 100.0;
+        this.shadowSampleRate = shadowSampleRate;
+        this.rulesPrefilterEnabled = rulesPrefilterEnabled;
+        this.rulesMinConfidence = rulesMinConfidence;
+        this.embeddingMinConfidence = embeddingMinConfidence;
+        logger.info("Tiered classification ready: rulesPrefilter={}, fastPath={}, minConfidence={}, shadowSampleRate={}, "
+                        + "embedding={}", rulesPrefilterEnabled, enabled, minConfidence, shadowSampleRate,
+                embedding.isPresent());
+    }
+
+    @Override
+    public DocumentClassification classify(ExtractedContent content) {
+        return classifyAsync(content).join();
+    }
+
+    @Override
+    public DocumentClassification classify(String text) {
+        return classifyAsync(new ExtractedContent(text, 0, "text")).join();
+    }
+
+    @Override
+    public CompletableFuture<DocumentClassification> classifyAsync(ExtractedContent content) {
+        RuleBasedClassifier.RuleResult rules = null;
+        if (rulesPrefilterEnabled) {
+            rules = ruleClassifier.classify(content.getFullText());
+            if (rules.matched() && rules.confidence() >= rulesMinConfidence) {
+                observabilityService.recordFastPathDecision(DECISION_RULES, 0);
+                return CompletableFuture.completedFuture(toClassification(rules));
+            }
+        }
+
+        if (!enabled) {
+            return escalate(content, rules, () -> llm.classifyAsync(content));
+        }
+
+        Optional<NaiveBayesTextClassifier> model = trainer.currentModel();
+        if (model.isEmpty()) {
+            return escalate(content, rules, () -> {
+                observabilityService.recordFastPathDecision(DECISION_NO_MODEL, 0);
+                return llm.classifyAsync(content);
+            });
+        }
+
+        long startedAt = System.nanoTime();
+        NaiveBayesTextClassifier.Prediction prediction = model.get().predict(content.getFullText());
+        long predictNanos = System.nanoTime() - startedAt;
+
+        if (prediction.probability() < minProbability) {
+            return escalate(content, rules, () -> {
+                observabilityService.recordFastPathDecision(DECISION_ESCALATED, predictNanos);
+                logger.debug("Fast path escalated to LLM: {} ({})", prediction.label(), prediction.probability());
+                return llm.classifyAsync(content).whenComplete(
+                        (classification, error) -> recordAgreement(SOURCE_ESCALATED, prediction, classification));
+            });
+        }
+
+        observabilityService.recordFastPathDecision(DECISION_ACCEPTED, predictNanos);
+        if (shadowSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < shadowSampleRate
+                && llm.isAvailable()) {
+            llm.classifyAsync(content)
+                    .whenComplete((classification, error) -> recordAgreement(SOURCE_SHADOW, prediction, classification));
+        }
+        return CompletableFuture.completedFuture(toClassification(prediction));
+    }
+
+    /**
+     * Nível de embeddings (quando habilitado e com protótipos) e, se ele não
+     * decidir, o LLM; com o LLM fora do ar ou saturado, as regras
+     */
+    private CompletableFuture<DocumentClassification> escalate(
+            ExtractedContent content, RuleBasedClassifier.RuleResult rules,
+            Supplier<CompletableFuture<DocumentClassification>> toLlm) {
+        if (embedding.isEmpty() || !embedding.get().isAvailable()) {
+            return callLlm(content, rules, toLlm);
+        }
+        return embedding.get().classifyAsync(content).thenCompose(classification -> {
+            if (classification.getConfidence().getPercentage() >= embeddingMinConfidence) {
+                observabilityService.recordFastPathDecision(DECISION_EMBEDDING, 0);
+                return CompletableFuture.completedFuture(classification);
+            }
+            return callLlm(content, rules, toLlm);
+        });
+    }
+
+    private CompletableFuture<DocumentClassification> callLlm(
+            ExtractedContent content, RuleBasedClassifier.RuleResult rules,
+            Supplier<CompletableFuture<DocumentClassification>> toLlm) {
+        if (!llm.isAvailable()) {
+            return rulesFallback(content, rules, DECISION_LLM_DOWN);
+        }
+        return toLlm.get().exceptionallyCompose(error -> LlmHttpClient.isSaturation(error)
+                ? rulesFallback(content, rules, DECISION_LLM_BUSY)
+                : CompletableFuture.failedFuture(error));
+    }
+
+    /**
+     * LLM fora do ar ou saturado: resultado das regras (já calculado no pré-filtro, quando houver)
+     */
+    private CompletableFuture<DocumentClassification> rulesFallback(ExtractedContent content,
+                                                                    RuleBasedClassifier.RuleResult rules,
+                                                                    String decision) {
+        RuleBasedClassifier.RuleResult result = rules != null ? rules : ruleClassifier.classify(content.getFullText());
+        observabilityService.recordFastPathDecision(decision, 0);
+        logger.debug("LLM not called ({}), using rules fallback: {} ({})", decision, result.label(), result.confidence());
+        return CompletableFuture.completedFuture(toClassification(result));
+    }
+
+    private void recordAgreement(String source, NaiveBayesTextClassifier.Prediction prediction,
+                                 DocumentClassification llmClassification) {
+        // Respostas com confiança zero são erros do LLM, não uma opinião sobre o documento
+        if (llmClassification == null || llmClassification.getConfidence().getPercentage() == 0) {
+            return;
+        }
+        boolean agreed = prediction.label().equalsIgnoreCase(llmClassification.getLabel().getValue());
+        observabilityService.recordFastPathAgreement(source, agreed);
+    }
+
+    private DocumentClassification toClassification(RuleBasedClassifier.RuleResult rules) {
+        return new DocumentClassification(
+                ClassificationLabel.of(rules.label()), Confidence.of(rules.confidence()), RULES_MODEL);
+    }
+
+    private DocumentClassification toClassification(NaiveBayesTextClassifier.Prediction prediction) {
+        int confidence = (int) Math.floor(prediction.probability() * 100);
+        return new DocumentClassification(
+                ClassificationLabel.of(prediction.label()), Confidence.of(confidence), FAST_PATH_MODEL);
+    }
+
+    @Override
+    public String getModelName() {
+        return llm.getModelName();
+    }
+
+    @Override
+    public String getPromptVersion() {
+        return llm.getPromptVersion();
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return llm.isAvailable();
+    }
+}
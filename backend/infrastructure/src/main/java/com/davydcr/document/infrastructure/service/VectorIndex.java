@@ -0,0 +1,260 @@
+package com.davydcr.document.infrastructure.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+
+/**
+ * Índice em memória de vetores normalizados, em um único float[] contíguo.
+ *
+ * Cada entrada tem um id (documento) e um rótulo, que pode ser nulo: entradas
+ * sem rótulo entram na busca, mas não nos protótipos. A busca é exata (produto
+ * interno contra todos os vetores, que com vetores normalizados é a
+ * similaridade do cosseno): para dezenas de milhares de documentos é uma
+ * varredura sequencial de poucos milissegundos, sem estrutura aproximada a manter.
+ *
+ * O índice é montado por uma thread e depois publicado; a partir daí só é
+ * lido, e pode ser compartilhado entre threads.
+ */
+public final class VectorIndex {
+
+    private static final int UNLABELED = -1;
+
+    private final int dimension;
+    private float[] vectors;
+    private String[] ids;
+    private int[] labelOf;
+    private final List<String> labels = new ArrayList<>();
+    private final Map<String, Integer> labelIndex = new HashMap<>();
+    private final Map<String, Integer> rowOf = new HashMap<>();
+    private int size;
+
+    public VectorIndex(int dimension, int initialCapacity) {
+        if (dimension < 1) {
+            throw new IllegalArgumentException("dimension must be positive, got: " + dimension);
+        }
+        int capacity = Math.max(16, initialCapacity);
+        this.dimension = dimension;
+        this.vectors = new float[capacity * dimension];
+        this.ids = new String[capacity];
+        this.labelOf = new int[capacity];
+    }
+
+    /**
+     * Adiciona (ou substitui) o vetor de um documento; o vetor é copiado e normalizado.
+     * label nulo = documento sem rótulo confiável (só para busca)
+     */
+    public void add(String id, String label, float[] vector) {
+        checkDimension(vector, dimension);
+        Integer row = rowOf.get(id);
+        if (row == null) {
+            ensureCapacity(size + 1);
+            row = size++;
+            rowOf.put(id, row);
+            ids[row] = id;
+        }
+        labelOf[row] = label == null ? UNLABELED : labelIndex.computeIfAbsent(label, key -> {
+            labels.add(key);
+            return labels.size() - 1;
+        });
+        System.arraycopy(vector, 0, vectors, row * dimension, dimension);
+        normalize(vectors, row * dimension, dimension);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int dimension() {
+        return dimension;
+    }
+
+    public Optional<float[]> vector(String id) {
+        Integer row = rowOf.get(id);
+        if (row == null) {
+            return Optional.empty();
+        }
+        return Optional.of(Arrays.copyOfRange(vectors, row * dimension, (row + 1) * dimension));
+    }
+
+    /**
+     * Os k vizinhos mais similares ao vetor, do mais para o menos similar
+     *
+     * @param excludeId id ignorado na busca (ex: o próprio documento), ou null
+     */
+    public List<Neighbor> nearest(float[] query, int k, String excludeId) {
+        checkDimension(query, dimension);
+        float[] normalized = normalizedCopy(query);
+        PriorityQueue<Neighbor> top = new PriorityQueue<>((a, b) -> Double.compare(a.similarity(), b.similarity()));
+        for (int row = 0; row < size; row++) {
+            if (ids[row].equals(excludeId)) {
+                continue;
+            }
+            double similarity = dot(vectors, row * dimension, normalized, dimension);
+            if (top.size() < k) {
+                top.add(new Neighbor(ids[row], labelAt(row), similarity));
+            } else if (k > 0 && similarity > top.peek().similarity()) {
+                top.poll();
+                top.add(new Neighbor(ids[row], labelAt(row), similarity));
+            }
+        }
+        List<Neighbor> result = new ArrayList<>(top);
+        result.sort((a, b) -> Double.compare(b.similarity(), a.similarity()));
+        return result;
+    }
+
+    /**
+     * Protótipo (centroide normalizado) de cada rótulo com ao menos minSamples vetores
+     */
+    public Prototypes prototypes(int minSamples) {
+        int labelCount = labels.size();
+        double[][] sums = new double[labelCount][dimension];
+        int[] counts = new int[labelCount];
+        for (int row = 0; row < size; row++) {
+            int label = labelOf[row];
+            if (label == UNLABELED) {
+                continue;
+            }
+            counts[label]++;
+            int offset = row * dimension;
+            for (int d = 0; d < dimension; d++) {
+                sums[label][d] += vectors[offset + d];
+            }
+        }
+
+        Map<String, Integer> kept = new LinkedHashMap<>();
+        List<float[]> centroids = new ArrayList<>();
+        for (int label = 0; label < labelCount; label++) {
+            if (counts[label] < Math.max(1, minSamples)) {
+                continue;
+            }
+            float[] centroid = new float[dimension];
+            for (int d = 0; d < dimension; d++) {
+                centroid[d] = (float) (sums[label][d] / counts[label]);
+            }
+            normalize(centroid);
+            kept.put(labels.get(label), counts[label]);
+            centroids.add(centroid);
+        }
+
+        float[] packed = new float[centroids.size() * dimension];
+        for (int i = 0; i < centroids.size(); i++) {
+            System.arraycopy(centroids.get(i), 0, packed, i * dimension, dimension);
+        }
+        return new Prototypes(dimension, kept.keySet().toArray(new String[0]),
+                kept.values().stream().mapToInt(Integer::intValue).toArray(), packed);
+    }
+
+    private String labelAt(int row) {
+        return labelOf[row] == UNLABELED ? null : labels.get(labelOf[row]);
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(required, ids.length * 2);
+        vectors = Arrays.copyOf(vectors, capacity * dimension);
+        ids = Arrays.copyOf(ids, capacity);
+        labelOf = Arrays.copyOf(labelOf, capacity);
+    }
+
+    private static void checkDimension(float[] vector, int dimension) {
+        if (vector.length != dimension) {
+            throw new IllegalArgumentException("expected dimension " + dimension + ", got: " + vector.length);
+        }
+    }
+
+    /**
+     * Normaliza o vetor no lugar (norma L2 = 1); vetor nulo fica como está
+     */
+    static void normalize(float[] vector) {
+        normalize(vector, 0, vector.length);
+    }
+
+    private static void normalize(float[] data, int offset, int length) {
+        double norm = 0.0;
+        for (int i = offset; i < offset + length; i++) {
+            norm += (double) data[i] * data[i];
+        }
+        if (norm == 0.0) {
+            return;
+        }
+        float scale = (float) (1.0 / Math.sqrt(norm));
+        for (int i = offset; i < offset + length; i++) {
+            data[i] *= scale;
+        }
+    }
+
+    static float[] normalizedCopy(float[] vector) {
+        float[] copy = vector.clone();
+        normalize(copy);
+        return copy;
+    }
+
+    private static double dot(float[] data, int offset, float[] query, int length) {
+        double sum = 0.0;
+        for (int d = 0; d < length; d++) {
+            sum += data[offset + d] * query[d];
+        }
+        return sum;
+    }
+
+    /**
+     * Documento vizinho (rótulo nulo quando indexado sem rótulo) e sua similaridade do cosseno (-1 a 1)
+     */
+    public record Neighbor(String id, String label, double similarity) {
+    }
+
+    /**
+     * Protótipos por rótulo, imutáveis
+     */
+    public static final class Prototypes {
+
+        private final int dimension;
+        private final String[] labels;
+        private final int[] samples;
+        private final float[] centroids;
+
+        private Prototypes(int dimension, String[] labels, int[] samples, float[] centroids) {
+            this.dimension = dimension;
+            this.labels = labels;
+            this.samples = samples;
+            this.centroids = centroids;
+        }
+
+        /**
+         * Similaridade do vetor com cada protótipo, na ordem de {@link #getLabels()}
+         */
+        public double[] similarities(float[] query) {
+            checkDimension(query, dimension);
+            float[] normalized = normalizedCopy(query);
+            double[] similarities = new double[labels.length];
+            for (int i = 0; i < labels.length; i++) {
+                similarities[i] = dot(centroids, i * dimension, normalized, dimension);
+            }
+            return similarities;
+        }
+
+        public List<String> getLabels() {
+            return List.of(labels);
+        }
+
+        public int getSamples(int labelIndex) {
+            return samples[labelIndex];
+        }
+
+        public int dimension() {
+            return dimension;
+        }
+
+        public boolean isEmpty() {
+            return labels.length == 0;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Detecção de virtual threads presas à thread de plataforma (pinning).
+ *
+ * Uma virtual thread que bloqueia dentro de um bloco synchronized (ou de
+ * código nativo) não libera a thread carregadora, e o modo virtual dos
+ * executores perde o efeito. O evento jdk.VirtualThreadPinned do JFR é
+ * assinado por um {@link RecordingStream} e cada ocorrência acima de
+ * app.async.virtual.pinning.threshold-ms vira o timer executor.virtual.pinned,
+ * com o primeiro frame da aplicação (ou o do topo da pilha) como site. O
+ * primeiro pinning de cada site também sai no log com a pilha resumida.
+ */
+@Component
+@ConditionalOnProperty(
+    name = "app.async.executor.mode",
+    havingValue = "virtual",
+    matchIfMissing = false
+)
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String APPLICATION_PACKAGE = "com.davydcr.";
+    private static final int LOGGED_FRAMES = 8;
+
+    private final ObservabilityService observabilityService;
+    private final Duration threshold;
+    private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(
+            ObservabilityService observabilityService,
+            @Value("${app.async.virtual.pinning.threshold-ms:20}") long thresholdMs) {
+        this.observabilityService = observabilityService;
+        this.threshold = Duration.ofMillis(Math.max(0, thresholdMs));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (stream != null) {
+            return;
+        }
+        try {
+            RecordingStream recording = new RecordingStream();
+            recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+            recording.onEvent(PINNED_EVENT, this::onPinned);
+            recording.startAsync();
+            stream = recording;
+            logger.info("Virtual thread pinning monitor started: threshold={}ms", threshold.toMillis());
+        } catch (RuntimeException e) {
+            // JFR indisponível na JVM: o modo virtual segue funcionando, só sem a detecção
+            logger.warn("Virtual thread pinning monitor unavailable: {}", e.getMessage());
+        }
+    }
+
+    void onPinned(RecordedEvent event) {
+        String site = pinnedSite(event.getStackTrace());
+        observabilityService.recordVirtualThreadPinned(site, event.getDuration().toNanos());
+        if (reportedSites.add(site)) {
+            logger.warn("Virtual thread pinned for {}ms at {}:\n{}", event.getDuration().toMillis(), site,
+                    describe(event.getStackTrace()));
+        }
+    }
+
+    /**
+     * Classe e método do primeiro frame da aplicação na pilha; sem frame da
+     * aplicação, o do topo
+     */
+    static String pinnedSite(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "unknown";
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (frame.isJavaFrame() && frame.getMethod().getType().getName().startsWith(APPLICATION_PACKAGE)) {
+                return site(frame);
+            }
+        }
+        return site(stackTrace.getFrames().get(0));
+    }
+
+    private static String site(RecordedFrame frame) {
+        String type = frame.getMethod().getType().getName();
+        return type.substring(type.lastIndexOf('.') + 1) + "." + frame.getMethod().getName();
+    }
+
+    private static String describe(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "\t(no stack trace)";
+        }
+        StringBuilder description = new StringBuilder();
+        stackTrace.getFrames().stream().limit(LOGGED_FRAMES).forEach(frame -> description
+                .append("\tat ").append(frame.getMethod().getType().getName())
+                .append('.').append(frame.getMethod().getName())
+                .append(':').append(frame.getLineNumber()).append('\n'));
+        return description.toString();
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+}
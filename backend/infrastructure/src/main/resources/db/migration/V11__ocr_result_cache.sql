@@ -0,0 +1,17 @@
+-- Migration V11: Cache persistente de resultados de OCR
+-- Chave: SHA-256 do arquivo + versão da configuração de extração (engine/idiomas/limiares)
+
+CREATE TABLE IF NOT EXISTS ocr_result_cache (
+    id VARCHAR(36) PRIMARY KEY,
+    content_hash VARCHAR(64) NOT NULL,
+    extraction_version VARCHAR(255) NOT NULL,
+    ocr_engine VARCHAR(255) NOT NULL,
+    page_count INT NOT NULL,
+    full_text TEXT NOT NULL,
+    pages_json TEXT,
+    size_bytes BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_ocr_result_cache_hash_version UNIQUE (content_hash, extraction_version)
+);
+
+CREATE INDEX idx_ocr_result_cache_created_at ON ocr_result_cache(created_at);
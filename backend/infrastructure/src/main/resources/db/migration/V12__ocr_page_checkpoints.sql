@@ -0,0 +1,15 @@
+-- Migration V12: Checkpoints de OCR por página
+-- Páginas concluídas de documentos longos ficam salvas enquanto o OCR do
+-- restante continua; uma nova execução do mesmo conteúdo retoma de onde parou.
+-- Removidos quando o documento inteiro termina (o resultado vai para ocr_result_cache).
+
+CREATE TABLE IF NOT EXISTS ocr_page_checkpoints (
+    id VARCHAR(36) PRIMARY KEY,
+    content_hash VARCHAR(64) NOT NULL,
+    extraction_version VARCHAR(255) NOT NULL,
+    page_number INT NOT NULL,
+    page_text TEXT NOT NULL,
+    engine VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_ocr_page_checkpoints_page UNIQUE (content_hash, extraction_version, page_number)
+);
@@ -0,0 +1,4 @@
+-- Migration V13: Confiança do OCR por página
+-- Confiança média (0-100) do Tesseract nas páginas com OCR; nula para texto nativo.
+
+ALTER TABLE ocr_page_checkpoints ADD COLUMN IF NOT EXISTS confidence DOUBLE PRECISION;
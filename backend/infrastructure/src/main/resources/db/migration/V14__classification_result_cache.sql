@@ -0,0 +1,18 @@
+-- Migration V14: Cache persistente de classificações
+-- Chave: fingerprint (SHA-256) do texto normalizado + modelo + versão do prompt.
+-- Entradas expiram em expires_at; as de outros modelos/prompts são removidas na limpeza periódica.
+
+CREATE TABLE IF NOT EXISTS classification_result_cache (
+    id VARCHAR(36) PRIMARY KEY,
+    fingerprint VARCHAR(64) NOT NULL,
+    model_name VARCHAR(255) NOT NULL,
+    prompt_version VARCHAR(64) NOT NULL,
+    label VARCHAR(100) NOT NULL,
+    confidence INT NOT NULL,
+    generation_ms BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL,
+    CONSTRAINT uk_classification_cache_key UNIQUE (fingerprint, model_name, prompt_version)
+);
+
+CREATE INDEX idx_classification_cache_expires_at ON classification_result_cache(expires_at);
@@ -0,0 +1,7 @@
+-- Migration V15: Modelo que produziu a classificação do documento
+-- Permite treinar o classificador estatístico apenas com rótulos gerados pelo LLM
+-- (e não com as próprias previsões do caminho rápido).
+
+ALTER TABLE documents ADD COLUMN IF NOT EXISTS classification_model VARCHAR(255);
+
+CREATE INDEX IF NOT EXISTS idx_documents_classification_model ON documents(classification_model);
@@ -0,0 +1,15 @@
+-- Migration V16: Embeddings dos documentos classificados
+-- Um vetor por (documento, modelo de embeddings), em float32 little-endian.
+-- Base do classificador por protótipos e da busca de documentos similares.
+
+CREATE TABLE IF NOT EXISTS document_embeddings (
+    id VARCHAR(36) PRIMARY KEY,
+    document_id VARCHAR(36) NOT NULL REFERENCES documents(id) ON DELETE CASCADE,
+    model_name VARCHAR(255) NOT NULL,
+    dimension INT NOT NULL,
+    vector BYTEA NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_document_embeddings_document_model UNIQUE (document_id, model_name)
+);
+
+CREATE INDEX idx_document_embeddings_model_name ON document_embeddings(model_name);
@@ -0,0 +1,14 @@
+-- Migration V17: Resultado intermediário do pipeline em filas
+-- Conteúdo extraído pela etapa de OCR, lido pela etapa de classificação e
+-- removido quando o documento é concluído.
+
+CREATE TABLE IF NOT EXISTS document_extractions (
+    document_id VARCHAR(36) PRIMARY KEY REFERENCES documents(id) ON DELETE CASCADE,
+    ocr_engine VARCHAR(255) NOT NULL,
+    page_count INT NOT NULL,
+    full_text TEXT NOT NULL,
+    pages_json TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_document_extractions_created_at ON document_extractions(created_at);
@@ -0,0 +1,23 @@
+-- Migration V18: Fila de processamento durável no banco (modo sem RabbitMQ)
+-- Um job por documento; os nós reservam lotes com FOR UPDATE SKIP LOCKED e
+-- mantêm o lease com heartbeat. Lease vencido devolve o job para a fila.
+
+CREATE TABLE IF NOT EXISTS processing_jobs (
+    document_id VARCHAR(36) PRIMARY KEY REFERENCES documents(id) ON DELETE CASCADE,
+    file_name VARCHAR(255) NOT NULL,
+    file_path VARCHAR(1024) NOT NULL,
+    file_type VARCHAR(20) NOT NULL,
+    content_hash VARCHAR(64),
+    user_id VARCHAR(255),
+    status VARCHAR(20) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    lease_owner VARCHAR(100),
+    lease_expires_at TIMESTAMP,
+    available_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_processing_jobs_status_available ON processing_jobs(status, available_at);
+CREATE INDEX idx_processing_jobs_lease_expires ON processing_jobs(lease_expires_at);
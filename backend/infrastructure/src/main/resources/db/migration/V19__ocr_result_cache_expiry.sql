@@ -0,0 +1,11 @@
+-- Migration V19: Expiração do cache persistente de OCR
+-- Entradas expiram em expires_at; as de outras versões da extração (revisão, idiomas, limiares)
+-- nunca mais são lidas e são removidas junto na limpeza periódica.
+
+ALTER TABLE ocr_result_cache ADD COLUMN IF NOT EXISTS expires_at TIMESTAMP;
+
+UPDATE ocr_result_cache SET expires_at = created_at + INTERVAL '30 days' WHERE expires_at IS NULL;
+
+ALTER TABLE ocr_result_cache ALTER COLUMN expires_at SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_ocr_result_cache_expires_at ON ocr_result_cache(expires_at);
@@ -0,0 +1,88 @@
+package com.davydcr.document.infrastructure.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para o executor de virtual threads limitado por semáforo
+ */
+@DisplayName("Bounded Virtual Thread Executor Tests")
+public class BoundedVirtualThreadExecutorTest {
+
+    @Test
+    @DisplayName("Deve rodar as tarefas em virtual threads sem passar do limite de concorrência")
+    public void testShouldBoundConcurrency() throws Exception {
+        BoundedVirtualThreadExecutor executor = new BoundedVirtualThreadExecutor("test", 2, 10, () -> { });
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(6);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicInteger virtual = new AtomicInteger();
+
+        for (int i = 0; i < 6; i++) {
+            executor.execute(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                if (Thread.currentThread().isVirtual()) {
+                    virtual.incrementAndGet();
+                }
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+
+        waitUntil(() -> executor.active() == 2 && executor.waiting() == 4);
+        release.countDown();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(2, maxRunning.get());
+        assertEquals(6, virtual.get());
+        waitUntil(() -> executor.active() == 0 && executor.waiting() == 0);
+    }
+
+    @Test
+    @DisplayName("Deve recusar tarefas quando a espera pelo semáforo está cheia")
+    public void testShouldRejectWhenSaturated() throws Exception {
+        AtomicInteger rejected = new AtomicInteger();
+        BoundedVirtualThreadExecutor executor = new BoundedVirtualThreadExecutor("test", 1, 1,
+                rejected::incrementAndGet);
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable blocking = () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        executor.execute(blocking);
+        executor.execute(blocking);
+
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(blocking));
+        assertEquals(1, rejected.get());
+
+        release.countDown();
+        waitUntil(() -> executor.active() == 0);
+        executor.execute(() -> { });
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not reached in time");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.davydcr.document.infrastructure.config;
+
+import com.davydcr.document.application.port.ClassificationService;
+import com.davydcr.document.application.usecase.ClassifyDocumentUseCase;
+import com.davydcr.document.application.usecase.ProcessDocumentUseCase;
+import com.davydcr.document.infrastructure.service.CachingClassificationService;
+import com.davydcr.document.infrastructure.service.TieredClassificationService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sobe o contexto com o cache de classificação desligado e LLM e embeddings
+ * ligados: com vários beans de ClassificationService, o injetado sem
+ * qualifier deve ser o backend configurado.
+ */
+@SpringBootTest(properties = {
+    "app.classification.cache.enabled=false",
+    "app.classification.llm-enabled=true",
+    "app.classification.embedding.enabled=true"
+})
+@ActiveProfiles("test")
+@DisplayName("Classification Service Wiring Tests")
+class ClassificationServiceWiringTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private ClassificationService classificationService;
+
+    @Test
+    @DisplayName("Deve injetar o backend de classificação quando o cache está desligado")
+    void testShouldInjectBackendWhenCacheIsDisabled() {
+        assertInstanceOf(TieredClassificationService.class, classificationService);
+        assertTrue(context.getBeansOfType(CachingClassificationService.class).isEmpty());
+        assertNotNull(context.getBean(ProcessDocumentUseCase.class));
+        assertNotNull(context.getBean(ClassifyDocumentUseCase.class));
+    }
+}
@@ -0,0 +1,49 @@
+package com.davydcr.document.infrastructure.event;
+
+import com.davydcr.document.application.port.ProcessingProgressPublisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes para a publicação de progresso via WebSocket
+ */
+@DisplayName("WebSocket Processing Progress Publisher Tests")
+public class WebSocketProcessingProgressPublisherTest {
+
+    private DocumentWebSocketService webSocketService;
+    private WebSocketProcessingProgressPublisher publisher;
+
+    @BeforeEach
+    public void setup() {
+        webSocketService = mock(DocumentWebSocketService.class);
+        publisher = new WebSocketProcessingProgressPublisher(webSocketService);
+    }
+
+    @Test
+    @DisplayName("Deve enviar páginas concluídas e percentual proporcional durante o OCR")
+    public void testShouldSendPageProgressDuringOcr() {
+        publisher.publishProgress("doc-1", ProcessingProgressPublisher.PHASE_OCR, 100, 200);
+
+        verify(webSocketService).sendPageProgress("doc-1", 45, "OCR", 100, 200);
+    }
+
+    @Test
+    @DisplayName("Deve enviar 100% ao concluir")
+    public void testShouldSendCompletion() {
+        publisher.publishProgress("doc-1", ProcessingProgressPublisher.PHASE_COMPLETED, 1, 1);
+
+        verify(webSocketService).sendProcessingProgress("doc-1", 100, "COMPLETED");
+    }
+
+    @Test
+    @DisplayName("Deve limitar o percentual do OCR ao intervalo da fase")
+    public void testShouldBoundOcrPercent() {
+        assertEquals(5, WebSocketProcessingProgressPublisher.ocrPercent(0, 10));
+        assertEquals(85, WebSocketProcessingProgressPublisher.ocrPercent(10, 10));
+        assertEquals(85, WebSocketProcessingProgressPublisher.ocrPercent(12, 10));
+    }
+}
@@ -0,0 +1,72 @@
+package com.davydcr.document.infrastructure.observability;
+
+import com.davydcr.document.application.port.ClassificationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes para o health indicator da plataforma
+ */
+@DisplayName("Document Platform Health Indicator Tests")
+public class DocumentPlatformHealthIndicatorTest {
+
+    private static final String UPLOAD_DIR_PROPERTY = "app.document.upload-dir";
+
+    @TempDir
+    Path uploadDir;
+
+    private String previousUploadDir;
+    private ClassificationService classificationService;
+    private DocumentPlatformHealthIndicator indicator;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        previousUploadDir = System.getProperty(UPLOAD_DIR_PROPERTY);
+        System.setProperty(UPLOAD_DIR_PROPERTY, uploadDir.toString());
+        classificationService = mock(ClassificationService.class);
+        indicator = new DocumentPlatformHealthIndicator(classificationService, mock(ObjectProvider.class));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (previousUploadDir == null) {
+            System.clearProperty(UPLOAD_DIR_PROPERTY);
+        } else {
+            System.setProperty(UPLOAD_DIR_PROPERTY, previousUploadDir);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve reportar UP com o classificador operacional")
+    public void testShouldBeUpWhenClassifierIsAvailable() {
+        when(classificationService.isAvailable()).thenReturn(true);
+
+        Health health = indicator.health();
+
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals("Operational", health.getDetails().get("classificationService"));
+    }
+
+    @Test
+    @DisplayName("Deve continuar UP com o LLM fora do ar, indicando a degradação nos detalhes")
+    public void testShouldStayUpWhenLlmIsDown() {
+        when(classificationService.isAvailable()).thenReturn(false);
+
+        Health health = indicator.health();
+
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals("Degraded (LLM unavailable, using rules)", health.getDetails().get("classificationService"));
+    }
+}
@@ -0,0 +1,170 @@
+package com.davydcr.document.infrastructure.persistence.repository;
+
+import com.davydcr.document.infrastructure.persistence.entity.ProcessingJobEntity;
+import com.davydcr.document.infrastructure.service.DocumentJobQueue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes de integração da reserva de jobs com FOR UPDATE SKIP LOCKED.
+ * Usa Testcontainers com PostgreSQL real (o H2 não implementa SKIP LOCKED);
+ * sem Docker os testes são ignorados.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+@DisplayName("Processing Job Repository Integration Tests")
+class ProcessingJobJpaRepositoryIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+        .withDatabaseName("test_document_ai")
+        .withUsername("test_user")
+        .withPassword("test_password");
+
+    @DynamicPropertySource
+    static void configureTestDatabase(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.flyway.enabled", () -> "false");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+    }
+
+    @Autowired
+    private ProcessingJobJpaRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setup() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        repository.deleteAll();
+    }
+
+    private void savePendingJobs(int count) {
+        LocalDateTime availableAt = LocalDateTime.now().minusMinutes(1);
+        repository.saveAll(IntStream.range(0, count).mapToObj(i -> {
+            ProcessingJobEntity job = new ProcessingJobEntity();
+            job.setDocumentId(String.format("00000000-0000-0000-0000-%012d", i));
+            job.setFileName("doc-" + i + ".pdf");
+            job.setFilePath("/data/uploads/doc-" + i + ".pdf");
+            job.setFileType("PDF");
+            job.setAvailableAt(availableAt);
+            return job;
+        }).toList());
+    }
+
+    private static Set<String> ids(List<ProcessingJobEntity> jobs) {
+        Set<String> ids = new HashSet<>();
+        jobs.forEach(job -> ids.add(job.getDocumentId()));
+        return ids;
+    }
+
+    @Test
+    @DisplayName("Deve entregar lotes disjuntos a dois nós com transações abertas ao mesmo tempo")
+    void testShouldLockDisjointBatchesConcurrently() throws Exception {
+        savePendingJobs(10);
+        CountDownLatch firstLocked = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+
+        // Primeiro nó trava 6 jobs e segura a transação aberta
+        Future<List<ProcessingJobEntity>> first = executor.submit(() -> transactionTemplate.execute(status -> {
+            List<ProcessingJobEntity> locked = repository.lockClaimable(LocalDateTime.now(), 6);
+            firstLocked.countDown();
+            try {
+                releaseFirst.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return locked;
+        }));
+        assertTrue(firstLocked.await(30, TimeUnit.SECONDS));
+
+        // Segundo nó não espera pelos travados: recebe só o que sobrou
+        Future<List<ProcessingJobEntity>> second = executor.submit(() -> transactionTemplate.execute(
+                status -> repository.lockClaimable(LocalDateTime.now(), 6)));
+        List<ProcessingJobEntity> secondBatch = second.get(10, TimeUnit.SECONDS);
+        releaseFirst.countDown();
+        List<ProcessingJobEntity> firstBatch = first.get(10, TimeUnit.SECONDS);
+
+        assertEquals(6, firstBatch.size());
+        assertEquals(4, secondBatch.size());
+        Set<String> all = ids(firstBatch);
+        all.addAll(ids(secondBatch));
+        assertEquals(10, all.size());
+    }
+
+    @Test
+    @DisplayName("Deve reservar cada job para um único nó quando dois nós disputam a fila")
+    void testShouldClaimEachJobOnceAcrossNodes() throws Exception {
+        savePendingJobs(40);
+        CyclicBarrier start = new CyclicBarrier(2);
+        List<Future<List<ProcessingJobEntity>>> claimers = new ArrayList<>();
+        for (int node = 0; node < 2; node++) {
+            DocumentJobQueue queue = new DocumentJobQueue(repository, 60000);
+            claimers.add(executor.submit(() -> {
+                start.await(10, TimeUnit.SECONDS);
+                List<ProcessingJobEntity> claimed = new ArrayList<>();
+                List<ProcessingJobEntity> batch;
+                do {
+                    batch = transactionTemplate.execute(status -> queue.claim(3));
+                    claimed.addAll(batch);
+                } while (!batch.isEmpty());
+                return claimed;
+            }));
+        }
+
+        List<ProcessingJobEntity> firstNode = claimers.get(0).get(30, TimeUnit.SECONDS);
+        List<ProcessingJobEntity> secondNode = claimers.get(1).get(30, TimeUnit.SECONDS);
+
+        Set<String> all = ids(firstNode);
+        all.addAll(ids(secondNode));
+        assertEquals(40, firstNode.size() + secondNode.size());
+        assertEquals(40, all.size());
+        for (ProcessingJobEntity job : repository.findAll()) {
+            assertEquals(ProcessingJobEntity.STATUS_RUNNING, job.getStatus());
+            assertEquals(1, job.getAttempts());
+        }
+    }
+}
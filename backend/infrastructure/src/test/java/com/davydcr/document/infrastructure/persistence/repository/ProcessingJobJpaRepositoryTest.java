@@ -0,0 +1,172 @@
+package com.davydcr.document.infrastructure.persistence.repository;
+
+import com.davydcr.document.infrastructure.persistence.entity.ProcessingJobEntity;
+import com.davydcr.document.infrastructure.service.DocumentJobQueue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes da reserva, do lease e do heartbeat da fila de jobs sobre H2 em modo
+ * PostgreSQL (que também aceita FOR UPDATE SKIP LOCKED), no build normal. A
+ * disputa entre nós com contagem exata roda contra PostgreSQL real no
+ * {@link ProcessingJobJpaRepositoryIntegrationTest} (etapa própria do CI).
+ */
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:processing_jobs;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DisplayName("Processing Job Repository Tests")
+class ProcessingJobJpaRepositoryTest {
+
+    @Autowired
+    private ProcessingJobJpaRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setup() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        repository.deleteAll();
+    }
+
+    private void savePendingJobs(int count) {
+        LocalDateTime availableAt = LocalDateTime.now().minusMinutes(1);
+        repository.saveAll(IntStream.range(0, count).mapToObj(i -> {
+            ProcessingJobEntity job = new ProcessingJobEntity();
+            job.setDocumentId(String.format("00000000-0000-0000-0000-%012d", i));
+            job.setFileName("doc-" + i + ".pdf");
+            job.setFilePath("/data/uploads/doc-" + i + ".pdf");
+            job.setFileType("PDF");
+            job.setAvailableAt(availableAt);
+            return job;
+        }).toList());
+    }
+
+    private List<ProcessingJobEntity> claim(DocumentJobQueue queue, int limit) {
+        return transactionTemplate.execute(status -> queue.claim(limit));
+    }
+
+    private int heartbeat(DocumentJobQueue queue, Set<String> documentIds) {
+        Integer renewed = transactionTemplate.execute(status -> queue.heartbeat(documentIds));
+        return renewed != null ? renewed : 0;
+    }
+
+    private static Set<String> ids(List<ProcessingJobEntity> jobs) {
+        Set<String> ids = new HashSet<>();
+        jobs.forEach(job -> ids.add(job.getDocumentId()));
+        return ids;
+    }
+
+    @Test
+    @DisplayName("Deve pular os jobs travados por outra transação em vez de esperar")
+    void testShouldSkipLockedJobs() throws Exception {
+        savePendingJobs(10);
+        CountDownLatch firstLocked = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+
+        Future<List<ProcessingJobEntity>> first = executor.submit(() -> transactionTemplate.execute(status -> {
+            List<ProcessingJobEntity> locked = repository.lockClaimable(LocalDateTime.now(), 6);
+            firstLocked.countDown();
+            try {
+                releaseFirst.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return locked;
+        }));
+        assertTrue(firstLocked.await(30, TimeUnit.SECONDS));
+
+        // Segundo nó não espera pelos travados. Quantos sobram para ele depende do banco
+        // (com ORDER BY o H2 não continua a varredura depois das travadas, o PostgreSQL
+        // sim); a contagem exata fica no teste de integração
+        Future<List<ProcessingJobEntity>> second = executor.submit(() -> transactionTemplate.execute(
+                status -> repository.lockClaimable(LocalDateTime.now(), 6)));
+        List<ProcessingJobEntity> secondBatch = second.get(10, TimeUnit.SECONDS);
+        releaseFirst.countDown();
+        List<ProcessingJobEntity> firstBatch = first.get(10, TimeUnit.SECONDS);
+
+        assertEquals(6, firstBatch.size());
+        Set<String> overlap = ids(firstBatch);
+        overlap.retainAll(ids(secondBatch));
+        assertTrue(overlap.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve renovar e concluir apenas os jobs com lease do próprio nó")
+    void testShouldRenewAndCompleteOnlyOwnedJobs() {
+        savePendingJobs(2);
+        DocumentJobQueue owner = new DocumentJobQueue(repository, 60000);
+        DocumentJobQueue other = new DocumentJobQueue(repository, 60000);
+
+        List<ProcessingJobEntity> claimed = claim(owner, 5);
+        assertEquals(2, claimed.size());
+        assertTrue(claim(other, 5).isEmpty());
+
+        Set<String> documentIds = ids(claimed);
+        assertEquals(2, heartbeat(owner, documentIds));
+        assertEquals(0, heartbeat(other, documentIds));
+
+        String documentId = claimed.get(0).getDocumentId();
+        transactionTemplate.executeWithoutResult(status -> other.complete(documentId));
+        assertTrue(repository.existsById(documentId));
+        transactionTemplate.executeWithoutResult(status -> owner.complete(documentId));
+        assertFalse(repository.existsById(documentId));
+    }
+
+    @Test
+    @DisplayName("Deve devolver para a fila o job com lease vencido")
+    void testShouldReclaimExpiredLease() {
+        savePendingJobs(1);
+        DocumentJobQueue crashed = new DocumentJobQueue(repository, 60000);
+        DocumentJobQueue survivor = new DocumentJobQueue(repository, 60000);
+        String documentId = claim(crashed, 1).get(0).getDocumentId();
+
+        ProcessingJobEntity job = repository.findById(documentId).orElseThrow();
+        job.setLeaseExpiresAt(LocalDateTime.now().minusSeconds(1));
+        repository.save(job);
+
+        List<ProcessingJobEntity> reclaimed = claim(survivor, 1);
+        assertEquals(1, reclaimed.size());
+        assertEquals(survivor.getNodeId(), reclaimed.get(0).getLeaseOwner());
+        assertEquals(2, reclaimed.get(0).getAttempts());
+        assertEquals(0, heartbeat(crashed, Set.of(documentId)));
+    }
+}
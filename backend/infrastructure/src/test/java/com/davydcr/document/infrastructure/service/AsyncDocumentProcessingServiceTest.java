@@ -0,0 +1,95 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.application.dto.ProcessDocumentInput;
+import com.davydcr.document.application.dto.ProcessDocumentOutput;
+import com.davydcr.document.application.port.DocumentRepository;
+import com.davydcr.document.application.usecase.ProcessDocumentUseCase;
+import com.davydcr.document.domain.model.DocumentId;
+import com.davydcr.document.infrastructure.exception.ServiceOverloadedException;
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes para o processamento no executor local com a fila cheia (AbortPolicy)
+ */
+@DisplayName("Async Document Processing Service Tests")
+public class AsyncDocumentProcessingServiceTest {
+
+    private static final String DOCUMENT_ID = "3f2b8c1e-9a4d-4e5f-8b6a-1c2d3e4f5a6b";
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProcessDocumentUseCase useCase;
+    private DocumentRepository documentRepository;
+    private DocumentNotificationService notificationService;
+    private DocumentAdmissionService admissionService;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        useCase = mock(ProcessDocumentUseCase.class);
+        documentRepository = mock(DocumentRepository.class);
+        notificationService = mock(DocumentNotificationService.class);
+        admissionService = new DocumentAdmissionService(Runnable::run, mock(PdfPageOcrExecutor.class),
+                mock(ProcessingCircuitBreakerService.class), new ObservabilityService(meterRegistry),
+                true, 100, 200, 150, 15, 60);
+    }
+
+    @SuppressWarnings("unchecked")
+    private AsyncDocumentProcessingService service(Executor executor) {
+        return new AsyncDocumentProcessingService(useCase, documentRepository, notificationService,
+                mock(ProcessingCircuitBreakerService.class), executor, mock(ObjectProvider.class),
+                mock(ObjectProvider.class), mock(TransactionTemplate.class), admissionService);
+    }
+
+    private ProcessDocumentInput input() {
+        return new ProcessDocumentInput(DOCUMENT_ID, "/data/uploads/doc.pdf", "PDF", "abc123");
+    }
+
+    @Test
+    @DisplayName("Deve recusar com 503 quando o executor está cheio, sem rodar o OCR na thread chamadora")
+    public void testShouldRejectWhenExecutorIsFull() {
+        Executor full = task -> {
+            throw new RejectedExecutionException("queue full");
+        };
+
+        ServiceOverloadedException rejection = assertThrows(ServiceOverloadedException.class,
+                () -> service(full).processDocumentAsync(input(), "doc.pdf", "user-1"));
+
+        assertEquals(DocumentAdmissionService.REASON_EXECUTOR_FULL, rejection.getReason());
+        assertEquals(15, rejection.getRetryAfterSeconds());
+        verify(useCase, never()).executeWithDocumentCreationAsync(any(), anyString(), any());
+    }
+
+    @Test
+    @DisplayName("Deve marcar o documento como falha quando a persistência do resultado é recusada")
+    public void testShouldFailDocumentWhenContinuationIsRejected() {
+        when(useCase.executeWithDocumentCreationAsync(any(), anyString(), any()))
+                .thenReturn(CompletableFuture.failedFuture(
+                        new CompletionException(new RejectedExecutionException("queue full"))));
+        when(documentRepository.findById(any(DocumentId.class))).thenReturn(Optional.empty());
+
+        CompletableFuture<ProcessDocumentOutput> result = service(Runnable::run)
+                .processDocumentAsync(input(), "doc.pdf", "user-1");
+
+        assertTrue(result.isCompletedExceptionally());
+        verify(documentRepository).findById(any(DocumentId.class));
+        verify(notificationService).notifyFailure(eq(DOCUMENT_ID), anyString());
+    }
+}
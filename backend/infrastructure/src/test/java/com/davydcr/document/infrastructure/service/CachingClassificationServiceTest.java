@@ -0,0 +1,273 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.application.port.ClassificationService;
+import com.davydcr.document.domain.model.ClassificationLabel;
+import com.davydcr.document.domain.model.Confidence;
+import com.davydcr.document.domain.model.DocumentClassification;
+import com.davydcr.document.domain.model.ExtractedContent;
+import com.davydcr.document.domain.model.PageContent;
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import com.davydcr.document.infrastructure.persistence.entity.ClassificationResultCacheEntity;
+import com.davydcr.document.infrastructure.persistence.repository.ClassificationResultCacheJpaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes para o decorator de cache de classificações
+ */
+@DisplayName("Caching Classification Service Tests")
+public class CachingClassificationServiceTest {
+
+    private static final String TEXT = "NOTA FISCAL  nº 123\nFornecedor ACME\tTotal R$ 150,00";
+    private static final PromptTextSampler SAMPLER = new PromptTextSampler(192, 0.4, 0.2);
+
+    private SimpleMeterRegistry meterRegistry;
+    private ClassificationResultCacheJpaRepository repository;
+    private MutableClock clock;
+    private ClassificationService backend;
+    private ClassificationResultCache cache;
+    private ObservabilityService observabilityService;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        repository = mock(ClassificationResultCacheJpaRepository.class);
+        when(repository.findByFingerprintAndModelNameAndPromptVersion(anyString(), anyString(), anyString()))
+                .thenReturn(Optional.empty());
+        clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+        observabilityService = new ObservabilityService(meterRegistry);
+        cache = new ClassificationResultCache(16, Duration.ofHours(1), true, repository,
+                observabilityService, clock);
+
+        backend = mock(ClassificationService.class);
+        when(backend.getModelName()).thenReturn("ollama-mistral");
+        when(backend.getPromptVersion()).thenReturn("1");
+        when(backend.isCacheable()).thenReturn(true);
+        when(backend.classify(anyString())).thenReturn(classification("Invoice", 92));
+    }
+
+    private DocumentClassification classification(String label, int confidence) {
+        return new DocumentClassification(ClassificationLabel.of(label), Confidence.of(confidence), "ollama-mistral");
+    }
+
+    @Test
+    @DisplayName("Deve responder textos equivalentes após normalização sem chamar o LLM")
+    public void testShouldServeNormalizedTextFromCache() {
+        CachingClassificationService service = new CachingClassificationService(backend, cache, SAMPLER, observabilityService);
+
+        DocumentClassification first = service.classify(TEXT);
+        DocumentClassification second = service.classify("  nota fiscal nº 123 fornecedor acme total r$ 150,00 ");
+
+        assertEquals("Invoice", second.getLabel().getValue());
+        assertEquals(first.getConfidence(), second.getConfidence());
+        verify(backend, times(1)).classify(anyString());
+        verify(repository).save(any(ClassificationResultCacheEntity.class));
+        assertEquals(1.0, meterRegistry.counter("document.classification.cache.hits", "tier", "memory").count());
+        assertEquals(0.5, meterRegistry.get("document.classification.cache.hit_ratio").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Deve ignorar entradas de outro modelo")
+    public void testShouldMissWhenModelChanges() {
+        new CachingClassificationService(backend, cache, SAMPLER, observabilityService).classify(TEXT);
+
+        when(backend.getModelName()).thenReturn("ollama-llama3");
+        new CachingClassificationService(backend, cache, SAMPLER, observabilityService).classify(TEXT);
+
+        verify(backend, times(2)).classify(anyString());
+    }
+
+    @Test
+    @DisplayName("Deve expirar entradas após o TTL")
+    public void testShouldExpireEntriesAfterTtl() {
+        CachingClassificationService service = new CachingClassificationService(backend, cache, SAMPLER, observabilityService);
+        service.classify(TEXT);
+
+        clock.advance(Duration.ofMinutes(61));
+        service.classify(TEXT);
+
+        verify(backend, times(2)).classify(anyString());
+    }
+
+    @Test
+    @DisplayName("Não deve armazenar classificações com confiança zero")
+    public void testShouldNotCacheFailedClassifications() {
+        when(backend.classify(anyString())).thenReturn(classification("Unknown", 0));
+        CachingClassificationService service = new CachingClassificationService(backend, cache, SAMPLER, observabilityService);
+
+        service.classify(TEXT);
+        service.classify(TEXT);
+
+        verify(backend, times(2)).classify(anyString());
+        verify(repository, never()).save(any());
+        assertEquals(0, cache.getMemoryEntryCount());
+    }
+
+    @Test
+    @DisplayName("Deve promover hits do banco e contabilizar o tempo de LLM economizado")
+    public void testShouldPromoteDatabaseHit() {
+        ClassificationResultCacheEntity entity = new ClassificationResultCacheEntity();
+        entity.setLabel("Contract");
+        entity.setConfidence(88);
+        entity.setModelName("ollama-mistral");
+        entity.setGenerationMs(2500L);
+        entity.setExpiresAt(LocalDateTime.ofInstant(clock.instant().plusSeconds(600), ZoneOffset.UTC));
+        when(repository.findByFingerprintAndModelNameAndPromptVersion(
+                ClassificationResultCache.fingerprint(TEXT), "ollama-mistral", "1")).thenReturn(Optional.of(entity));
+        CachingClassificationService service = new CachingClassificationService(backend, cache, SAMPLER, observabilityService);
+
+        DocumentClassification result = service.classifyAsync(new ExtractedContent(TEXT, 1, "tesseract")).join();
+
+        assertEquals("Contract", result.getLabel().getValue());
+        verify(backend, never()).classifyAsync(any());
+        assertEquals(1, cache.getMemoryEntryCount());
+        assertEquals(2.5, meterRegistry.counter("document.classification.cache.llm_seconds_saved").count());
+    }
+
+    @Test
+    @DisplayName("Deve armazenar o resultado da classificação assíncrona")
+    public void testShouldCacheAsyncResult() {
+        when(backend.classifyAsync(any())).thenReturn(CompletableFuture.completedFuture(classification("Receipt", 80)));
+        CachingClassificationService service = new CachingClassificationService(backend, cache, SAMPLER, observabilityService);
+        ExtractedContent content = new ExtractedContent(TEXT, 1, "tesseract");
+
+        service.classifyAsync(content).join();
+        DocumentClassification cached = service.classifyAsync(content).join();
+
+        assertEquals("Receipt", cached.getLabel().getValue());
+        verify(backend, times(1)).classifyAsync(any());
+    }
+
+    @Test
+    @DisplayName("Deve compartilhar uma única chamada ao backend entre classificações concorrentes do mesmo texto")
+    public void testShouldCoalesceConcurrentMisses() {
+        CompletableFuture<DocumentClassification> pending = new CompletableFuture<>();
+        when(backend.classifyAsync(any())).thenReturn(pending);
+        CachingClassificationService service = new CachingClassificationService(backend, cache, SAMPLER, observabilityService);
+
+        CompletableFuture<DocumentClassification> first = service.classifyAsync(new ExtractedContent(TEXT, 1, "tesseract"));
+        CompletableFuture<DocumentClassification> second = service.classifyAsync(new ExtractedContent(TEXT, 1, "tesseract"));
+        pending.complete(classification("Invoice", 92));
+
+        assertEquals("Invoice", first.join().getLabel().getValue());
+        assertEquals("Invoice", second.join().getLabel().getValue());
+        verify(backend, times(1)).classifyAsync(any());
+        assertEquals(1.0, meterRegistry.counter("document.singleflight.calls",
+                "operation", "classification", "result", "coalesced").count());
+    }
+
+    @Test
+    @DisplayName("Deve repassar o conteúdo com páginas ao backend na classificação síncrona")
+    public void testShouldDelegateExtractedContent() {
+        ExtractedContent content = contract("o contrato vigora pelo prazo de doze meses.");
+        when(backend.classify(any(ExtractedContent.class))).thenReturn(classification("Contract", 90));
+        CachingClassificationService service = new CachingClassificationService(backend, cache, SAMPLER, observabilityService);
+
+        DocumentClassification result = service.classify(content);
+
+        assertEquals("Contract", result.getLabel().getValue());
+        verify(backend).classify(content);
+        verify(backend, never()).classify(anyString());
+    }
+
+    @Test
+    @DisplayName("Deve reaproveitar a entrada de documentos que só diferem fora dos trechos do prompt")
+    public void testShouldKeyOnSampledPromptText() {
+        when(backend.classify(any(ExtractedContent.class))).thenReturn(classification("Contract", 90));
+        CachingClassificationService service = new CachingClassificationService(backend, cache, SAMPLER, observabilityService);
+        ExtractedContent first = contract("o contrato vigora pelo prazo de doze meses contados da assinatura, "
+                + "renovável por iguais períodos mediante termo aditivo firmado pelas partes.");
+        ExtractedContent second = contract("o contrato vigora pelo prazo de vinte e quatro meses contados da assinatura, "
+                + "renovável por iguais períodos mediante termo aditivo firmado pelas partes.");
+        assertNotEquals(first.getFullText(), second.getFullText());
+
+        service.classify(first);
+        DocumentClassification cached = service.classify(second);
+
+        assertEquals("Contract", cached.getLabel().getValue());
+        verify(backend, times(1)).classify(any(ExtractedContent.class));
+    }
+
+    /**
+     * Contrato de três páginas: a primeira e a última preenchem o orçamento do
+     * prompt, a do meio (sem títulos, valores ou datas) fica fora da amostra
+     */
+    private static ExtractedContent contract(String middleClause) {
+        StringBuilder firstPage = new StringBuilder("Contrato de prestação de serviços\n");
+        for (int i = 1; i <= 60; i++) {
+            firstPage.append("as partes acordam a cláusula número ").append(i).append(" deste instrumento.\n");
+        }
+        String middlePage = "a contratada executará os serviços descritos no anexo.\n" + middleClause;
+        String lastPage = "e por estarem de acordo assinam o presente instrumento.";
+        List<PageContent> pages = new ArrayList<>(List.of(
+                new PageContent(1, firstPage.toString(), "PDFBox (native)"),
+                new PageContent(2, middlePage, "PDFBox (native)"),
+                new PageContent(3, lastPage, "PDFBox (native)")));
+        String fullText = firstPage + "\n" + middlePage + "\n" + lastPage;
+        return new ExtractedContent(fullText, 3, "PDFBox (native)", pages);
+    }
+
+    @Test
+    @DisplayName("Deve classificar direto pelas regras locais, sem consultar nem gravar o cache")
+    public void testShouldBypassCacheForRulesBackend() {
+        RuleBasedClassifier rules = spy(new RuleBasedClassifier(new DefaultResourceLoader(), new ObjectMapper(),
+                observabilityService, "classpath:classification-rules.json"));
+        CachingClassificationService service = new CachingClassificationService(
+                new ClassificationServiceImpl(rules), cache, SAMPLER, observabilityService);
+
+        service.classify(TEXT);
+        service.classify(TEXT);
+
+        verify(rules, times(2)).classify(anyString());
+        verify(repository, never()).findByFingerprintAndModelNameAndPromptVersion(anyString(), anyString(), anyString());
+        verify(repository, never()).save(any(ClassificationResultCacheEntity.class));
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.infrastructure.exception.ServiceOverloadedException;
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes para o controle de admissão dos uploads (503 com Retry-After em vez de CallerRunsPolicy)
+ */
+@DisplayName("Document Admission Service Tests")
+public class DocumentAdmissionServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ThreadPoolTaskExecutor executor;
+    private PdfPageOcrExecutor pageOcrExecutor;
+    private ProcessingCircuitBreakerService circuitBreakerService;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(10);
+        executor.initialize();
+        pageOcrExecutor = mock(PdfPageOcrExecutor.class);
+        circuitBreakerService = mock(ProcessingCircuitBreakerService.class);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    private DocumentAdmissionService service(int maxQueueDepth, int maxPendingPages, int maxInFlight) {
+        return new DocumentAdmissionService(executor, pageOcrExecutor, circuitBreakerService,
+                new ObservabilityService(meterRegistry), true, maxQueueDepth, maxPendingPages, maxInFlight, 15, 60);
+    }
+
+    private void blockExecutor(int queuedTasks) {
+        for (int i = 0; i <= queuedTasks; i++) {
+            executor.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+    }
+
+    private double rejected(String reason) {
+        return meterRegistry.counter("document.admission.rejected", "reason", reason).count();
+    }
+
+    @Test
+    @DisplayName("Deve limitar os documentos admitidos e liberar a vaga uma única vez")
+    public void testShouldBoundInFlightDocuments() {
+        DocumentAdmissionService service = service(0, 0, 2);
+
+        DocumentAdmissionService.Permit first = service.admit();
+        service.admit();
+        ServiceOverloadedException rejection = assertThrows(ServiceOverloadedException.class, service::admit);
+
+        assertEquals(DocumentAdmissionService.REASON_IN_FLIGHT, rejection.getReason());
+        assertEquals(15, rejection.getRetryAfterSeconds());
+        first.release();
+        first.release();
+        assertEquals(1, service.getInFlightDocuments());
+        assertNotNull(service.admit());
+        assertEquals(1.0, rejected("in_flight"));
+        assertEquals(2.0, meterRegistry.get("document.admission.in_flight").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Deve recusar quando a fila do executor passa do limite")
+    public void testShouldRejectOnQueueDepth() {
+        DocumentAdmissionService service = service(3, 0, 0);
+        blockExecutor(3);
+
+        ServiceOverloadedException rejection = assertThrows(ServiceOverloadedException.class, service::admit);
+
+        assertEquals(DocumentAdmissionService.REASON_QUEUE_DEPTH, rejection.getReason());
+        assertEquals(3.0, meterRegistry.get("document.admission.queue_depth").gauge().value());
+        assertEquals(0, service.getInFlightDocuments());
+    }
+
+    @Test
+    @DisplayName("Deve recusar quando há páginas demais aguardando OCR")
+    public void testShouldRejectOnPendingPages() {
+        when(pageOcrExecutor.getPendingPages()).thenReturn(250);
+
+        ServiceOverloadedException rejection = assertThrows(ServiceOverloadedException.class,
+                () -> service(0, 200, 0).admit());
+
+        assertEquals(DocumentAdmissionService.REASON_PENDING_PAGES, rejection.getReason());
+        assertEquals(1.0, rejected("pending_pages"));
+    }
+
+    @Test
+    @DisplayName("Deve recusar com o Retry-After do circuit breaker enquanto ele estiver aberto")
+    public void testShouldRejectWhileCircuitIsOpen() {
+        when(circuitBreakerService.isCircuitBreakerOpen()).thenReturn(true);
+
+        ServiceOverloadedException rejection = assertThrows(ServiceOverloadedException.class,
+                () -> service(0, 0, 0).admit());
+
+        assertEquals(DocumentAdmissionService.REASON_CIRCUIT_OPEN, rejection.getReason());
+        assertEquals(60, rejection.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.get("document.admission.circuit_open").gauge().value());
+    }
+}
@@ -0,0 +1,135 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.application.dto.DocumentProcessingMessage;
+import com.davydcr.document.application.dto.ProcessDocumentOutput;
+import com.davydcr.document.application.usecase.ProcessDocumentUseCase;
+import com.davydcr.document.domain.exception.DomainException;
+import com.davydcr.document.domain.model.DocumentStatus;
+import com.davydcr.document.domain.model.ExtractedContent;
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import com.davydcr.document.infrastructure.persistence.DocumentJpaEntity;
+import com.davydcr.document.infrastructure.persistence.DocumentJpaRepository;
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes para o worker da etapa de classificação (conteúdo extraído, persistência e notificação)
+ */
+@DisplayName("Document Classification Consumer Tests")
+public class DocumentClassificationConsumerTest {
+
+    private static final String DOCUMENT_ID = "3f2b8c1e-9a4d-4e5f-8b6a-1c2d3e4f5a6b";
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProcessDocumentUseCase useCase;
+    private DocumentJpaRepository documentRepository;
+    private DocumentExtractionStore extractionStore;
+    private DocumentNotificationService notificationService;
+    private ProcessingCircuitBreakerService circuitBreakerService;
+    private Channel channel;
+    private DocumentClassificationConsumer consumer;
+    private DocumentJpaEntity entity;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        useCase = mock(ProcessDocumentUseCase.class);
+        documentRepository = mock(DocumentJpaRepository.class);
+        extractionStore = mock(DocumentExtractionStore.class);
+        notificationService = mock(DocumentNotificationService.class);
+        circuitBreakerService = mock(ProcessingCircuitBreakerService.class);
+        channel = mock(Channel.class);
+        consumer = new DocumentClassificationConsumer(useCase, documentRepository, extractionStore,
+                notificationService, circuitBreakerService, new ObservabilityService(meterRegistry));
+    }
+
+    private void stored(DocumentStatus status) {
+        entity = new DocumentJpaEntity();
+        entity.setId(DOCUMENT_ID);
+        entity.setStatus(status);
+        entity.setUserId("user-1");
+        when(documentRepository.findById(DOCUMENT_ID)).thenReturn(Optional.of(entity));
+    }
+
+    private DocumentProcessingMessage message() {
+        return new DocumentProcessingMessage(DOCUMENT_ID, "/data/uploads/doc.pdf", "PDF", "user-1",
+                System.currentTimeMillis(), "abc123");
+    }
+
+    private double outcomes(String outcome) {
+        return meterRegistry.timer("document.worker.messages", "stage", "classify", "outcome", outcome).count();
+    }
+
+    @Test
+    @DisplayName("Deve classificar o conteúdo extraído, limpar o resultado intermediário e notificar")
+    public void testShouldClassifyExtractedContentAndAck() throws Exception {
+        stored(DocumentStatus.PROCESSING);
+        ExtractedContent content = new ExtractedContent("texto", 1, "tesseract");
+        when(extractionStore.find(DOCUMENT_ID)).thenReturn(Optional.of(content));
+        ProcessDocumentOutput output = new ProcessDocumentOutput(DOCUMENT_ID, "COMPLETED", "texto", "Invoice", 95);
+        when(useCase.classifyExtracted(any(), eq(content))).thenReturn(output);
+
+        consumer.classifyDocument(message(), channel, 21L, false);
+
+        verify(extractionStore).delete(DOCUMENT_ID);
+        verify(channel).basicAck(21L, false);
+        verify(notificationService).notifyCompletion(DOCUMENT_ID, output);
+        verify(circuitBreakerService).recordSuccess();
+        assertEquals(1.0, outcomes("completed"));
+    }
+
+    @Test
+    @DisplayName("Deve marcar como falha quando não há conteúdo extraído gravado")
+    public void testShouldFailWithoutExtraction() throws Exception {
+        stored(DocumentStatus.PROCESSING);
+        when(extractionStore.find(DOCUMENT_ID)).thenReturn(Optional.empty());
+
+        consumer.classifyDocument(message(), channel, 22L, false);
+
+        assertEquals(DocumentStatus.FAILED, entity.getStatus());
+        verify(documentRepository).save(entity);
+        verify(useCase, never()).classifyExtracted(any(), any());
+        verify(channel).basicAck(22L, false);
+        verify(notificationService).notifyFailure(eq(DOCUMENT_ID), anyString());
+        assertEquals(1.0, outcomes("failed"));
+    }
+
+    @Test
+    @DisplayName("Deve confirmar a mensagem e limpar a extração quando a classificação falha")
+    public void testShouldAckDomainFailure() throws Exception {
+        stored(DocumentStatus.PROCESSING);
+        when(extractionStore.find(DOCUMENT_ID)).thenReturn(Optional.of(new ExtractedContent("texto", 1, "tesseract")));
+        when(useCase.classifyExtracted(any(), any())).thenThrow(new DomainException("Classification failed") {});
+
+        consumer.classifyDocument(message(), channel, 23L, false);
+
+        verify(extractionStore).delete(DOCUMENT_ID);
+        verify(channel).basicAck(23L, false);
+        verify(circuitBreakerService).recordFailure();
+        assertEquals(1.0, outcomes("failed"));
+    }
+
+    @Test
+    @DisplayName("Deve descartar mensagens de documentos já concluídos")
+    public void testShouldSkipFinishedDocuments() throws Exception {
+        stored(DocumentStatus.COMPLETED);
+
+        consumer.classifyDocument(message(), channel, 24L, true);
+
+        verify(useCase, never()).classifyExtracted(any(), any());
+        verify(extractionStore).delete(DOCUMENT_ID);
+        verify(channel).basicAck(24L, false);
+        assertEquals(1.0, outcomes("skipped"));
+    }
+}
@@ -0,0 +1,111 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.application.dto.DocumentProcessingMessage;
+import com.davydcr.document.domain.model.DocumentStatus;
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import com.davydcr.document.infrastructure.persistence.DocumentJpaEntity;
+import com.davydcr.document.infrastructure.persistence.DocumentJpaRepository;
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes para o consumidor da DLQ do pipeline (documentos abandonados marcados como FAILED)
+ */
+@DisplayName("Document Dead Letter Consumer Tests")
+public class DocumentDeadLetterConsumerTest {
+
+    private static final String DOCUMENT_ID = "3f2b8c1e-9a4d-4e5f-8b6a-1c2d3e4f5a6b";
+
+    private SimpleMeterRegistry meterRegistry;
+    private DocumentJpaRepository documentRepository;
+    private DocumentExtractionStore extractionStore;
+    private DocumentNotificationService notificationService;
+    private Channel channel;
+    private DocumentDeadLetterConsumer consumer;
+    private DocumentJpaEntity entity;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        documentRepository = mock(DocumentJpaRepository.class);
+        extractionStore = mock(DocumentExtractionStore.class);
+        notificationService = mock(DocumentNotificationService.class);
+        channel = mock(Channel.class);
+        consumer = new DocumentDeadLetterConsumer(documentRepository, extractionStore,
+                notificationService, new ObservabilityService(meterRegistry));
+    }
+
+    private void stored(DocumentStatus status) {
+        entity = new DocumentJpaEntity();
+        entity.setId(DOCUMENT_ID);
+        entity.setStatus(status);
+        entity.setUserId("user-1");
+        when(documentRepository.findById(DOCUMENT_ID)).thenReturn(Optional.of(entity));
+    }
+
+    private DocumentProcessingMessage message() {
+        return new DocumentProcessingMessage(DOCUMENT_ID, "/data/uploads/doc.pdf", "PDF", "user-1",
+                System.currentTimeMillis(), "abc123");
+    }
+
+    private double outcomes(String outcome) {
+        return meterRegistry.timer("document.worker.messages", "stage", "dead-letter", "outcome", outcome).count();
+    }
+
+    @Test
+    @DisplayName("Deve marcar como FAILED o documento cuja mensagem foi para a DLQ")
+    public void testShouldMarkDocumentFailed() throws Exception {
+        stored(DocumentStatus.RECEIVED);
+
+        consumer.handleDeadLetter(message(), channel, 31L, "rejected");
+
+        assertEquals(DocumentStatus.FAILED, entity.getStatus());
+        assertEquals("Processing message dead-lettered (rejected)", entity.getErrorMessage());
+        verify(documentRepository).save(entity);
+        verify(extractionStore).delete(DOCUMENT_ID);
+        verify(notificationService).notifyFailure(eq(DOCUMENT_ID), anyString());
+        verify(channel).basicAck(31L, false);
+        assertEquals(1.0, outcomes("failed"));
+    }
+
+    @Test
+    @DisplayName("Deve ignorar mensagens de documentos já concluídos")
+    public void testShouldSkipFinishedDocuments() throws Exception {
+        stored(DocumentStatus.COMPLETED);
+
+        consumer.handleDeadLetter(message(), channel, 32L, "maxlen");
+
+        assertEquals(DocumentStatus.COMPLETED, entity.getStatus());
+        verify(documentRepository, never()).save(any());
+        verify(notificationService, never()).notifyFailure(anyString(), anyString());
+        verify(channel).basicAck(32L, false);
+        assertEquals(1.0, outcomes("skipped"));
+    }
+
+    @Test
+    @DisplayName("Deve devolver a mensagem à DLQ quando o banco falha")
+    public void testShouldRequeueWhenDatabaseFails() throws Exception {
+        when(documentRepository.findById(DOCUMENT_ID))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+        consumer.handleDeadLetter(message(), channel, 33L, "rejected");
+
+        verify(channel).basicNack(33L, false, true);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+        assertEquals(1.0, outcomes("requeued"));
+    }
+}
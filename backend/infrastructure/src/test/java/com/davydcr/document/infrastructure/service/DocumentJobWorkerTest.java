@@ -0,0 +1,194 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.application.dto.ProcessDocumentInput;
+import com.davydcr.document.application.dto.ProcessDocumentOutput;
+import com.davydcr.document.application.port.DocumentRepository;
+import com.davydcr.document.application.usecase.ProcessDocumentUseCase;
+import com.davydcr.document.domain.exception.DomainException;
+import com.davydcr.document.domain.model.DocumentStatus;
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import com.davydcr.document.infrastructure.persistence.DocumentJpaEntity;
+import com.davydcr.document.infrastructure.persistence.DocumentJpaRepository;
+import com.davydcr.document.infrastructure.persistence.entity.ProcessingJobEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes para o worker da fila de processamento no banco (lotes, conclusão, nova tentativa e desistência)
+ */
+@DisplayName("Document Job Worker Tests")
+public class DocumentJobWorkerTest {
+
+    private static final String DOCUMENT_ID = "3f2b8c1e-9a4d-4e5f-8b6a-1c2d3e4f5a6b";
+
+    private SimpleMeterRegistry meterRegistry;
+    private DocumentJobQueue jobQueue;
+    private ProcessDocumentUseCase useCase;
+    private DocumentRepository documentRepository;
+    private DocumentJpaRepository documentJpaRepository;
+    private DocumentNotificationService notificationService;
+    private ProcessingCircuitBreakerService circuitBreakerService;
+    private final List<Runnable> submitted = new ArrayList<>();
+    private DocumentJobWorker worker;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        jobQueue = mock(DocumentJobQueue.class);
+        when(jobQueue.getNodeId()).thenReturn("node-1");
+        useCase = mock(ProcessDocumentUseCase.class);
+        documentRepository = mock(DocumentRepository.class);
+        when(documentRepository.findById(any())).thenReturn(Optional.empty());
+        documentJpaRepository = mock(DocumentJpaRepository.class);
+        when(documentJpaRepository.findById(anyString())).thenReturn(Optional.of(stored(DocumentStatus.RECEIVED)));
+        notificationService = mock(DocumentNotificationService.class);
+        circuitBreakerService = mock(ProcessingCircuitBreakerService.class);
+        worker = new DocumentJobWorker(jobQueue, useCase, documentRepository, documentJpaRepository, notificationService,
+                circuitBreakerService, new ObservabilityService(meterRegistry), submitted::add, 4, 3, 3, 1000);
+    }
+
+    private ProcessingJobEntity job(String documentId, int attempts) {
+        ProcessingJobEntity job = new ProcessingJobEntity();
+        job.setDocumentId(documentId);
+        job.setFileName("doc.pdf");
+        job.setFilePath("/data/uploads/doc.pdf");
+        job.setFileType("PDF");
+        job.setContentHash("abc123");
+        job.setUserId("user-1");
+        job.setStatus(ProcessingJobEntity.STATUS_RUNNING);
+        job.setAttempts(attempts);
+        return job;
+    }
+
+    private static DocumentJpaEntity stored(DocumentStatus status) {
+        DocumentJpaEntity entity = new DocumentJpaEntity();
+        entity.setId(DOCUMENT_ID);
+        entity.setStatus(status);
+        return entity;
+    }
+
+    private double outcomes(String outcome) {
+        return meterRegistry.timer("document.worker.messages", "stage", "job", "outcome", outcome).count();
+    }
+
+    @Test
+    @DisplayName("Deve reservar só as vagas livres e renovar o lease dos jobs em execução")
+    public void testShouldClaimOnlyFreeSlotsAndHeartbeat() {
+        when(jobQueue.claim(anyInt()))
+                .thenReturn(List.of(job(DOCUMENT_ID, 1), job("job-2", 1)))
+                .thenReturn(List.of(job("job-3", 1)));
+        when(jobQueue.heartbeat(any())).thenReturn(3);
+
+        worker.poll();
+        worker.poll();
+        worker.heartbeat();
+
+        verify(jobQueue).claim(3);
+        verify(jobQueue).claim(1);
+        assertEquals(3, submitted.size());
+        worker.poll();
+        verify(jobQueue, times(2)).claim(anyInt());
+        verify(jobQueue).heartbeat(any());
+        assertEquals(3.0, meterRegistry.get("document.jobs.running").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Deve processar o job e removê-lo da fila ao concluir")
+    public void testShouldProcessAndCompleteJob() {
+        ProcessDocumentOutput output = new ProcessDocumentOutput(DOCUMENT_ID, "COMPLETED", "texto", "Invoice", 95);
+        when(useCase.execute(any())).thenReturn(output);
+
+        worker.run(job(DOCUMENT_ID, 1));
+
+        ArgumentCaptor<ProcessDocumentInput> input = ArgumentCaptor.forClass(ProcessDocumentInput.class);
+        verify(useCase).execute(input.capture());
+        assertEquals("/data/uploads/doc.pdf", input.getValue().getFilePath());
+        assertEquals("abc123", input.getValue().getContentHash());
+        verify(jobQueue).complete(DOCUMENT_ID);
+        verify(notificationService).notifyCompletion(DOCUMENT_ID, output);
+        verify(circuitBreakerService).recordSuccess();
+        assertEquals(1.0, outcomes("completed"));
+    }
+
+    @Test
+    @DisplayName("Deve remover o job quando o documento falha no processamento")
+    public void testShouldCompleteJobOnDomainFailure() {
+        when(useCase.execute(any())).thenThrow(new DomainException("File type not supported for OCR: XYZ") {});
+
+        worker.run(job(DOCUMENT_ID, 1));
+
+        verify(jobQueue).complete(DOCUMENT_ID);
+        verify(jobQueue, never()).retry(anyString(), anyString(), any());
+        verify(notificationService).notifyFailure(eq(DOCUMENT_ID), anyString());
+        assertEquals(1.0, outcomes("failed"));
+    }
+
+    @Test
+    @DisplayName("Deve devolver o job à fila com espera crescente e desistir na última tentativa")
+    public void testShouldRetryWithBackoffThenGiveUp() {
+        when(useCase.execute(any())).thenThrow(new IllegalStateException("connection refused"));
+
+        worker.run(job(DOCUMENT_ID, 2));
+        worker.run(job(DOCUMENT_ID, 3));
+
+        verify(jobQueue).retry(DOCUMENT_ID, "connection refused", Duration.ofMillis(2000));
+        verify(jobQueue).complete(DOCUMENT_ID);
+        verify(notificationService).notifyFailure(eq(DOCUMENT_ID), anyString());
+        assertEquals(1.0, outcomes("requeued"));
+        assertEquals(1.0, outcomes("rejected"));
+    }
+
+    @Test
+    @DisplayName("Deve marcar como falha o job reservado além do limite de tentativas")
+    public void testShouldAbandonJobAfterMaxAttempts() {
+        worker.run(job(DOCUMENT_ID, 4));
+
+        verify(useCase, never()).execute(any());
+        verify(jobQueue).complete(DOCUMENT_ID);
+        verify(circuitBreakerService).recordFailure();
+        assertEquals(1.0, outcomes("failed"));
+    }
+
+    @Test
+    @DisplayName("Deve remover sem processar o job de documento já concluído ou com falha")
+    public void testShouldSkipJobForFinishedDocument() {
+        when(documentJpaRepository.findById(DOCUMENT_ID))
+                .thenReturn(Optional.of(stored(DocumentStatus.COMPLETED)))
+                .thenReturn(Optional.of(stored(DocumentStatus.FAILED)));
+
+        worker.run(job(DOCUMENT_ID, 1));
+        worker.run(job(DOCUMENT_ID, 2));
+
+        verify(useCase, never()).execute(any());
+        verify(jobQueue, times(2)).complete(DOCUMENT_ID);
+        verifyNoInteractions(notificationService, circuitBreakerService);
+        assertEquals(2.0, outcomes("skipped"));
+    }
+
+    @Test
+    @DisplayName("Deve remover o job de documento que não existe mais")
+    public void testShouldDropJobForMissingDocument() {
+        when(documentJpaRepository.findById(DOCUMENT_ID)).thenReturn(Optional.empty());
+
+        worker.run(job(DOCUMENT_ID, 1));
+
+        verify(useCase, never()).execute(any());
+        verify(jobQueue).complete(DOCUMENT_ID);
+        assertEquals(1.0, outcomes("skipped"));
+    }
+}
@@ -0,0 +1,206 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.application.dto.DocumentProcessingMessage;
+import com.davydcr.document.application.dto.ProcessDocumentInput;
+import com.davydcr.document.application.usecase.ProcessDocumentUseCase;
+import com.davydcr.document.domain.exception.DomainException;
+import com.davydcr.document.domain.model.DocumentStatus;
+import com.davydcr.document.domain.model.ExtractedContent;
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import com.davydcr.document.infrastructure.persistence.DocumentJpaEntity;
+import com.davydcr.document.infrastructure.persistence.DocumentJpaRepository;
+import com.rabbitmq.client.Channel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.AmqpConnectException;
+
+import java.net.ConnectException;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes para o worker da etapa de extração (ack manual, reentrega, mensagens repetidas e passagem para a classificação)
+ */
+@DisplayName("Document Processing Consumer Tests")
+public class DocumentProcessingConsumerTest {
+
+    private static final String DOCUMENT_ID = "3f2b8c1e-9a4d-4e5f-8b6a-1c2d3e4f5a6b";
+
+    private SimpleMeterRegistry meterRegistry;
+    private ProcessDocumentUseCase useCase;
+    private DocumentJpaRepository documentRepository;
+    private DocumentExtractionStore extractionStore;
+    private AsyncProcessingService asyncProcessingService;
+    private DocumentNotificationService notificationService;
+    private ProcessingCircuitBreakerService circuitBreakerService;
+    private Channel channel;
+    private DocumentProcessingConsumer consumer;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        useCase = mock(ProcessDocumentUseCase.class);
+        documentRepository = mock(DocumentJpaRepository.class);
+        extractionStore = mock(DocumentExtractionStore.class);
+        asyncProcessingService = mock(AsyncProcessingService.class);
+        when(asyncProcessingService.hasClassificationCapacity()).thenReturn(true);
+        notificationService = mock(DocumentNotificationService.class);
+        circuitBreakerService = mock(ProcessingCircuitBreakerService.class);
+        channel = mock(Channel.class);
+        consumer = new DocumentProcessingConsumer(useCase, documentRepository, extractionStore,
+                asyncProcessingService, notificationService, circuitBreakerService, new ObservabilityService(meterRegistry));
+    }
+
+    private void stored(DocumentStatus status) {
+        DocumentJpaEntity entity = new DocumentJpaEntity();
+        entity.setId(DOCUMENT_ID);
+        entity.setStatus(status);
+        entity.setUserId("user-1");
+        when(documentRepository.findById(DOCUMENT_ID)).thenReturn(Optional.of(entity));
+    }
+
+    private DocumentProcessingMessage message() {
+        return new DocumentProcessingMessage(DOCUMENT_ID, "/data/uploads/doc.pdf", "PDF", "user-1",
+                System.currentTimeMillis(), "abc123");
+    }
+
+    private double outcomes(String outcome) {
+        return meterRegistry.timer("document.worker.messages", "stage", "extract", "outcome", outcome).count();
+    }
+
+    @Test
+    @DisplayName("Deve gravar a extração e publicar na classificação antes de confirmar a mensagem")
+    public void testShouldExtractPublishAndAck() throws Exception {
+        stored(DocumentStatus.RECEIVED);
+        ExtractedContent content = new ExtractedContent("texto", 1, "tesseract");
+        when(useCase.extract(any())).thenReturn(content);
+        DocumentProcessingMessage message = message();
+
+        consumer.processDocument(message, channel, 7L, false);
+
+        ArgumentCaptor<ProcessDocumentInput> input = ArgumentCaptor.forClass(ProcessDocumentInput.class);
+        verify(useCase).extract(input.capture());
+        assertEquals("/data/uploads/doc.pdf", input.getValue().getFilePath());
+        assertEquals("abc123", input.getValue().getContentHash());
+        verify(extractionStore).save(DOCUMENT_ID, content);
+        verify(asyncProcessingService).sendClassificationMessage(message);
+        verify(channel).basicAck(7L, false);
+        verify(channel, never()).basicNack(anyLong(), anyBoolean(), anyBoolean());
+        verify(notificationService, never()).notifyCompletion(anyString(), any());
+        assertEquals(1.0, outcomes("completed"));
+    }
+
+    @Test
+    @DisplayName("Deve confirmar a mensagem quando o documento falha no processamento")
+    public void testShouldAckDomainFailure() throws Exception {
+        stored(DocumentStatus.RECEIVED);
+        when(useCase.extract(any())).thenThrow(new DomainException("File type not supported for OCR: XYZ") {});
+
+        consumer.processDocument(message(), channel, 8L, false);
+
+        verify(channel).basicAck(8L, false);
+        verify(notificationService).notifyFailure(eq(DOCUMENT_ID), anyString());
+        verify(circuitBreakerService).recordFailure();
+        assertEquals(1.0, outcomes("failed"));
+    }
+
+    @Test
+    @DisplayName("Deve devolver à fila uma vez quando a publicação na classificação falha e rejeitar na reentrega")
+    public void testShouldRequeueOnceThenReject() throws Exception {
+        stored(DocumentStatus.RECEIVED);
+        when(useCase.extract(any())).thenReturn(new ExtractedContent("texto", 1, "tesseract"));
+        doThrow(new AmqpConnectException(new ConnectException("connection refused")))
+                .when(asyncProcessingService).sendClassificationMessage(any());
+
+        consumer.processDocument(message(), channel, 9L, false);
+        consumer.processDocument(message(), channel, 10L, true);
+
+        verify(channel).basicNack(9L, false, true);
+        verify(channel).basicNack(10L, false, false);
+        verify(channel, never()).basicAck(anyLong(), anyBoolean());
+        assertEquals(1.0, outcomes("requeued"));
+        assertEquals(1.0, outcomes("rejected"));
+    }
+
+    @Test
+    @DisplayName("Deve descartar mensagens de documentos já concluídos ou inexistentes")
+    public void testShouldSkipFinishedDocuments() throws Exception {
+        stored(DocumentStatus.COMPLETED);
+        consumer.processDocument(message(), channel, 11L, true);
+
+        when(documentRepository.findById(DOCUMENT_ID)).thenReturn(Optional.empty());
+        consumer.processDocument(message(), channel, 12L, false);
+
+        verify(useCase, never()).extract(any());
+        verify(channel).basicAck(11L, false);
+        verify(channel).basicAck(12L, false);
+        assertEquals(2.0, outcomes("skipped"));
+    }
+
+    @Test
+    @DisplayName("Deve retomar documento em processamento apenas quando a mensagem é reentregue")
+    public void testShouldResumeProcessingOnlyOnRedelivery() throws Exception {
+        stored(DocumentStatus.PROCESSING);
+        when(useCase.extract(any())).thenReturn(new ExtractedContent("texto", 1, "tesseract"));
+
+        consumer.processDocument(message(), channel, 13L, false);
+        verify(useCase, never()).extract(any());
+
+        consumer.processDocument(message(), channel, 14L, true);
+        verify(useCase).extract(any());
+        verify(channel).basicAck(14L, false);
+    }
+
+    @Test
+    @DisplayName("Deve apenas republicar na classificação quando a extração já foi gravada")
+    public void testShouldRepublishExistingExtractionOnRedelivery() throws Exception {
+        stored(DocumentStatus.PROCESSING);
+        when(extractionStore.exists(DOCUMENT_ID)).thenReturn(true);
+
+        consumer.processDocument(message(), channel, 15L, true);
+
+        verify(useCase, never()).extract(any());
+        verify(asyncProcessingService).sendClassificationMessage(any());
+        verify(channel).basicAck(15L, false);
+    }
+
+    @Test
+    @DisplayName("Deve adiar o documento sem fazer OCR quando a fila de classificação está cheia")
+    public void testShouldDeferWhenClassificationQueueIsFull() throws Exception {
+        stored(DocumentStatus.RECEIVED);
+        when(asyncProcessingService.hasClassificationCapacity()).thenReturn(false);
+        DocumentProcessingMessage message = message();
+
+        consumer.processDocument(message, channel, 16L, false);
+
+        verify(useCase, never()).extract(any());
+        verify(asyncProcessingService).deferProcessingMessage(message);
+        verify(asyncProcessingService, never()).sendClassificationMessage(any());
+        verify(channel).basicAck(16L, false);
+        assertEquals(1.0, outcomes("deferred"));
+    }
+
+    @Test
+    @DisplayName("Deve retomar documento em processamento reentregue mesmo com a fila de classificação cheia")
+    public void testShouldNotDeferResumedDocument() throws Exception {
+        stored(DocumentStatus.PROCESSING);
+        when(asyncProcessingService.hasClassificationCapacity()).thenReturn(false);
+        when(useCase.extract(any())).thenReturn(new ExtractedContent("texto", 1, "tesseract"));
+
+        consumer.processDocument(message(), channel, 17L, true);
+
+        verify(useCase).extract(any());
+        verify(asyncProcessingService, never()).deferProcessingMessage(any());
+        verify(channel).basicAck(17L, false);
+    }
+}
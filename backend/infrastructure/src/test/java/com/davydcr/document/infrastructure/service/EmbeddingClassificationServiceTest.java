@@ -0,0 +1,197 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.domain.model.DocumentClassification;
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import com.davydcr.document.infrastructure.persistence.DocumentJpaEntity;
+import com.davydcr.document.infrastructure.persistence.DocumentJpaRepository;
+import com.davydcr.document.infrastructure.persistence.entity.DocumentEmbeddingEntity;
+import com.davydcr.document.infrastructure.persistence.repository.DocumentEmbeddingJpaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes para a classificação por protótipos de embeddings (embedder por hashing, sem modelo externo)
+ */
+@DisplayName("Embedding Classification Service Tests")
+public class EmbeddingClassificationServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DocumentJpaRepository documentRepository;
+    private DocumentEmbeddingJpaRepository embeddingRepository;
+    private HashingTextEmbedder embedder;
+    private final Map<String, DocumentJpaEntity> documents = new HashMap<>();
+    private final List<DocumentEmbeddingEntity> stored = new ArrayList<>();
+    private final List<DocumentJpaRepository.EmbeddableDocument> rows = new ArrayList<>();
+    private final List<Runnable> refreshes = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        documentRepository = mock(DocumentJpaRepository.class);
+        embeddingRepository = mock(DocumentEmbeddingJpaRepository.class);
+        embedder = new HashingTextEmbedder(512, 4000);
+
+        int i = 0;
+        for (NaiveBayesTextClassifier.Sample sample : NaiveBayesTextClassifierTest.corpus(12, 1L)) {
+            addDocument("doc-" + i++, sample.text(), sample.label(), "ollama-mistral", 90);
+        }
+        when(documentRepository.findEmbeddableDocuments(any())).thenAnswer(invocation -> List.copyOf(rows));
+        when(documentRepository.findById(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(documents.get(invocation.<String>getArgument(0))));
+        when(embeddingRepository.findByModelName(anyString())).thenAnswer(invocation -> List.copyOf(stored));
+        when(embeddingRepository.save(any())).thenAnswer(invocation -> {
+            stored.add(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+    }
+
+    private void addDocument(String id, String text, String label, String model, int confidence) {
+        DocumentJpaEntity entity = new DocumentJpaEntity();
+        entity.setId(id);
+        entity.setUserId(documents.size() % 2 == 0 ? "user-2" : "user-1");
+        entity.setExtractedText(text);
+        documents.put(id, entity);
+        rows.add(new DocumentJpaRepository.EmbeddableDocument() {
+            @Override
+            public String getId() {
+                return id;
+            }
+
+            @Override
+            public String getClassificationLabel() {
+                return label;
+            }
+
+            @Override
+            public String getClassificationModel() {
+                return model;
+            }
+
+            @Override
+            public Integer getClassificationConfidence() {
+                return confidence;
+            }
+        });
+    }
+
+    private EmbeddingClassificationService service(int maxBackfillPerRun) {
+        return new EmbeddingClassificationService(documentRepository, embeddingRepository, embedder,
+                new ObservabilityService(meterRegistry), "ollama-mistral", 70, 20000, maxBackfillPerRun, 5,
+                512, 0.05, 0.3, refreshes::add);
+    }
+
+    @Test
+    @DisplayName("Deve classificar pelo protótipo mais próximo depois de indexar os documentos rotulados")
+    public void testShouldClassifyByNearestPrototype() {
+        EmbeddingClassificationService service = service(500);
+        assertFalse(service.isAvailable());
+
+        EmbeddingClassificationService.IndexReport report = service.refresh().orElseThrow();
+
+        assertEquals(36, report.documents());
+        assertEquals(3, report.labels());
+        assertEquals(36, report.embedded());
+        assertTrue(service.isAvailable());
+        for (NaiveBayesTextClassifier.Sample sample : NaiveBayesTextClassifierTest.corpus(5, 2L)) {
+            DocumentClassification result = service.classify(sample.text());
+            assertEquals(sample.label(), result.getLabel().getValue(), sample.text());
+            assertTrue(result.getConfidence().getPercentage() >= 85, "confidence=" + result.getConfidence());
+            assertEquals("embedding-hashing-512", result.getModel());
+        }
+        assertEquals(36.0, meterRegistry.get("document.classification.embedding.index.documents").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Deve reutilizar embeddings gravados e calcular só os que faltam, em lotes")
+    public void testShouldBackfillIncrementally() {
+        EmbeddingClassificationService service = service(20);
+
+        assertEquals(20, service.refresh().orElseThrow().embedded());
+        EmbeddingClassificationService.IndexReport second = service.refresh().orElseThrow();
+
+        assertEquals(16, second.embedded());
+        assertEquals(36, second.documents());
+        assertEquals(36, stored.size());
+        assertEquals(0, service.refresh().orElseThrow().embedded());
+        assertEquals(36.0, meterRegistry.counter("document.classification.embedding.backfilled").count());
+    }
+
+    @Test
+    @DisplayName("Deve dar confiança baixa a texto sem relação com os protótipos e zero sem índice")
+    public void testShouldBeUncertainForUnrelatedText() {
+        EmbeddingClassificationService service = service(500);
+        assertEquals(0, service.classify("qualquer coisa").getConfidence().getPercentage());
+
+        service.refresh();
+        DocumentClassification result = service.classify("lorem ipsum dolor sit amet consectetur");
+
+        assertTrue(result.getConfidence().getPercentage() < 50, "confidence=" + result.getConfidence());
+        assertEquals(50, EmbeddingClassificationService.confidence(new double[]{0.9, 0.9}, 0, 0.05, 0.5));
+        assertEquals(25, EmbeddingClassificationService.confidence(new double[]{0.25, 0.25}, 0, 0.05, 0.5));
+    }
+
+    @Test
+    @DisplayName("Deve encontrar documentos similares pelo índice")
+    public void testShouldFindSimilarDocuments() {
+        EmbeddingClassificationService service = service(500);
+        service.refresh();
+
+        List<VectorIndex.Neighbor> similar = service.findSimilar("doc-1", 5);
+
+        assertEquals(5, similar.size());
+        assertTrue(similar.stream().noneMatch(neighbor -> neighbor.id().equals("doc-1")));
+        assertTrue(similar.stream().allMatch(neighbor -> neighbor.label().equals("Contract")));
+        assertTrue(service.findSimilar("unknown", 5).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve indexar documentos de qualquer classificador, sem usá-los nos protótipos")
+    public void testShouldIndexDocumentsFromEveryClassifier() {
+        List<NaiveBayesTextClassifier.Sample> others = NaiveBayesTextClassifierTest.corpus(2, 3L);
+        addDocument("rules-0", others.get(0).text(), others.get(0).label(), TieredClassificationService.RULES_MODEL, 95);
+        addDocument("fast-0", others.get(1).text(), "Receipt", TieredClassificationService.FAST_PATH_MODEL, 97);
+        addDocument("low-0", others.get(2).text(), others.get(2).label(), "ollama-mistral", 40);
+        EmbeddingClassificationService service = service(500);
+
+        EmbeddingClassificationService.IndexReport report = service.refresh().orElseThrow();
+
+        assertEquals(39, report.documents());
+        assertEquals(39, report.embedded());
+        assertEquals(39, stored.size());
+        assertEquals(3, report.labels());
+        assertFalse(service.findSimilar("rules-0", 5).isEmpty());
+        // Sem rótulo no índice: não entra no protótipo de Receipt
+        assertNull(service.findSimilar("doc-1", 38).stream()
+                .filter(neighbor -> neighbor.id().equals("fast-0"))
+                .findFirst().orElseThrow().label());
+    }
+
+    @Test
+    @DisplayName("Deve atualizar o índice fora da thread da subida e do agendador")
+    public void testShouldRefreshInBackground() {
+        EmbeddingClassificationService service = service(500);
+
+        service.refreshOnStartup();
+        service.scheduledRefresh();
+
+        assertFalse(service.isAvailable());
+        assertEquals(2, refreshes.size());
+        refreshes.get(0).run();
+        assertTrue(service.isAvailable());
+    }
+}
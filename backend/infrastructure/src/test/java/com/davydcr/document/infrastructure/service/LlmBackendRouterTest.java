@@ -0,0 +1,206 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para o roteamento entre instâncias de LLM
+ */
+@DisplayName("LLM Backend Router Tests")
+public class LlmBackendRouterTest {
+
+    private static final String A = "http://llm-a:11434";
+    private static final String B = "http://llm-b:11434";
+
+    private SimpleMeterRegistry meterRegistry;
+    private ObservabilityService observabilityService;
+    private final List<HttpServer> servers = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        observabilityService = new ObservabilityService(meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        servers.forEach(server -> server.stop(0));
+    }
+
+    private LlmBackendRouter router(String urls, boolean hedging, long hedgeMinDelayMs) {
+        return new LlmBackendRouter(observabilityService, urls, 2, 60000, hedging, 0.95, hedgeMinDelayMs, 256);
+    }
+
+    @Test
+    @DisplayName("Deve enviar para a instância com menos requisições pendentes")
+    public void testShouldRouteToLeastOutstandingBackend() {
+        LlmBackendRouter router = router(A + "," + B, false, 2000);
+        List<String> chosen = new ArrayList<>();
+        CompletableFuture<String> held = new CompletableFuture<>();
+
+        router.execute(url -> {
+            chosen.add(url);
+            return held;
+        });
+        for (int i = 0; i < 3; i++) {
+            router.execute(url -> {
+                chosen.add(url);
+                return CompletableFuture.completedFuture("ok");
+            }).join();
+        }
+
+        // A primeira instância fica ocupada; as seguintes vão todas para a outra
+        String busy = chosen.get(0);
+        assertTrue(chosen.subList(1, 4).stream().noneMatch(busy::equals));
+        held.complete("ok");
+    }
+
+    @Test
+    @DisplayName("Deve repetir em outra instância e tirar de rotação a que falha seguidamente")
+    public void testShouldFailoverAndEjectFailingBackend() {
+        LlmBackendRouter router = router(A + "," + B, false, 2000);
+        List<String> chosen = new ArrayList<>();
+
+        // Empates são sorteados: repete até A acumular as 2 falhas; toda chamada termina bem em B
+        for (int i = 0; i < 100 && meterRegistry.counter("llm.router.ejections", "backend", A).count() == 0; i++) {
+            assertEquals("ok", router.execute(url -> {
+                chosen.add(url);
+                return url.equals(A)
+                        ? CompletableFuture.<String>failedFuture(new ConnectException("connection refused"))
+                        : CompletableFuture.completedFuture("ok");
+            }).join());
+        }
+        assertEquals(2, chosen.stream().filter(A::equals).count());
+        assertEquals(1.0, meterRegistry.counter("llm.router.ejections", "backend", A).count());
+
+        // Fora de rotação, A não recebe mais nada
+        chosen.clear();
+        for (int i = 0; i < 10; i++) {
+            router.execute(url -> {
+                chosen.add(url);
+                return CompletableFuture.completedFuture("ok");
+            }).join();
+        }
+        assertTrue(chosen.stream().allMatch(B::equals));
+        assertEquals(0.0, meterRegistry.find("llm.router.healthy").tag("backend", A).gauge().value());
+    }
+
+    @Test
+    @DisplayName("Não deve tirar de rotação por saturação da fila local")
+    public void testShouldNotEjectOnLocalSaturation() {
+        LlmBackendRouter router = router(A, false, 2000);
+
+        for (int i = 0; i < 5; i++) {
+            CompletableFuture<String> result = router.execute(url -> CompletableFuture.failedFuture(
+                    new RejectedExecutionException("saturated")));
+            assertThrows(Exception.class, result::join);
+        }
+
+        assertEquals(0.0, meterRegistry.counter("llm.router.ejections", "backend", A).count());
+        assertEquals(1.0, meterRegistry.find("llm.router.healthy").tag("backend", A).gauge().value());
+    }
+
+    @Test
+    @DisplayName("Deve enviar hedge para outra instância quando a resposta demora e cancelar a mais lenta")
+    public void testShouldHedgeSlowRequestAndCancelLoser() throws Exception {
+        CountDownLatch slowDisconnected = new CountDownLatch(1);
+        String slow = startServer("slow", 3000, slowDisconnected);
+        String fast = startServer("fast", 0, new CountDownLatch(1));
+        LlmHttpClient client = new LlmHttpClient(Executors.newFixedThreadPool(2), observabilityService,
+                2, 10, 10000, 2000, 10000);
+
+        LlmBackendRouter router = router(slow + "," + fast, true, 50);
+
+        // Com as duas ociosas o empate é sorteado: em algumas chamadas a primeira tentativa vai para a lenta
+        for (int i = 0; i < 12; i++) {
+            long startedAt = System.nanoTime();
+            String result = router.execute(url -> client.postJson(url + "/api/generate", "{}"))
+                    .get(2, TimeUnit.SECONDS);
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+            assertEquals("fast", result);
+            assertTrue(elapsedMs < 2000, "O hedge deve responder antes da instância lenta: " + elapsedMs + "ms");
+        }
+
+        assertTrue(slowDisconnected.await(5, TimeUnit.SECONDS), "A tentativa perdedora deve ser cancelada");
+        assertTrue(meterRegistry.counter("llm.router.hedges", "backend", fast, "result", "launched").count() >= 1);
+        assertTrue(meterRegistry.counter("llm.router.hedges", "backend", fast, "result", "won").count() >= 1);
+        assertEquals(0.0, meterRegistry.counter("llm.router.requests", "backend", slow, "outcome", "success").count());
+    }
+
+    @Test
+    @DisplayName("Deve usar o percentil das latências recentes como atraso do hedge")
+    public void testShouldDeriveHedgeDelayFromLatencyPercentile() {
+        LlmBackendRouter router = router(A + "," + B, true, 10);
+        assertEquals(10, router.hedgeDelayMillis(), "Sem amostras suficientes vale o mínimo");
+
+        for (int i = 0; i < 40; i++) {
+            router.execute(url -> CompletableFuture.supplyAsync(() -> {
+                sleep(30);
+                return "ok";
+            })).join();
+        }
+
+        assertTrue(router.hedgeDelayMillis() >= 30);
+    }
+
+    private String startServer(String body, long delayMs, CountDownLatch disconnected) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/generate", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            try {
+                if (delayMs > 0) {
+                    // Headers logo, corpo só depois da espera: detecta o cliente fechando a conexão
+                    exchange.sendResponseHeaders(200, 0);
+                    OutputStream out = exchange.getResponseBody();
+                    long deadline = System.currentTimeMillis() + delayMs;
+                    while (System.currentTimeMillis() < deadline) {
+                        out.write(' ');
+                        out.flush();
+                        sleep(20);
+                    }
+                    out.write(body.getBytes(StandardCharsets.UTF_8));
+                } else {
+                    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                    exchange.sendResponseHeaders(200, bytes.length);
+                    exchange.getResponseBody().write(bytes);
+                }
+            } catch (IOException e) {
+                disconnected.countDown();
+            } finally {
+                exchange.close();
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        servers.add(server);
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
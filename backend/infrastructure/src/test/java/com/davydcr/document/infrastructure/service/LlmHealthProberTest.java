@@ -0,0 +1,113 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para a verificação de saúde do LLM em segundo plano, contra um servidor HTTP local
+ */
+@DisplayName("LLM Health Prober Tests")
+public class LlmHealthProberTest {
+
+    private HttpServer server;
+    private SimpleMeterRegistry meterRegistry;
+    private LlmHealthProber prober;
+    private String url;
+    private final AtomicInteger status = new AtomicInteger(200);
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @BeforeEach
+    public void setup() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/tags", exchange -> {
+            requests.incrementAndGet();
+            byte[] body = "{\"models\":[]}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status.get(), body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        meterRegistry = new SimpleMeterRegistry();
+        ObservabilityService observabilityService = new ObservabilityService(meterRegistry);
+        LlmHttpClient client = new LlmHttpClient(Executors.newFixedThreadPool(2), observabilityService,
+                1, 0, 1000, 2000, 10000);
+        LlmBackendRouter router = new LlmBackendRouter(observabilityService, url, 3, 30000, false, 0.95, 2000, 256);
+        prober = new LlmHealthProber(client, router, observabilityService, 2000, 2);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Deve responder pelo estado em cache sem chamar o backend")
+    public void testShouldAnswerFromCachedState() {
+        assertTrue(prober.isAvailable(), "Até a primeira verificação a instância é considerada disponível");
+        assertNull(prober.getBackendHealth().get(url).checkedAt());
+
+        prober.probe();
+        waitUntil(() -> prober.getBackendHealth().get(url).checkedAt() != null);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(prober.isAvailable());
+        }
+
+        assertEquals(1, requests.get());
+        LlmHealthProber.BackendHealth health = prober.getBackendHealth().get(url);
+        assertTrue(health.latencyMs() >= 0);
+        assertNull(health.error());
+    }
+
+    @Test
+    @DisplayName("Deve marcar indisponível após falhas seguidas e voltar na primeira resposta")
+    public void testShouldTrackAvailabilityTransitions() {
+        status.set(503);
+        probeAndWait(1);
+        assertTrue(prober.isAvailable(), "Uma falha isolada não derruba a instância");
+
+        probeAndWait(2);
+        assertFalse(prober.isAvailable());
+        assertNotNull(prober.getBackendHealth().get(url).error());
+        assertEquals(0.0, meterRegistry.get("llm.health.available").gauge().value());
+
+        status.set(200);
+        probeAndWait(3);
+        assertTrue(prober.isAvailable());
+        assertEquals(2, meterRegistry.timer("llm.health.probe", "backend", url, "result", "down").count());
+    }
+
+    private void probeAndWait(int expectedProbes) {
+        prober.probe();
+        waitUntil(() -> meterRegistry.find("llm.health.probe").timers().stream()
+                .mapToLong(timer -> timer.count()).sum() >= expectedProbes);
+    }
+
+    private static void waitUntil(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Condição não atingida a tempo");
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para o cliente HTTP assíncrono dos LLMs, contra um servidor HTTP local
+ */
+@DisplayName("LLM HTTP Client Tests")
+public class LlmHttpClientTest {
+
+    private HttpServer server;
+    private String baseUrl;
+    private SimpleMeterRegistry meterRegistry;
+    private final CountDownLatch releaseResponses = new CountDownLatch(1);
+    private final AtomicInteger concurrentRequests = new AtomicInteger();
+    private final AtomicInteger maxConcurrentRequests = new AtomicInteger();
+
+    @BeforeEach
+    public void setup() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/generate", exchange -> {
+            int current = concurrentRequests.incrementAndGet();
+            maxConcurrentRequests.accumulateAndGet(current, Math::max);
+            try {
+                releaseResponses.await(10, TimeUnit.SECONDS);
+                byte[] body = "{\"response\":\"Invoice|90\"}".getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                concurrentRequests.decrementAndGet();
+                exchange.close();
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        releaseResponses.countDown();
+        server.stop(0);
+    }
+
+    private LlmHttpClient newClient(int maxInFlight, int queueCapacity, long queueTimeoutMs) {
+        return new LlmHttpClient(Executors.newFixedThreadPool(2), new ObservabilityService(meterRegistry),
+                maxInFlight, queueCapacity, queueTimeoutMs, 2000, 10000);
+    }
+
+    @Test
+    @DisplayName("Deve limitar requisições em voo e atender a fila quando um slot libera")
+    public void testShouldLimitInFlightRequests() throws Exception {
+        LlmHttpClient client = newClient(2, 10, 10000);
+
+        List<CompletableFuture<String>> calls = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            calls.add(client.postJson(baseUrl + "/api/generate", "{}"));
+        }
+
+        // Nenhuma thread do chamador fica presa: as chamadas voltam na hora
+        Thread.sleep(300);
+        assertTrue(calls.stream().noneMatch(CompletableFuture::isDone));
+        assertEquals(2.0, meterRegistry.get("llm.client.in_flight").gauge().value());
+        assertEquals(3.0, meterRegistry.get("llm.client.queued").gauge().value());
+
+        releaseResponses.countDown();
+        for (CompletableFuture<String> call : calls) {
+            assertEquals("{\"response\":\"Invoice|90\"}", call.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(2, maxConcurrentRequests.get());
+    }
+
+    @Test
+    @DisplayName("Deve recusar na hora quando a fila está cheia")
+    public void testShouldRejectWhenQueueFull() {
+        LlmHttpClient client = newClient(1, 1, 10000);
+
+        client.postJson(baseUrl + "/api/generate", "{}");
+        client.postJson(baseUrl + "/api/generate", "{}");
+        CompletableFuture<String> rejected = client.postJson(baseUrl + "/api/generate", "{}");
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> rejected.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, error.getCause());
+        assertEquals(1.0, meterRegistry.counter("llm.client.rejected",
+                "backend", baseUrl, "reason", "queue_full").count());
+    }
+
+    @Test
+    @DisplayName("Deve falhar por timeout quem espera na fila além do prazo")
+    public void testShouldExpireQueuedRequests() {
+        LlmHttpClient client = newClient(1, 5, 200);
+
+        client.postJson(baseUrl + "/api/generate", "{}");
+        CompletableFuture<String> queued = client.postJson(baseUrl + "/api/generate", "{}");
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, error.getCause());
+        assertEquals(0.0, meterRegistry.get("llm.client.queued").gauge().value());
+    }
+}
@@ -0,0 +1,74 @@
+package com.davydcr.document.infrastructure.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para o classificador Naive Bayes sobre n-gramas com hashing
+ */
+@DisplayName("Naive Bayes Text Classifier Tests")
+public class NaiveBayesTextClassifierTest {
+
+    static List<NaiveBayesTextClassifier.Sample> corpus(int perLabel, long seed) {
+        Random random = new Random(seed);
+        String[] suppliers = {"ACME Ltda", "Globex S.A.", "Initech", "Umbrella Comércio", "Stark Serviços"};
+        List<NaiveBayesTextClassifier.Sample> samples = new ArrayList<>();
+        for (int i = 0; i < perLabel; i++) {
+            String supplier = suppliers[random.nextInt(suppliers.length)];
+            samples.add(new NaiveBayesTextClassifier.Sample(
+                    "NOTA FISCAL DE SERVIÇOS Nº " + random.nextInt(99999) + "\nPrestador: " + supplier
+                            + "\nValor total R$ " + random.nextInt(5000) + ",00 Vencimento " + (1 + random.nextInt(28))
+                            + "/03/2026 ISS retido impostos fatura",
+                    "Invoice"));
+            samples.add(new NaiveBayesTextClassifier.Sample(
+                    "CONTRATO DE PRESTAÇÃO DE SERVIÇOS\nCláusula primeira - do objeto. As partes " + supplier
+                            + " e contratante acordam. Cláusula " + (2 + random.nextInt(9))
+                            + " - da vigência e rescisão. Foro da comarca, testemunhas e assinaturas.",
+                    "Contract"));
+            samples.add(new NaiveBayesTextClassifier.Sample(
+                    "RECIBO\nRecebi de " + supplier + " a importância de R$ " + random.nextInt(900)
+                            + ",00 referente ao pagamento em dinheiro. Dou plena quitação. Data "
+                            + (1 + random.nextInt(28)) + "/04/2026",
+                    "Receipt"));
+        }
+        return samples;
+    }
+
+    @Test
+    @DisplayName("Deve classificar documentos do mesmo padrão dos exemplos de treino")
+    public void testShouldPredictTrainedLabels() {
+        NaiveBayesTextClassifier model = NaiveBayesTextClassifier.train(corpus(30, 1L), 14, 4000);
+
+        for (NaiveBayesTextClassifier.Sample sample : corpus(10, 2L)) {
+            NaiveBayesTextClassifier.Prediction prediction = model.predict(sample.text());
+            assertEquals(sample.label(), prediction.label(), sample.text());
+            assertTrue(prediction.probability() > 0.9);
+        }
+        assertEquals(List.of("Invoice", "Contract", "Receipt"), model.getLabels());
+        assertEquals(90, model.getTrainingSamples());
+    }
+
+    @Test
+    @DisplayName("Deve dar probabilidade baixa a textos sem evidência")
+    public void testShouldBeUncertainWithoutEvidence() {
+        NaiveBayesTextClassifier model = NaiveBayesTextClassifier.train(corpus(30, 1L), 14, 4000);
+
+        NaiveBayesTextClassifier.Prediction prediction = model.predict("lorem ipsum dolor sit amet");
+
+        assertTrue(prediction.probability() < 0.6, "probability=" + prediction.probability());
+    }
+
+    @Test
+    @DisplayName("Deve normalizar acentos, caixa e números na tokenização")
+    public void testShouldNormalizeTokens() {
+        assertEquals(List.of("nota", "fiscal", "no", "#num", "servicos", "#num"),
+                NaiveBayesTextClassifier.tokenize("NOTA Fiscal nº 123 — Serviços R$ 1.500,00", 4000));
+        assertEquals(List.of("contrato"), NaiveBayesTextClassifier.tokenize("Contrato de locação", 8));
+    }
+}
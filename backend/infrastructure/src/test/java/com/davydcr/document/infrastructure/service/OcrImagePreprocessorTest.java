@@ -0,0 +1,88 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para o pré-processamento de imagens antes do OCR
+ */
+@DisplayName("OCR Image Preprocessor Tests")
+public class OcrImagePreprocessorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private OcrImagePreprocessor preprocessor;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        // 100 DPI alvo = lado maior de ~1169 px
+        preprocessor = new OcrImagePreprocessor(true, true, 100, true, 5, true, new ObservabilityService(meterRegistry));
+    }
+
+    @Test
+    @DisplayName("Deve reduzir, converter para cinza e binarizar imagens grandes")
+    public void testShouldDownscaleAndBinarizeLargeColorImage() {
+        BufferedImage photo = linedPage(4000, 3000, 0.0, new Color(40, 60, 200));
+
+        BufferedImage result = preprocessor.preprocess(photo);
+
+        assertEquals(BufferedImage.TYPE_BYTE_GRAY, result.getType());
+        assertTrue(Math.max(result.getWidth(), result.getHeight()) <= 1169);
+        int[] samples = result.getRaster().getSamples(0, 0, result.getWidth(), result.getHeight(), 0, (int[]) null);
+        for (int value : samples) {
+            assertTrue(value == 0 || value == 255, "Imagem binarizada deve conter apenas preto e branco");
+        }
+        assertEquals(1, meterRegistry.get("document.ocr.preprocess.step").tag("step", "downscale").timer().count());
+        assertEquals(1, meterRegistry.get("document.ocr.preprocess.step").tag("step", "binarize").timer().count());
+    }
+
+    @Test
+    @DisplayName("Deve estimar a inclinação das linhas de texto")
+    public void testShouldEstimateSkew() {
+        BufferedImage skewed = preprocessor.toGrayscale(linedPage(1000, 800, 3.0, Color.BLACK));
+        BufferedImage straight = preprocessor.toGrayscale(linedPage(1000, 800, 0.0, Color.BLACK));
+
+        assertEquals(3.0, preprocessor.estimateSkewDegrees(skewed), 0.5);
+        assertEquals(0.0, preprocessor.estimateSkewDegrees(straight), 0.5);
+    }
+
+    @Test
+    @DisplayName("Deve devolver a imagem original quando desabilitado")
+    public void testShouldReturnSourceWhenDisabled() {
+        OcrImagePreprocessor disabled = new OcrImagePreprocessor(
+                false, true, 100, true, 5, true, new ObservabilityService(new SimpleMeterRegistry()));
+        BufferedImage photo = linedPage(200, 100, 0.0, Color.BLACK);
+
+        assertSame(photo, disabled.preprocess(photo));
+    }
+
+    /**
+     * Página branca com linhas horizontais (simulando texto) inclinadas em skewDegrees
+     */
+    private BufferedImage linedPage(int width, int height, double skewDegrees, Color ink) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, width, height);
+        g.setColor(ink);
+        g.setStroke(new BasicStroke(Math.max(2, height / 200f)));
+        double slope = Math.tan(Math.toRadians(skewDegrees));
+        for (int y = height / 10; y < height * 0.8; y += height / 20) {
+            int x0 = width / 10;
+            int x1 = width - width / 10;
+            g.drawLine(x0, y, x1, (int) Math.round(y + slope * (x1 - x0)));
+        }
+        g.dispose();
+        return image;
+    }
+}
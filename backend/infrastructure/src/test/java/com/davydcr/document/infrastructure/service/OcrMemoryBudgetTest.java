@@ -0,0 +1,69 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para o orçamento de memória de render/OCR
+ */
+@DisplayName("OCR Memory Budget Tests")
+public class OcrMemoryBudgetTest {
+
+    private static final long MB = 1024 * 1024;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OcrMemoryBudget budget;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        budget = new OcrMemoryBudget(10 * MB, 50, new ObservabilityService(meterRegistry));
+    }
+
+    @Test
+    @DisplayName("Deve reservar e devolver bytes do orçamento")
+    public void testShouldReserveAndRelease() {
+        try (OcrMemoryBudget.Reservation first = budget.reserve(4 * MB);
+             OcrMemoryBudget.Reservation second = budget.reserve(4 * MB)) {
+            assertEquals(8 * MB, budget.getReservedBytes());
+            assertEquals(8.0 * MB, meterRegistry.get("document.ocr.memory.reserved.bytes").gauge().value());
+        }
+
+        assertEquals(0, budget.getReservedBytes());
+    }
+
+    @Test
+    @DisplayName("Deve falhar após o timeout quando o orçamento está esgotado")
+    public void testShouldTimeoutWhenBudgetExhausted() {
+        try (OcrMemoryBudget.Reservation reservation = budget.reserve(8 * MB)) {
+            assertThrows(IllegalStateException.class, () -> budget.reserve(4 * MB));
+        }
+
+        assertEquals(1.0, meterRegistry.counter("document.ocr.memory.wait.timeouts").count());
+    }
+
+    @Test
+    @DisplayName("Deve limitar ao orçamento total uma reserva maior que ele")
+    public void testShouldClampOversizedReservation() {
+        try (OcrMemoryBudget.Reservation reservation = budget.reserve(50 * MB)) {
+            assertEquals(10 * MB, budget.getReservedBytes());
+        }
+        assertEquals(0, budget.getReservedBytes());
+    }
+
+    @Test
+    @DisplayName("Deve estimar o custo de render pela dimensão da página e escala")
+    public void testShouldEstimatePageRenderBytes() {
+        PDPage letter = new PDPage(PDRectangle.LETTER);
+
+        // 612x792 pt * 1.5 = 918x1188 px, 1 byte/pixel, 3 cópias no pipeline
+        assertEquals(918L * 1188 * 3, budget.estimatePageRenderBytes(letter, 1.5f));
+    }
+}
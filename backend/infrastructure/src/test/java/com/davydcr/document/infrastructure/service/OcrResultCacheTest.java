@@ -0,0 +1,167 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.domain.model.ExtractedContent;
+import com.davydcr.document.domain.model.PageContent;
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import com.davydcr.document.infrastructure.persistence.entity.OcrResultCacheEntity;
+import com.davydcr.document.infrastructure.persistence.repository.OcrResultCacheJpaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes para o cache de resultados de OCR
+ */
+@DisplayName("OCR Result Cache Tests")
+public class OcrResultCacheTest {
+
+    private static final String VERSION = "r1;test";
+
+    private SimpleMeterRegistry meterRegistry;
+    private OcrResultCacheJpaRepository repository;
+    private ObservabilityService observabilityService;
+    private MutableClock clock;
+
+    @BeforeEach
+    public void setup() {
+        clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+        meterRegistry = new SimpleMeterRegistry();
+        observabilityService = new ObservabilityService(meterRegistry);
+        repository = mock(OcrResultCacheJpaRepository.class);
+        when(repository.findByContentHashAndExtractionVersion(anyString(), anyString())).thenReturn(Optional.empty());
+    }
+
+    private OcrResultCache newCache(int memoryMaxEntries) {
+        return new OcrResultCache(true, memoryMaxEntries, Duration.ofHours(1), true, repository,
+                new ObjectMapper(), observabilityService, clock);
+    }
+
+    private ExtractedContent sampleContent() {
+        return new ExtractedContent("Contrato de prestação de serviços", 2, "PDFBox (native) + Tesseract 5.x (hybrid PDF)",
+                List.of(new PageContent(1, "Contrato", "PDFBox (native)"),
+                        new PageContent(2, "de prestação de serviços", "Tesseract 5.x")));
+    }
+
+    @Test
+    @DisplayName("Deve registrar miss e depois servir da memória com bytes economizados")
+    public void testShouldServeFromMemoryAfterPut() {
+        OcrResultCache cache = newCache(8);
+
+        assertTrue(cache.get("hash-a", VERSION).isEmpty());
+        cache.put("hash-a", VERSION, 1024, sampleContent());
+        Optional<ExtractedContent> hit = cache.get("hash-a", VERSION);
+
+        assertEquals(sampleContent(), hit.orElseThrow());
+        assertEquals(1.0, meterRegistry.counter("document.ocr.cache.misses").count());
+        assertEquals(1.0, meterRegistry.counter("document.ocr.cache.hits", "tier", "memory").count());
+        assertEquals(1024.0, meterRegistry.counter("document.ocr.cache.bytes_saved").count());
+        assertEquals(0.5, meterRegistry.get("document.ocr.cache.hit_ratio").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Deve recuperar do banco, com páginas, quando a memória não tem a entrada")
+    public void testShouldLoadFromDatabaseTier() {
+        newCache(8).put("hash-b", VERSION, 2048, sampleContent());
+        ArgumentCaptor<OcrResultCacheEntity> saved = ArgumentCaptor.forClass(OcrResultCacheEntity.class);
+        verify(repository).save(saved.capture());
+        when(repository.findByContentHashAndExtractionVersion("hash-b", VERSION)).thenReturn(Optional.of(saved.getValue()));
+
+        // Nova instância = memória vazia (ex: após restart)
+        Optional<ExtractedContent> hit = newCache(8).get("hash-b", VERSION);
+
+        assertEquals(sampleContent(), hit.orElseThrow());
+        assertEquals("Tesseract 5.x", hit.get().getPages().get(1).getEngine());
+        assertEquals(1.0, meterRegistry.counter("document.ocr.cache.hits", "tier", "database").count());
+    }
+
+    @Test
+    @DisplayName("Deve descartar a entrada menos usada quando a memória está cheia")
+    public void testShouldEvictLeastRecentlyUsed() {
+        OcrResultCache cache = new OcrResultCache(true, 1, Duration.ofHours(1), false, repository,
+                new ObjectMapper(), observabilityService, clock);
+
+        cache.put("hash-1", VERSION, 10, sampleContent());
+        cache.put("hash-2", VERSION, 10, sampleContent());
+
+        assertEquals(1, cache.getMemoryEntryCount());
+        assertTrue(cache.get("hash-1", VERSION).isEmpty());
+        assertTrue(cache.get("hash-2", VERSION).isPresent());
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Deve tratar como miss a entrada expirada na memória e no banco")
+    public void testShouldIgnoreExpiredEntries() {
+        newCache(8).put("hash-c", VERSION, 512, sampleContent());
+        ArgumentCaptor<OcrResultCacheEntity> saved = ArgumentCaptor.forClass(OcrResultCacheEntity.class);
+        verify(repository).save(saved.capture());
+        assertEquals(LocalDateTime.ofInstant(clock.instant().plus(Duration.ofHours(1)), ZoneOffset.UTC),
+                saved.getValue().getExpiresAt());
+        when(repository.findByContentHashAndExtractionVersion("hash-c", VERSION)).thenReturn(Optional.of(saved.getValue()));
+
+        OcrResultCache cache = newCache(8);
+        assertTrue(cache.get("hash-c", VERSION).isPresent());
+
+        clock.advance(Duration.ofMinutes(61));
+
+        assertTrue(cache.get("hash-c", VERSION).isEmpty());
+        assertEquals(0, cache.getMemoryEntryCount());
+    }
+
+    @Test
+    @DisplayName("Deve remover do banco entradas expiradas e de outra versão da extração")
+    public void testShouldPurgeStaleEntries() {
+        when(repository.deleteStale(any(), anyString())).thenReturn(3);
+
+        int removed = newCache(8).purgeStale(VERSION);
+
+        assertEquals(3, removed);
+        verify(repository).deleteStale(eq(LocalDateTime.ofInstant(clock.instant(), ZoneOffset.UTC)), eq(VERSION));
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.application.port.OcrProgressListener;
+import com.davydcr.document.domain.model.ExtractedContent;
+import com.davydcr.document.domain.model.PageContent;
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.sourceforge.tess4j.TesseractException;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.awt.Rectangle;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes do OCR de PDF escaneado no OcrServiceImpl: cache e checkpoints com páginas falhas
+ */
+@DisplayName("OCR Service Tests")
+public class OcrServiceImplTest {
+
+    private static final String HASH = "hash-scan";
+
+    @TempDir
+    Path tempDir;
+
+    private OcrTextRecognizer recognizer;
+    private OcrResultCache resultCache;
+    private OcrPageCheckpointStore checkpointStore;
+    private TesseractEnginePool enginePool;
+    private OcrServiceImpl ocrService;
+
+    @BeforeEach
+    public void setup() {
+        ObservabilityService observability = new ObservabilityService(new SimpleMeterRegistry());
+        recognizer = mock(OcrTextRecognizer.class);
+        resultCache = mock(OcrResultCache.class);
+        checkpointStore = mock(OcrPageCheckpointStore.class);
+        enginePool = new TesseractEnginePool(1, 50, "", "por+eng", observability);
+
+        OcrImagePreprocessor preprocessor = new OcrImagePreprocessor(false, true, 300, true, 5, true, observability);
+        OcrMemoryBudget memoryBudget = new OcrMemoryBudget(256L * 1024 * 1024, 1000, observability);
+        PdfDocumentLoader documentLoader = new PdfDocumentLoader(16 * 1024 * 1024, tempDir.toString());
+        ProgressivePageOcr pageOcr = new ProgressivePageOcr(recognizer, preprocessor, memoryBudget, observability,
+                false, 1.5f, 3.0f, 70f, 2);
+        PdfPageOcrExecutor pageOcrExecutor = new PdfPageOcrExecutor(pageOcr, documentLoader,
+                mock(ExecutorService.class), false, 1);
+
+        ocrService = new OcrServiceImpl(tempDir.toString(), enginePool, pageOcrExecutor, pageOcr, recognizer,
+                new PdfTextLayerAnalyzer(32, 0.01, 0.1), preprocessor, memoryBudget, documentLoader,
+                resultCache, checkpointStore, observability);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        enginePool.shutdown();
+    }
+
+    @Test
+    @DisplayName("Não deve guardar no cache nem em checkpoint a página em que o engine lançou erro")
+    public void testShouldNotCacheOrCheckpointFailedPage() throws Exception {
+        when(recognizer.recognize(any()))
+                .thenReturn(new OcrTextRecognizer.RecognizedText(List.of(
+                        new OcrTextRecognizer.RecognizedLine("Contrato social", 91f, new Rectangle(0, 0, 200, 20)))))
+                .thenThrow(new TesseractException("engine error"));
+
+        ExtractedContent content = ocrService.extractContent(scannedPdf(2), "pdf", HASH, OcrProgressListener.NONE);
+
+        assertEquals("Contrato social\n\n[OCR failed for page 2]\n", content.getFullText());
+        verify(checkpointStore, times(1)).save(eq(HASH), anyString(), any(PageContent.class));
+        verify(checkpointStore, never()).clear(anyString(), anyString());
+        verify(resultCache, never()).put(anyString(), anyString(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Deve guardar no cache e limpar os checkpoints quando todas as páginas têm OCR")
+    public void testShouldCacheWhenAllPagesSucceed() throws Exception {
+        when(recognizer.recognize(any())).thenReturn(new OcrTextRecognizer.RecognizedText(List.of(
+                new OcrTextRecognizer.RecognizedLine("Contrato social", 91f, new Rectangle(0, 0, 200, 20)))));
+
+        ExtractedContent content = ocrService.extractContent(scannedPdf(2), "pdf", HASH, OcrProgressListener.NONE);
+
+        assertEquals(2, content.getPageCount());
+        verify(checkpointStore, times(2)).save(eq(HASH), anyString(), any(PageContent.class));
+        verify(checkpointStore).clear(eq(HASH), anyString());
+        verify(resultCache).put(eq(HASH), anyString(), anyLong(), eq(content));
+    }
+
+    /**
+     * PDF só com imagens (retângulos), sem camada de texto: todas as páginas vão para OCR
+     */
+    private Path scannedPdf(int pages) throws Exception {
+        Path file = tempDir.resolve("scan.pdf");
+        try (PDDocument document = new PDDocument()) {
+            for (int i = 0; i < pages; i++) {
+                PDPage page = new PDPage(PDRectangle.A4);
+                document.addPage(page);
+                try (PDPageContentStream stream = new PDPageContentStream(document, page)) {
+                    stream.addRect(50, 50, 100, 100);
+                    stream.fill();
+                }
+            }
+            document.save(file.toFile());
+        }
+        return file;
+    }
+}
@@ -0,0 +1,145 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.domain.model.DocumentClassification;
+import com.davydcr.document.domain.model.ExtractedContent;
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para a classificação via Ollama em streaming, contra um servidor HTTP local
+ */
+@DisplayName("Ollama Classification Service Tests")
+public class OllamaClassificationServiceTest {
+
+    private HttpServer server;
+    private SimpleMeterRegistry meterRegistry;
+    private ObservabilityService observabilityService;
+    private final AtomicReference<String> requestBody = new AtomicReference<>();
+    private final CountDownLatch clientDisconnected = new CountDownLatch(1);
+
+    @BeforeEach
+    public void setup() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        observabilityService = new ObservabilityService(meterRegistry);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/generate", exchange -> {
+            requestBody.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            exchange.getResponseHeaders().add("Content-Type", "application/x-ndjson");
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream out = exchange.getResponseBody();
+            try {
+                // Rótulo em pedaços e depois o modelo continua falando
+                for (String token : List.of("Inv", "oice", "|", "9", "2", "\n", "The", " document", " is")) {
+                    writeChunk(out, token);
+                }
+                for (int i = 0; i < 200; i++) {
+                    writeChunk(out, " more");
+                    Thread.sleep(10);
+                }
+                out.write("{\"response\":\"\",\"done\":true}\n".getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                clientDisconnected.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                exchange.close();
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private static void writeChunk(OutputStream out, String token) throws IOException {
+        out.write(("{\"response\":\"" + token.replace("\n", "\\n") + "\",\"done\":false}\n")
+                .getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    private OllamaClassificationService newService(boolean streaming) {
+        return newService(streaming, 2, 10, "http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    private OllamaClassificationService newService(boolean streaming, int maxInFlight, int queueCapacity, String url) {
+        LlmHttpClient client = new LlmHttpClient(Executors.newFixedThreadPool(2), observabilityService,
+                maxInFlight, queueCapacity, 10000, 2000, 10000);
+        LlmBackendRouter router = new LlmBackendRouter(observabilityService, url, 3, 30000, false, 0.95, 2000, 256);
+        LlmHealthProber prober = new LlmHealthProber(client, router, observabilityService, 3000, 2);
+        return new OllamaClassificationService(client, router, prober, "mistral", streaming, 16,
+                192, 0.4, 0.2, observabilityService);
+    }
+
+    @Test
+    @DisplayName("Deve encerrar o stream assim que o rótulo estiver completo")
+    public void testShouldStopStreamOnceLabelIsComplete() throws Exception {
+        DocumentClassification classification = newService(true).classify("Nota fiscal 123, total R$ 150,00");
+
+        assertEquals("Invoice", classification.getLabel().getValue());
+        assertEquals(92, classification.getConfidence().getPercentage());
+        assertTrue(clientDisconnected.await(5, TimeUnit.SECONDS), "A conexão deve ser fechada antes do fim da geração");
+        assertTrue(requestBody.get().contains("\"num_predict\":16"));
+        assertTrue(requestBody.get().contains("\"stream\":true"));
+        assertEquals(1, meterRegistry.timer("llm.generation.duration",
+                "model", "mistral", "outcome", "early_stop").count());
+    }
+
+    @Test
+    @DisplayName("Deve reconhecer apenas rótulos com a confiança já terminada")
+    public void testShouldDetectCompleteLabel() {
+        assertFalse(OllamaClassificationService.hasCompleteLabel("Invoice|9"));
+        assertFalse(OllamaClassificationService.hasCompleteLabel("Invoice|"));
+        assertTrue(OllamaClassificationService.hasCompleteLabel("Invoice|92\n"));
+        assertTrue(OllamaClassificationService.hasCompleteLabel("[Contract]|100"));
+        assertTrue(OllamaClassificationService.hasCompleteLabel(" Receipt | 85."));
+    }
+
+    @Test
+    @DisplayName("Deve propagar a recusa por fila cheia em vez de classificar como Unknown")
+    public void testShouldPropagateSaturation() {
+        // Um slot, sem fila: a primeira geração (sem streaming, ~2s) ocupa o cliente
+        OllamaClassificationService service = newService(false, 1, 0,
+                "http://127.0.0.1:" + server.getAddress().getPort());
+        CompletableFuture<DocumentClassification> first = service.classifyAsync(new ExtractedContent("Nota fiscal 123", 1, "text"));
+
+        CompletableFuture<DocumentClassification> second = service.classifyAsync(new ExtractedContent("Nota fiscal 456", 1, "text"));
+
+        CompletionException error = assertThrows(CompletionException.class, second::join);
+        assertInstanceOf(RejectedExecutionException.class, error.getCause());
+        assertNotNull(first.join());
+    }
+
+    @Test
+    @DisplayName("Deve classificar como Unknown com confiança zero quando o modelo falha")
+    public void testShouldReturnDefaultOnModelError() {
+        // Porta sem servidor: conexão recusada
+        DocumentClassification classification = newService(false, 2, 10, "http://127.0.0.1:1")
+                .classify("Nota fiscal 123, total R$ 150,00");
+
+        assertEquals("Unknown", classification.getLabel().getValue());
+        assertEquals(0, classification.getConfidence().getPercentage());
+    }
+}
@@ -0,0 +1,95 @@
+package com.davydcr.document.infrastructure.service;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para a análise da camada de texto nativa de PDFs
+ */
+@DisplayName("PDF Text Layer Analyzer Tests")
+public class PdfTextLayerAnalyzerTest {
+
+    private PdfTextLayerAnalyzer analyzer;
+
+    @BeforeEach
+    public void setup() {
+        // Mesmos limiares padrão de application.properties
+        analyzer = new PdfTextLayerAnalyzer(32, 0.01, 0.1);
+    }
+
+    @Test
+    @DisplayName("Deve usar texto nativo em páginas com texto e marcar páginas vazias para OCR")
+    public void testShouldFlagOnlyPagesWithoutTextLayer() throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            addTextPage(document,
+                    "Nota fiscal eletronica numero 12345 emitida em 01/02/2024 valor total R$ 1.500,00",
+                    "Emitente: Empresa Exemplo Ltda CNPJ 12.345.678/0001-90 Rua das Flores 100",
+                    "Destinatario: Cliente Exemplo CPF 123.456.789-00 Avenida Central 200",
+                    "Produto: Servico de consultoria em tecnologia quantidade 1 valor unitario 1.500,00",
+                    "Base de calculo ICMS 1.500,00 valor ICMS 270,00 valor total da nota 1.500,00",
+                    "Informacoes complementares: documento emitido por ME ou EPP optante do Simples");
+            addEmptyContentPage(document);
+            document.addPage(new PDPage());
+
+            List<PdfTextLayerAnalyzer.PageTextLayer> layers = analyzer.analyze(document);
+
+            assertEquals(3, layers.size());
+            assertFalse(layers.get(0).needsOcr(), "Página com texto nativo não deve ir para OCR");
+            assertTrue(layers.get(0).text().contains("Nota fiscal"));
+            assertTrue(layers.get(1).needsOcr(), "Página sem texto deve ir para OCR");
+            assertEquals(0, layers.get(1).textChars());
+            assertEquals(2, layers.get(2).pageIndex());
+        }
+    }
+
+    @Test
+    @DisplayName("Deve mandar para OCR a página em que o texto nativo é só um cabeçalho")
+    public void testShouldFlagPageWithOnlyHeaderText() throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            // Scan com carimbo de texto nativo: passa do mínimo de caracteres, mas cobre
+            // menos de 1% da página
+            addTextPage(document, "Digitalizado em 01/02/2024 - Protocolo 2024000123");
+
+            List<PdfTextLayerAnalyzer.PageTextLayer> layers = analyzer.analyze(document);
+
+            assertTrue(layers.get(0).textChars() >= 32);
+            assertTrue(layers.get(0).glyphCoverage() < 0.01);
+            assertTrue(layers.get(0).needsOcr(), "Página só com cabeçalho deve ir para OCR");
+        }
+    }
+
+    private void addTextPage(PDDocument document, String... lines) throws IOException {
+        PDPage page = new PDPage();
+        document.addPage(page);
+        try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+            content.beginText();
+            content.setFont(PDType1Font.HELVETICA, 12);
+            content.setLeading(16);
+            content.newLineAtOffset(50, 700);
+            for (String line : lines) {
+                content.showText(line);
+                content.newLine();
+            }
+            content.endText();
+        }
+    }
+
+    private void addEmptyContentPage(PDDocument document) throws IOException {
+        PDPage page = new PDPage();
+        document.addPage(page);
+        try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+            content.addRect(50, 50, 100, 100);
+            content.fill();
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.sourceforge.tess4j.TesseractException;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.pdfbox.util.Matrix;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.Raster;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes para o OCR progressivo por confiança
+ */
+@DisplayName("Progressive Page OCR Tests")
+public class ProgressivePageOcrTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ObservabilityService observability;
+    private OcrTextRecognizer recognizer;
+    private ProgressivePageOcr pageOcr;
+    private PDDocument document;
+    private PDFRenderer renderer;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        observability = new ObservabilityService(meterRegistry);
+        recognizer = mock(OcrTextRecognizer.class);
+        OcrImagePreprocessor preprocessor = new OcrImagePreprocessor(false, true, 300, true, 5, true, observability);
+        OcrMemoryBudget memoryBudget = new OcrMemoryBudget(256L * 1024 * 1024, 1000, observability);
+        pageOcr = new ProgressivePageOcr(recognizer, preprocessor, memoryBudget, observability,
+                true, 1.5f, 3.0f, 70f, 2);
+
+        document = new PDDocument();
+        document.addPage(new PDPage(PDRectangle.A4));
+        renderer = new PDFRenderer(document);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        document.close();
+    }
+
+    @Test
+    @DisplayName("Deve aceitar a primeira passada quando todas as linhas têm confiança suficiente")
+    public void testShouldKeepFirstPassWhenConfident() throws Exception {
+        when(recognizer.recognize(any())).thenReturn(text(line("Nota fiscal", 92f, 100), line("Total 150,00", 88f, 140)));
+
+        ProgressivePageOcr.PageResult result = pageOcr.ocrPage(document, renderer, 0);
+
+        assertEquals("Nota fiscal\nTotal 150,00\n", result.text());
+        assertTrue(result.confidence() > 88 && result.confidence() < 92);
+        verify(recognizer, times(1)).recognize(any());
+        assertEquals(1.0, meterRegistry.counter("document.ocr.multipass.pages", "refinement", "none").count());
+        // Escala 1.5 em vez de 3.0: um quarto dos pixels
+        assertEquals(0.75, meterRegistry.get("document.ocr.multipass.pixel_savings_ratio").gauge().value(), 0.01);
+    }
+
+    @Test
+    @DisplayName("Deve refazer em escala alta apenas a região da linha com baixa confiança")
+    public void testShouldRefineOnlyLowConfidenceRegion() throws Exception {
+        when(recognizer.recognize(any()))
+                .thenReturn(text(line("Nota fiscal", 92f, 100), line("T0ta1 l5O,OO", 41f, 140)))
+                .thenReturn(text(line("Total 150,00", 90f, 10)));
+
+        ProgressivePageOcr.PageResult result = pageOcr.ocrPage(document, renderer, 0);
+
+        assertEquals("Nota fiscal\nTotal 150,00\n", result.text());
+        assertTrue(result.confidence() >= 90);
+
+        List<BufferedImage> images = captureImages(2);
+        // A região é uma faixa da página, bem menor que o render inteiro
+        assertTrue(images.get(1).getWidth() * (long) images.get(1).getHeight()
+                < images.get(0).getWidth() * (long) images.get(0).getHeight());
+        assertEquals(1.0, meterRegistry.counter("document.ocr.multipass.pages", "refinement", "regions").count());
+    }
+
+    @Test
+    @DisplayName("Deve refazer a página inteira quando há linhas ruins demais")
+    public void testShouldRefineWholePageWhenTooManyLowLines() throws Exception {
+        when(recognizer.recognize(any()))
+                .thenReturn(text(line("a", 30f, 100), line("b", 30f, 140), line("c", 30f, 180)))
+                .thenReturn(text(line("abc", 85f, 200)));
+
+        ProgressivePageOcr.PageResult result = pageOcr.ocrPage(document, renderer, 0);
+
+        assertEquals("abc\n", result.text());
+        List<BufferedImage> images = captureImages(2);
+        assertEquals(images.get(0).getWidth() * 2, images.get(1).getWidth(), 2);
+        assertEquals(1.0, meterRegistry.counter("document.ocr.multipass.pages", "refinement", "page").count());
+    }
+
+    @Test
+    @DisplayName("Deve manter a primeira passada quando o refinamento não melhora a confiança")
+    public void testShouldKeepFirstPassWhenRefinementIsWorse() throws Exception {
+        when(recognizer.recognize(any()))
+                .thenReturn(text(line("Total 150,00", 60f, 140)))
+                .thenReturn(text(line("Tota1", 40f, 10)));
+
+        ProgressivePageOcr.PageResult result = pageOcr.ocrPage(document, renderer, 0);
+
+        assertEquals("Total 150,00\n", result.text());
+        assertEquals(60.0, result.confidence(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Deve marcar a página como falha quando o engine lança erro na primeira passada")
+    public void testShouldMarkPageFailedWhenEngineThrows() throws Exception {
+        when(recognizer.recognize(any())).thenThrow(new TesseractException("engine error"));
+
+        ProgressivePageOcr.PageResult result = pageOcr.ocrPage(document, renderer, 0);
+
+        assertTrue(result.failed());
+        assertEquals("[OCR failed for page 1]", result.text());
+        assertNull(result.confidence());
+        assertTrue(result.text().startsWith(ProgressivePageOcr.OCR_FAILED_MARKER));
+    }
+
+    @Test
+    @DisplayName("Deve manter a primeira passada quando o engine lança erro no refinamento")
+    public void testShouldKeepFirstPassWhenRefinementThrows() throws Exception {
+        when(recognizer.recognize(any()))
+                .thenReturn(text(line("T0ta1 l5O,OO", 41f, 140)))
+                .thenThrow(new TesseractException("engine error"));
+
+        ProgressivePageOcr.PageResult result = pageOcr.ocrPage(document, renderer, 0);
+
+        assertFalse(result.failed());
+        assertEquals("T0ta1 l5O,OO\n", result.text());
+        assertEquals(41.0, result.confidence(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Deve recortar a região certa da linha em página inclinada corrigida pelo deskew")
+    public void testShouldRefineRegionOnSkewedPage() throws Exception {
+        // Faixas escuras simulando linhas de texto, giradas 4 graus em torno do centro da página;
+        // a do meio fica à direita, longe do centro, onde a inclinação mais desloca a linha
+        PDRectangle a4 = PDRectangle.A4;
+        float centerX = a4.getWidth() / 2;
+        float centerY = a4.getHeight() / 2;
+        try (PDDocument skewed = new PDDocument()) {
+            PDPage page = new PDPage(a4);
+            skewed.addPage(page);
+            try (PDPageContentStream content = new PDPageContentStream(skewed, page)) {
+                content.transform(Matrix.getRotateInstance(Math.toRadians(4), centerX, centerY));
+                content.transform(Matrix.getTranslateInstance(-centerX, -centerY));
+                for (int i = -4; i <= 4; i++) {
+                    content.addRect(centerX, centerY - 5 + i * 60, 260, 10);
+                }
+                content.fill();
+            }
+
+            OcrImagePreprocessor deskewing = new OcrImagePreprocessor(true, true, 0, true, 5, false, observability);
+            ProgressivePageOcr skewedOcr = new ProgressivePageOcr(recognizer, deskewing,
+                    new OcrMemoryBudget(256L * 1024 * 1024, 1000, observability), observability,
+                    true, 1.5f, 3.0f, 70f, 2);
+
+            List<BufferedImage> regions = new ArrayList<>();
+            when(recognizer.recognize(any())).thenAnswer(invocation -> {
+                BufferedImage image = invocation.getArgument(0);
+                if (regions.isEmpty() && image.getHeight() > 1000) {
+                    // Primeira passada: a faixa do meio, já desentortada, é a linha de baixa confiança
+                    regions.add(null);
+                    return text(new OcrTextRecognizer.RecognizedLine("T0ta1", 40f, middleBand(image)));
+                }
+                regions.add(image);
+                return text(line("Total", 90f, 0));
+            });
+
+            ProgressivePageOcr.PageResult result = skewedOcr.ocrPage(skewed, new PDFRenderer(skewed), 0);
+
+            assertEquals("Total\n", result.text());
+            assertEquals(2, regions.size());
+            // A faixa na escala alta tem 780x30 px: o recorte traz a faixa inteira e já desentortada
+            BufferedImage region = regions.get(1);
+            long dark = darkPixels(region);
+            assertTrue(dark > 780 * 30 * 0.9, "Região deve conter a linha inteira, pixels escuros: " + dark);
+            assertTrue(middleBand(region).height <= 36, "Linha deve sair na horizontal: " + middleBand(region));
+        }
+    }
+
+    /**
+     * Caixa dos pixels escuros da faixa mais próxima do centro vertical da imagem
+     */
+    private static Rectangle middleBand(BufferedImage image) {
+        Raster raster = image.getRaster();
+        int middle = image.getHeight() / 2;
+        int top = middle;
+        int bottom = middle;
+        while (top > 0 && rowHasDark(raster, top - 1)) {
+            top--;
+        }
+        while (bottom < image.getHeight() - 1 && rowHasDark(raster, bottom + 1)) {
+            bottom++;
+        }
+        int left = image.getWidth();
+        int right = 0;
+        for (int y = top; y <= bottom; y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                if (raster.getSample(x, y, 0) < 128) {
+                    left = Math.min(left, x);
+                    right = Math.max(right, x);
+                }
+            }
+        }
+        return new Rectangle(left, top, right - left + 1, bottom - top + 1);
+    }
+
+    private static boolean rowHasDark(Raster raster, int y) {
+        for (int x = 0; x < raster.getWidth(); x++) {
+            if (raster.getSample(x, y, 0) < 128) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long darkPixels(BufferedImage image) {
+        Raster raster = image.getRaster();
+        long dark = 0;
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                if (raster.getSample(x, y, 0) < 128) {
+                    dark++;
+                }
+            }
+        }
+        return dark;
+    }
+
+    private List<BufferedImage> captureImages(int expectedCalls) throws TesseractException {
+        ArgumentCaptor<BufferedImage> images = ArgumentCaptor.forClass(BufferedImage.class);
+        verify(recognizer, times(expectedCalls)).recognize(images.capture());
+        return images.getAllValues();
+    }
+
+    private static OcrTextRecognizer.RecognizedLine line(String text, float confidence, int y) {
+        return new OcrTextRecognizer.RecognizedLine(text, confidence, new Rectangle(80, y, 400, 24));
+    }
+
+    private static OcrTextRecognizer.RecognizedText text(OcrTextRecognizer.RecognizedLine... lines) {
+        return new OcrTextRecognizer.RecognizedText(List.of(lines));
+    }
+}
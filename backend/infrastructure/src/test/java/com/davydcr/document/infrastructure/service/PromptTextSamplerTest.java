@@ -0,0 +1,106 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.domain.model.ExtractedContent;
+import com.davydcr.document.domain.model.PageContent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para a amostragem do texto do prompt por orçamento de tokens
+ */
+@DisplayName("Prompt Text Sampler Tests")
+public class PromptTextSamplerTest {
+
+    private static String filler(String prefix, int lines) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            text.append(prefix).append(" paragrafo descritivo sem nada de especial numero ")
+                    .append((char) ('a' + i % 26)).append('\n');
+        }
+        return text.toString();
+    }
+
+    private static ExtractedContent document() {
+        List<PageContent> pages = new ArrayList<>();
+        pages.add(new PageContent(1, "ACME Comercio Ltda\nRua das Flores, 100\n" + filler("intro", 30), "pdfbox"));
+        pages.add(new PageContent(2, "ACME Comercio Ltda\n" + filler("meio", 20)
+                + "CONDIÇÕES DE PAGAMENTO\n" + filler("detalhe", 20)
+                + "Valor total: R$ 1.500,00\n" + filler("fim", 10), "pdfbox"));
+        pages.add(new PageContent(3, "ACME Comercio Ltda\n" + filler("anexo", 30)
+                + "Assinado em 12/03/2026 pelo responsavel", "pdfbox"));
+        String fullText = String.join("\n", pages.stream().map(PageContent::getText).toList());
+        return new ExtractedContent(fullText, 3, "pdfbox", pages);
+    }
+
+    @Test
+    @DisplayName("Deve respeitar o orçamento de tokens")
+    public void testShouldRespectTokenBudget() {
+        for (int budget : List.of(32, 96, 256)) {
+            PromptTextSampler.Sample sample = new PromptTextSampler(budget, 0.4, 0.2).sample(document());
+
+            assertTrue(sample.tokens() <= budget, "budget " + budget + ": " + sample.tokens());
+            assertTrue(PromptTextSampler.estimateTokens(sample.text()) <= budget * 1.5);
+            assertTrue(sample.sourceTokens() > budget);
+        }
+    }
+
+    @Test
+    @DisplayName("Deve escolher início, títulos, valores, datas e fim do documento")
+    public void testShouldPickHighInformationSegments() {
+        PromptTextSampler.Sample sample = new PromptTextSampler(128, 0.3, 0.1).sample(document());
+        String text = sample.text();
+
+        assertTrue(text.startsWith("ACME Comercio Ltda\nRua das Flores, 100"));
+        assertTrue(text.contains("CONDIÇÕES DE PAGAMENTO"));
+        assertTrue(text.contains("Valor total: R$ 1.500,00"));
+        assertTrue(text.endsWith("Assinado em 12/03/2026 pelo responsavel"));
+        assertTrue(text.contains("\n" + PromptTextSampler.GAP + "\n"));
+        assertFalse(text.contains("meio paragrafo"), "Texto sem sinal não deve ocupar o orçamento");
+        // Cabeçalho repetido em todas as páginas entra uma vez
+        assertEquals(text.indexOf("ACME Comercio Ltda"), text.lastIndexOf("ACME Comercio Ltda"));
+        // A ordem do documento é mantida
+        assertTrue(text.indexOf("CONDIÇÕES") < text.indexOf("Valor total"));
+    }
+
+    @Test
+    @DisplayName("Deve manter documento curto inteiro e em ordem")
+    public void testShouldKeepShortDocumentWhole() {
+        String text = "Recibo\nRecebi de Fulano a quantia de R$ 50,00\nSão Paulo, 1 de abril de 2026";
+
+        PromptTextSampler.Sample sample = new PromptTextSampler(192, 0.4, 0.2)
+                .sample(new ExtractedContent(text, 0, "text"));
+
+        assertEquals(text, sample.text());
+        assertEquals(sample.sourceTokens(), sample.tokens());
+    }
+
+    @Test
+    @DisplayName("Deve dividir texto sem quebras de linha em vez de descartá-lo")
+    public void testShouldSplitLongLines() {
+        String text = filler("linha", 40).replace('\n', ' ') + "Total a pagar R$ 99,90";
+
+        PromptTextSampler.Sample sample = new PromptTextSampler(64, 0.4, 0.2)
+                .sample(new ExtractedContent(text, 0, "text"));
+
+        assertTrue(sample.text().contains("R$ 99,90"), sample.text());
+        assertTrue(sample.tokens() <= 64);
+        assertTrue(PromptTextSampler.split(text, 48).size() > 1);
+    }
+
+    @Test
+    @DisplayName("Deve estimar tokens por palavras e sinais")
+    public void testShouldEstimateTokens() {
+        assertEquals(0, PromptTextSampler.estimateTokens(""));
+        assertEquals(1, PromptTextSampler.estimateTokens("nota"));
+        assertEquals(2, PromptTextSampler.estimateTokens("fiscal"));
+        assertEquals(7, PromptTextSampler.estimateTokens("R$ 1.500,00"));
+        assertEquals(3, PromptTextSampler.score("FATURA"));
+        assertEquals(2, PromptTextSampler.score("Vencimento em 2026-05-10"));
+        assertEquals(0, PromptTextSampler.score("texto comum sem valores"));
+    }
+}
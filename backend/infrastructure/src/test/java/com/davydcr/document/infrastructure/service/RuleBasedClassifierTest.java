@@ -0,0 +1,92 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para o classificador por regras e o autômato Aho-Corasick
+ */
+@DisplayName("Rule Based Classifier Tests")
+public class RuleBasedClassifierTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ObservabilityService observabilityService;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        observabilityService = new ObservabilityService(meterRegistry);
+    }
+
+    private RuleBasedClassifier classifier(String location) {
+        return new RuleBasedClassifier(new DefaultResourceLoader(), new ObjectMapper(), observabilityService, location);
+    }
+
+    @Test
+    @DisplayName("Deve encontrar termos ignorando caixa, acentos e quebras de linha, só em palavras inteiras")
+    public void testShouldMatchFoldedWholeWords() {
+        AhoCorasickMatcher matcher = AhoCorasickMatcher.build(List.of("nota fiscal", "fiscal", "clausula", "he", "she"));
+        String text = "NOTA\n  Fiscal; CLÁUSULA 2 — cláusulas; ushers she";
+        List<String> matches = new ArrayList<>();
+
+        matcher.scan(text, (pattern, start, end) -> matches.add(pattern + ":" + text.substring(start, end)));
+
+        assertEquals(List.of("0:NOTA\n  Fiscal", "1:Fiscal", "2:CLÁUSULA", "4:she"), matches);
+    }
+
+    @Test
+    @DisplayName("Deve pontuar todos os rótulos em uma passada com as regras padrão")
+    public void testShouldScoreLabelsWithDefaultRules() {
+        RuleBasedClassifier classifier = classifier("classpath:classification-rules.json");
+
+        RuleBasedClassifier.RuleResult invoice = classifier.classify(
+                "DANFE - Nota Fiscal Eletrônica\nFATURA 123 Vencimento 10/05 Valor total R$ 1.500,00");
+        RuleBasedClassifier.RuleResult contract = classifier.classify(
+                "CONTRATO DE LOCAÇÃO. Cláusula primeira: o CONTRATANTE e a CONTRATADA elegem o foro...");
+        RuleBasedClassifier.RuleResult unknown = classifier.classify("lorem ipsum dolor sit amet");
+
+        assertEquals("Invoice", invoice.label());
+        assertTrue(invoice.confidence() >= 90, "confidence=" + invoice.confidence());
+        assertEquals("Contract", contract.label());
+        assertFalse(unknown.matched());
+        assertEquals("Other", unknown.label());
+        assertEquals(50, unknown.confidence());
+    }
+
+    @Test
+    @DisplayName("Deve recarregar regras alteradas e manter as anteriores se a nova versão for inválida")
+    public void testShouldHotReloadRules() throws Exception {
+        Path rules = tempDir.resolve("rules.json");
+        Files.writeString(rules, "{\"minScore\": 1, \"labels\": {\"Invoice\": {\"boleto\": 2}}}");
+        RuleBasedClassifier classifier = classifier(rules.toUri().toString());
+        assertEquals("Other", classifier.classify("Pedido de compra").label());
+
+        Files.writeString(rules, "{\"minScore\": 1, \"labels\": {\"Invoice\": {\"boleto\": 2}, \"Order\": {\"pedido\": 2}}}");
+        Files.setLastModifiedTime(rules, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+        classifier.reloadIfChanged();
+        assertEquals("Order", classifier.classify("Pedido de compra").label());
+
+        Files.writeString(rules, "{\"labels\": {\"Order\": {\"pedido\": \"alto\"}}}");
+        Files.setLastModifiedTime(rules, FileTime.fromMillis(System.currentTimeMillis() + 10000));
+        classifier.reloadIfChanged();
+        assertEquals("Order", classifier.classify("Pedido de compra").label());
+        assertEquals(1.0, meterRegistry.counter("document.classification.rules.reloads", "result", "failure").count());
+    }
+}
@@ -0,0 +1,118 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para a coalescência de chamadas concorrentes
+ */
+@DisplayName("Single Flight Tests")
+public class SingleFlightTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlight<String, String> flight;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        flight = new SingleFlight<>("test", new ObservabilityService(meterRegistry));
+    }
+
+    @Test
+    @DisplayName("Deve executar uma vez para chamadas concorrentes com a mesma chave")
+    public void testShouldRunOnceForConcurrentCalls() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> flight.execute("doc", () -> {
+                executions.incrementAndGet();
+                leaderStarted.countDown();
+                await(release);
+                return "result";
+            })));
+            assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> flight.execute("doc", () -> {
+                    executions.incrementAndGet();
+                    return "duplicate";
+                })));
+            }
+            while (meterRegistry.counter("document.singleflight.calls",
+                    "operation", "test", "result", "coalesced").count() < 3) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("result", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, executions.get());
+            assertEquals(0, flight.getInFlightCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve propagar a falha do líder para as chamadas coalescidas")
+    public void testShouldShareFailure() {
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        CompletableFuture<String> leader = flight.executeAsync("doc", () -> pending);
+        CompletableFuture<String> follower = flight.executeAsync("doc", () -> CompletableFuture.completedFuture("x"));
+
+        pending.completeExceptionally(new IllegalStateException("ocr failed"));
+
+        assertTrue(leader.isCompletedExceptionally());
+        Exception error = assertThrows(Exception.class, follower::join);
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+        assertEquals(0, flight.getInFlightCount());
+    }
+
+    @Test
+    @DisplayName("Não deve afetar as demais chamadas quando uma cancela seu future")
+    public void testShouldIsolateCancellation() {
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        CompletableFuture<String> first = flight.executeAsync("doc", () -> pending);
+        CompletableFuture<String> second = flight.executeAsync("doc", () -> pending);
+
+        first.cancel(true);
+        pending.complete("done");
+
+        assertEquals("done", second.join());
+    }
+
+    @Test
+    @DisplayName("Deve executar novamente depois que a chamada anterior terminou")
+    public void testShouldRunAgainAfterCompletion() {
+        assertEquals("a", flight.execute("doc", () -> "a"));
+        assertEquals("b", flight.execute("doc", () -> "b"));
+        assertEquals(2.0, meterRegistry.counter("document.singleflight.calls",
+                "operation", "test", "result", "leader").count());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para o pool de engines Tesseract
+ */
+@DisplayName("Tesseract Engine Pool Tests")
+public class TesseractEnginePoolTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TesseractEnginePool pool;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        pool = new TesseractEnginePool(2, 50, "", "por+eng", new ObservabilityService(meterRegistry));
+    }
+
+    @Test
+    @DisplayName("Deve emprestar engines distintos e devolvê-los ao fechar o lease")
+    public void testShouldLeaseDistinctEnginesAndReturnThem() {
+        try (TesseractEnginePool.Lease first = pool.acquire();
+             TesseractEnginePool.Lease second = pool.acquire()) {
+            assertNotSame(first.engine(), second.engine(), "Cada thread deve receber um engine exclusivo");
+            assertEquals(2, pool.getInUseCount());
+        }
+
+        assertEquals(0, pool.getInUseCount());
+    }
+
+    @Test
+    @DisplayName("Deve falhar após o timeout quando todos os engines estão em uso")
+    public void testShouldTimeoutWhenPoolExhausted() {
+        try (TesseractEnginePool.Lease first = pool.acquire();
+             TesseractEnginePool.Lease second = pool.acquire()) {
+            assertThrows(IllegalStateException.class, pool::acquire);
+        }
+
+        assertEquals(1.0, meterRegistry.counter("document.ocr.engine.wait.timeouts").count());
+    }
+
+    @Test
+    @DisplayName("Deve ignorar fechamento duplicado do lease")
+    public void testShouldIgnoreDoubleClose() {
+        TesseractEnginePool.Lease lease = pool.acquire();
+        lease.close();
+        lease.close();
+
+        assertEquals(0, pool.getInUseCount());
+        assertThrows(IllegalStateException.class, lease::engine);
+    }
+
+    @Test
+    @DisplayName("Deve expor gauges de utilização do pool")
+    public void testShouldExposeUtilizationGauges() {
+        try (TesseractEnginePool.Lease lease = pool.acquire()) {
+            assertEquals(2.0, meterRegistry.get("document.ocr.engine.pool.size").gauge().value());
+            assertEquals(0.5, meterRegistry.get("document.ocr.engine.pool.utilization").gauge().value());
+        }
+    }
+}
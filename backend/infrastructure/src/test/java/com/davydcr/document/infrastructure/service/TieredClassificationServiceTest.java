@@ -0,0 +1,226 @@
+package com.davydcr.document.infrastructure.service;
+
+import com.davydcr.document.application.port.ClassificationService;
+import com.davydcr.document.domain.model.ClassificationLabel;
+import com.davydcr.document.domain.model.Confidence;
+import com.davydcr.document.domain.model.DocumentClassification;
+import com.davydcr.document.domain.model.ExtractedContent;
+import com.davydcr.document.infrastructure.observability.ObservabilityService;
+import com.davydcr.document.infrastructure.persistence.DocumentJpaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes para a classificação em dois níveis (caminho rápido + LLM) e o treino do modelo
+ */
+@DisplayName("Tiered Classification Service Tests")
+public class TieredClassificationServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ObservabilityService observabilityService;
+    private DocumentJpaRepository documentRepository;
+    private ClassificationService llm;
+    private EmbeddingClassificationService embedding;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        observabilityService = new ObservabilityService(meterRegistry);
+        documentRepository = mock(DocumentJpaRepository.class);
+        llm = mock(ClassificationService.class);
+        when(llm.getModelName()).thenReturn("ollama-mistral");
+        when(llm.isAvailable()).thenReturn(true);
+        when(llm.classifyAsync(any())).thenReturn(CompletableFuture.completedFuture(
+                new DocumentClassification(ClassificationLabel.of("Invoice"), Confidence.of(95), "ollama-mistral")));
+    }
+
+    private StatisticalClassifierTrainer trainer(int minSamplesPerLabel) {
+        List<DocumentJpaRepository.LabeledText> rows = NaiveBayesTextClassifierTest.corpus(30, 1L).stream()
+                .map(sample -> (DocumentJpaRepository.LabeledText) new DocumentJpaRepository.LabeledText() {
+                    @Override
+                    public String getExtractedText() {
+                        return sample.text();
+                    }
+
+                    @Override
+                    public String getClassificationLabel() {
+                        return sample.label();
+                    }
+                })
+                .toList();
+        when(documentRepository.findLabeledTexts(eq("ollama-mistral"), anyInt(), any())).thenReturn(rows);
+        return new StatisticalClassifierTrainer(documentRepository, llm, observabilityService,
+                true, 14, 4000, 5000, minSamplesPerLabel, 70, 90, 0.2);
+    }
+
+    private TieredClassificationService service(StatisticalClassifierTrainer trainer, double shadowSampleRate) {
+        return service(trainer, shadowSampleRate, false);
+    }
+
+    private TieredClassificationService service(StatisticalClassifierTrainer trainer, double shadowSampleRate,
+                                                boolean rulesPrefilter) {
+        RuleBasedClassifier rules = new RuleBasedClassifier(new DefaultResourceLoader(), new ObjectMapper(),
+                observabilityService, "classpath:classification-rules.json");
+        return new TieredClassificationService(llm, trainer, rules, Optional.ofNullable(embedding), observabilityService,
+                true, 90, shadowSampleRate, rulesPrefilter, 90, 85);
+    }
+
+    @Test
+    @DisplayName("Deve treinar com rótulos do LLM e reportar o desempenho na validação")
+    public void testShouldTrainAndReportHoldout() {
+        StatisticalClassifierTrainer trainer = trainer(20);
+
+        StatisticalClassifierTrainer.TrainingReport report = trainer.retrain().orElseThrow();
+
+        assertEquals(90, report.trainingSamples());
+        assertEquals(3, report.labels());
+        assertEquals(18, report.holdoutSamples());
+        assertEquals(1.0, report.holdoutAccuracy());
+        assertTrue(trainer.currentModel().isPresent());
+        assertEquals(90.0, meterRegistry.get("document.classification.fastpath.model.training_samples").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Não deve publicar modelo sem amostras suficientes por rótulo")
+    public void testShouldNotTrainWithoutEnoughSamples() {
+        StatisticalClassifierTrainer trainer = trainer(31);
+
+        assertTrue(trainer.retrain().isEmpty());
+        assertTrue(trainer.currentModel().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve responder pelo caminho rápido sem chamar o LLM quando confiante")
+    public void testShouldAnswerFromFastPath() {
+        StatisticalClassifierTrainer trainer = trainer(20);
+        trainer.retrain();
+
+        DocumentClassification result = service(trainer, 0.0).classify(
+                "RECIBO\nRecebi de Initech a importância de R$ 300,00 referente ao pagamento. Dou plena quitação.");
+
+        assertEquals("Receipt", result.getLabel().getValue());
+        assertEquals(TieredClassificationService.FAST_PATH_MODEL, result.getModel());
+        verify(llm, never()).classifyAsync(any());
+        assertEquals(1.0, meterRegistry.counter("document.classification.fastpath.decisions",
+                "decision", "accepted").count());
+    }
+
+    @Test
+    @DisplayName("Deve escalar para o LLM e registrar a concordância quando incerto")
+    public void testShouldEscalateWhenUncertain() {
+        StatisticalClassifierTrainer trainer = trainer(20);
+        trainer.retrain();
+
+        DocumentClassification result = service(trainer, 0.0).classify("lorem ipsum dolor sit amet");
+
+        assertEquals("ollama-mistral", result.getModel());
+        verify(llm).classifyAsync(any(ExtractedContent.class));
+        assertEquals(1.0, meterRegistry.counter("document.classification.fastpath.decisions",
+                "decision", "escalated").count());
+        assertEquals(1.0, meterRegistry.find("document.classification.fastpath.agreement")
+                .tag("source", "escalated").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve comparar com o LLM a amostra shadow das previsões aceitas")
+    public void testShouldShadowSampleAcceptedPredictions() {
+        StatisticalClassifierTrainer trainer = trainer(20);
+        trainer.retrain();
+
+        DocumentClassification result = service(trainer, 1.0).classify(
+                "NOTA FISCAL DE SERVIÇOS Nº 4321 Prestador: ACME Ltda Valor total R$ 100,00 ISS retido fatura");
+
+        assertEquals("Invoice", result.getLabel().getValue());
+        assertEquals(1.0, meterRegistry.counter("document.classification.fastpath.agreement",
+                "source", "shadow", "result", "agree").count());
+        assertEquals(1.0, meterRegistry.get("document.classification.fastpath.agreement_ratio").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Deve responder pelas regras quando a evidência é forte")
+    public void testShouldAnswerFromRulesPrefilter() {
+        DocumentClassification result = service(trainer(20), 0.0, true).classify(
+                "NOTA FISCAL ELETRÔNICA NF-e DANFE\nFatura nº 123, vencimento 10/05, valor total R$ 100,00, ICMS");
+
+        assertEquals("Invoice", result.getLabel().getValue());
+        assertEquals(TieredClassificationService.RULES_MODEL, result.getModel());
+        verify(llm, never()).classifyAsync(any());
+        assertEquals(1.0, meterRegistry.counter("document.classification.fastpath.decisions",
+                "decision", "rules").count());
+    }
+
+    @Test
+    @DisplayName("Deve delegar ao LLM enquanto não houver modelo treinado")
+    public void testShouldDelegateWithoutModel() {
+        DocumentClassification result = service(trainer(20), 0.0).classify("NOTA FISCAL");
+
+        assertEquals("ollama-mistral", result.getModel());
+        assertEquals(1.0, meterRegistry.counter("document.classification.fastpath.decisions",
+                "decision", "no_model").count());
+    }
+
+    @Test
+    @DisplayName("Deve usar as regras sem chamar o LLM enquanto ele estiver fora do ar")
+    public void testShouldFallBackToRulesWhileLlmIsDown() {
+        when(llm.isAvailable()).thenReturn(false);
+
+        DocumentClassification result = service(trainer(20), 1.0).classify("Contrato de prestação de serviços");
+
+        assertEquals(TieredClassificationService.RULES_MODEL, result.getModel());
+        verify(llm, never()).classifyAsync(any());
+        assertEquals(1.0, meterRegistry.counter("document.classification.fastpath.decisions",
+                "decision", "llm_down").count());
+    }
+
+    @Test
+    @DisplayName("Deve usar as regras quando o LLM recusa a chamada por saturação")
+    public void testShouldFallBackToRulesWhenLlmIsSaturated() {
+        when(llm.classifyAsync(any())).thenReturn(CompletableFuture.failedFuture(
+                new RejectedExecutionException("LLM backend is saturated")));
+
+        DocumentClassification result = service(trainer(20), 0.0).classify("Contrato de prestação de serviços");
+
+        assertEquals(TieredClassificationService.RULES_MODEL, result.getModel());
+        assertEquals(1.0, meterRegistry.counter("document.classification.fastpath.decisions",
+                "decision", "llm_busy").count());
+    }
+
+    @Test
+    @DisplayName("Deve aceitar o nível de embeddings antes do LLM quando confiante")
+    public void testShouldAcceptEmbeddingTierBeforeLlm() {
+        embedding = mock(EmbeddingClassificationService.class);
+        when(embedding.isAvailable()).thenReturn(true);
+        when(embedding.classifyAsync(any()))
+                .thenReturn(CompletableFuture.completedFuture(new DocumentClassification(
+                        ClassificationLabel.of("Contract"), Confidence.of(92), "embedding-hashing-512")))
+                .thenReturn(CompletableFuture.completedFuture(new DocumentClassification(
+                        ClassificationLabel.of("Contract"), Confidence.of(60), "embedding-hashing-512")));
+        TieredClassificationService service = service(trainer(20), 0.0);
+
+        DocumentClassification confident = service.classify("Contrato de prestação de serviços");
+        DocumentClassification uncertain = service.classify("Contrato de prestação de serviços");
+
+        assertEquals("embedding-hashing-512", confident.getModel());
+        assertEquals("ollama-mistral", uncertain.getModel());
+        verify(llm, times(1)).classifyAsync(any());
+        assertEquals(1.0, meterRegistry.counter("document.classification.fastpath.decisions",
+                "decision", "embedding").count());
+        assertEquals(1.0, meterRegistry.counter("document.classification.fastpath.decisions",
+                "decision", "no_model").count());
+    }
+}
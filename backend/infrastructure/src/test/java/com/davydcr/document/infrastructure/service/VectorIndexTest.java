@@ -0,0 +1,76 @@
+package com.davydcr.document.infrastructure.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes para o índice vetorial em memória (vizinhos e protótipos por rótulo)
+ */
+@DisplayName("Vector Index Tests")
+public class VectorIndexTest {
+
+    private static VectorIndex index() {
+        VectorIndex index = new VectorIndex(3, 1);
+        index.add("a1", "A", new float[]{1f, 0f, 0f});
+        index.add("a2", "A", new float[]{2f, 0.2f, 0f});
+        index.add("a3", "A", new float[]{0.9f, 0f, 0.1f});
+        index.add("b1", "B", new float[]{0f, 1f, 0f});
+        index.add("b2", "B", new float[]{0.1f, 3f, 0f});
+        index.add("c1", "C", new float[]{0f, 0f, 1f});
+        return index;
+    }
+
+    @Test
+    @DisplayName("Deve retornar os vizinhos mais similares em ordem, sem o excluído")
+    public void testShouldFindNearestNeighbors() {
+        VectorIndex index = index();
+
+        List<VectorIndex.Neighbor> neighbors = index.nearest(new float[]{5f, 0f, 0f}, 3, "a1");
+
+        assertEquals(List.of("a2", "a3", "b2"), neighbors.stream().map(VectorIndex.Neighbor::id).toList());
+        assertEquals("A", neighbors.get(0).label());
+        assertTrue(neighbors.get(0).similarity() > 0.99);
+        assertTrue(neighbors.get(0).similarity() >= neighbors.get(1).similarity());
+        assertEquals(6, index.size());
+        assertEquals(0, index.nearest(new float[]{1f, 0f, 0f}, 0, null).size());
+    }
+
+    @Test
+    @DisplayName("Deve substituir o vetor de um id já indexado")
+    public void testShouldReplaceExistingVector() {
+        VectorIndex index = index();
+
+        index.add("c1", "A", new float[]{1f, 0f, 0f});
+
+        assertEquals(6, index.size());
+        assertArrayEquals(new float[]{1f, 0f, 0f}, index.vector("c1").orElseThrow(), 1e-6f);
+        assertTrue(index.vector("x").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve calcular protótipos apenas para rótulos com amostras suficientes")
+    public void testShouldBuildPrototypes() {
+        VectorIndex.Prototypes prototypes = index().prototypes(2);
+
+        assertEquals(List.of("A", "B"), prototypes.getLabels());
+        assertEquals(3, prototypes.getSamples(0));
+        double[] similarities = prototypes.similarities(new float[]{0f, 2f, 0f});
+        assertTrue(similarities[1] > 0.99);
+        assertTrue(similarities[0] < 0.2);
+        assertTrue(index().prototypes(10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar vetores de outra dimensão")
+    public void testShouldRejectWrongDimension() {
+        VectorIndex index = index();
+
+        assertThrows(IllegalArgumentException.class, () -> index.add("x", "A", new float[]{1f, 0f}));
+        assertThrows(IllegalArgumentException.class, () -> index.nearest(new float[4], 1, null));
+        assertThrows(IllegalArgumentException.class, () -> index.prototypes(1).similarities(new float[2]));
+    }
+}